@@ -48,6 +48,12 @@ repositories {
     }
 }
 
+// Benchmarks, they see the same classpath as the tests
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output + configurations.testCompileClasspath.get()
+    runtimeClasspath += sourceSets.main.get().output + configurations.testRuntimeClasspath.get()
+}
+
 val modInclude: Configuration by configurations.creating
 val jij: Configuration by configurations.creating
 
@@ -91,6 +97,9 @@ dependencies {
     modCompileOnly(libs.baritone)
     modCompileOnly(libs.modmenu)
 
+    // Writes the @PreInit and @PostInit index read by ReflectInit
+    annotationProcessor(project(":processor"))
+
     // Libraries (JAR-in-JAR)
     jij(libs.orbit)
     jij(libs.starscript)
@@ -99,6 +108,14 @@ dependencies {
     jij(libs.netty.handler.proxy) { isTransitive = false }
     jij(libs.netty.codec.socks) { isTransitive = false }
     jij(libs.waybackauthlib)
+
+    // Tests
+    testImplementation(libs.junit.jupiter)
+    testRuntimeOnly(libs.junit.platform.launcher)
+
+    // Benchmarks
+    "jmhImplementation"(libs.jmh.core)
+    "jmhAnnotationProcessor"(libs.jmh.generator)
 }
 
 // Handle transitive dependencies for jar-in-jar
@@ -192,6 +209,26 @@ tasks {
         options.compilerArgs.add("-Xlint:unchecked")
     }
 
+    compileJava {
+        // Name of the init index written by the processor, has to match MeteorAddon#getPackage()
+        options.compilerArgs.add("-Ameteor.package=meteordevelopment.meteorclient")
+    }
+
+    test {
+        useJUnitPlatform()
+    }
+
+    // ./gradlew jmh -Pjmh_includes=BlockIterator runs the benchmarks matching the regex
+    register<JavaExec>("jmh") {
+        group = "verification"
+        description = "Runs the JMH benchmarks."
+
+        classpath = jmh.runtimeClasspath
+        mainClass = "org.openjdk.jmh.Main"
+
+        project.findProperty("jmh_includes")?.let { args(it.toString()) }
+    }
+
     javadoc {
         with(options as StandardJavadocDocletOptions) {
             addStringOption("Xdoclint:none", "-quiet")
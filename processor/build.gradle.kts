@@ -0,0 +1,26 @@
+plugins {
+    id("java")
+}
+
+group = "meteordevelopment"
+version = "0.1.0"
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    // Tests
+    testImplementation(libs.junit.jupiter)
+    testRuntimeOnly(libs.junit.platform.launcher)
+}
+
+tasks {
+    withType<JavaCompile> {
+        options.release = 21
+    }
+
+    test {
+        useJUnitPlatform()
+    }
+}
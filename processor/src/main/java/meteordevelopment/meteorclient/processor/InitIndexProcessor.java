@@ -0,0 +1,161 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.processor;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Writes the {@code @PreInit} and {@code @PostInit} methods of a compilation to
+ * {@code META-INF/meteor-init/<package>.txt}, already in the order they have to run in, so ReflectInit doesn't have to
+ * scan the classpath for them. Each line is the annotation name, the binary class name and the method name.
+ * <p>
+ * The package is the {@code meteor.package} option if set, otherwise the common package of the annotated classes. It
+ * has to match {@code MeteorAddon#getPackage()} for the index to be used.
+ */
+@SupportedAnnotationTypes({InitIndexProcessor.PRE_INIT, InitIndexProcessor.POST_INIT})
+@SupportedOptions(InitIndexProcessor.PACKAGE_OPTION)
+public class InitIndexProcessor extends AbstractProcessor {
+    static final String PRE_INIT = "meteordevelopment.meteorclient.utils.PreInit";
+    static final String POST_INIT = "meteordevelopment.meteorclient.utils.PostInit";
+    static final String PACKAGE_OPTION = "meteor.package";
+
+    private static final String DIRECTORY = "META-INF/meteor-init/";
+
+    // Annotation -> tasks, both in the order they were found in
+    private final Map<String, List<Task>> tasks = new LinkedHashMap<>();
+    private final Set<String> packages = new HashSet<>();
+    private final List<Element> originatingElements = new ArrayList<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (String name : List.of(PRE_INIT, POST_INIT)) {
+            TypeElement annotation = processingEnv.getElementUtils().getTypeElement(name);
+            if (annotation == null) continue;
+
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                collect(annotation, (ExecutableElement) element);
+            }
+        }
+
+        if (roundEnv.processingOver() && !tasks.isEmpty()) write();
+
+        return false;
+    }
+
+    private void collect(TypeElement annotation, ExecutableElement method) {
+        if (!method.getModifiers().contains(Modifier.STATIC) || !method.getParameters().isEmpty()) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "@%s methods have to be static and take no parameters.".formatted(annotation.getSimpleName()), method);
+            return;
+        }
+
+        TypeElement owner = (TypeElement) method.getEnclosingElement();
+        List<String> dependencies = new ArrayList<>();
+
+        for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+            if (!mirror.getAnnotationType().asElement().equals(annotation)) continue;
+
+            mirror.getElementValues().forEach((key, value) -> {
+                if (!key.getSimpleName().contentEquals("dependencies")) return;
+
+                for (Object dependency : (List<?>) value.getValue()) {
+                    TypeMirror type = (TypeMirror) ((AnnotationValue) dependency).getValue();
+                    if (type instanceof DeclaredType declared) dependencies.add(binaryName((TypeElement) declared.asElement()));
+                }
+            });
+        }
+
+        tasks.computeIfAbsent(annotation.getSimpleName().toString(), k -> new ArrayList<>())
+            .add(new Task(binaryName(owner), method.getSimpleName().toString(), dependencies));
+
+        packages.add(processingEnv.getElementUtils().getPackageOf(owner).getQualifiedName().toString());
+        originatingElements.add(owner);
+    }
+
+    private void write() {
+        String pkg = processingEnv.getOptions().getOrDefault(PACKAGE_OPTION, commonPackage());
+        if (pkg.isEmpty()) return;
+
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", DIRECTORY + pkg + ".txt", originatingElements.toArray(Element[]::new));
+
+            try (Writer writer = file.openWriter()) {
+                for (Map.Entry<String, List<Task>> entry : tasks.entrySet()) {
+                    for (Task task : sort(entry.getValue())) {
+                        writer.write(entry.getKey() + " " + task.owner + " " + task.method + "\n");
+                    }
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write init index: " + e);
+        }
+    }
+
+    /** Orders the tasks so the ones of dependency classes come first, the same way ReflectInit does at runtime. */
+    private static List<Task> sort(List<Task> tasks) {
+        Map<String, List<Task>> byClass = new HashMap<>();
+        for (Task task : tasks) byClass.computeIfAbsent(task.owner, k -> new ArrayList<>()).add(task);
+
+        List<Task> sorted = new ArrayList<>(tasks.size());
+        Set<Task> visited = new HashSet<>();
+
+        for (Task task : tasks) visit(task, byClass, visited, sorted);
+
+        return sorted;
+    }
+
+    private static void visit(Task task, Map<String, List<Task>> byClass, Set<Task> visited, List<Task> sorted) {
+        // Marked before the dependencies so cycles don't recurse forever
+        if (!visited.add(task)) return;
+
+        for (String dependency : task.dependencies) {
+            for (Task t : byClass.getOrDefault(dependency, List.of())) visit(t, byClass, visited, sorted);
+        }
+
+        sorted.add(task);
+    }
+
+    private String commonPackage() {
+        String[] common = null;
+        int length = 0;
+
+        for (String pkg : packages) {
+            String[] parts = pkg.split("\\.");
+
+            if (common == null) {
+                common = parts;
+                length = parts.length;
+                continue;
+            }
+
+            int i = 0;
+            while (i < length && i < parts.length && common[i].equals(parts[i])) i++;
+            length = i;
+        }
+
+        return common == null ? "" : String.join(".", Arrays.copyOf(common, length));
+    }
+
+    private String binaryName(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+
+    private record Task(String owner, String method, List<String> dependencies) {}
+}
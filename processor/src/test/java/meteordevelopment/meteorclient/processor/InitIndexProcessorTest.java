@@ -0,0 +1,196 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Compiles small sample addons with the processor and checks the index it writes. */
+class InitIndexProcessorTest {
+    private static final String PRE_INIT = """
+        package meteordevelopment.meteorclient.utils;
+
+        public @interface PreInit {
+            Class<?>[] dependencies() default { };
+        }
+        """;
+
+    private static final String POST_INIT = """
+        package meteordevelopment.meteorclient.utils;
+
+        public @interface PostInit {
+            Class<?>[] dependencies() default { };
+        }
+        """;
+
+    @TempDir
+    Path dir;
+
+    private final List<Diagnostic<? extends JavaFileObject>> errors = new ArrayList<>();
+
+    @Test
+    void dependenciesRunFirst() throws IOException {
+        assertTrue(compile(List.of(),
+            source("com.example.addon.Modules", """
+                package com.example.addon;
+
+                import com.example.addon.settings.Settings;
+                import meteordevelopment.meteorclient.utils.PreInit;
+
+                public class Modules {
+                    @PreInit(dependencies = Settings.class)
+                    public static void init() {}
+                }
+                """),
+            source("com.example.addon.settings.Settings", """
+                package com.example.addon.settings;
+
+                import meteordevelopment.meteorclient.utils.PreInit;
+
+                public class Settings {
+                    @PreInit
+                    public static void init() {}
+                }
+                """)
+        ), errors.toString());
+
+        assertEquals(List.of(
+            "PreInit com.example.addon.settings.Settings init",
+            "PreInit com.example.addon.Modules init"
+        ), index("com.example.addon"));
+    }
+
+    @Test
+    void preAndPostInit() throws IOException {
+        assertTrue(compile(List.of(),
+            source("com.example.addon.Addon", """
+                package com.example.addon;
+
+                import meteordevelopment.meteorclient.utils.PostInit;
+                import meteordevelopment.meteorclient.utils.PreInit;
+
+                public class Addon {
+                    @PreInit
+                    public static void load() {}
+
+                    @PostInit
+                    public static void ready() {}
+
+                    public static class Inner {
+                        @PostInit
+                        public static void ready() {}
+                    }
+                }
+                """)
+        ), errors.toString());
+
+        List<String> index = index("com.example.addon");
+
+        assertEquals(3, index.size());
+        assertEquals("PreInit com.example.addon.Addon load", index.getFirst());
+        assertTrue(index.contains("PostInit com.example.addon.Addon ready"));
+        assertTrue(index.contains("PostInit com.example.addon.Addon$Inner ready"), "Nested classes need their binary name.");
+    }
+
+    @Test
+    void packageOption() throws IOException {
+        assertTrue(compile(List.of("-Ameteor.package=com.example"),
+            source("com.example.addon.Addon", """
+                package com.example.addon;
+
+                import meteordevelopment.meteorclient.utils.PreInit;
+
+                public class Addon {
+                    @PreInit
+                    public static void init() {}
+                }
+                """)
+        ), errors.toString());
+
+        assertEquals(List.of("PreInit com.example.addon.Addon init"), index("com.example"));
+        assertFalse(Files.exists(indexFile("com.example.addon")));
+    }
+
+    @Test
+    void nonStaticMethodsAreAnError() throws IOException {
+        assertFalse(compile(List.of(),
+            source("com.example.addon.Addon", """
+                package com.example.addon;
+
+                import meteordevelopment.meteorclient.utils.PreInit;
+
+                public class Addon {
+                    @PreInit
+                    public void init() {}
+                }
+                """)
+        ));
+
+        assertEquals(1, errors.size());
+        assertTrue(errors.getFirst().getMessage(Locale.ROOT).contains("have to be static"));
+    }
+
+    @Test
+    void noTasksNoIndex() throws IOException {
+        assertTrue(compile(List.of(),
+            source("com.example.addon.Addon", """
+                package com.example.addon;
+
+                public class Addon {}
+                """)
+        ), errors.toString());
+
+        assertFalse(Files.exists(dir.resolve("out/META-INF/meteor-init")));
+    }
+
+    private boolean compile(List<String> options, JavaFileObject... sources) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Path out = Files.createDirectories(dir.resolve("out"));
+
+        List<JavaFileObject> units = new ArrayList<>(List.of(sources));
+        units.add(source("meteordevelopment.meteorclient.utils.PreInit", PRE_INIT));
+        units.add(source("meteordevelopment.meteorclient.utils.PostInit", POST_INIT));
+
+        List<String> args = new ArrayList<>(options);
+        args.addAll(List.of("-d", out.toString(), "-proc:only"));
+
+        DiagnosticListener<JavaFileObject> listener = diagnostic -> {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) errors.add(diagnostic);
+        };
+
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, listener, args, null, units);
+        task.setProcessors(List.of(new InitIndexProcessor()));
+
+        return task.call();
+    }
+
+    private List<String> index(String pkg) throws IOException {
+        return Files.readAllLines(indexFile(pkg));
+    }
+
+    private Path indexFile(String pkg) {
+        return dir.resolve("out/META-INF/meteor-init/" + pkg + ".txt");
+    }
+
+    private static JavaFileObject source(String name, String code) {
+        return new SimpleJavaFileObject(java.net.URI.create("string:///" + name.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+}
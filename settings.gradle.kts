@@ -12,3 +12,4 @@ pluginManagement {
 rootProject.name = "meteor-client"
 
 include("launch")
+include("processor")
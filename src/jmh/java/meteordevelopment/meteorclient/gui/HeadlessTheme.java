@@ -0,0 +1,217 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.gui;
+
+import meteordevelopment.meteorclient.gui.renderer.packer.GuiTexture;
+import meteordevelopment.meteorclient.gui.utils.CharFilter;
+import meteordevelopment.meteorclient.gui.widgets.*;
+import meteordevelopment.meteorclient.gui.widgets.containers.*;
+import meteordevelopment.meteorclient.gui.widgets.input.*;
+import meteordevelopment.meteorclient.gui.widgets.pressable.*;
+import meteordevelopment.meteorclient.renderer.text.TextRenderer;
+import meteordevelopment.meteorclient.systems.accounts.Account;
+import meteordevelopment.meteorclient.systems.modules.Module;
+import meteordevelopment.meteorclient.utils.render.color.Color;
+
+/**
+ * Theme for laying out widgets without a window, it has no widgets, colors or text renderer of its own and a scale of
+ * one. Only widgets that size themselves without the theme can be used with it.
+ */
+public class HeadlessTheme extends GuiTheme {
+    public HeadlessTheme() {
+        super("Headless");
+    }
+
+    @Override
+    public WWindow window(WWidget icon, String title) {
+        return null;
+    }
+
+    @Override
+    public WLabel label(String text, boolean title, double maxWidth) {
+        return null;
+    }
+
+    @Override
+    public WHorizontalSeparator horizontalSeparator(String text) {
+        return null;
+    }
+
+    @Override
+    public WVerticalSeparator verticalSeparator() {
+        return null;
+    }
+
+    @Override
+    protected WButton button(String text, GuiTexture texture) {
+        return null;
+    }
+
+    @Override
+    protected WConfirmedButton confirmedButton(String text, String confirmText, GuiTexture texture) {
+        return null;
+    }
+
+    @Override
+    public WMinus minus() {
+        return null;
+    }
+
+    @Override
+    public WConfirmedMinus confirmedMinus() {
+        return null;
+    }
+
+    @Override
+    public WPlus plus() {
+        return null;
+    }
+
+    @Override
+    public WCheckbox checkbox(boolean checked) {
+        return null;
+    }
+
+    @Override
+    public WSlider slider(double value, double min, double max) {
+        return null;
+    }
+
+    @Override
+    public WTextBox textBox(String text, String placeholder, CharFilter filter, Class<? extends WTextBox.Renderer> renderer) {
+        return null;
+    }
+
+    @Override
+    public <T> WDropdown<T> dropdown(T[] values, T value) {
+        return null;
+    }
+
+    @Override
+    public WTriangle triangle() {
+        return null;
+    }
+
+    @Override
+    public WTooltip tooltip(String text) {
+        return null;
+    }
+
+    @Override
+    public WView view() {
+        return null;
+    }
+
+    @Override
+    public WSection section(String title, boolean expanded, WWidget headerWidget) {
+        return null;
+    }
+
+    @Override
+    public WAccount account(WidgetScreen screen, Account<?> account) {
+        return null;
+    }
+
+    @Override
+    public WWidget module(Module module) {
+        return null;
+    }
+
+    @Override
+    public WQuad quad(Color color) {
+        return null;
+    }
+
+    @Override
+    public WTopBar topBar() {
+        return null;
+    }
+
+    @Override
+    public WFavorite favorite(boolean checked) {
+        return null;
+    }
+
+    @Override
+    public Color textColor() {
+        return null;
+    }
+
+    @Override
+    public Color textSecondaryColor() {
+        return null;
+    }
+
+    @Override
+    public Color starscriptTextColor() {
+        return null;
+    }
+
+    @Override
+    public Color starscriptBraceColor() {
+        return null;
+    }
+
+    @Override
+    public Color starscriptParenthesisColor() {
+        return null;
+    }
+
+    @Override
+    public Color starscriptDotColor() {
+        return null;
+    }
+
+    @Override
+    public Color starscriptCommaColor() {
+        return null;
+    }
+
+    @Override
+    public Color starscriptOperatorColor() {
+        return null;
+    }
+
+    @Override
+    public Color starscriptStringColor() {
+        return null;
+    }
+
+    @Override
+    public Color starscriptNumberColor() {
+        return null;
+    }
+
+    @Override
+    public Color starscriptKeywordColor() {
+        return null;
+    }
+
+    @Override
+    public Color starscriptAccessedObjectColor() {
+        return null;
+    }
+
+    @Override
+    public TextRenderer textRenderer() {
+        return null;
+    }
+
+    @Override
+    public double scale(double value) {
+        return value;
+    }
+
+    @Override
+    public boolean categoryIcons() {
+        return false;
+    }
+
+    @Override
+    public boolean hideHUD() {
+        return false;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.gui.screens.settings.base;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filters a synthetic registry about the size of the item registry, once by scoring every name like the settings
+ * screens did before the index and once through {@link SortingHelper.Index}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortingHelperBenchmark {
+    private static final String[] WORDS = {
+        "oak", "spruce", "birch", "dark", "stone", "cobbled", "deepslate", "brick", "bricks", "slab", "stairs", "wall",
+        "copper", "waxed", "oxidized", "cut", "diamond", "iron", "gold", "ore", "block", "glass", "pane", "stained",
+        "red", "light", "blue", "sword", "pickaxe", "chest", "minecart", "with", "netherite", "helmet", "boots"
+    };
+
+    // What gets typed one key at a time, the last one is a typo only the fuzzy match finds
+    @Param({ "d", "dia", "diamond sword", "dimond" })
+    public String filter;
+
+    private List<String[]> registry;
+    private SortingHelper.Index<String[]> index;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        Set<String> seen = new HashSet<>();
+        registry = new ArrayList<>();
+
+        while (registry.size() < 1500) {
+            int words = 1 + random.nextInt(4);
+            StringJoiner id = new StringJoiner("_");
+            StringJoiner title = new StringJoiner(" ");
+
+            for (int i = 0; i < words; i++) {
+                String word = WORDS[random.nextInt(WORDS.length)];
+
+                id.add(word);
+                title.add(Character.toUpperCase(word.charAt(0)) + word.substring(1));
+            }
+
+            if (seen.add(id.toString())) registry.add(new String[] { title.toString(), id.toString() });
+        }
+
+        index = SortingHelper.index(registry, names -> names);
+    }
+
+    @Benchmark
+    public void fullScan(Blackhole blackhole) {
+        SortingHelper.sort(registry, names -> true, names -> names, filter).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void index(Blackhole blackhole) {
+        SortingHelper.sort(index, names -> true, filter).forEach(blackhole::consume);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.gui.widgets.containers;
+
+import meteordevelopment.meteorclient.gui.GuiTheme;
+import meteordevelopment.meteorclient.gui.HeadlessTheme;
+import meteordevelopment.meteorclient.gui.widgets.WWidget;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lays out one side of a collection list setting screen for a registry sized list, the work a filter keystroke used to
+ * trigger. Once as the table with a row per entry the screen built before and once as a virtual list that only creates
+ * the rows inside a 400 pixel high view. Rows are a name label and a button, stood in for by fixed size widgets.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WVirtualListBenchmark {
+    private static final double VIEW_HEIGHT = 400;
+
+    @Param({ "500", "5000" })
+    public int entries;
+
+    private final GuiTheme theme = new HeadlessTheme();
+    private List<String> names;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        names = new ArrayList<>(entries);
+
+        for (int i = 0; i < entries; i++) {
+            names.add("entry_" + i + "_" + "x".repeat(random.nextInt(20)));
+        }
+    }
+
+    @Benchmark
+    public WTable table() {
+        WTable table = new WTable();
+        table.theme = theme;
+
+        for (String name : names) {
+            table.add(label(name));
+            table.add(new Fixed(16, 16)).expandCellX().right();
+            table.row();
+        }
+
+        table.calculateSize();
+        table.calculateWidgetPositions();
+
+        return table;
+    }
+
+    @Benchmark
+    public WVirtualList<String> virtualList() {
+        WVirtualList<String> list = new WVirtualList<>(name -> {
+            WHorizontalList row = new WHorizontalList();
+            row.theme = theme;
+
+            row.add(label(name));
+            row.add(new Fixed(16, 16)).expandCellX().right();
+
+            return row;
+        });
+        list.theme = theme;
+
+        list.setItems(names);
+
+        list.calculateSize();
+        list.calculateWidgetPositions();
+        list.updateRows(0, VIEW_HEIGHT);
+
+        return list;
+    }
+
+    private static WWidget label(String name) {
+        return new Fixed(name.length() * 6, 9);
+    }
+
+    private static class Fixed extends WWidget {
+        private final double fixedWidth, fixedHeight;
+
+        Fixed(double width, double height) {
+            this.fixedWidth = width;
+            this.fixedHeight = height;
+        }
+
+        @Override
+        protected void onCalculateSize() {
+            width = fixedWidth;
+            height = fixedHeight;
+        }
+    }
+}
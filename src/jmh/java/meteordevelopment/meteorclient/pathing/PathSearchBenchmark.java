@@ -0,0 +1,145 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.pathing;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Searches across synthetic hilly terrain with a few walls, reporting searches and expanded nodes per millisecond. The
+ * vertical term of the heuristic is either a full block per block of height like before or scaled by
+ * {@link PathSearch#getVerticalCost()}, which keeps paths the cheapest but gives a weaker estimate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathSearchBenchmark {
+    private static final int SIZE = 128, FLOOR = 63, HEIGHT = 8;
+
+    @Param({ "block", "scaled" })
+    public String vertical;
+
+    @Param({ "false", "true" })
+    public boolean step;
+
+    private PathSearch search;
+    private int[][] routes;
+    private int route;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        Terrain terrain = new Terrain(random);
+
+        search = new PathSearch(terrain);
+        search.step = step;
+
+        routes = new int[64][];
+        for (int i = 0; i < routes.length; i++) {
+            int x = random.nextInt(SIZE), z = random.nextInt(SIZE);
+            int goalX = random.nextInt(SIZE), goalZ = random.nextInt(SIZE);
+
+            routes[i] = new int[] { x, terrain.surface(x, z), z, goalX, terrain.surface(goalX, goalZ), goalZ };
+        }
+    }
+
+    @Benchmark
+    public PathSearch.State search(Nodes nodes) {
+        int[] r = routes[route++ & (routes.length - 1)];
+        double verticalCost = vertical.equals("scaled") ? search.getVerticalCost() : 1;
+
+        search.start(r[0], r[1], r[2], new Goal(r[3], r[4], r[5], verticalCost), 50_000);
+
+        PathSearch.State state;
+        do state = search.step(1_000_000_000L);
+        while (state == PathSearch.State.Searching);
+
+        nodes.nodes += search.getExpanded();
+        return state;
+    }
+
+    /** Expanded nodes, reported next to the searches as nodes per millisecond. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Nodes {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    private static class Terrain implements PathSearch.Grid {
+        private final int[] heights = new int[SIZE * SIZE];
+
+        Terrain(Random random) {
+            // Averaged noise, so most neighbours are a step or a short fall apart
+            double[] noise = new double[SIZE * SIZE];
+            for (int i = 0; i < noise.length; i++) noise[i] = random.nextDouble();
+
+            for (int x = 0; x < SIZE; x++) {
+                for (int z = 0; z < SIZE; z++) {
+                    double sum = 0;
+                    int count = 0;
+
+                    for (int dx = -3; dx <= 3; dx++) {
+                        for (int dz = -3; dz <= 3; dz++) {
+                            int nx = x + dx, nz = z + dz;
+                            if (nx < 0 || nz < 0 || nx >= SIZE || nz >= SIZE) continue;
+
+                            sum += noise[nz * SIZE + nx];
+                            count++;
+                        }
+                    }
+
+                    heights[z * SIZE + x] = (int) (sum / count * HEIGHT * 2) - HEIGHT / 2;
+                }
+            }
+
+            // Walls the search has to go around
+            for (int i = 0; i < 12; i++) {
+                int x = random.nextInt(SIZE), z = random.nextInt(SIZE), length = 10 + random.nextInt(30);
+                boolean alongX = random.nextBoolean();
+
+                for (int j = 0; j < length; j++) {
+                    int wx = alongX ? x + j : x, wz = alongX ? z : z + j;
+                    if (wx < SIZE && wz < SIZE) heights[wz * SIZE + wx] = HEIGHT * 4;
+                }
+            }
+        }
+
+        int surface(int x, int z) {
+            return FLOOR + 1 + Math.max(heights[z * SIZE + x], 0);
+        }
+
+        @Override
+        public int get(int x, int y, int z) {
+            if (x < 0 || z < 0 || x >= SIZE || z >= SIZE) return PathSearch.BLOCKED;
+            if (y <= FLOOR) return y == FLOOR ? PathSearch.SOLID : PathSearch.BLOCKED;
+
+            return y < surface(x, z) ? PathSearch.SOLID : PathSearch.PASSABLE;
+        }
+    }
+
+    private record Goal(int x, int y, int z, double verticalCost) implements PathSearch.Goal {
+        @Override
+        public boolean isInGoal(int x, int y, int z) {
+            return x == this.x && y == this.y && z == this.z;
+        }
+
+        @Override
+        public double heuristic(int x, int y, int z) {
+            double dx = Math.abs(x - this.x), dz = Math.abs(z - this.z);
+            return Math.max(dx, dz) + (Math.sqrt(2) - 1) * Math.min(dx, dz) + Math.abs(y - this.y) * verticalCost;
+        }
+    }
+}
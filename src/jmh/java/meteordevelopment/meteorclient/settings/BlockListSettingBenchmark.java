@@ -0,0 +1,83 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.settings;
+
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ReferenceSet;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.registry.Registries;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a storm of block updates, a full chunk section worth per invocation, against a block list setting value,
+ * once with the {@code get().contains} scan modules used before and once with the reference set the list settings
+ * now rebuild in {@link Setting#onChanged()}. The setting itself is not constructed since that loads the client.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockListSettingBenchmark {
+    private static final int UPDATES = 16 * 16 * 16;
+
+    @Param({ "10", "1000" })
+    public int size;
+
+    private List<Block> list;
+    private ReferenceSet<Block> set;
+    private BlockState[] updates;
+
+    @Setup
+    public void setup() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+
+        List<Block> blocks = new ArrayList<>();
+        for (Block block : Registries.BLOCK) blocks.add(block);
+
+        Random random = new Random(0);
+        Collections.shuffle(blocks, random);
+
+        list = new ArrayList<>(blocks.subList(0, Math.min(size, blocks.size())));
+        set = new ReferenceOpenHashSet<>(list);
+
+        updates = new BlockState[UPDATES];
+        for (int i = 0; i < UPDATES; i++) updates[i] = blocks.get(random.nextInt(blocks.size())).getDefaultState();
+    }
+
+    @Benchmark
+    public int listContains() {
+        int matches = 0;
+
+        for (BlockState state : updates) {
+            if (list.contains(state.getBlock())) matches++;
+        }
+
+        return matches;
+    }
+
+    @Benchmark
+    public int setContains() {
+        int matches = 0;
+
+        for (BlockState state : updates) {
+            if (set.contains(state.getBlock())) matches++;
+        }
+
+        return matches;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.systems.modules.world;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import meteordevelopment.meteorclient.systems.modules.world.StashFinder.Chunk;
+import net.minecraft.util.math.ChunkPos;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records one more stash with many already stored, once the way StashFinder did before the journal, an indexOf over a
+ * list followed by rewriting the json and csv files, and once with a map put and a single appended journal record.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class StashFinderBenchmark {
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    @Param({ "1000", "100000" })
+    public int stashes;
+
+    private Path dir;
+    private Random random;
+
+    private List<Chunk> list;
+    private Long2ObjectMap<Chunk> map;
+    private DataOutputStream journal;
+
+    @Setup
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("stash-finder-benchmark");
+        random = new Random(0);
+
+        list = new ArrayList<>(stashes);
+        map = new Long2ObjectLinkedOpenHashMap<>(stashes);
+
+        for (int i = 0; i < stashes; i++) {
+            Chunk chunk = nextChunk();
+
+            list.add(chunk);
+            map.put(chunk.chunkPos.toLong(), chunk);
+        }
+
+        File file = dir.resolve("stashes.journal").toFile();
+        StashJournal.writeCompacted(file, map.values());
+        journal = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        journal.close();
+
+        try (var files = Files.walk(dir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(path);
+        }
+    }
+
+    @Benchmark
+    public Object listAndRewrite() throws IOException {
+        Chunk chunk = nextChunk();
+
+        int i = list.indexOf(chunk);
+        if (i < 0) list.add(chunk);
+        else list.set(i, chunk);
+
+        try (Writer writer = new FileWriter(dir.resolve("stashes.json").toFile())) {
+            GSON.toJson(list, writer);
+        }
+
+        try (Writer writer = new FileWriter(dir.resolve("stashes.csv").toFile())) {
+            writer.write("X,Z,Chests,Barrels,Shulkers,EnderChests,Furnaces,DispensersDroppers,Hoppers\n");
+            for (Chunk c : list) c.write(writer);
+        }
+
+        return list;
+    }
+
+    @Benchmark
+    public Object mapAndJournal() throws IOException {
+        Chunk chunk = nextChunk();
+
+        Chunk prev = map.put(chunk.chunkPos.toLong(), chunk);
+        if (!chunk.countsEqual(prev)) {
+            StashJournal.writeRecord(journal, chunk, true);
+            journal.flush();
+        }
+
+        return prev;
+    }
+
+    private Chunk nextChunk() {
+        Chunk chunk = new Chunk(new ChunkPos(random.nextInt(20000) - 10000, random.nextInt(20000) - 10000));
+        chunk.chests = 4 + random.nextInt(20);
+        chunk.shulkers = random.nextInt(4);
+        return chunk;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.entity;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.util.shape.VoxelShape;
+import net.minecraft.util.shape.VoxelShapes;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One CrystalAura tick: the exposure of the player and a few targets to a crystal on every candidate block in range,
+ * over an obsidian and bedrock arena. Each invocation starts a new tick, so the grid and memo start out empty.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExplosionExposureBenchmark {
+    private static final int RANGE = 5;
+
+    @Param({ "1", "4" })
+    public int targets;
+
+    private final Long2ObjectMap<VoxelShape> world = new Long2ObjectOpenHashMap<>();
+    private final DamageUtils.RaycastFactory raycastFactory = (context, pos) -> get(pos).raycast(context.start(), context.end(), pos);
+
+    private Vec3d[] crystals;
+    private Box[] boxes;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+
+        // Floor, scattered walls and a few slabs around the player at 0 64 0
+        for (int x = -12; x <= 12; x++) {
+            for (int z = -12; z <= 12; z++) {
+                world.put(BlockPos.asLong(x, 63, z), VoxelShapes.fullCube());
+
+                for (int y = 64; y < 67; y++) {
+                    float roll = random.nextFloat();
+
+                    if (roll < 0.08f) world.put(BlockPos.asLong(x, y, z), VoxelShapes.fullCube());
+                    else if (roll < 0.1f) world.put(BlockPos.asLong(x, y, z), VoxelShapes.cuboid(0, 0, 0, 1, 0.5, 1));
+                }
+            }
+        }
+
+        ExplosionExposure.shapes = this::get;
+
+        int count = 0;
+        crystals = new Vec3d[(RANGE * 2 + 1) * (RANGE * 2 + 1) * 3];
+
+        for (int x = -RANGE; x <= RANGE; x++) {
+            for (int z = -RANGE; z <= RANGE; z++) {
+                for (int y = 64; y < 67; y++) crystals[count++] = new Vec3d(x + 0.5, y, z + 0.5);
+            }
+        }
+
+        boxes = new Box[targets + 1];
+        boxes[0] = playerBox(0.5, 64, 0.5);
+        for (int i = 1; i < boxes.length; i++) boxes[i] = playerBox(random.nextInt(9) - 4 + 0.5, 64, random.nextInt(9) - 4 + 0.5);
+    }
+
+    @Benchmark
+    public void raycasts(Blackhole blackhole) {
+        for (Vec3d crystal : crystals) {
+            for (Box box : boxes) blackhole.consume(DamageUtils.getExposure(crystal, box, raycastFactory));
+        }
+    }
+
+    @Benchmark
+    public void explosionExposure(Blackhole blackhole) {
+        ExplosionExposure.nextTick(0, 64, 0);
+
+        for (Vec3d crystal : crystals) {
+            for (Box box : boxes) blackhole.consume(ExplosionExposure.getExposure(crystal, box, null, null, true));
+        }
+    }
+
+    private VoxelShape get(BlockPos pos) {
+        return world.getOrDefault(pos.asLong(), VoxelShapes.empty());
+    }
+
+    private static Box playerBox(double x, double y, double z) {
+        return new Box(x - 0.3, y, z - 0.3, x + 0.3, y + 1.8, z + 0.3);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.network;
+
+import meteordevelopment.meteorclient.events.packets.PacketEvent;
+import meteordevelopment.orbit.EventBus;
+import meteordevelopment.orbit.EventPriority;
+import meteordevelopment.orbit.IEventBus;
+import meteordevelopment.orbit.listeners.ConsumerListener;
+import net.minecraft.network.packet.Packet;
+import net.minecraft.network.packet.s2c.common.CommonPingS2CPacket;
+import net.minecraft.network.packet.s2c.common.KeepAliveS2CPacket;
+import net.minecraft.network.packet.s2c.play.*;
+import net.minecraft.util.math.Vec3d;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a packet mix dominated by entity movement, roughly what a busy server sends, through packet listeners that
+ * each only care about one rarer packet class. Once the way modules listened before the router, a bus listener per
+ * module that checks the packet class and a new event per packet, and once through a {@link PacketRouter} with reused
+ * events.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PacketRouterBenchmark {
+    private static final int PACKETS = 1024;
+
+    private static final List<Class<? extends Packet<?>>> INTERESTING = List.of(
+        HealthUpdateS2CPacket.class,
+        KeepAliveS2CPacket.class,
+        CommonPingS2CPacket.class,
+        WorldTimeUpdateS2CPacket.class
+    );
+
+    @Param({ "4", "32" })
+    public int listeners;
+
+    private Packet<?>[] packets;
+
+    private IEventBus busOnly;
+    private IEventBus routed;
+
+    private long handled;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        packets = new Packet<?>[PACKETS];
+
+        for (int i = 0; i < PACKETS; i++) {
+            int id = random.nextInt(500);
+            float roll = random.nextFloat();
+
+            if (roll < 0.45f) packets[i] = new EntityS2CPacket.MoveRelative(id, (short) random.nextInt(64), (short) 0, (short) random.nextInt(64), true);
+            else if (roll < 0.6f) packets[i] = new EntityS2CPacket.Rotate(id, (byte) random.nextInt(), (byte) random.nextInt(), true);
+            else if (roll < 0.8f) packets[i] = new EntityVelocityUpdateS2CPacket(id, new Vec3d(random.nextDouble(), 0, random.nextDouble()));
+            else if (roll < 0.85f) packets[i] = new HealthUpdateS2CPacket(20, 20, 5);
+            else if (roll < 0.9f) packets[i] = new KeepAliveS2CPacket(random.nextLong());
+            else if (roll < 0.95f) packets[i] = new CommonPingS2CPacket(random.nextInt());
+            else packets[i] = new WorldTimeUpdateS2CPacket(random.nextLong(), random.nextLong(), true);
+        }
+
+        busOnly = new EventBus();
+        routed = new EventBus();
+
+        PacketRouter<PacketEvent.Receive> router = new PacketRouter<>(() -> routed, PacketEvent.Receive.class, event -> event.packet);
+
+        for (int i = 0; i < listeners; i++) {
+            Class<? extends Packet<?>> packet = INTERESTING.get(i % INTERESTING.size());
+
+            busOnly.subscribe(new ConsumerListener<PacketEvent.Receive>(PacketEvent.Receive.class, EventPriority.MEDIUM, event -> {
+                if (event.packet.getClass() == packet) handled++;
+            }));
+
+            router.listener(EventPriority.MEDIUM, event -> handled++).packets(List.of(packet)).subscribe();
+        }
+    }
+
+    @Benchmark
+    public long eventBus() {
+        for (Packet<?> packet : packets) {
+            busOnly.post(new PacketEvent.Receive(packet, null));
+        }
+
+        return handled;
+    }
+
+    @Benchmark
+    public long router() {
+        for (Packet<?> packet : packets) {
+            PacketEvent.Receive event = PacketEvent.Receive.get(packet, null);
+
+            try {
+                routed.post(event);
+            } finally {
+                event.release();
+            }
+        }
+
+        return handled;
+    }
+}
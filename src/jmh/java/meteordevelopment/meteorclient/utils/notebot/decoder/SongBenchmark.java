@@ -0,0 +1,224 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.notebot.decoder;
+
+import com.google.common.collect.Multimap;
+import com.google.common.collect.MultimapBuilder;
+import meteordevelopment.meteorclient.utils.notebot.song.Note;
+import meteordevelopment.meteorclient.utils.notebot.song.Song;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads and plays a synthetic corpus of NBS songs, from a few thousand up to a few hundred thousand notes each. The
+ * multimap benchmarks reproduce the layout Song used before, a linked multimap from boxed ticks to notes filled by
+ * the NBS decoder and a distinct pass over every note to find the requirements. The others use the tick indexed
+ * layout, decoded straight from NBS or read back from the binary cache written beside each song.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SongBenchmark {
+    private static final int SONGS = 12;
+
+    private byte[][] nbs;
+    private byte[][] cache;
+
+    private Multimap<Integer, Note> largestMultimap;
+    private Song largestSong;
+
+    @Setup
+    public void setup() throws Exception {
+        Random random = new Random(0);
+
+        nbs = new byte[SONGS][];
+        cache = new byte[SONGS][];
+
+        for (int i = 0; i < SONGS; i++) {
+            nbs[i] = generate(random, (int) (2000 * Math.pow(1.6, i)));
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                NBSSongDecoder.parse(new ByteArrayInputStream(nbs[i])).write(out);
+            }
+
+            cache[i] = bytes.toByteArray();
+        }
+
+        largestMultimap = MultimapSong.parse(new ByteArrayInputStream(nbs[SONGS - 1])).notes;
+        largestSong = NBSSongDecoder.parse(new ByteArrayInputStream(nbs[SONGS - 1]));
+    }
+
+    // Loading
+
+    @Benchmark
+    public void multimapDecode(Blackhole blackhole) throws IOException {
+        for (byte[] song : nbs) blackhole.consume(MultimapSong.parse(new ByteArrayInputStream(song)));
+    }
+
+    @Benchmark
+    public void compactDecode(Blackhole blackhole) throws Exception {
+        for (byte[] song : nbs) blackhole.consume(NBSSongDecoder.parse(new ByteArrayInputStream(song)));
+    }
+
+    @Benchmark
+    public void compactCacheRead(Blackhole blackhole) throws IOException {
+        for (byte[] song : cache) blackhole.consume(Song.read(new DataInputStream(new ByteArrayInputStream(song))));
+    }
+
+    // Playback, every tick of the largest song the way Notebot looks notes up
+
+    @Benchmark
+    public void multimapPlayback(Blackhole blackhole) {
+        int lastTick = Collections.max(largestMultimap.keySet());
+
+        for (int tick = 0; tick <= lastTick; tick++) {
+            if (!largestMultimap.containsKey(tick)) continue;
+            for (Note note : largestMultimap.get(tick)) blackhole.consume(note);
+        }
+    }
+
+    @Benchmark
+    public void compactPlayback(Blackhole blackhole) {
+        for (int tick = 0; tick <= largestSong.getLastTick(); tick++) {
+            if (!largestSong.hasNotes(tick)) continue;
+
+            for (int i = largestSong.getNotesStart(tick), end = largestSong.getNotesEnd(tick); i < end; i++) {
+                blackhole.consume(largestSong.getNote(i));
+            }
+        }
+    }
+
+    // NBS
+
+    /** Writes a version 5 NBS file at 10 ticks per second, songs have up to 16 layers and a note on most ticks. */
+    private static byte[] generate(Random random, int noteCount) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(noteCount * 8);
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeShort(0);
+        out.writeByte(5); // version
+        out.writeByte(16); // vanilla instruments
+        writeShort(out, 0); // length, recalculated by NBS
+        writeShort(out, 16); // layers
+        writeString(out, "Song " + noteCount);
+        writeString(out, "Meteor");
+        writeString(out, "");
+        writeString(out, "Generated for benchmarking");
+        writeShort(out, 1000); // tempo
+        out.writeByte(0); // auto-save
+        out.writeByte(10); // auto-save duration
+        out.writeByte(4); // time signature
+        for (int i = 0; i < 5; i++) writeInt(out, 0); // stats
+        writeString(out, ""); // import name
+        out.writeByte(0); // loop
+        out.writeByte(0); // max loop count
+        writeShort(out, 0); // loop start
+
+        int written = 0;
+
+        while (written < noteCount) {
+            writeShort(out, 1 + (random.nextFloat() < 0.2f ? random.nextInt(4) : 0));
+
+            int chord = Math.min(noteCount - written, 1 + random.nextInt(random.nextFloat() < 0.1f ? 16 : 4));
+            int layer = -1;
+
+            for (int i = 0; i < chord; i++) {
+                int jump = 1 + random.nextInt(2);
+                layer += jump;
+
+                writeShort(out, jump);
+                out.writeByte(random.nextInt(16)); // instrument
+                out.writeByte(33 + random.nextInt(25)); // key
+                out.writeByte(100); // velocity
+                out.writeByte(100); // panning
+                writeShort(out, 0); // pitch
+            }
+
+            writeShort(out, 0);
+            written += chord;
+        }
+
+        writeShort(out, 0);
+        return bytes.toByteArray();
+    }
+
+    private static void writeShort(DataOutputStream out, int value) throws IOException {
+        out.writeByte(value & 0xFF);
+        out.writeByte((value >> 8) & 0xFF);
+    }
+
+    private static void writeInt(DataOutputStream out, int value) throws IOException {
+        writeShort(out, value & 0xFFFF);
+        writeShort(out, value >>> 16);
+    }
+
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        writeInt(out, string.length());
+        out.writeBytes(string);
+    }
+
+    /** The song layout and NBS decoder from before the tick indexed layout, only as far as these files need it. */
+    private static class MultimapSong {
+        private final Multimap<Integer, Note> notes;
+        private final int lastTick;
+        private final Set<Note> requirements = new HashSet<>();
+
+        private MultimapSong(Multimap<Integer, Note> notes) {
+            this.notes = notes;
+            this.lastTick = Collections.max(notes.keySet());
+            notes.values().stream().distinct().forEach(requirements::add);
+        }
+
+        static MultimapSong parse(InputStream inputStream) throws IOException {
+            Multimap<Integer, Note> notesMap = MultimapBuilder.linkedHashKeys().arrayListValues().build();
+            DataInputStream in = new DataInputStream(inputStream);
+
+            // Header of a version 5 file
+            in.skipNBytes(8);
+            for (int i = 0; i < 4; i++) in.skipNBytes(readInt(in));
+            float speed = readShort(in) / 100f;
+            in.skipNBytes(3 + 5 * Integer.BYTES);
+            in.skipNBytes(readInt(in));
+            in.skipNBytes(4);
+
+            double tick = -1;
+            while (true) {
+                short jumpTicks = readShort(in);
+                if (jumpTicks == 0) break;
+                tick += jumpTicks * (20f / speed);
+
+                while (true) {
+                    short jumpLayers = readShort(in);
+                    if (jumpLayers == 0) break;
+
+                    byte instrument = in.readByte();
+                    byte key = in.readByte();
+                    in.skipNBytes(4);
+
+                    notesMap.put((int) Math.round(tick), new Note(NBSSongDecoder.fromNBSInstrument(instrument), key - NBSSongDecoder.NOTE_OFFSET));
+                }
+            }
+
+            return new MultimapSong(notesMap);
+        }
+
+        private static short readShort(DataInputStream in) throws IOException {
+            return (short) (in.readUnsignedByte() + (in.readUnsignedByte() << 8));
+        }
+
+        private static int readInt(DataInputStream in) throws IOException {
+            return readShort(in) & 0xFFFF | (readShort(in) << 16);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.world;
+
+import net.minecraft.block.BlockState;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/** One tick with the given number of modules registered, at the ranges combat and world modules usually use. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockIteratorBenchmark {
+    private static final int[] RADII = { 5, 4, 6, 3, 5, 8, 4, 6 };
+
+    @Param({ "1", "4", "8" })
+    public int registrants;
+
+    private final BlockIterator.Columns columns = new BlockIterator.Columns() {
+        @Override
+        public int getBottomY() {
+            return -64;
+        }
+
+        @Override
+        public int getTopY() {
+            return 320;
+        }
+
+        @Override
+        public void setColumn(int x, int z) {}
+
+        @Override
+        public BlockState getBlockState(int y) {
+            return null;
+        }
+    };
+
+    @Benchmark
+    public void tick(Blackhole blackhole) {
+        for (int i = 0; i < registrants; i++) {
+            int radius = RADII[i];
+            BlockIterator.register(radius, radius, (pos, state) -> blackhole.consume(pos.getY()));
+        }
+
+        BlockIterator.tick(columns, 0, 64, 0);
+    }
+}
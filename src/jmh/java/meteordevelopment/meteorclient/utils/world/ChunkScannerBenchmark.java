@@ -0,0 +1,158 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.world;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Searches synthetic overworld chunks, stone with scattered ores up to the surface and air above, once with the
+ * per-block loop BlockESP used before ChunkScanner and once with the scanner.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChunkScannerBenchmark {
+    private static final int BOTTOM_Y = -64;
+    private static final int SECTIONS = 24;
+    private static final int CHUNKS = 64;
+
+    // Diamond ore only appears in the deepest sections, the rest of the targets never appear at all
+    @Param({ "diamond", "absent" })
+    public String targets;
+
+    private SyntheticChunk[] chunks;
+    private List<Block> blocks;
+    private ChunkScanner scanner;
+
+    @Setup
+    public void setup() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+
+        blocks = switch (targets) {
+            case "diamond" -> List.of(Blocks.DIAMOND_ORE, Blocks.DEEPSLATE_DIAMOND_ORE);
+            default -> List.of(Blocks.ANCIENT_DEBRIS, Blocks.SPAWNER, Blocks.END_PORTAL_FRAME, Blocks.BEDROCK);
+        };
+        scanner = new ChunkScanner(blocks);
+
+        Random random = new Random(0);
+        chunks = new SyntheticChunk[CHUNKS];
+        for (int i = 0; i < CHUNKS; i++) chunks[i] = new SyntheticChunk(random);
+    }
+
+    @Benchmark
+    public void perBlockLoop(Blackhole blackhole) {
+        for (SyntheticChunk chunk : chunks) {
+            for (int x = 0; x < 16; x++) {
+                for (int z = 0; z < 16; z++) {
+                    int height = chunk.heights[z * 16 + x];
+
+                    for (int y = BOTTOM_Y; y < height; y++) {
+                        BlockState state = chunk.getBlockState((y - BOTTOM_Y) >> 4, x, y & 15, z);
+                        if (blocks.contains(state.getBlock())) blackhole.consume(y);
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void scanner(Blackhole blackhole) {
+        for (SyntheticChunk chunk : chunks) {
+            scanner.scan(chunk, 0, 0, chunk.heights, (x, y, z, state) -> blackhole.consume(y));
+        }
+    }
+
+    private static class SyntheticChunk implements ChunkScanner.Sections {
+        private final BlockState[][] states = new BlockState[SECTIONS][];
+        private final List<Set<BlockState>> palettes = new ArrayList<>(SECTIONS);
+        final int[] heights = new int[16 * 16];
+
+        SyntheticChunk(Random random) {
+            for (int i = 0; i < heights.length; i++) heights[i] = 62 + random.nextInt(8);
+
+            BlockState air = Blocks.AIR.getDefaultState();
+
+            for (int section = 0; section < SECTIONS; section++) {
+                BlockState[] blocks = new BlockState[16 * 16 * 16];
+                Set<BlockState> palette = new HashSet<>();
+
+                for (int y = 0; y < 16; y++) {
+                    int worldY = BOTTOM_Y + section * 16 + y;
+
+                    for (int z = 0; z < 16; z++) {
+                        for (int x = 0; x < 16; x++) {
+                            BlockState state = worldY < heights[z * 16 + x] ? terrain(worldY, random) : air;
+
+                            blocks[(y * 16 + z) * 16 + x] = state;
+                            palette.add(state);
+                        }
+                    }
+                }
+
+                states[section] = blocks;
+                palettes.add(palette);
+            }
+        }
+
+        private static BlockState terrain(int y, Random random) {
+            float roll = random.nextFloat();
+
+            if (y < 0) {
+                if (y < -48 && roll < 0.002f) return Blocks.DEEPSLATE_DIAMOND_ORE.getDefaultState();
+                if (roll < 0.01f) return Blocks.DEEPSLATE_IRON_ORE.getDefaultState();
+                return Blocks.DEEPSLATE.getDefaultState();
+            }
+
+            if (roll < 0.01f) return Blocks.COAL_ORE.getDefaultState();
+            if (roll < 0.02f) return Blocks.ANDESITE.getDefaultState();
+            return Blocks.STONE.getDefaultState();
+        }
+
+        @Override
+        public int size() {
+            return SECTIONS;
+        }
+
+        @Override
+        public int getStartY(int index) {
+            return BOTTOM_Y + index * 16;
+        }
+
+        @Override
+        public boolean isEmpty(int index) {
+            Set<BlockState> palette = palettes.get(index);
+            return palette.size() == 1 && palette.iterator().next().isAir();
+        }
+
+        @Override
+        public boolean hasAny(int index, Predicate<BlockState> predicate) {
+            for (BlockState state : palettes.get(index)) {
+                if (predicate.test(state)) return true;
+            }
+
+            return false;
+        }
+
+        @Override
+        public BlockState getBlockState(int index, int x, int y, int z) {
+            return states[index][(y * 16 + z) * 16 + x];
+        }
+    }
+}
@@ -143,6 +143,7 @@ public class MeteorClient implements ClientModInitializer {
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             OnlinePlayers.leave();
             Systems.save();
+            Systems.flush();
             GuiThemes.save();
         }));
     }
@@ -12,6 +12,7 @@ import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import com.mojang.brigadier.exceptions.DynamicCommandExceptionType;
 import com.mojang.brigadier.suggestion.Suggestions;
 import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import meteordevelopment.meteorclient.systems.config.Config;
 import meteordevelopment.meteorclient.systems.modules.Module;
 import meteordevelopment.meteorclient.systems.modules.Modules;
 import net.minecraft.command.CommandSource;
@@ -45,6 +46,7 @@ public class ModuleArgumentType implements ArgumentType<Module> {
     public Module parse(StringReader reader) throws CommandSyntaxException {
         String argument = reader.readString();
         Module module = Modules.get().get(argument);
+        if (module == null && Config.get().moduleAliases.get()) module = Modules.get().getByAlias(argument);
         if (module == null) throw NO_SUCH_MODULE.create(argument);
 
         return module;
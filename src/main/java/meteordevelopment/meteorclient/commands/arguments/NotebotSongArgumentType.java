@@ -12,11 +12,9 @@ import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import com.mojang.brigadier.suggestion.Suggestions;
 import com.mojang.brigadier.suggestion.SuggestionsBuilder;
 import meteordevelopment.meteorclient.MeteorClient;
-import meteordevelopment.meteorclient.utils.notebot.decoder.SongDecoders;
+import meteordevelopment.meteorclient.utils.notebot.SongLibrary;
 import net.minecraft.command.CommandSource;
 
-import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.concurrent.CompletableFuture;
 
@@ -38,14 +36,6 @@ public class NotebotSongArgumentType implements ArgumentType<Path> {
 
     @Override
     public <S> CompletableFuture<Suggestions> listSuggestions(CommandContext<S> context, SuggestionsBuilder builder) {
-        try (var suggestions = Files.list(MeteorClient.FOLDER.toPath().resolve("notebot"))) {
-            return CommandSource.suggestMatching(suggestions
-                    .filter(SongDecoders::hasDecoder)
-                    .map(path -> path.getFileName().toString()),
-                builder
-            );
-        } catch (IOException e) {
-            return Suggestions.empty();
-        }
+        return CommandSource.suggestMatching(SongLibrary.getEntries().stream().map(SongLibrary.Entry::fileName), builder);
     }
 }
@@ -111,11 +111,14 @@ public class SwarmCommand extends Command {
             if (swarm.isActive()) {
                 if (swarm.isHost()) {
                     if (swarm.host.getConnectionCount() > 0) {
-                        ChatUtils.info("--- Swarm Connections (highlight)(%s/%s)(default) ---", swarm.host.getConnectionCount(), swarm.host.getConnections().length);
+                        List<SwarmConnection> connections = swarm.host.getConnections();
+                        ChatUtils.info("--- Swarm Connections (highlight)(%s)(default) ---", connections.size());
 
-                        for (int i = 0; i < swarm.host.getConnections().length; i++) {
-                            SwarmConnection connection = swarm.host.getConnections()[i];
-                            if (connection != null) ChatUtils.info("(highlight)Worker %s(default): %s.", i, connection.getConnection());
+                        for (int i = 0; i < connections.size(); i++) {
+                            SwarmConnection connection = connections.get(i);
+                            long latency = connection.getLatency();
+
+                            ChatUtils.info("(highlight)Worker %s(default): %s (%s).", i, connection.getConnection(), latency < 0 ? "?" : latency + "ms");
                         }
                     }
                     else {
@@ -0,0 +1,19 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.events.entity;
+
+import net.minecraft.entity.Entity;
+
+public class EntityEquipmentUpdateEvent {
+    private static final EntityEquipmentUpdateEvent INSTANCE = new EntityEquipmentUpdateEvent();
+
+    public Entity entity;
+
+    public static EntityEquipmentUpdateEvent get(Entity entity) {
+        INSTANCE.entity = entity;
+        return INSTANCE;
+    }
+}
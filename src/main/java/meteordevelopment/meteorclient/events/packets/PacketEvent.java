@@ -9,36 +9,112 @@ import meteordevelopment.meteorclient.events.Cancellable;
 import net.minecraft.network.ClientConnection;
 import net.minecraft.network.packet.Packet;
 
+/**
+ * Packet events are reused per thread, {@link Receive#get}, {@link Send#get} and {@link Sent#get} hand out a new
+ * instance only when the cached one is still being posted, for example when a listener sends a packet itself.
+ * Every event obtained that way needs to be released once posting it is done.
+ */
 public class PacketEvent {
     public static class Receive extends Cancellable {
+        private static final ThreadLocal<Receive> INSTANCE = ThreadLocal.withInitial(Receive::new);
+
         public Packet<?> packet;
         public ClientConnection connection;
 
+        private boolean posting;
+
+        private Receive() {
+        }
+
         public Receive(Packet<?> packet, ClientConnection connection) {
             this.setCancelled(false);
             this.packet = packet;
             this.connection = connection;
         }
+
+        public static Receive get(Packet<?> packet, ClientConnection connection) {
+            Receive event = INSTANCE.get();
+            if (event.posting) event = new Receive();
+
+            event.posting = true;
+            event.setCancelled(false);
+            event.packet = packet;
+            event.connection = connection;
+            return event;
+        }
+
+        public void release() {
+            posting = false;
+            packet = null;
+            connection = null;
+        }
     }
 
     public static class Send extends Cancellable {
+        private static final ThreadLocal<Send> INSTANCE = ThreadLocal.withInitial(Send::new);
+
         public Packet<?> packet;
         public ClientConnection connection;
 
+        private boolean posting;
+
+        private Send() {
+        }
+
         public Send(Packet<?> packet, ClientConnection connection) {
             this.setCancelled(false);
             this.packet = packet;
             this.connection = connection;
         }
+
+        public static Send get(Packet<?> packet, ClientConnection connection) {
+            Send event = INSTANCE.get();
+            if (event.posting) event = new Send();
+
+            event.posting = true;
+            event.setCancelled(false);
+            event.packet = packet;
+            event.connection = connection;
+            return event;
+        }
+
+        public void release() {
+            posting = false;
+            packet = null;
+            connection = null;
+        }
     }
 
     public static class Sent {
+        private static final ThreadLocal<Sent> INSTANCE = ThreadLocal.withInitial(Sent::new);
+
         public Packet<?> packet;
         public ClientConnection connection;
 
+        private boolean posting;
+
+        private Sent() {
+        }
+
         public Sent(Packet<?> packet, ClientConnection connection) {
             this.packet = packet;
             this.connection = connection;
         }
+
+        public static Sent get(Packet<?> packet, ClientConnection connection) {
+            Sent event = INSTANCE.get();
+            if (event.posting) event = new Sent();
+
+            event.posting = true;
+            event.packet = packet;
+            event.connection = connection;
+            return event;
+        }
+
+        public void release() {
+            posting = false;
+            packet = null;
+            connection = null;
+        }
     }
 }
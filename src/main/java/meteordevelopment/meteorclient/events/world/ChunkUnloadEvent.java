@@ -0,0 +1,10 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.events.world;
+
+import net.minecraft.util.math.ChunkPos;
+
+public record ChunkUnloadEvent(ChunkPos pos) {}
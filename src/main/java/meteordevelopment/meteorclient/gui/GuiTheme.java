@@ -35,6 +35,7 @@ import net.minecraft.util.math.BlockPos;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Function;
 
 public abstract class GuiTheme implements ISerializable<GuiTheme> {
     public static final double TITLE_TEXT_SCALE = 1.25;
@@ -144,6 +145,9 @@ public abstract class GuiTheme implements ISerializable<GuiTheme> {
     public WTable table() {
         return w(new WTable());
     }
+    public <T> WVirtualList<T> virtualList(Function<T, WWidget> factory) {
+        return w(new WVirtualList<>(factory));
+    }
 
     public abstract WSection section(String title, boolean expanded, WWidget headerWidget);
     public WSection section(String title, boolean expanded) {
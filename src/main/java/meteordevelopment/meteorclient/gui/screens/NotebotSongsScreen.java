@@ -5,30 +5,32 @@
 
 package meteordevelopment.meteorclient.gui.screens;
 
-import meteordevelopment.meteorclient.MeteorClient;
 import meteordevelopment.meteorclient.gui.GuiTheme;
 import meteordevelopment.meteorclient.gui.WindowScreen;
+import meteordevelopment.meteorclient.gui.widgets.WLabel;
 import meteordevelopment.meteorclient.gui.widgets.containers.WTable;
 import meteordevelopment.meteorclient.gui.widgets.input.WTextBox;
 import meteordevelopment.meteorclient.gui.widgets.pressable.WButton;
 import meteordevelopment.meteorclient.systems.modules.Modules;
 import meteordevelopment.meteorclient.systems.modules.misc.Notebot;
 import meteordevelopment.meteorclient.utils.Utils;
-import meteordevelopment.meteorclient.utils.notebot.decoder.SongDecoders;
+import meteordevelopment.meteorclient.utils.notebot.SongLibrary;
 import org.apache.commons.io.FilenameUtils;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.ArrayList;
+import java.util.List;
 
 public class NotebotSongsScreen extends WindowScreen {
     private static final Notebot notebot = Modules.get().get(Notebot.class);
 
+    // Songs are decoded ahead of time once the filter narrows the list down to this many
+    private static final int PRELOAD_RESULTS = 3;
+
     private WTextBox filter;
     private String filterText = "";
 
     private WTable table;
+    private int libraryVersion;
 
     public NotebotSongsScreen(GuiTheme theme) {
         super(theme, "Notebot Songs");
@@ -55,38 +57,51 @@ public class NotebotSongsScreen extends WindowScreen {
         initSongsTable();
     }
 
+    @Override
+    public void tick() {
+        // The library is scanned in the background, show new songs once it is done
+        if (libraryVersion != SongLibrary.getVersion()) {
+            table.clear();
+            initSongsTable();
+        }
+    }
+
     private void initSongsTable() {
-        AtomicBoolean noSongsFound = new AtomicBoolean(true);
-        try {
-            Files.list(MeteorClient.FOLDER.toPath().resolve("notebot")).forEach(path -> {
-                if (SongDecoders.hasDecoder(path)) {
-                    String name = path.getFileName().toString();
-
-                    if (Utils.searchTextDefault(name, filterText, false)){
-                        addPath(path);
-                        noSongsFound.set(false);
-                    }
-                }
-            });
-        } catch (IOException e) {
-            table.add(theme.label("Missing meteor-client/notebot folder.")).expandCellX();
-            table.row();
+        libraryVersion = SongLibrary.getVersion();
+
+        List<SongLibrary.Entry> songs = new ArrayList<>();
+
+        for (SongLibrary.Entry entry : SongLibrary.getEntries()) {
+            if (Utils.searchTextDefault(entry.fileName(), filterText, false)
+                || Utils.searchTextDefault(entry.title(), filterText, false)
+                || Utils.searchTextDefault(entry.author(), filterText, false)) {
+                songs.add(entry);
+            }
         }
 
-        if (noSongsFound.get()) {
+        for (SongLibrary.Entry entry : songs) addEntry(entry);
+
+        if (songs.isEmpty()) {
             table.add(theme.label("No songs found.")).expandCellX().center();
         }
+        else if (!filterText.isEmpty() && songs.size() <= PRELOAD_RESULTS) {
+            for (SongLibrary.Entry entry : songs) SongLibrary.preload(entry.path());
+        }
     }
 
-    private void addPath(Path path) {
+    private void addEntry(SongLibrary.Entry entry) {
         table.add(theme.horizontalSeparator()).expandX().minWidth(400);
         table.row();
 
-        table.add(theme.label(FilenameUtils.getBaseName(path.getFileName().toString()))).expandCellX();
+        WLabel name = table.add(theme.label(FilenameUtils.getBaseName(entry.fileName()))).expandCellX().widget();
+        if (entry.isValid()) {
+            name.tooltip = String.format("%s by %s, %d:%02d, %d notes, %d note blocks", entry.title(), entry.author(), entry.length() / 20 / 60, entry.length() / 20 % 60, entry.notes(), entry.requirements());
+        }
+
         WButton load = table.add(theme.button("Load")).right().widget();
-        load.action = () -> notebot.loadSong(path.toFile());
+        load.action = () -> notebot.loadSong(entry.path().toFile());
         WButton preview = table.add(theme.button("Preview")).right().widget();
-        preview.action = () -> notebot.previewSong(path.toFile());
+        preview.action = () -> notebot.previewSong(entry.path().toFile());
 
         table.row();
     }
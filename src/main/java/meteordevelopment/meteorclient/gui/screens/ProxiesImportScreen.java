@@ -14,16 +14,29 @@ import meteordevelopment.meteorclient.systems.proxies.Proxies;
 import meteordevelopment.meteorclient.systems.proxies.Proxy;
 import meteordevelopment.meteorclient.systems.proxies.ProxyType;
 import meteordevelopment.meteorclient.utils.Utils;
+import meteordevelopment.meteorclient.utils.network.MeteorExecutor;
 import meteordevelopment.meteorclient.utils.render.color.Color;
 
+import javax.annotation.Nullable;
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Matcher;
 
+import static meteordevelopment.meteorclient.MeteorClient.mc;
+
 public class ProxiesImportScreen extends WindowScreen {
+    // Lists can have tens of thousands of lines, only the first ones are logged
+    private static final int MAX_LOG_LINES = 200;
 
     private final File file;
+
+    private List<Line> log;
+    private int success, fail;
+
     public ProxiesImportScreen(GuiTheme theme, File file) {
         super(theme, "Import Proxies");
         this.file = file;
@@ -32,92 +45,138 @@ public class ProxiesImportScreen extends WindowScreen {
                 screen.reload();
             }
         });
+
+        // Lists can be huge, so reading and matching them happens in the background and only adding runs on the client thread
+        if (file.exists() && file.isFile()) {
+            MeteorExecutor.execute(() -> {
+                List<Parsed> parsed = read(file);
+                mc.execute(() -> {
+                    importProxies(parsed);
+                    reload();
+
+                    if (parent instanceof ProxiesScreen screen) screen.reload();
+                });
+            });
+        }
+    }
+
+    private void importProxies(List<Parsed> parsed) {
+        Proxies proxies = Proxies.get();
+        log = new ArrayList<>(Math.min(parsed.size(), MAX_LOG_LINES));
+
+        for (Parsed p : parsed) {
+            boolean logged = success + fail < MAX_LOG_LINES;
+
+            if (p.proxy == null) {
+                if (logged) log.add(new Line("Unrecognised proxy format: " + p.line, Color.RED));
+                fail++;
+            } else if (proxies.add(p.proxy, false)) {
+                if (logged) log.add(new Line("Imported proxy: " + p.proxy.name.get(), Color.GREEN));
+                success++;
+            } else {
+                if (logged) log.add(new Line("Proxy already exists: " + p.proxy.name.get(), Color.ORANGE));
+                fail++;
+            }
+        }
+
+        if (success > 0) proxies.save();
+    }
+
+    private static List<Parsed> read(File file) {
+        List<Parsed> parsed = new ArrayList<>();
+
+        Matcher defaultMatcher = Proxies.PROXY_PATTERN.matcher("");
+        Matcher webshareMatcher = Proxies.PROXY_PATTERN_WEBSHARE.matcher("");
+        Matcher uriMatcher = Proxies.PROXY_PATTERN_URI.matcher("");
+
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath())) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher matcher;
+                Proxy proxy = null;
+
+                matcher = defaultMatcher.reset(line);
+                if (matcher.matches()) {
+                    String address = matcher.group(2).replaceAll("\\b0+\\B", "");
+                    int port = Integer.parseInt(matcher.group(3));
+
+                    proxy = new Proxy.Builder()
+                        .address(address)
+                        .port(port)
+                        .name(matcher.group(1) != null ? matcher.group(1) : address + ":" + port)
+                        .type(matcher.group(4) != null ? ProxyType.parse(matcher.group(4)) : ProxyType.Socks4)
+                        .build();
+                }
+
+                matcher = webshareMatcher.reset(line);
+                if (proxy == null && matcher.matches()) {
+                    String address = matcher.group(1).replaceAll("\\b0+\\B", "");
+                    int port = Integer.parseInt(matcher.group(2));
+
+                    proxy = new Proxy.Builder()
+                        .address(address)
+                        .port(port)
+                        .name(address + ":" + port)
+                        .username(matcher.group(3) != null ? matcher.group(3) : "")
+                        .password(matcher.group(4) != null ? matcher.group(4) : "")
+                        .type(ProxyType.Socks5)
+                        .build();
+                }
+
+                matcher = uriMatcher.reset(line);
+                if (proxy == null && matcher.matches()) {
+                    String address = matcher.group("addr").replaceAll("\\b0+\\B", "");
+                    int port = Integer.parseInt(matcher.group("port"));
+
+                    ProxyType type = ProxyType.parse(matcher.group(1));
+                    if (type == null) {
+                        if (matcher.group(1) != null && matcher.group(1).equals("socks")) type = ProxyType.Socks5;
+                        // if it has a password it's a socks5 proxy
+                        else if (matcher.group("pass") != null) type = ProxyType.Socks5;
+                        else type = ProxyType.Socks4;
+                    }
+
+                    proxy = new Proxy.Builder()
+                        .address(address)
+                        .port(port)
+                        .name(address + ":" + port)
+                        .username(matcher.group("user") != null ? matcher.group("user") : "")
+                        .password(matcher.group("pass") != null ? matcher.group("pass") : "")
+                        .type(type)
+                        .build();
+                }
+
+                parsed.add(new Parsed(line, proxy));
+            }
+        } catch (IOException e) {
+            MeteorClient.LOG.error("An error occurred while importing the proxy file", e);
+        }
+
+        return parsed;
     }
 
     @Override
     public void initWidgets() {
         if (file.exists() && file.isFile()) {
-            add(theme.label("Importing proxies from " + file.getName() + "...").color(Color.GREEN));
-            WVerticalList list = add(theme.section("Log", false)).widget().add(theme.verticalList()).expandX().widget();
-            Proxies proxies = Proxies.get();
-            try {
-                int success = 0, fail = 0;
-                for (String line : Files.readAllLines(file.toPath())) {
-                    Matcher matcher;
-                    Proxy proxy = null;
-
-                    matcher = Proxies.PROXY_PATTERN.matcher(line);
-                    if (matcher.matches()) {
-                        String address = matcher.group(2).replaceAll("\\b0+\\B", "");
-                        int port = Integer.parseInt(matcher.group(3));
-
-                        proxy = new Proxy.Builder()
-                            .address(address)
-                            .port(port)
-                            .name(matcher.group(1) != null ? matcher.group(1) : address + ":" + port)
-                            .type(matcher.group(4) != null ? ProxyType.parse(matcher.group(4)) : ProxyType.Socks4)
-                            .build();
-                    }
+            if (log == null) {
+                add(theme.label("Reading proxies from " + file.getName() + "..."));
+                add(theme.button("Back")).expandX().widget().action = this::close;
+                return;
+            }
 
-                    matcher = Proxies.PROXY_PATTERN_WEBSHARE.matcher(line);
-                    if (proxy == null && matcher.matches()) {
-                        String address = matcher.group(1).replaceAll("\\b0+\\B", "");
-                        int port = Integer.parseInt(matcher.group(2));
-
-                        proxy = new Proxy.Builder()
-                            .address(address)
-                            .port(port)
-                            .name(address + ":" + port)
-                            .username(matcher.group(3) != null ? matcher.group(3) : "")
-                            .password(matcher.group(4) != null ? matcher.group(4) : "")
-                            .type(ProxyType.Socks5)
-                            .build();
-                    }
+            add(theme.label("Imported proxies from " + file.getName() + ".").color(Color.GREEN));
+            WVerticalList list = add(theme.section("Log", false)).widget().add(theme.verticalList()).expandX().widget();
 
-                    matcher = Proxies.PROXY_PATTERN_URI.matcher(line);
-                    if (proxy == null && matcher.matches()) {
-                        String address = matcher.group("addr").replaceAll("\\b0+\\B", "");
-                        int port = Integer.parseInt(matcher.group("port"));
-
-                        ProxyType type = ProxyType.parse(matcher.group(1));
-                        if (type == null) {
-                            if (matcher.group(1) != null && matcher.group(1).equals("socks")) type = ProxyType.Socks5;
-                            // if it has a password it's a socks5 proxy
-                            else if (matcher.group("pass") != null) type = ProxyType.Socks5;
-                            else type = ProxyType.Socks4;
-                        }
-
-                        proxy = new Proxy.Builder()
-                            .address(address)
-                            .port(port)
-                            .name(address + ":" + port)
-                            .username(matcher.group("user") != null ? matcher.group("user") : "")
-                            .password(matcher.group("pass") != null ? matcher.group("pass") : "")
-                            .type(type)
-                            .build();
-                    }
+            for (Line line : log) list.add(theme.label(line.text).color(line.color));
 
-                    if (proxy == null) {
-                        list.add(theme.label("Unrecognised proxy format: " + line).color(Color.RED));
-                        fail++;
-                    } else {
-                        if (proxies.add(proxy)) {
-                            list.add(theme.label("Imported proxy: " + proxy.name.get()).color(Color.GREEN));
-                            success++;
-                        }
-                        else {
-                            list.add(theme.label("Proxy already exists: " + proxy.name.get()).color(Color.ORANGE));
-                            fail++;
-                        }
-                    }
-                }
-                add(theme
-                    .label("Successfully imported " + success + "/" + (fail + success) + " proxies.")
-                    .color(Utils.lerp(Color.RED, Color.GREEN, (float) success / (success + fail)))
-                );
-            } catch (IOException e) {
-                MeteorClient.LOG.error("An error occurred while importing the proxy file", e);
+            if (success + fail > MAX_LOG_LINES) {
+                list.add(theme.label("... and " + (success + fail - MAX_LOG_LINES) + " more.").color(Color.GRAY));
             }
+
+            add(theme
+                .label("Successfully imported " + success + "/" + (fail + success) + " proxies.")
+                .color(Utils.lerp(Color.RED, Color.GREEN, (float) success / (success + fail)))
+            );
         } else {
             add(theme.label("Invalid File!"));
         }
@@ -131,4 +190,8 @@ public class ProxiesImportScreen extends WindowScreen {
         WButton btnBack = add(theme.button("Back")).expandX().widget();
         btnBack.action = this::close;
     }
+
+    private record Parsed(String line, @Nullable Proxy proxy) {}
+
+    private record Line(String text, Color color) {}
 }
@@ -208,7 +208,12 @@ public class ProxiesScreen extends WindowScreen {
         @Override
         public boolean save() {
             MeteorExecutor.execute(value::checkStatus);
-            return value.resolveAddress() && (!isNew || Proxies.get().add(value));
+            if (!value.resolveAddress()) return false;
+
+            if (isNew) return Proxies.get().add(value);
+
+            Proxies.get().reindex();
+            return true;
         }
 
         @Override
@@ -9,12 +9,16 @@ import meteordevelopment.meteorclient.gui.GuiTheme;
 import meteordevelopment.meteorclient.gui.WindowScreen;
 import meteordevelopment.meteorclient.gui.utils.Cell;
 import meteordevelopment.meteorclient.gui.widgets.WWidget;
+import meteordevelopment.meteorclient.gui.widgets.containers.WHorizontalList;
 import meteordevelopment.meteorclient.gui.widgets.containers.WTable;
+import meteordevelopment.meteorclient.gui.widgets.containers.WVirtualList;
 import meteordevelopment.meteorclient.gui.widgets.input.WTextBox;
 import meteordevelopment.meteorclient.gui.widgets.pressable.WPressable;
 import meteordevelopment.meteorclient.settings.Setting;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -25,6 +29,7 @@ public abstract class CollectionListSettingScreen<T> extends WindowScreen {
 
     private WTable table;
     private String filterText = "";
+    private SortingHelper.Index<T> registryIndex;
 
     public CollectionListSettingScreen(GuiTheme theme, String title, Setting<?> setting, Collection<T> collection, Iterable<T> registry) {
         super(theme, title);
@@ -83,18 +88,28 @@ public abstract class CollectionListSettingScreen<T> extends WindowScreen {
             ? value -> this.includeValue(value) && !collection.contains(value)
             : this::includeValue;
 
-        Iterable<T> sorted = SortingHelper.sort(iterable, predicate, this::getValueNames, filterText);
+        if (isLeft && registryIndex == null) registryIndex = SortingHelper.index(iterable, this::getValueNames);
 
-        sorted.forEach(t -> {
-            table.add(getValueWidget(t));
+        List<T> sorted = new ArrayList<>();
+        (isLeft ? SortingHelper.sort(registryIndex, predicate, filterText) : SortingHelper.sort(iterable, predicate, this::getValueNames, filterText)).forEach(sorted::add);
 
-            WPressable button = table.add(isLeft ? theme.plus() : theme.minus()).expandCellX().right().widget();
-            button.action = () -> buttonAction.accept(t);
+        // Registries can have thousands of entries, so rows are only created once they are scrolled into view
+        if (!sorted.isEmpty()) {
+            WVirtualList<T> list = table.add(theme.virtualList((T t) -> {
+                WHorizontalList row = theme.horizontalList();
+                row.add(getValueWidget(t));
 
+                WPressable button = row.add(isLeft ? theme.plus() : theme.minus()).expandCellX().right().widget();
+                button.action = () -> buttonAction.accept(t);
+
+                return row;
+            })).expandX().widget();
+
+            list.setItems(sorted);
             table.row();
-        });
 
-        if (!table.cells.isEmpty()) cell.expandX();
+            cell.expandX();
+        }
 
         return table;
     }
@@ -26,6 +26,7 @@ public abstract class CollectionMapSettingScreen<K, V> extends WindowScreen {
 
     private WTable table;
     private String filterText = "";
+    private SortingHelper.Index<K> registryIndex;
 
     public CollectionMapSettingScreen(GuiTheme theme, String title, Setting<?> setting, Map<K, V> map, Iterable<K> registry) {
         super(theme, title);
@@ -54,7 +55,9 @@ public abstract class CollectionMapSettingScreen<K, V> extends WindowScreen {
 
     private void initTable() {
         Comparator<K> prioritizeChanged = Comparator.comparing(key -> !(map.get(key) instanceof IChangeable changeable && changeable.isChanged()));
-        Iterable<K> sorted = SortingHelper.sortWithPriority(registry, this::includeValue, this::getValueNames, filterText, prioritizeChanged);
+        if (registryIndex == null) registryIndex = SortingHelper.index(registry, this::getValueNames);
+
+        Iterable<K> sorted = SortingHelper.sortWithPriority(registryIndex, this::includeValue, filterText, prioritizeChanged);
 
         sorted.forEach(t -> {
             @Nullable V data = map.get(t);
@@ -5,16 +5,22 @@
 
 package meteordevelopment.meteorclient.gui.screens.settings.base;
 
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
-import meteordevelopment.meteorclient.utils.Utils;
+import meteordevelopment.meteorclient.utils.misc.SearchUtils;
 import net.minecraft.util.collection.IndexedIterable;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -57,31 +63,79 @@ public final class SortingHelper {
                     continue;
                 }
 
-                String[] names = nameFunction.apply(value);
-                int bestWords = 0;
-                int bestDistance = Integer.MAX_VALUE;
-                float relevancy = 0f;
-                for (String name : names) {
-                    int words = Utils.searchInWords(name, filterText);
-                    int distance = Utils.searchLevenshteinDefault(name, filterText, false);
-                    bestWords = Math.max(bestWords, words);
-                    bestDistance = Math.min(bestDistance, distance);
-                    relevancy = Math.max(relevancy, 1f - (float) distance / name.length());
+                Entry<T> entry = score(value, nameFunction.apply(value), filterText);
+                if (entry != null) {
+                    list.add(entry);
                 }
+            }
 
-                if (bestWords > 0 || relevancy >= 0.5f) {
-                    list.add(new Entry<>(value, bestDistance));
-                }
+            return sortEntries(list, comparator);
+        }
+    }
+
+    /**
+     * Same as {@link #sort(Iterable, Predicate, Function, String)}, but only scores the values of the index that can
+     * match the filter text.
+     */
+    public static <T> Iterable<T> sort(Index<T> index, Predicate<T> filter, String filterText) {
+        return sortInternal(index, filter, filterText, null);
+    }
+
+    public static <T> Iterable<T> sortWithPriority(Index<T> index, Predicate<T> filter, String filterText, Comparator<T> comparator) {
+        return sortInternal(index, filter, filterText, comparator);
+    }
+
+    private static <T> Iterable<T> sortInternal(Index<T> index, Predicate<T> filter, String filterText, @Nullable Comparator<T> comparator) {
+        if (filterText.isBlank()) {
+            return sortInternal(index.values, filter, null, filterText, comparator);
+        }
+
+        List<Entry<T>> list = new ObjectArrayList<>();
+        int[] candidates = index.candidates(filterText);
+
+        for (int id : candidates) {
+            T value = index.values.get(id);
+            if (!filter.test(value)) {
+                continue;
             }
 
-            Comparator<Entry<T>> entryComparator = comparator != null
-                ? Comparator.<Entry<T>, T>comparing(Entry::value, comparator).thenComparing(filterComparator())
-                : filterComparator();
+            Entry<T> entry = score(value, index.names.get(id), filterText);
+            if (entry != null) {
+                list.add(entry);
+            }
+        }
 
-            list.sort(entryComparator);
+        return sortEntries(list, comparator);
+    }
 
-            return iterate(list);
+    @Nullable
+    private static <T> Entry<T> score(T value, String[] names, String filterText) {
+        int bestWords = 0;
+        int bestDistance = Integer.MAX_VALUE;
+        float relevancy = 0f;
+        for (String name : names) {
+            int words = SearchUtils.searchInWords(name, filterText);
+            int distance = SearchUtils.searchLevenshteinDefault(name, filterText, false);
+            bestWords = Math.max(bestWords, words);
+            bestDistance = Math.min(bestDistance, distance);
+            relevancy = Math.max(relevancy, 1f - (float) distance / name.length());
         }
+
+        return bestWords > 0 || relevancy >= 0.5f ? new Entry<>(value, bestDistance) : null;
+    }
+
+    private static <T> Iterable<T> sortEntries(List<Entry<T>> list, @Nullable Comparator<T> comparator) {
+        Comparator<Entry<T>> entryComparator = comparator != null
+            ? Comparator.<Entry<T>, T>comparing(Entry::value, comparator).thenComparing(filterComparator())
+            : filterComparator();
+
+        list.sort(entryComparator);
+
+        return iterate(list);
+    }
+
+    public static <T> Index<T> index(Iterable<T> registry, Function<T, String[]> nameFunction) {
+        return new Index<>(registry, nameFunction);
     }
 
     private static <T> List<T> createList(Iterable<?> iterable) {
@@ -141,4 +195,132 @@ public final class SortingHelper {
     }
 
     public record Entry<T>(T value, int distance) {}
+
+    /**
+     * Names of a registry, resolved and lowercased once, with posting lists of the values whose names contain a given
+     * character, bigram or trigram.
+     * <p>
+     * A value matches a filter when one of its names contains every word of it, or is at most half its length in
+     * Levenshtein distance away. Since every character the name has more than the filter costs one, the latter is only
+     * possible for names up to about twice as long as the filter. Candidates are therefore the values whose names contain
+     * the rarest gram of the longest word, plus the short enough ones, and only those are scored.
+     */
+    public static final class Index<T> {
+        private final List<T> values;
+        private final List<String[]> names;
+
+        // Per name, twice the filter length it needs to be close enough in Levenshtein distance << 32 | value id, sorted
+        private final long[] shortNames;
+
+        private final Long2ObjectMap<IntArrayList> postings = new Long2ObjectOpenHashMap<>();
+
+        private Index(Iterable<T> registry, Function<T, String[]> nameFunction) {
+            values = createList(registry);
+            names = createList(registry);
+
+            LongArrayList shortNames = new LongArrayList();
+
+            for (T value : registry) {
+                int id = values.size();
+                String[] valueNames = nameFunction.apply(value);
+
+                values.add(value);
+                names.add(valueNames);
+
+                for (String name : valueNames) {
+                    String lowercase = name.toLowerCase(Locale.ROOT);
+
+                    // lowercase.length() - filter.length() <= name.length() / 2f
+                    shortNames.add(((long) (2 * lowercase.length() - name.length()) << 32) | id);
+
+                    for (int i = 0; i < lowercase.length(); i++) {
+                        for (int length = 1; length <= 3 && i + length <= lowercase.length(); length++) {
+                            post(gram(lowercase, i, length), id);
+                        }
+                    }
+                }
+            }
+
+            this.shortNames = shortNames.toLongArray();
+            Arrays.sort(this.shortNames);
+        }
+
+        public int size() {
+            return values.size();
+        }
+
+        /** Ids of the values that can match the filter text, in ascending order. */
+        private int[] candidates(String filterText) {
+            String filter = filterText.toLowerCase(Locale.ROOT);
+
+            // Names containing every word, ids in a posting list are ascending
+            String longest = "";
+            for (String word : filter.split(" ")) {
+                if (word.length() > longest.length()) longest = word;
+            }
+
+            IntArrayList rarest = null;
+
+            if (!longest.isEmpty()) {
+                int length = Math.min(longest.length(), 3);
+
+                for (int i = 0; i + length <= longest.length(); i++) {
+                    IntArrayList ids = postings.get(gram(longest, i, length));
+
+                    // A gram no name has means no name contains the word
+                    if (ids == null) {
+                        rarest = null;
+                        break;
+                    }
+
+                    if (rarest == null || ids.size() < rarest.size()) rarest = ids;
+                }
+            }
+
+            // Names close enough in Levenshtein distance, which is at least the number of extra characters
+            int count = 0;
+            while (count < shortNames.length && (int) (shortNames[count] >> 32) <= 2 * filter.length()) count++;
+
+            int[] close = new int[count];
+            for (int i = 0; i < count; i++) close[i] = (int) shortNames[i];
+            Arrays.sort(close);
+
+            return merge(rarest, close);
+        }
+
+        /** Merges two ascending id lists into one without duplicates. */
+        private static int[] merge(@Nullable IntArrayList a, int[] b) {
+            int aSize = a == null ? 0 : a.size();
+            int[] merged = new int[aSize + b.length];
+            int size = 0;
+
+            for (int i = 0, j = 0; i < aSize || j < b.length; ) {
+                int id;
+
+                if (j >= b.length || (i < aSize && a.getInt(i) <= b[j])) id = a.getInt(i++);
+                else id = b[j++];
+
+                if (size == 0 || merged[size - 1] != id) merged[size++] = id;
+            }
+
+            return size == merged.length ? merged : Arrays.copyOf(merged, size);
+        }
+
+        private void post(long gram, int id) {
+            IntArrayList ids = postings.get(gram);
+
+            if (ids == null) {
+                ids = new IntArrayList(4);
+                postings.put(gram, ids);
+            }
+
+            if (ids.isEmpty() || ids.getInt(ids.size() - 1) != id) ids.add(id);
+        }
+
+        private static long gram(String text, int start, int length) {
+            long gram = length;
+            for (int i = start; i < start + length; i++) gram = (gram << 16) | text.charAt(i);
+            return gram;
+        }
+    }
 }
@@ -0,0 +1,169 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.gui.widgets.containers;
+
+import meteordevelopment.meteorclient.gui.renderer.GuiRenderer;
+import meteordevelopment.meteorclient.gui.utils.Cell;
+import meteordevelopment.meteorclient.gui.widgets.WWidget;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static meteordevelopment.meteorclient.utils.Utils.getWindowHeight;
+
+/**
+ * Vertical list of rows that all have the height of the first one. Its size is calculated from the number of items, but
+ * widgets are only created for the rows inside the visible part of the enclosing {@link WView}, when they scroll into it.
+ * {@link #cells} only ever holds those rows, so events and rendering never go through the others.
+ */
+public class WVirtualList<T> extends WContainer {
+    public double spacing = 3;
+
+    private final Function<T, WWidget> factory;
+    private List<T> items = List.of();
+
+    private double rowWidth, rowHeight;
+
+    // Index of the item in the first cell
+    private int first;
+
+    public WVirtualList(Function<T, WWidget> factory) {
+        this.factory = factory;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+
+        cells.clear();
+        first = 0;
+        invalidate();
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    protected double spacing() {
+        return theme.scale(spacing);
+    }
+
+    // Layout
+
+    @Override
+    protected void onCalculateSize() {
+        if (rowHeight == 0 && !items.isEmpty()) {
+            WWidget widget = createWidget(items.getFirst());
+
+            rowWidth = widget.width;
+            rowHeight = widget.height;
+        }
+
+        for (Cell<?> cell : cells) rowWidth = Math.max(rowWidth, cell.widget().width);
+
+        width = rowWidth;
+        height = items.isEmpty() ? 0 : items.size() * (rowHeight + spacing()) - spacing();
+    }
+
+    @Override
+    protected void onCalculateWidgetPositions() {
+        for (int i = 0; i < cells.size(); i++) {
+            positionCell(cells.get(i), first + i);
+        }
+    }
+
+    private void positionCell(Cell<?> cell, int index) {
+        cell.x = x;
+        cell.y = y + index * (rowHeight + spacing());
+
+        cell.width = width;
+        cell.height = rowHeight;
+
+        cell.alignWidget();
+    }
+
+    // Rendering
+
+    @Override
+    public boolean render(GuiRenderer renderer, double mouseX, double mouseY, double delta) {
+        if (visible) updateRows();
+
+        return super.render(renderer, mouseX, mouseY, delta);
+    }
+
+    private void updateRows() {
+        if (items.isEmpty() || rowHeight == 0) return;
+
+        double top = 0;
+        double bottom = getWindowHeight();
+
+        for (WWidget widget = parent; widget != null; widget = widget.parent) {
+            if (widget instanceof WView view) {
+                top = Math.max(top, view.y);
+                bottom = Math.min(bottom, view.y + view.height);
+            }
+        }
+
+        updateRows(top, bottom);
+    }
+
+    /** Creates the rows between the two screen heights that scrolled into view and drops the ones that left it. */
+    void updateRows(double top, double bottom) {
+        if (items.isEmpty() || rowHeight == 0) return;
+
+        double stride = rowHeight + spacing();
+        int from = Math.max(0, (int) Math.floor((top - y) / stride));
+        int to = Math.min(items.size() - 1, (int) Math.floor((bottom - y) / stride));
+
+        if (from > to) {
+            cells.clear();
+            return;
+        }
+
+        if (from == first && to == first + cells.size() - 1) return;
+
+        List<Cell<?>> old = new ArrayList<>(cells);
+        int oldFirst = first;
+
+        cells.clear();
+        first = from;
+
+        for (int i = from; i <= to; i++) {
+            int oldIndex = i - oldFirst;
+
+            if (oldIndex >= 0 && oldIndex < old.size()) {
+                cells.add(old.get(oldIndex));
+                continue;
+            }
+
+            WWidget widget = createWidget(items.get(i));
+
+            // A wider row than the ones seen so far changes the size of the list
+            if (widget.width > rowWidth) {
+                rowWidth = widget.width;
+                invalidate();
+            }
+
+            Cell<?> cell = new Cell<>(widget).centerY().expandX();
+            positionCell(cell, i);
+            widget.calculateWidgetPositions();
+
+            cells.add(cell);
+        }
+    }
+
+    private WWidget createWidget(T item) {
+        WWidget widget = factory.apply(item);
+
+        widget.parent = this;
+        widget.theme = theme;
+
+        widget.init();
+        widget.calculateSize();
+
+        return widget;
+    }
+}
@@ -31,6 +31,7 @@ import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
 import org.jetbrains.annotations.Nullable;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
@@ -44,11 +45,24 @@ public abstract class ClientConnectionMixin {
     @Inject(method = "channelRead0(Lio/netty/channel/ChannelHandlerContext;Lnet/minecraft/network/packet/Packet;)V",
         at = @At(value = "INVOKE", target = "Lnet/minecraft/network/ClientConnection;handlePacket(Lnet/minecraft/network/packet/Packet;Lnet/minecraft/network/listener/PacketListener;)V", shift = At.Shift.BEFORE), cancellable = true)
     private void onHandlePacket(ChannelHandlerContext channelHandlerContext, Packet<?> packet, CallbackInfo ci) {
+        if (!MeteorClient.EVENT_BUS.isListening(PacketEvent.Receive.class)) return;
+
         if (packet instanceof BundleS2CPacket bundle) {
             for (Iterator<Packet<? super ClientPlayPacketListener>> it = bundle.getPackets().iterator(); it.hasNext(); ) {
-                if (MeteorClient.EVENT_BUS.post(new PacketEvent.Receive(it.next(), (ClientConnection) (Object) this)).isCancelled()) it.remove();
+                if (postReceive(it.next())) it.remove();
             }
-        } else if (MeteorClient.EVENT_BUS.post(new PacketEvent.Receive(packet, (ClientConnection) (Object) this)).isCancelled()) ci.cancel();
+        } else if (postReceive(packet)) ci.cancel();
+    }
+
+    @Unique
+    private boolean postReceive(Packet<?> packet) {
+        PacketEvent.Receive event = PacketEvent.Receive.get(packet, (ClientConnection) (Object) this);
+
+        try {
+            return MeteorClient.EVENT_BUS.post(event).isCancelled();
+        } finally {
+            event.release();
+        }
     }
 
     @Inject(method = "disconnect(Lnet/minecraft/text/Text;)V", at = @At("HEAD"))
@@ -68,14 +82,28 @@ public abstract class ClientConnectionMixin {
 
     @Inject(at = @At("HEAD"), method = "send(Lnet/minecraft/network/packet/Packet;Lio/netty/channel/ChannelFutureListener;)V", cancellable = true)
     private void onSendPacketHead(Packet<?> packet, @Nullable ChannelFutureListener channelFutureListener, CallbackInfo ci) {
-        if (MeteorClient.EVENT_BUS.post(new PacketEvent.Send(packet, (ClientConnection) (Object) this)).isCancelled()) {
-            ci.cancel();
+        if (!MeteorClient.EVENT_BUS.isListening(PacketEvent.Send.class)) return;
+
+        PacketEvent.Send event = PacketEvent.Send.get(packet, (ClientConnection) (Object) this);
+
+        try {
+            if (MeteorClient.EVENT_BUS.post(event).isCancelled()) ci.cancel();
+        } finally {
+            event.release();
         }
     }
 
     @Inject(method = "send(Lnet/minecraft/network/packet/Packet;Lio/netty/channel/ChannelFutureListener;)V", at = @At("TAIL"))
     private void onSendPacketTail(Packet<?> packet, @Nullable ChannelFutureListener channelFutureListener, CallbackInfo ci) {
-        MeteorClient.EVENT_BUS.post(new PacketEvent.Sent(packet, (ClientConnection) (Object) this));
+        if (!MeteorClient.EVENT_BUS.isListening(PacketEvent.Sent.class)) return;
+
+        PacketEvent.Sent event = PacketEvent.Sent.get(packet, (ClientConnection) (Object) this);
+
+        try {
+            MeteorClient.EVENT_BUS.post(event);
+        } finally {
+            event.release();
+        }
     }
 
     @Inject(method = "exceptionCaught", at = @At("HEAD"), cancellable = true)
@@ -13,6 +13,7 @@ import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import meteordevelopment.meteorclient.MeteorClient;
 import meteordevelopment.meteorclient.commands.Commands;
 import meteordevelopment.meteorclient.events.entity.EntityDestroyEvent;
+import meteordevelopment.meteorclient.events.entity.EntityEquipmentUpdateEvent;
 import meteordevelopment.meteorclient.events.entity.player.PickItemsEvent;
 import meteordevelopment.meteorclient.events.game.GameJoinedEvent;
 import meteordevelopment.meteorclient.events.game.GameLeftEvent;
@@ -21,6 +22,7 @@ import meteordevelopment.meteorclient.events.packets.ContainerSlotUpdateEvent;
 import meteordevelopment.meteorclient.events.packets.InventoryEvent;
 import meteordevelopment.meteorclient.events.packets.PlaySoundPacketEvent;
 import meteordevelopment.meteorclient.events.world.ChunkDataEvent;
+import meteordevelopment.meteorclient.events.world.ChunkUnloadEvent;
 import meteordevelopment.meteorclient.mixininterface.IExplosionS2CPacket;
 import meteordevelopment.meteorclient.pathing.BaritoneUtils;
 import meteordevelopment.meteorclient.systems.config.Config;
@@ -95,6 +97,11 @@ public abstract class ClientPlayNetworkHandlerMixin extends ClientCommonNetworkH
         MeteorClient.EVENT_BUS.post(new ChunkDataEvent(chunk));
     }
 
+    @Inject(method = "onUnloadChunk", at = @At("TAIL"))
+    private void onUnloadChunk(UnloadChunkS2CPacket packet, CallbackInfo info) {
+        MeteorClient.EVENT_BUS.post(new ChunkUnloadEvent(packet.pos()));
+    }
+
     @Inject(method = "onScreenHandlerSlotUpdate", at = @At("TAIL"))
     private void onContainerSlotUpdate(ScreenHandlerSlotUpdateS2CPacket packet, CallbackInfo info) {
         MeteorClient.EVENT_BUS.post(ContainerSlotUpdateEvent.get(packet));
@@ -105,6 +112,12 @@ public abstract class ClientPlayNetworkHandlerMixin extends ClientCommonNetworkH
         MeteorClient.EVENT_BUS.post(InventoryEvent.get(packet));
     }
 
+    @Inject(method = "onEntityEquipmentUpdate", at = @At("TAIL"))
+    private void onEntityEquipmentUpdate(EntityEquipmentUpdateS2CPacket packet, CallbackInfo info) {
+        Entity entity = client.world.getEntityById(packet.getEntityId());
+        if (entity != null) MeteorClient.EVENT_BUS.post(EntityEquipmentUpdateEvent.get(entity));
+    }
+
     @Inject(method = "onEntitiesDestroy", at = @At(value = "INVOKE", target = "Lnet/minecraft/network/packet/s2c/play/EntitiesDestroyS2CPacket;getEntityIds()Lit/unimi/dsi/fastutil/ints/IntList;"))
     private void onEntitiesDestroy(EntitiesDestroyS2CPacket packet, CallbackInfo ci) {
         for (int id : packet.getEntityIds()) {
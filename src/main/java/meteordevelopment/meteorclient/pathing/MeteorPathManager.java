@@ -0,0 +1,626 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.pathing;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.events.game.GameLeftEvent;
+import meteordevelopment.meteorclient.events.world.BlockUpdateEvent;
+import meteordevelopment.meteorclient.events.world.ChunkDataEvent;
+import meteordevelopment.meteorclient.events.world.ChunkUnloadEvent;
+import meteordevelopment.meteorclient.events.world.TickEvent;
+import meteordevelopment.meteorclient.utils.entity.EntityIndex;
+import meteordevelopment.meteorclient.utils.player.Rotations;
+import meteordevelopment.meteorclient.utils.world.BlockUtils;
+import meteordevelopment.orbit.EventHandler;
+import meteordevelopment.orbit.EventPriority;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.ChunkStatus;
+import net.minecraft.world.chunk.WorldChunk;
+
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static meteordevelopment.meteorclient.MeteorClient.mc;
+
+/**
+ * Built in path manager used when Baritone isn't installed. Paths are searched with {@link PathSearch} over a
+ * {@link WalkabilityCache}, a few milliseconds per tick, and followed by pressing the movement keys. When a block on the
+ * remaining path changes only the part around it is searched again.
+ */
+public class MeteorPathManager implements IPathManager {
+    private static final int REPAIR_AHEAD = 8, REPAIR_NODES = 2000;
+    private static final int STUCK_TICKS = 60;
+    private static final int MINE_RADIUS = 3;
+
+    private final MeteorPathSettings settings = new MeteorPathSettings();
+    private final WalkabilityCache cache = new WalkabilityCache();
+    private final PathSearch search = new PathSearch(cache);
+
+    private Goal goal;
+    private boolean paused;
+
+    private final LongList path = new LongArrayList();
+    private int pathIndex, pathLimit;
+    private int repairFrom = -1, repairTo;
+
+    private int stuckTicks, lastIndex;
+    private float targetYaw, targetPitch;
+
+    public MeteorPathManager() {
+        MeteorClient.EVENT_BUS.subscribe(this);
+    }
+
+    @Override
+    public String getName() {
+        return "Meteor";
+    }
+
+    @Override
+    public boolean isPathing() {
+        return goal != null;
+    }
+
+    @Override
+    public void pause() {
+        paused = true;
+        releaseKeys();
+    }
+
+    @Override
+    public void resume() {
+        paused = false;
+    }
+
+    @Override
+    public void stop() {
+        if (goal == null) return;
+
+        goal = null;
+        search.cancel();
+        clearPath();
+
+        releaseKeys();
+    }
+
+    @Override
+    public void moveTo(BlockPos pos, boolean ignoreY) {
+        setGoal(ignoreY ? new GoalXZ(pos.getX(), pos.getZ()) : new GoalNear(pos.getX(), pos.getY(), pos.getZ(), 0));
+    }
+
+    @Override
+    public void moveInDirection(float yaw) {
+        setGoal(new GoalDirection(yaw));
+    }
+
+    @Override
+    public void mine(Block... blocks) {
+        setGoal(new GoalMine(new ReferenceOpenHashSet<>(blocks)));
+    }
+
+    @Override
+    public void follow(Predicate<Entity> entity) {
+        setGoal(new GoalFollow(entity));
+    }
+
+    @Override
+    public float getTargetYaw() {
+        return targetYaw;
+    }
+
+    @Override
+    public float getTargetPitch() {
+        return targetPitch;
+    }
+
+    @Override
+    public ISettings getSettings() {
+        return settings;
+    }
+
+    private void setGoal(Goal goal) {
+        stop();
+        this.goal = goal;
+    }
+
+    // Events
+
+    @EventHandler
+    private void onBlockUpdate(BlockUpdateEvent event) {
+        cache.update(event.pos, event.newState);
+        if (goal == null || path.isEmpty() || repairFrom != -1) return;
+
+        // Find the first move of the remaining path the change breaks
+        for (int i = Math.max(pathIndex, 1); i < path.size(); i++) {
+            long from = path.getLong(i - 1), to = path.getLong(i);
+            if (!isInMove(from, to, event.pos) || search.canMove(from, to)) continue;
+
+            repair(i);
+            return;
+        }
+    }
+
+    /** Whether the position is one of the blocks a move between the two nodes checks, from the floor to the jump headroom. */
+    private static boolean isInMove(long from, long to, BlockPos pos) {
+        int x1 = BlockPos.unpackLongX(from), y1 = BlockPos.unpackLongY(from), z1 = BlockPos.unpackLongZ(from);
+        int x2 = BlockPos.unpackLongX(to), y2 = BlockPos.unpackLongY(to), z2 = BlockPos.unpackLongZ(to);
+
+        return pos.getX() >= Math.min(x1, x2) && pos.getX() <= Math.max(x1, x2)
+            && pos.getY() >= Math.min(y1, y2) - 1 && pos.getY() <= Math.max(y1, y2) + 2
+            && pos.getZ() >= Math.min(z1, z2) && pos.getZ() <= Math.max(z1, z2);
+    }
+
+    @EventHandler
+    private void onChunkData(ChunkDataEvent event) {
+        cache.invalidateChunk(event.chunk().getPos().x, event.chunk().getPos().z);
+    }
+
+    @EventHandler
+    private void onChunkUnload(ChunkUnloadEvent event) {
+        cache.invalidateChunk(event.pos().x, event.pos().z);
+    }
+
+    @EventHandler
+    private void onGameLeft(GameLeftEvent event) {
+        stop();
+        cache.clear();
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    private void onTick(TickEvent.Pre event) {
+        if (goal == null || mc.player == null) return;
+        if (paused) return;
+
+        search.walkOnWater = settings.getWalkOnWater().get();
+        search.walkOnLava = settings.getWalkOnLava().get();
+        search.step = settings.getStep().get();
+        search.maxFall = settings.getNoFall().get() ? 64 : settings.maxFall.get();
+
+        if (!goal.tick()) {
+            stop();
+            return;
+        }
+
+        if (goal.shouldReplan()) replan();
+
+        BlockPos feet = mc.player.getBlockPos();
+        if (search.getState() != PathSearch.State.Searching && goal.isInGoal(feet.getX(), feet.getY(), feet.getZ())) {
+            clearPath();
+            releaseKeys();
+
+            if (goal.onReached()) stop();
+            return;
+        }
+
+        // Search
+        if (search.getState() == PathSearch.State.Searching) {
+            PathSearch.State state = search.step((long) (settings.tickBudget.get() * 1_000_000));
+            if (state != PathSearch.State.Searching) onSearchDone(state);
+        }
+        else if (path.isEmpty() || pathIndex >= path.size()) replan();
+
+        // Move
+        if (pathIndex < pathLimit) walk(feet);
+        else releaseKeys();
+    }
+
+    // Searching
+
+    private void replan() {
+        clearPath();
+
+        BlockPos feet = mc.player.getBlockPos();
+        start(feet.getX(), feet.getY(), feet.getZ(), goal, settings.maxNodes.get());
+    }
+
+    private void start(int x, int y, int z, Goal goal, int maxNodes) {
+        goal.verticalCost = search.getVerticalCost();
+        search.start(x, y, z, goal, maxNodes);
+    }
+
+    private void clearPath() {
+        path.clear();
+        pathIndex = 0;
+        pathLimit = 0;
+        repairFrom = -1;
+    }
+
+    /** Searches again between the node before the affected one and a node a bit further along, keeping the rest of the path. */
+    private void repair(int affected) {
+        int from = Math.max(pathIndex, affected - 1);
+        int to = Math.min(affected + REPAIR_AHEAD, path.size() - 1);
+
+        // Nothing left to keep, or the player is already standing on the changed part
+        if (from == affected || to == affected) {
+            replan();
+            return;
+        }
+
+        repairFrom = from;
+        repairTo = to;
+        pathLimit = from + 1;
+
+        long start = path.getLong(from), end = path.getLong(to);
+        start(BlockPos.unpackLongX(start), BlockPos.unpackLongY(start), BlockPos.unpackLongZ(start), new GoalNear(BlockPos.unpackLongX(end), BlockPos.unpackLongY(end), BlockPos.unpackLongZ(end), 0), REPAIR_NODES);
+    }
+
+    private void onSearchDone(PathSearch.State state) {
+        if (repairFrom != -1) {
+            int from = repairFrom;
+            repairFrom = -1;
+
+            if (state != PathSearch.State.Found) {
+                replan();
+                return;
+            }
+
+            // Splice the new part in, it starts with the node at from and ends with the node at to
+            LongList repaired = search.getPath();
+            LongList spliced = new LongArrayList(path.size() + repaired.size());
+
+            spliced.addAll(path.subList(0, from));
+            spliced.addAll(repaired);
+            spliced.addAll(path.subList(repairTo + 1, path.size()));
+
+            path.clear();
+            path.addAll(spliced);
+            pathLimit = path.size();
+            return;
+        }
+
+        if (state == PathSearch.State.Failed) {
+            if (goal.onFailed()) stop();
+            return;
+        }
+
+        path.clear();
+        path.addAll(search.getPath());
+        pathIndex = 0;
+        pathLimit = path.size();
+        stuckTicks = 0;
+    }
+
+    // Walking
+
+    private void walk(BlockPos feet) {
+        // Skip ahead to the furthest node the player is already standing on
+        for (int i = Math.min(pathLimit - 1, pathIndex + 3); i >= pathIndex; i--) {
+            long node = path.getLong(i);
+
+            if (BlockPos.unpackLongX(node) == feet.getX() && BlockPos.unpackLongZ(node) == feet.getZ() && Math.abs(BlockPos.unpackLongY(node) - mc.player.getY()) < 1) {
+                pathIndex = i + 1;
+                break;
+            }
+        }
+
+        if (pathIndex >= pathLimit) {
+            releaseKeys();
+            return;
+        }
+
+        if (pathIndex != lastIndex) {
+            lastIndex = pathIndex;
+            stuckTicks = 0;
+        }
+        else if (++stuckTicks > STUCK_TICKS) {
+            replan();
+            return;
+        }
+
+        long node = path.getLong(pathIndex);
+        double x = BlockPos.unpackLongX(node) + 0.5, z = BlockPos.unpackLongZ(node) + 0.5;
+        int y = BlockPos.unpackLongY(node);
+
+        targetYaw = (float) Math.toDegrees(Math.atan2(z - mc.player.getZ(), x - mc.player.getX())) - 90;
+        targetPitch = 0;
+        mc.player.setYaw(targetYaw);
+
+        boolean up = y > mc.player.getY() + 0.5 && !settings.getStep().get();
+        boolean swim = mc.player.isTouchingWater() && y >= mc.player.getY();
+
+        mc.options.forwardKey.setPressed(true);
+        mc.options.jumpKey.setPressed(swim || ((up || mc.player.horizontalCollision) && mc.player.isOnGround()));
+        mc.options.sprintKey.setPressed(settings.sprint.get() && !up);
+    }
+
+    private void releaseKeys() {
+        mc.options.forwardKey.setPressed(false);
+        mc.options.jumpKey.setPressed(false);
+        mc.options.sprintKey.setPressed(false);
+    }
+
+    // Goals
+
+    private abstract static class Goal implements PathSearch.Goal {
+        private static final double SQRT_2 = Math.sqrt(2);
+
+        double verticalCost = 1;
+
+        /** Updates the goal, returns false if it can't be pursued anymore. */
+        boolean tick() {
+            return true;
+        }
+
+        boolean shouldReplan() {
+            return false;
+        }
+
+        /** Called when the player stands in the goal, returns true if pathing is done. */
+        boolean onReached() {
+            return true;
+        }
+
+        /** Called when no path could be found, returns true if pathing should stop. */
+        boolean onFailed() {
+            return true;
+        }
+
+        static double distance(double dx, double dz) {
+            double x = Math.abs(dx), z = Math.abs(dz);
+            return Math.max(x, z) + (SQRT_2 - 1) * Math.min(x, z);
+        }
+
+        double vertical(int dy) {
+            return Math.abs(dy) * verticalCost;
+        }
+    }
+
+    private static class GoalNear extends Goal {
+        private final int x, y, z, radius;
+
+        GoalNear(int x, int y, int z, int radius) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.radius = radius;
+        }
+
+        @Override
+        public boolean isInGoal(int x, int y, int z) {
+            return Math.abs(x - this.x) <= radius && Math.abs(y - this.y) <= radius && Math.abs(z - this.z) <= radius;
+        }
+
+        @Override
+        public double heuristic(int x, int y, int z) {
+            return distance(x - this.x, z - this.z) + vertical(y - this.y);
+        }
+    }
+
+    private static class GoalXZ extends Goal {
+        private final int x, z;
+
+        GoalXZ(int x, int z) {
+            this.x = x;
+            this.z = z;
+        }
+
+        @Override
+        public boolean isInGoal(int x, int y, int z) {
+            return x == this.x && z == this.z;
+        }
+
+        @Override
+        public double heuristic(int x, int y, int z) {
+            return distance(x - this.x, z - this.z);
+        }
+    }
+
+    private static class GoalDirection extends Goal {
+        private final float yaw;
+        private int x, z;
+
+        GoalDirection(float yaw) {
+            this.yaw = yaw;
+            update();
+        }
+
+        private void update() {
+            float theta = (float) Math.toRadians(yaw);
+
+            x = (int) Math.floor(mc.player.getX() - MathHelper.sin(theta) * 100);
+            z = (int) Math.floor(mc.player.getZ() + MathHelper.cos(theta) * 100);
+        }
+
+        @Override
+        boolean onReached() {
+            update();
+            return false;
+        }
+
+        @Override
+        boolean onFailed() {
+            update();
+            return false;
+        }
+
+        @Override
+        public boolean isInGoal(int x, int y, int z) {
+            return x == this.x && z == this.z;
+        }
+
+        @Override
+        public double heuristic(int x, int y, int z) {
+            return distance(x - this.x, z - this.z);
+        }
+    }
+
+    private static class GoalFollow extends Goal {
+        private static final int RADIUS = 2;
+
+        private final Predicate<Entity> predicate;
+        private Entity target;
+        private BlockPos targetPos;
+        private int timer;
+
+        GoalFollow(Predicate<Entity> predicate) {
+            this.predicate = predicate;
+        }
+
+        @Override
+        boolean tick() {
+            if (timer-- <= 0 || target == null || target.isRemoved()) {
+                timer = 10;
+                target = null;
+
+                double bestDistance = Double.MAX_VALUE;
+                for (Entity entity : EntityIndex.getEntities()) {
+                    if (entity == mc.player || entity.isRemoved() || !predicate.test(entity)) continue;
+
+                    double distance = entity.squaredDistanceTo(mc.player);
+                    if (distance < bestDistance) {
+                        bestDistance = distance;
+                        target = entity;
+                    }
+                }
+            }
+
+            // Keep following even without a target, one might come back into range
+            return true;
+        }
+
+        @Override
+        boolean shouldReplan() {
+            if (target == null) return false;
+
+            BlockPos pos = target.getBlockPos();
+            if (targetPos != null && targetPos.getManhattanDistance(pos) <= RADIUS) return false;
+
+            targetPos = pos;
+            return true;
+        }
+
+        @Override
+        boolean onReached() {
+            return false;
+        }
+
+        @Override
+        boolean onFailed() {
+            return false;
+        }
+
+        @Override
+        public boolean isInGoal(int x, int y, int z) {
+            return targetPos == null || (Math.abs(x - targetPos.getX()) <= RADIUS && Math.abs(y - targetPos.getY()) <= RADIUS && Math.abs(z - targetPos.getZ()) <= RADIUS);
+        }
+
+        @Override
+        public double heuristic(int x, int y, int z) {
+            return targetPos == null ? 0 : distance(x - targetPos.getX(), z - targetPos.getZ()) + vertical(y - targetPos.getY());
+        }
+    }
+
+    /**
+     * Walks to the closest matching block and breaks it. Paths don't break blocks on the way, so only blocks that can be
+     * reached from open space are mined, buried ones fail their search and are skipped.
+     */
+    private class GoalMine extends Goal {
+        private final Set<Block> blocks;
+        private final LongSet unreachable = new LongOpenHashSet();
+        private BlockPos target;
+
+        GoalMine(Set<Block> blocks) {
+            this.blocks = blocks;
+        }
+
+        @Override
+        boolean tick() {
+            if (target != null && blocks.contains(mc.world.getBlockState(target).getBlock())) return true;
+
+            target = find();
+            search.cancel();
+            clearPath();
+
+            return target != null;
+        }
+
+        @Override
+        boolean onReached() {
+            targetYaw = (float) Rotations.getYaw(target);
+            targetPitch = (float) Rotations.getPitch(target);
+
+            BlockPos pos = target;
+            Rotations.rotate(targetYaw, targetPitch, () -> BlockUtils.breakBlock(pos, true));
+
+            return false;
+        }
+
+        @Override
+        boolean onFailed() {
+            if (target != null) unreachable.add(target.asLong());
+            target = null;
+
+            return false;
+        }
+
+        @Override
+        public boolean isInGoal(int x, int y, int z) {
+            if (target == null) return false;
+
+            double dx = target.getX() - x, dy = target.getY() - (y + 1), dz = target.getZ() - z;
+            return dx * dx + dy * dy + dz * dz <= 9;
+        }
+
+        @Override
+        public double heuristic(int x, int y, int z) {
+            return target == null ? 0 : distance(x - target.getX(), z - target.getZ()) + vertical(y - target.getY());
+        }
+
+        /** Closest matching block in the chunks around the player, sections without a matching block are skipped. */
+        private BlockPos find() {
+            BlockPos.Mutable pos = new BlockPos.Mutable();
+            BlockPos best = null;
+            double bestDistance = Double.MAX_VALUE;
+
+            int playerChunkX = mc.player.getBlockX() >> 4, playerChunkZ = mc.player.getBlockZ() >> 4;
+
+            for (int cx = playerChunkX - MINE_RADIUS; cx <= playerChunkX + MINE_RADIUS; cx++) {
+                for (int cz = playerChunkZ - MINE_RADIUS; cz <= playerChunkZ + MINE_RADIUS; cz++) {
+                    WorldChunk chunk = mc.world.getChunkManager().getChunk(cx, cz, ChunkStatus.FULL, false);
+                    if (chunk == null) continue;
+
+                    ChunkSection[] sections = chunk.getSectionArray();
+
+                    for (int i = 0; i < sections.length; i++) {
+                        ChunkSection section = sections[i];
+                        if (section == null || section.isEmpty() || !section.hasAny(state -> blocks.contains(state.getBlock()))) continue;
+
+                        int sy = chunk.sectionIndexToCoord(i);
+
+                        for (int y = 0; y < 16; y++) {
+                            for (int z = 0; z < 16; z++) {
+                                for (int x = 0; x < 16; x++) {
+                                    BlockState state = section.getBlockState(x, y, z);
+                                    if (!blocks.contains(state.getBlock())) continue;
+
+                                    pos.set((cx << 4) + x, (sy << 4) + y, (cz << 4) + z);
+                                    if (unreachable.contains(pos.asLong())) continue;
+
+                                    double distance = mc.player.squaredDistanceTo(pos.getX() + 0.5, pos.getY() + 0.5, pos.getZ() + 0.5);
+                                    if (distance < bestDistance) {
+                                        bestDistance = distance;
+                                        best = pos.toImmutable();
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+
+            return best;
+        }
+    }
+}
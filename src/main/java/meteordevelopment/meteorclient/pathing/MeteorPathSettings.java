@@ -0,0 +1,135 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.pathing;
+
+import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.settings.*;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtIo;
+
+import java.io.File;
+import java.io.IOException;
+
+public class MeteorPathSettings implements IPathManager.ISettings {
+    private static final File FILE = new File(MeteorClient.FOLDER, "path-manager.nbt");
+
+    private final Settings settings = new Settings();
+
+    private final SettingGroup sgGeneral = settings.getDefaultGroup();
+    private final SettingGroup sgSearch = settings.createGroup("Search");
+
+    // General
+
+    private final Setting<Boolean> walkOnWater = sgGeneral.add(new BoolSetting.Builder()
+        .name("walk-on-water")
+        .description("Assumes the player can walk on water.")
+        .defaultValue(false)
+        .build()
+    );
+
+    private final Setting<Boolean> walkOnLava = sgGeneral.add(new BoolSetting.Builder()
+        .name("walk-on-lava")
+        .description("Assumes the player can walk on lava.")
+        .defaultValue(false)
+        .build()
+    );
+
+    private final Setting<Boolean> step = sgGeneral.add(new BoolSetting.Builder()
+        .name("step")
+        .description("Assumes the player can step up full blocks without jumping.")
+        .defaultValue(false)
+        .build()
+    );
+
+    private final Setting<Boolean> noFall = sgGeneral.add(new BoolSetting.Builder()
+        .name("no-fall")
+        .description("Assumes the player takes no fall damage.")
+        .defaultValue(false)
+        .build()
+    );
+
+    public final Setting<Boolean> sprint = sgGeneral.add(new BoolSetting.Builder()
+        .name("sprint")
+        .description("Sprints while following a path.")
+        .defaultValue(true)
+        .build()
+    );
+
+    // Search
+
+    public final Setting<Integer> maxFall = sgSearch.add(new IntSetting.Builder()
+        .name("max-fall")
+        .description("The highest drop the path can take when no-fall is disabled.")
+        .defaultValue(3)
+        .range(1, 20)
+        .sliderRange(1, 10)
+        .build()
+    );
+
+    public final Setting<Double> tickBudget = sgSearch.add(new DoubleSetting.Builder()
+        .name("tick-budget")
+        .description("How many milliseconds each tick can spend searching for a path.")
+        .defaultValue(2)
+        .range(0.1, 25)
+        .sliderRange(0.5, 10)
+        .build()
+    );
+
+    public final Setting<Integer> maxNodes = sgSearch.add(new IntSetting.Builder()
+        .name("max-nodes")
+        .description("How many positions a search can visit before it walks to the closest one it found.")
+        .defaultValue(50000)
+        .range(1000, 500000)
+        .sliderRange(1000, 200000)
+        .build()
+    );
+
+    public MeteorPathSettings() {
+        if (!FILE.exists()) return;
+
+        try {
+            NbtCompound tag = NbtIo.read(FILE.toPath());
+            if (tag != null) settings.fromTag(tag);
+        } catch (IOException e) {
+            MeteorClient.LOG.error("Error loading path manager settings.", e);
+        }
+    }
+
+    @Override
+    public Settings get() {
+        return settings;
+    }
+
+    @Override
+    public Setting<Boolean> getWalkOnWater() {
+        return walkOnWater;
+    }
+
+    @Override
+    public Setting<Boolean> getWalkOnLava() {
+        return walkOnLava;
+    }
+
+    @Override
+    public Setting<Boolean> getStep() {
+        return step;
+    }
+
+    @Override
+    public Setting<Boolean> getNoFall() {
+        return noFall;
+    }
+
+    @Override
+    public void save() {
+        try {
+            FILE.getParentFile().mkdirs();
+            NbtIo.write(settings.toTag(), FILE.toPath());
+        } catch (IOException e) {
+            MeteorClient.LOG.error("Error saving path manager settings.", e);
+        }
+    }
+}
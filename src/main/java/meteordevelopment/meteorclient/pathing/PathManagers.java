@@ -35,6 +35,10 @@ public class PathManagers {
                 INSTANCE = new BaritonePathManager();
         }
 
+        if (INSTANCE instanceof NopPathManager) {
+            INSTANCE = new MeteorPathManager();
+        }
+
         MeteorClient.LOG.info("Path Manager: {}", INSTANCE.getName());
     }
 
@@ -0,0 +1,380 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.pathing;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.Arrays;
+
+/**
+ * A* search over a {@link Grid} of walkability flags. A search is started once and then advanced in time boxed steps,
+ * so a long search is spread over several ticks instead of stalling one. Nodes are packed block positions of the
+ * player's feet, their state lives in parallel arrays indexed by node id.
+ * <p>
+ * The search only depends on the grid, so it can be run against any source of flags, not only the client world.
+ */
+public class PathSearch {
+    public static final int BLOCKED = 0;
+    public static final int PASSABLE = 1, SOLID = 2, WATER = 4, LAVA = 8, DANGER = 16;
+
+    private static final double SQRT_2 = Math.sqrt(2);
+
+    // Extra cost of a move that changes height on top of its horizontal step, per block of height
+    private static final double STEP_COST = 0.2, JUMP_COST = 1, FALL_COST = 0.5;
+
+    private static final int[] DX = { 1, -1, 0, 0, 1, 1, -1, -1 };
+    private static final int[] DZ = { 0, 0, 1, -1, 1, -1, 1, -1 };
+
+    private final Grid grid;
+
+    // Movement rules
+    public boolean walkOnWater, walkOnLava, step;
+    public int maxFall = 3;
+
+    // Nodes
+    private final Long2IntOpenHashMap ids = new Long2IntOpenHashMap();
+    private long[] positions = new long[1024];
+    private double[] costs = new double[1024];
+    private double[] scores = new double[1024];
+    private int[] parents = new int[1024];
+    private int[] heapIndices = new int[1024];
+    private int nodeCount;
+
+    // Open set, binary heap of node ids ordered by score
+    private int[] heap = new int[1024];
+    private int heapSize;
+
+    private Goal goal;
+    private int maxNodes;
+    private int best;
+    private double bestHeuristic;
+    private int expanded;
+    private State state = State.Idle;
+    private final LongList path = new LongArrayList();
+
+    public PathSearch(Grid grid) {
+        this.grid = grid;
+        ids.defaultReturnValue(-1);
+    }
+
+    public void start(int x, int y, int z, Goal goal, int maxNodes) {
+        ids.clear();
+        nodeCount = 0;
+        heapSize = 0;
+        expanded = 0;
+        path.clear();
+
+        this.goal = goal;
+        this.maxNodes = maxNodes;
+
+        int start = node(BlockPos.asLong(x, y, z), 0, goal.heuristic(x, y, z), -1);
+        push(start);
+
+        best = start;
+        bestHeuristic = goal.heuristic(x, y, z);
+        state = State.Searching;
+    }
+
+    /** Expands nodes until the search is done or the time budget in nanoseconds runs out. */
+    public State step(long budget) {
+        if (state != State.Searching) return state;
+
+        long end = System.nanoTime() + budget;
+
+        while (heapSize > 0) {
+            // Checking the clock every node would cost more than expanding it
+            if ((expanded & 63) == 63 && System.nanoTime() > end) return state;
+
+            int node = pop();
+            long pos = positions[node];
+            int x = BlockPos.unpackLongX(pos), y = BlockPos.unpackLongY(pos), z = BlockPos.unpackLongZ(pos);
+
+            if (goal.isInGoal(x, y, z)) {
+                finish(node, State.Found);
+                return state;
+            }
+
+            expanded++;
+            expand(node, x, y, z);
+
+            if (nodeCount >= maxNodes) break;
+        }
+
+        // Ran out of nodes, walk to the node that got closest to the goal and search again from there
+        finish(best, best == 0 ? State.Failed : State.Partial);
+        return state;
+    }
+
+    public void cancel() {
+        state = State.Idle;
+        heapSize = 0;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /** The found path including the start node, only valid after the search finished with {@link State#Found} or {@link State#Partial}. */
+    public LongList getPath() {
+        return path;
+    }
+
+    public int getExpanded() {
+        return expanded;
+    }
+
+    /**
+     * Lowest cost a block of height difference adds to a path with the current movement rules. Goals multiply their
+     * vertical distance by it, a full block per block of height would overestimate falls and steps and make the search
+     * return paths that aren't the cheapest.
+     */
+    public double getVerticalCost() {
+        return Math.min(step ? STEP_COST : JUMP_COST, FALL_COST);
+    }
+
+    private void finish(int node, State state) {
+        path.clear();
+
+        for (int i = node; i != -1; i = parents[i]) path.add(positions[i]);
+        for (int i = 0, j = path.size() - 1; i < j; i++, j--) {
+            long tmp = path.getLong(i);
+            path.set(i, path.getLong(j));
+            path.set(j, tmp);
+        }
+
+        heapSize = 0;
+        this.state = state;
+    }
+
+    // Moves
+
+    /**
+     * Checks whether the move between two neighbouring nodes of a path is still possible with the current grid, using
+     * the same rules the search expands nodes with.
+     */
+    public boolean canMove(long from, long to) {
+        int x = BlockPos.unpackLongX(from), y = BlockPos.unpackLongY(from), z = BlockPos.unpackLongZ(from);
+        int nx = BlockPos.unpackLongX(to), ny = BlockPos.unpackLongY(to), nz = BlockPos.unpackLongZ(to);
+
+        int dx = nx - x, dz = nz - z;
+        if (Math.abs(dx) > 1 || Math.abs(dz) > 1 || (dx == 0 && dz == 0)) return false;
+
+        // Diagonal
+        if (dx != 0 && dz != 0) {
+            if (ny != y) return false;
+            if (!passable(nx, y, z) || !passable(nx, y + 1, z)) return false;
+            if (!passable(x, y, nz) || !passable(x, y + 1, nz)) return false;
+
+            return canStandAt(nx, y, nz);
+        }
+
+        // Flat
+        if (ny == y) return canStandAt(nx, y, nz);
+
+        // Up
+        if (ny == y + 1) return canStandAt(nx, ny, nz) && passable(x, y + 2, z);
+
+        // Down, the player stops falling at the first position it can stand at
+        if (ny > y || y - ny > maxFall) return false;
+        if (!passable(nx, y, nz) || !passable(nx, y + 1, nz)) return false;
+
+        for (int fy = y - 1; fy > ny; fy--) {
+            if (!passable(nx, fy, nz) || canStandAt(nx, fy, nz)) return false;
+        }
+
+        return canStandAt(nx, ny, nz);
+    }
+
+    private void expand(int node, int x, int y, int z) {
+        for (int i = 0; i < DX.length; i++) {
+            int nx = x + DX[i], nz = z + DZ[i];
+
+            if (i >= 4) {
+                // Diagonals only on flat ground and without cutting corners
+                if (!passable(x + DX[i], y, z) || !passable(x + DX[i], y + 1, z)) continue;
+                if (!passable(x, y, z + DZ[i]) || !passable(x, y + 1, z + DZ[i])) continue;
+                if (canStandAt(nx, y, nz)) relax(node, nx, y, nz, SQRT_2 * moveCost(nx, y, nz));
+
+                continue;
+            }
+
+            // Flat
+            if (canStandAt(nx, y, nz)) {
+                relax(node, nx, y, nz, moveCost(nx, y, nz));
+                continue;
+            }
+
+            // Up
+            if (canStandAt(nx, y + 1, nz) && passable(x, y + 2, z)) {
+                relax(node, nx, y + 1, nz, 1 + (step ? STEP_COST : JUMP_COST));
+                continue;
+            }
+
+            // Down
+            if (!passable(nx, y, nz) || !passable(nx, y + 1, nz)) continue;
+
+            for (int ny = y - 1; ny >= y - maxFall; ny--) {
+                if (!passable(nx, ny, nz)) break;
+
+                if (canStandAt(nx, ny, nz)) {
+                    relax(node, nx, ny, nz, 1 + (y - ny) * FALL_COST);
+                    break;
+                }
+            }
+        }
+    }
+
+    private double moveCost(int x, int y, int z) {
+        return (grid.get(x, y, z) & WATER) != 0 ? 2 : 1;
+    }
+
+    private boolean passable(int x, int y, int z) {
+        int flags = grid.get(x, y, z);
+        return (flags & PASSABLE) != 0 && (flags & (LAVA | DANGER)) == 0;
+    }
+
+    private boolean canStandOn(int x, int y, int z) {
+        int flags = grid.get(x, y, z);
+        if ((flags & DANGER) != 0) return false;
+
+        return (flags & SOLID) != 0 || (walkOnWater && (flags & WATER) != 0) || (walkOnLava && (flags & LAVA) != 0);
+    }
+
+    private boolean canStandAt(int x, int y, int z) {
+        if (!passable(x, y, z) || !passable(x, y + 1, z)) return false;
+        return canStandOn(x, y - 1, z) || (grid.get(x, y, z) & WATER) != 0;
+    }
+
+    private void relax(int parent, int x, int y, int z, double cost) {
+        long pos = BlockPos.asLong(x, y, z);
+        double newCost = costs[parent] + cost;
+
+        int node = ids.get(pos);
+
+        if (node == -1) {
+            double heuristic = goal.heuristic(x, y, z);
+            node = node(pos, newCost, newCost + heuristic, parent);
+            push(node);
+
+            if (heuristic < bestHeuristic) {
+                best = node;
+                bestHeuristic = heuristic;
+            }
+        }
+        else if (newCost < costs[node]) {
+            scores[node] -= costs[node] - newCost;
+            costs[node] = newCost;
+            parents[node] = parent;
+
+            if (heapIndices[node] == -1) push(node);
+            else siftUp(heapIndices[node]);
+        }
+    }
+
+    private int node(long pos, double cost, double score, int parent) {
+        if (nodeCount == positions.length) {
+            int length = positions.length * 2;
+
+            positions = Arrays.copyOf(positions, length);
+            costs = Arrays.copyOf(costs, length);
+            scores = Arrays.copyOf(scores, length);
+            parents = Arrays.copyOf(parents, length);
+            heapIndices = Arrays.copyOf(heapIndices, length);
+        }
+
+        int node = nodeCount++;
+
+        positions[node] = pos;
+        costs[node] = cost;
+        scores[node] = score;
+        parents[node] = parent;
+        heapIndices[node] = -1;
+
+        ids.put(pos, node);
+        return node;
+    }
+
+    // Heap
+
+    private void push(int node) {
+        if (heapSize == heap.length) heap = Arrays.copyOf(heap, heap.length * 2);
+
+        heap[heapSize] = node;
+        heapIndices[node] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    private int pop() {
+        int node = heap[0];
+        heapIndices[node] = -1;
+
+        if (--heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapIndices[heap[0]] = 0;
+            siftDown(0);
+        }
+
+        return node;
+    }
+
+    private void siftUp(int i) {
+        int node = heap[i];
+
+        while (i > 0) {
+            int parent = (i - 1) >> 1;
+            if (scores[heap[parent]] <= scores[node]) break;
+
+            heap[i] = heap[parent];
+            heapIndices[heap[i]] = i;
+            i = parent;
+        }
+
+        heap[i] = node;
+        heapIndices[node] = i;
+    }
+
+    private void siftDown(int i) {
+        int node = heap[i];
+
+        while (true) {
+            int child = (i << 1) + 1;
+            if (child >= heapSize) break;
+
+            if (child + 1 < heapSize && scores[heap[child + 1]] < scores[heap[child]]) child++;
+            if (scores[node] <= scores[heap[child]]) break;
+
+            heap[i] = heap[child];
+            heapIndices[heap[i]] = i;
+            i = child;
+        }
+
+        heap[i] = node;
+        heapIndices[node] = i;
+    }
+
+    public enum State {
+        Idle,
+        Searching,
+        Found,
+        Partial,
+        Failed
+    }
+
+    /** Walkability flags of the block at a position, see the flag constants. Unknown positions are {@link #BLOCKED}. */
+    public interface Grid {
+        int get(int x, int y, int z);
+    }
+
+    public interface Goal {
+        boolean isInGoal(int x, int y, int z);
+
+        /** Estimated cost to the goal, paths are only the cheapest if it never overestimates, see {@link #getVerticalCost()}. */
+        double heuristic(int x, int y, int z);
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.pathing;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.*;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.fluid.FluidState;
+import net.minecraft.registry.tag.FluidTags;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.ChunkStatus;
+import net.minecraft.world.chunk.WorldChunk;
+
+import java.util.Arrays;
+
+import static meteordevelopment.meteorclient.MeteorClient.mc;
+
+/**
+ * {@link PathSearch.Grid} over the client world. Flags are computed once per chunk section, a byte per block, when the
+ * search first reaches the section and are then only updated for changed blocks. Must only be used from the client thread.
+ */
+public class WalkabilityCache implements PathSearch.Grid {
+    private static final byte[] EMPTY = new byte[4096];
+
+    static {
+        Arrays.fill(EMPTY, (byte) PathSearch.PASSABLE);
+    }
+
+    private final Long2ObjectMap<byte[]> sections = new Long2ObjectOpenHashMap<>();
+    private final BlockPos.Mutable blockPos = new BlockPos.Mutable();
+
+    private ClientWorld world;
+
+    @Override
+    public int get(int x, int y, int z) {
+        if (mc.world != world) {
+            sections.clear();
+            world = mc.world;
+        }
+
+        if (world == null || y < world.getBottomY()) return PathSearch.BLOCKED;
+        if (y > world.getTopYInclusive()) return PathSearch.PASSABLE;
+
+        long key = ChunkSectionPos.asLong(x >> 4, y >> 4, z >> 4);
+        byte[] flags = sections.get(key);
+
+        if (flags == null) {
+            flags = build(x >> 4, y >> 4, z >> 4);
+            if (flags == null) return PathSearch.BLOCKED;
+
+            sections.put(key, flags);
+        }
+
+        return flags[index(x, y, z)];
+    }
+
+    public void update(BlockPos pos, BlockState state) {
+        byte[] flags = sections.get(ChunkSectionPos.asLong(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4));
+        if (flags == null) return;
+
+        // Empty sections share one array
+        if (flags == EMPTY) {
+            flags = EMPTY.clone();
+            sections.put(ChunkSectionPos.asLong(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4), flags);
+        }
+
+        flags[index(pos.getX(), pos.getY(), pos.getZ())] = (byte) classify(state, pos);
+    }
+
+    public void invalidateChunk(int chunkX, int chunkZ) {
+        if (world == null) return;
+
+        for (int sy = world.getBottomSectionCoord(); sy <= world.getTopSectionCoord(); sy++) {
+            sections.remove(ChunkSectionPos.asLong(chunkX, sy, chunkZ));
+        }
+    }
+
+    public void clear() {
+        sections.clear();
+        world = null;
+    }
+
+    private byte[] build(int sx, int sy, int sz) {
+        WorldChunk chunk = world.getChunkManager().getChunk(sx, sz, ChunkStatus.FULL, false);
+        if (chunk == null) return null;
+
+        ChunkSection section = chunk.getSectionArray()[chunk.sectionCoordToIndex(sy)];
+        if (section == null || section.isEmpty()) return EMPTY;
+
+        byte[] flags = new byte[4096];
+
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    BlockState state = section.getBlockState(x, y, z);
+                    blockPos.set((sx << 4) + x, (sy << 4) + y, (sz << 4) + z);
+
+                    flags[(y << 8) | (z << 4) | x] = (byte) classify(state, blockPos);
+                }
+            }
+        }
+
+        return flags;
+    }
+
+    private int classify(BlockState state, BlockPos pos) {
+        if (state.isAir()) return PathSearch.PASSABLE;
+
+        Block block = state.getBlock();
+        if (isDangerous(block)) return PathSearch.DANGER;
+
+        FluidState fluid = state.getFluidState();
+        if (fluid.isIn(FluidTags.LAVA)) return PathSearch.LAVA;
+
+        if (state.getCollisionShape(world, pos).isEmpty()) {
+            return fluid.isIn(FluidTags.WATER) ? PathSearch.PASSABLE | PathSearch.WATER : PathSearch.PASSABLE;
+        }
+
+        // Slabs, fences and other partial blocks are neither walked through nor on
+        return state.isSideSolidFullSquare(world, pos, Direction.UP) ? PathSearch.SOLID : PathSearch.BLOCKED;
+    }
+
+    private static boolean isDangerous(Block block) {
+        return block instanceof AbstractFireBlock
+            || block instanceof CampfireBlock
+            || block == Blocks.CACTUS
+            || block == Blocks.MAGMA_BLOCK
+            || block == Blocks.SWEET_BERRY_BUSH
+            || block == Blocks.POWDER_SNOW
+            || block == Blocks.COBWEB
+            || block == Blocks.WITHER_ROSE;
+    }
+
+    private static int index(int x, int y, int z) {
+        return ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+    }
+}
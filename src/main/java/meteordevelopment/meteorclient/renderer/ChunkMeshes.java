@@ -0,0 +1,127 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.renderer;
+
+import com.mojang.blaze3d.pipeline.RenderPipeline;
+import it.unimi.dsi.fastutil.longs.*;
+import meteordevelopment.meteorclient.utils.render.color.Color;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.util.math.ChunkPos;
+
+/**
+ * A set of {@link RetainedMesh}es keyed by {@link ChunkPos#toLong()}. Only meshes marked dirty are rebuilt, everything
+ * else is drawn straight from the GPU buffers. Must only be used from the render thread.
+ */
+public class ChunkMeshes {
+    private final RenderPipeline linesPipeline, trianglesPipeline;
+    private Renderer3D renderer;
+
+    private final Long2ObjectMap<RetainedMesh> meshes = new Long2ObjectOpenHashMap<>();
+    private final LongSet dirty = new LongOpenHashSet();
+
+    public ChunkMeshes(RenderPipeline lines, RenderPipeline triangles) {
+        this.linesPipeline = lines;
+        this.trianglesPipeline = triangles;
+    }
+
+    public void markDirty(long key) {
+        dirty.add(key);
+    }
+
+    public void markDirty(int chunkX, int chunkZ) {
+        dirty.add(ChunkPos.toLong(chunkX, chunkZ));
+    }
+
+    public void markAllDirty() {
+        dirty.addAll(meshes.keySet());
+    }
+
+    public boolean isDirty(long key) {
+        return dirty.contains(key);
+    }
+
+    public void remove(long key) {
+        RetainedMesh mesh = meshes.remove(key);
+        if (mesh != null) mesh.close();
+
+        dirty.remove(key);
+    }
+
+    /** Removes all meshes whose key does not match the predicate. */
+    public void retain(LongPredicate predicate) {
+        for (var it = meshes.long2ObjectEntrySet().iterator(); it.hasNext();) {
+            Long2ObjectMap.Entry<RetainedMesh> entry = it.next();
+
+            if (!predicate.test(entry.getLongKey())) {
+                entry.getValue().close();
+                dirty.remove(entry.getLongKey());
+                it.remove();
+            }
+        }
+    }
+
+    public void clear() {
+        for (RetainedMesh mesh : meshes.values()) mesh.close();
+
+        meshes.clear();
+        dirty.clear();
+    }
+
+    /**
+     * Rebuilds every dirty mesh.
+     * @return the number of rebuilt meshes
+     */
+    public int rebuild(Builder builder) {
+        if (dirty.isEmpty()) return 0;
+
+        int rebuilt = 0;
+
+        for (LongIterator it = dirty.iterator(); it.hasNext();) {
+            long key = it.nextLong();
+
+            RetainedMesh mesh = meshes.get(key);
+
+            if (mesh == null) {
+                mesh = new RetainedMesh();
+                meshes.put(key, mesh);
+            }
+
+            build(key, mesh, builder);
+            rebuilt++;
+        }
+
+        dirty.clear();
+        return rebuilt;
+    }
+
+    /** Uploads the geometry of a single mesh, the shared scratch renderer is only created once something is built. */
+    void build(long key, RetainedMesh mesh, Builder builder) {
+        if (renderer == null) renderer = new Renderer3D(linesPipeline, trianglesPipeline);
+
+        mesh.build(renderer, ChunkPos.getPackedX(key) * 16, 0, ChunkPos.getPackedZ(key) * 16, r -> builder.build(key, r));
+    }
+
+    public void render(MatrixStack matrices) {
+        render(matrices, Color.WHITE, Color.WHITE);
+    }
+
+    /**
+     * Draws every mesh with its line and triangle colors multiplied by the given ones. Meshes built in white can be
+     * drawn in colors that change every frame, like rainbow ones, without being rebuilt.
+     */
+    public void render(MatrixStack matrices, Color lineColor, Color sideColor) {
+        for (RetainedMesh mesh : meshes.values()) mesh.render(matrices, linesPipeline, trianglesPipeline, lineColor, sideColor);
+    }
+
+    public int size() {
+        return meshes.size();
+    }
+
+    @FunctionalInterface
+    public interface Builder {
+        void build(long key, Renderer3D renderer);
+    }
+}
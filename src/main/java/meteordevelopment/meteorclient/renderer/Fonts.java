@@ -14,12 +14,14 @@ import meteordevelopment.meteorclient.renderer.text.FontFamily;
 import meteordevelopment.meteorclient.renderer.text.FontInfo;
 import meteordevelopment.meteorclient.systems.config.Config;
 import meteordevelopment.meteorclient.utils.PreInit;
+import meteordevelopment.meteorclient.utils.render.FontCache;
 import meteordevelopment.meteorclient.utils.render.FontUtils;
 
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 
 import static meteordevelopment.meteorclient.MeteorClient.mc;
 
@@ -32,24 +34,60 @@ public class Fonts {
     public static final List<FontFamily> FONT_FAMILIES = new ArrayList<>();
     public static CustomTextRenderer RENDERER;
 
+    // Incremented by every refresh so the result of an older scan is dropped
+    private static int generation;
+    private static boolean scanning;
+    private static final List<Runnable> afterScan = new ArrayList<>();
+
     private Fonts() {
     }
 
+    /**
+     * Loads the builtin fonts and the system fonts that are in the {@link FontCache}. Font files that are new or changed
+     * since the last start are read on a background thread and added once all of them are done.
+     */
     @PreInit
     public static void refresh() {
+        long start = System.nanoTime();
+        int generation = ++Fonts.generation;
+
         FONT_FAMILIES.clear();
 
         for (String builtinFont : BUILTIN_FONTS) {
             FontUtils.loadBuiltin(FONT_FAMILIES, builtinFont);
         }
 
+        // System fonts
+        List<File> files = new ArrayList<>();
         for (String fontPath : FontUtils.getSearchPaths()) {
-            FontUtils.loadSystem(FONT_FAMILIES, new File(fontPath));
+            FontUtils.findSystem(new File(fontPath), files);
+        }
+
+        Map<String, FontCache.Entry> cache = FontCache.read();
+        List<FontCache.Entry> cached = new ArrayList<>();
+        List<File> changed = new ArrayList<>();
+
+        for (File file : files) {
+            FontCache.Entry entry = cache.get(file.getAbsolutePath());
+
+            if (entry != null && entry.matches(file)) {
+                cached.add(entry);
+                if (entry.info() != null) FontUtils.loadSystem(FONT_FAMILIES, entry.info(), file);
+            }
+            else changed.add(file);
         }
 
         FONT_FAMILIES.sort(Comparator.comparing(FontFamily::getName));
 
-        MeteorClient.LOG.info("Found {} font families.", FONT_FAMILIES.size());
+        MeteorClient.LOG.info("Found {} font families in {} ms, {} font files were unchanged and {} need to be scanned.", FONT_FAMILIES.size(), (System.nanoTime() - start) / 1_000_000, cached.size(), changed.size());
+
+        scanning = !changed.isEmpty() || cache.size() != cached.size();
+
+        if (scanning) scan(generation, cached, changed);
+        else {
+            afterScan.forEach(Runnable::run);
+            afterScan.clear();
+        }
 
         DEFAULT_FONT_FAMILY = FontUtils.getBuiltinFontInfo(BUILTIN_FONTS[1]).family();
         DEFAULT_FONT = getFamily(DEFAULT_FONT_FAMILY).get(FontInfo.Type.Regular);
@@ -58,6 +96,49 @@ public class Fonts {
         load(config != null ? config.font.get() : DEFAULT_FONT);
     }
 
+    private static void scan(int generation, List<FontCache.Entry> cached, List<File> changed) {
+        Thread thread = new Thread(() -> {
+            long start = System.nanoTime();
+            List<FontCache.Entry> scanned = changed.parallelStream().map(FontCache.Entry::scan).toList();
+
+            // Also drops fonts that were removed
+            List<FontCache.Entry> entries = new ArrayList<>(cached);
+            entries.addAll(scanned);
+            FontCache.write(entries);
+
+            mc.execute(() -> {
+                if (generation != Fonts.generation) return;
+
+                for (FontCache.Entry entry : scanned) {
+                    if (entry.info() != null) FontUtils.loadSystem(FONT_FAMILIES, entry.info(), new File(entry.path()));
+                }
+
+                FONT_FAMILIES.sort(Comparator.comparing(FontFamily::getName));
+
+                scanning = false;
+                afterScan.forEach(Runnable::run);
+                afterScan.clear();
+
+                MeteorClient.LOG.info("Scanned {} font files in {} ms, found {} font families.", scanned.size(), (System.nanoTime() - start) / 1_000_000, FONT_FAMILIES.size());
+            });
+        });
+
+        thread.setDaemon(true);
+        thread.setName("Meteor-Font-Scan");
+        thread.start();
+    }
+
+    /** Whether system fonts that weren't in the cache are still being scanned. */
+    public static boolean isScanning() {
+        return scanning;
+    }
+
+    /** Runs the action on the client thread once the running scan added its fonts, used to restore fonts that were saved. */
+    public static void afterScan(Runnable action) {
+        if (scanning) afterScan.add(action);
+        else action.run();
+    }
+
     public static void load(FontFace fontFace) {
         if (RENDERER != null) {
             if (RENDERER.fontFace.equals(fontFace)) return;
@@ -7,6 +7,7 @@ package meteordevelopment.meteorclient.renderer;
 
 import com.mojang.blaze3d.buffers.GpuBuffer;
 import com.mojang.blaze3d.pipeline.RenderPipeline;
+import com.mojang.blaze3d.systems.RenderSystem;
 import com.mojang.blaze3d.vertex.VertexFormat;
 import meteordevelopment.meteorclient.utils.Utils;
 import meteordevelopment.meteorclient.utils.render.color.Color;
@@ -15,6 +16,7 @@ import net.minecraft.util.math.Vec3d;
 import org.lwjgl.BufferUtils;
 
 import java.nio.ByteBuffer;
+import java.util.function.Supplier;
 
 import static meteordevelopment.meteorclient.MeteorClient.mc;
 import static org.lwjgl.system.MemoryUtil.*;
@@ -37,7 +39,7 @@ public class MeshBuilder {
     private int vertexI, indicesCount;
 
     private boolean building;
-    private double cameraX, cameraZ;
+    private double cameraX, cameraY, cameraZ;
 
     public MeshBuilder(RenderPipeline pipeline) {
         this(pipeline.getVertexFormat(), pipeline.getVertexFormatMode());
@@ -55,6 +57,17 @@ public class MeshBuilder {
     }
 
     public void begin() {
+        if (Utils.rendering3D) {
+            Vec3d camera = mc.gameRenderer.getCamera().getPos();
+            begin(camera.x, 0, camera.z);
+        }
+        else {
+            begin(0, 0, 0);
+        }
+    }
+
+    /** Begins building with all positions relative to the given origin, used by {@link RetainedMesh}. */
+    public void begin(double originX, double originY, double originZ) {
         if (building) throw new IllegalStateException("Mesh.begin() called while already building.");
 
         verticesPointer = verticesPointerStart;
@@ -63,16 +76,9 @@ public class MeshBuilder {
 
         building = true;
 
-        if (Utils.rendering3D) {
-            Vec3d camera = mc.gameRenderer.getCamera().getPos();
-
-            cameraX = camera.x;
-            cameraZ = camera.z;
-        }
-        else {
-            cameraX = 0;
-            cameraZ = 0;
-        }
+        cameraX = originX;
+        cameraY = originY;
+        cameraZ = originZ;
     }
 
     public MeshBuilder vec3(double x, double y, double z) {
@@ -81,7 +87,7 @@ public class MeshBuilder {
         long p = verticesPointer;
 
         memPutFloat(p, (float) (x - cameraX));
-        memPutFloat(p + 4, (float) y);
+        memPutFloat(p + 4, (float) (y - cameraY));
         memPutFloat(p + 8, (float) (z - cameraZ));
 
         verticesPointer += 12;
@@ -229,6 +235,18 @@ public class MeshBuilder {
         return format.uploadImmediateIndexBuffer(indices);
     }
 
+    /** Uploads the built vertices into a new buffer owned by the caller. */
+    public GpuBuffer createVertexBuffer(Supplier<String> label) {
+        vertices.limit(getVerticesOffset());
+        return RenderSystem.getDevice().createBuffer(label, GpuBuffer.USAGE_VERTEX, vertices);
+    }
+
+    /** Uploads the built indices into a new buffer owned by the caller. */
+    public GpuBuffer createIndexBuffer(Supplier<String> label) {
+        indices.limit(indicesCount * Integer.BYTES);
+        return RenderSystem.getDevice().createBuffer(label, GpuBuffer.USAGE_INDEX, indices);
+    }
+
     public int getIndicesCount() {
         return indicesCount;
     }
@@ -41,6 +41,7 @@ public class MeshRenderer {
     private @Nullable GpuBuffer vertexBuffer;
     private @Nullable GpuBuffer indexBuffer;
     private Matrix4f matrix;
+    private @Nullable Color color;
     private final HashMap<String, GpuBufferSlice> uniforms = new HashMap<>();
     private final HashMap<String, GpuTextureView> samplers = new HashMap<>();
 
@@ -107,6 +108,12 @@ public class MeshRenderer {
         return this;
     }
 
+    /** Multiplies every vertex color of the mesh. */
+    public MeshRenderer color(Color color) {
+        this.color = color;
+        return this;
+    }
+
     public MeshRenderer fullscreen() {
         return this.mesh(FullScreenRenderer.vbo, FullScreenRenderer.ibo);
     }
@@ -154,7 +161,7 @@ public class MeshRenderer {
                     OptionalInt.of(ColorHelper.getArgb(this.clearColor.a, this.clearColor.r, this.clearColor.g, this.clearColor.b)) :
                     OptionalInt.empty();
 
-                GpuBufferSlice meshData = MeshUniforms.write(RenderUtils.projection, RenderSystem.getModelViewStack());
+                GpuBufferSlice meshData = MeshUniforms.write(RenderUtils.projection, RenderSystem.getModelViewStack(), color);
 
                 RenderPass pass = (depthAttachment != null && pipeline.wantsDepthTexture()) ?
                     RenderSystem.getDevice().createCommandEncoder().createRenderPass(() -> "Meteor MeshRenderer", colorAttachment, clearColor, depthAttachment, OptionalDouble.empty()) :
@@ -191,6 +198,7 @@ public class MeshRenderer {
         vertexBuffer = null;
         indexBuffer = null;
         matrix = null;
+        color = null;
         uniforms.clear();
         samplers.clear();
 
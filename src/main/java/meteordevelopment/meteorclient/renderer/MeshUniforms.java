@@ -8,7 +8,9 @@ package meteordevelopment.meteorclient.renderer;
 import com.mojang.blaze3d.buffers.GpuBufferSlice;
 import com.mojang.blaze3d.buffers.Std140Builder;
 import com.mojang.blaze3d.buffers.Std140SizeCalculator;
+import meteordevelopment.meteorclient.utils.render.color.Color;
 import net.minecraft.client.gl.DynamicUniformStorage;
+import org.jetbrains.annotations.Nullable;
 import org.joml.Matrix4f;
 
 import java.nio.ByteBuffer;
@@ -17,6 +19,7 @@ public class MeshUniforms {
     public static final int SIZE = new Std140SizeCalculator()
         .putMat4f()
         .putMat4f()
+        .putVec4()
         .get();
 
     private static final Data DATA = new Data();
@@ -28,8 +31,14 @@ public class MeshUniforms {
     }
 
     public static GpuBufferSlice write(Matrix4f proj, Matrix4f modelView) {
+        return write(proj, modelView, null);
+    }
+
+    /** The color multiplies every vertex color, so retained geometry can be built white and tinted when drawn. */
+    public static GpuBufferSlice write(Matrix4f proj, Matrix4f modelView, @Nullable Color color) {
         DATA.proj = proj;
         DATA.modelView = modelView;
+        DATA.color = color;
 
         return STORAGE.write(DATA);
     }
@@ -37,12 +46,16 @@ public class MeshUniforms {
     private static final class Data implements DynamicUniformStorage.Uploadable {
         private Matrix4f proj;
         private Matrix4f modelView;
+        private @Nullable Color color;
 
         @Override
         public void write(ByteBuffer buffer) {
-            Std140Builder.intoBuffer(buffer)
+            Std140Builder builder = Std140Builder.intoBuffer(buffer)
                 .putMat4f(proj)
                 .putMat4f(modelView);
+
+            if (color == null) builder.putVec4(1, 1, 1, 1);
+            else builder.putVec4(color.r / 255f, color.g / 255f, color.b / 255f, color.a / 255f);
         }
 
         @Override
@@ -0,0 +1,111 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.renderer;
+
+import com.mojang.blaze3d.buffers.GpuBuffer;
+import com.mojang.blaze3d.pipeline.RenderPipeline;
+import meteordevelopment.meteorclient.utils.render.color.Color;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.util.math.Vec3d;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Matrix4f;
+
+import java.util.function.Consumer;
+
+import static meteordevelopment.meteorclient.MeteorClient.mc;
+
+/**
+ * Geometry that is built once, kept in GPU buffers and drawn every frame with only a camera offset applied.
+ * Positions are stored relative to the mesh origin so they keep full float precision far away from 0, 0.
+ */
+public class RetainedMesh implements AutoCloseable {
+    private static final Matrix4f MATRIX = new Matrix4f();
+
+    private double originX, originY, originZ;
+
+    private @Nullable GpuBuffer lineVertices, lineIndices;
+    private @Nullable GpuBuffer triangleVertices, triangleIndices;
+
+    /**
+     * Rebuilds the mesh. The builder writes world space positions into {@code renderer}, which is only used as scratch
+     * space and can be shared between meshes.
+     */
+    public void build(Renderer3D renderer, double originX, double originY, double originZ, Consumer<Renderer3D> builder) {
+        this.originX = originX;
+        this.originY = originY;
+        this.originZ = originZ;
+
+        renderer.lines.begin(originX, originY, originZ);
+        renderer.triangles.begin(originX, originY, originZ);
+
+        builder.accept(renderer);
+
+        renderer.lines.end();
+        renderer.triangles.end();
+
+        close();
+
+        if (renderer.lines.getIndicesCount() > 0) {
+            lineVertices = renderer.lines.createVertexBuffer(() -> "Meteor - Retained lines VBO");
+            lineIndices = renderer.lines.createIndexBuffer(() -> "Meteor - Retained lines IBO");
+        }
+
+        if (renderer.triangles.getIndicesCount() > 0) {
+            triangleVertices = renderer.triangles.createVertexBuffer(() -> "Meteor - Retained triangles VBO");
+            triangleIndices = renderer.triangles.createIndexBuffer(() -> "Meteor - Retained triangles IBO");
+        }
+    }
+
+    public boolean isEmpty() {
+        return lineIndices == null && triangleIndices == null;
+    }
+
+    public void render(MatrixStack matrices, RenderPipeline linesPipeline, RenderPipeline trianglesPipeline) {
+        render(matrices, linesPipeline, trianglesPipeline, Color.WHITE, Color.WHITE);
+    }
+
+    /** Draws the mesh with its line and triangle colors multiplied by the given ones. */
+    public void render(MatrixStack matrices, RenderPipeline linesPipeline, RenderPipeline trianglesPipeline, Color lineColor, Color sideColor) {
+        if (isEmpty()) return;
+
+        // The vertical camera offset is applied by MeshRenderer
+        Vec3d camera = mc.gameRenderer.getCamera().getPos();
+        MATRIX.set(matrices.peek().getPositionMatrix()).translate((float) (originX - camera.x), (float) originY, (float) (originZ - camera.z));
+
+        if (lineIndices != null) {
+            MeshRenderer.begin()
+                .attachments(mc.getFramebuffer())
+                .pipeline(linesPipeline)
+                .mesh(lineVertices, lineIndices)
+                .transform(MATRIX)
+                .color(lineColor)
+                .end();
+        }
+
+        if (triangleIndices != null) {
+            MeshRenderer.begin()
+                .attachments(mc.getFramebuffer())
+                .pipeline(trianglesPipeline)
+                .mesh(triangleVertices, triangleIndices)
+                .transform(MATRIX)
+                .color(sideColor)
+                .end();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (lineVertices != null) lineVertices.close();
+        if (lineIndices != null) lineIndices.close();
+        if (triangleVertices != null) triangleVertices.close();
+        if (triangleIndices != null) triangleIndices.close();
+
+        lineVertices = null;
+        lineIndices = null;
+        triangleVertices = null;
+        triangleIndices = null;
+    }
+}
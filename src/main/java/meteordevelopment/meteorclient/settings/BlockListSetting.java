@@ -5,7 +5,10 @@
 
 package meteordevelopment.meteorclient.settings;
 
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ReferenceSet;
 import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtElement;
 import net.minecraft.nbt.NbtList;
@@ -22,6 +25,8 @@ import java.util.function.Predicate;
 public class BlockListSetting extends Setting<List<Block>> {
     public final Predicate<Block> filter;
 
+    private volatile ReferenceSet<Block> compiled;
+
     public BlockListSetting(String name, String description, List<Block> defaultValue, Consumer<List<Block>> onChanged, Consumer<Setting<List<Block>>> onModuleActivated, Predicate<Block> filter, IVisible visible) {
         super(name, description, defaultValue, onChanged, onModuleActivated, visible);
 
@@ -58,6 +63,32 @@ public class BlockListSetting extends Setting<List<Block>> {
         return Registries.BLOCK.getIds();
     }
 
+    /** Constant time check against the current value, the lookup set is rebuilt every time the setting changes. */
+    public boolean contains(Block block) {
+        return getCompiled().contains(block);
+    }
+
+    public boolean contains(BlockState state) {
+        return getCompiled().contains(state.getBlock());
+    }
+
+    @Override
+    public void onChanged() {
+        compiled = new ReferenceOpenHashSet<>(get());
+        super.onChanged();
+    }
+
+    private ReferenceSet<Block> getCompiled() {
+        ReferenceSet<Block> set = compiled;
+
+        if (set == null) {
+            set = new ReferenceOpenHashSet<>(get());
+            compiled = set;
+        }
+
+        return set;
+    }
+
     @Override
     protected NbtCompound save(NbtCompound tag) {
         NbtList valueTag = new NbtList();
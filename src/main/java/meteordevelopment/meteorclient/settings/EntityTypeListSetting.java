@@ -6,7 +6,10 @@
 package meteordevelopment.meteorclient.settings;
 
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ReferenceSet;
 import meteordevelopment.meteorclient.utils.entity.EntityUtils;
+import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityType;
 import net.minecraft.entity.SpawnGroup;
 import net.minecraft.nbt.NbtCompound;
@@ -27,6 +30,8 @@ public class EntityTypeListSetting extends Setting<Set<EntityType<?>>> {
     private List<String> suggestions;
     private final static List<String> groups = List.of("animal", "wateranimal", "monster", "ambient", "misc");
 
+    private volatile ReferenceSet<EntityType<?>> compiled;
+
     public EntityTypeListSetting(String name, String description, Set<EntityType<?>> defaultValue, Consumer<Set<EntityType<?>>> onChanged, Consumer<Setting<Set<EntityType<?>>>> onModuleActivated, IVisible visible, Predicate<EntityType<?>> filter) {
         super(name, description, defaultValue, onChanged, onModuleActivated, visible);
 
@@ -87,6 +92,32 @@ public class EntityTypeListSetting extends Setting<Set<EntityType<?>>> {
         return true;
     }
 
+    /** Identity based lookup, skips the equals and hashCode calls of the backing set. */
+    public boolean contains(EntityType<?> entityType) {
+        return getCompiled().contains(entityType);
+    }
+
+    public boolean contains(Entity entity) {
+        return getCompiled().contains(entity.getType());
+    }
+
+    @Override
+    public void onChanged() {
+        compiled = new ReferenceOpenHashSet<>(get());
+        super.onChanged();
+    }
+
+    private ReferenceSet<EntityType<?>> getCompiled() {
+        ReferenceSet<EntityType<?>> set = compiled;
+
+        if (set == null) {
+            set = new ReferenceOpenHashSet<>(get());
+            compiled = set;
+        }
+
+        return set;
+    }
+
     @Override
     public List<String> getSuggestions() {
         if (suggestions == null) {
@@ -82,7 +82,18 @@ public class FontFaceSetting extends Setting<FontFace> {
                 changed = true;
             }
         }
-        if (!changed) set(Fonts.DEFAULT_FONT);
+
+        if (!changed) {
+            set(Fonts.DEFAULT_FONT);
+
+            // The font might be a new system font that is still being scanned
+            if (Fonts.isScanning()) {
+                Fonts.afterScan(() -> {
+                    FontFamily fontFamily = Fonts.getFamily(family);
+                    if (fontFamily != null && fontFamily.getName().equals(family) && fontFamily.hasType(type) && get() == Fonts.DEFAULT_FONT) set(fontFamily.get(type));
+                });
+            }
+        }
 
         return get();
     }
@@ -5,7 +5,10 @@
 
 package meteordevelopment.meteorclient.settings;
 
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ReferenceSet;
 import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtElement;
 import net.minecraft.nbt.NbtList;
@@ -23,6 +26,8 @@ public class ItemListSetting extends Setting<List<Item>> {
     public final Predicate<Item> filter;
     private final boolean bypassFilterWhenSavingAndLoading;
 
+    private volatile ReferenceSet<Item> compiled;
+
     public ItemListSetting(String name, String description, List<Item> defaultValue, Consumer<List<Item>> onChanged, Consumer<Setting<List<Item>>> onModuleActivated, IVisible visible, Predicate<Item> filter, boolean bypassFilterWhenSavingAndLoading) {
         super(name, description, defaultValue, onChanged, onModuleActivated, visible);
 
@@ -60,6 +65,32 @@ public class ItemListSetting extends Setting<List<Item>> {
         return Registries.ITEM.getIds();
     }
 
+    /** Hash set backed equivalent of {@code get().contains(item)}. */
+    public boolean contains(Item item) {
+        return getCompiled().contains(item);
+    }
+
+    public boolean contains(ItemStack stack) {
+        return getCompiled().contains(stack.getItem());
+    }
+
+    @Override
+    public void onChanged() {
+        compiled = new ReferenceOpenHashSet<>(get());
+        super.onChanged();
+    }
+
+    private ReferenceSet<Item> getCompiled() {
+        ReferenceSet<Item> set = compiled;
+
+        if (set == null) {
+            set = new ReferenceOpenHashSet<>(get());
+            compiled = set;
+        }
+
+        return set;
+    }
+
     @Override
     public NbtCompound save(NbtCompound tag) {
         NbtList valueTag = new NbtList();
@@ -22,6 +22,8 @@ import java.util.function.Consumer;
 public abstract class Setting<T> implements IGetter<T>, ISerializable<T> {
     private static final List<String> NO_SUGGESTIONS = new ArrayList<>(0);
 
+    private static volatile int changes;
+
     public final String name, title, description;
     private final IVisible visible;
 
@@ -89,9 +91,15 @@ public abstract class Setting<T> implements IGetter<T>, ISerializable<T> {
     }
 
     public void onChanged() {
+        changes++;
         if (onChanged != null) onChanged.accept(value);
     }
 
+    /** Incremented every time any setting changes, used to tell if systems need to be saved. */
+    public static int getChanges() {
+        return changes;
+    }
+
     public void onActivated() {
         if (onModuleActivated != null) onModuleActivated.accept(this);
     }
@@ -0,0 +1,100 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.systems;
+
+import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.utils.files.StreamUtils;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtIo;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes system tags to disk on a background thread. Only the latest tag of each file is kept, so saving the same
+ * system several times in a row only writes it once.
+ */
+class SaveQueue {
+    private static final long DELAY = 250;
+
+    private static final Map<File, Entry> pending = new LinkedHashMap<>();
+    private static final Object writeLock = new Object();
+    private static boolean scheduled;
+
+    private static final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task);
+        thread.setDaemon(true);
+        thread.setName("Meteor-Save");
+        return thread;
+    });
+
+    private SaveQueue() {
+    }
+
+    public static void enqueue(String name, File file, NbtCompound tag) {
+        synchronized (pending) {
+            pending.put(file, new Entry(name, file, tag));
+
+            if (scheduled) return;
+            scheduled = true;
+        }
+
+        executor.schedule(SaveQueue::flush, DELAY, TimeUnit.MILLISECONDS);
+    }
+
+    /** Writes everything that is still pending on the calling thread, returns once all of it is on disk. */
+    public static void flush() {
+        synchronized (writeLock) {
+            while (true) {
+                Entry entry;
+
+                synchronized (pending) {
+                    Iterator<Entry> it = pending.values().iterator();
+
+                    if (!it.hasNext()) {
+                        scheduled = false;
+                        return;
+                    }
+
+                    entry = it.next();
+                    it.remove();
+                }
+
+                write(entry);
+            }
+        }
+    }
+
+    private static void write(Entry entry) {
+        try {
+            File tempFile = File.createTempFile(MeteorClient.MOD_ID, entry.file.getName());
+            NbtIo.write(entry.tag, tempFile.toPath());
+
+            entry.file.getParentFile().mkdirs();
+
+            try {
+                Files.move(tempFile.toPath(), entry.file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                StreamUtils.copy(tempFile, entry.file);
+            }
+
+            tempFile.delete();
+        } catch (IOException e) {
+            MeteorClient.LOG.error("Error saving {}. Possibly corrupted?", entry.name, e);
+        }
+    }
+
+    private record Entry(String name, File file, NbtCompound tag) {}
+}
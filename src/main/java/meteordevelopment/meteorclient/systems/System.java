@@ -6,6 +6,7 @@
 package meteordevelopment.meteorclient.systems;
 
 import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.settings.Setting;
 import meteordevelopment.meteorclient.utils.files.StreamUtils;
 import meteordevelopment.meteorclient.utils.misc.ISerializable;
 import net.minecraft.nbt.NbtCompound;
@@ -27,6 +28,9 @@ public abstract class System<T> implements ISerializable<T> {
     private File file;
 
     protected boolean isFirstInit;
+
+    private volatile boolean dirty = true;
+    private int savedSettingChanges;
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH.mm.ss", Locale.ROOT);
 
     public System(String name) {
@@ -40,31 +44,50 @@ public abstract class System<T> implements ISerializable<T> {
 
     public void init() {}
 
+    public void markDirty() {
+        dirty = true;
+    }
+
+    /**
+     * Returns true if the system might have changed since it was last saved to its own file. Systems that don't
+     * {@link #tracksChanges() track their changes} are always dirty.
+     */
+    public boolean isDirty() {
+        return !tracksChanges() || dirty || savedSettingChanges != Setting.getChanges();
+    }
+
+    /**
+     * Whether every change to the saved state goes through a {@link Setting} or calls {@link #markDirty()}, only then can
+     * saving the system be skipped while it is clean.
+     */
+    protected boolean tracksChanges() {
+        return false;
+    }
+
+    /** Called after the system was saved to its own file, used by systems that track their own state. */
+    protected void onSaved() {}
+
+    /**
+     * Snapshots the system on the calling thread and queues the tag to be written in the background. Saving to the
+     * system's own file also marks it as clean.
+     */
     public void save(File folder) {
         File file = getFile();
         if (file == null) return;
 
+        int settingChanges = Setting.getChanges();
+
         NbtCompound tag = toTag();
         if (tag == null) return;
 
-        try {
-            File tempFile = File.createTempFile(MeteorClient.MOD_ID, file.getName());
-            NbtIo.write(tag, tempFile.toPath());
-
-            if (folder != null) file = new File(folder, file.getName());
-
-            file.getParentFile().mkdirs();
-
-            try {
-                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
-            } catch (AtomicMoveNotSupportedException e) {
-                StreamUtils.copy(tempFile, file);
-            }
-
-            tempFile.delete();
-        } catch (IOException e) {
-            MeteorClient.LOG.error("Error saving {}. Possibly corrupted?", this.name, e);
+        if (folder != null) file = new File(folder, file.getName());
+        else {
+            dirty = false;
+            savedSettingChanges = settingChanges;
+            onSaved();
         }
+
+        SaveQueue.enqueue(name, file, tag);
     }
 
     public void save() {
@@ -75,6 +98,9 @@ public abstract class System<T> implements ISerializable<T> {
         File file = getFile();
         if (file == null) return;
 
+        // Make sure pending writes don't get overwritten by or load before the file on disk
+        SaveQueue.flush();
+
         try {
             if (folder != null) file = new File(folder, file.getName());
 
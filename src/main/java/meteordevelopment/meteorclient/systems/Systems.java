@@ -71,19 +71,35 @@ public class Systems {
         save();
     }
 
+    /**
+     * Queues every system to be written in the background. When saving to the default folder, systems that track their
+     * changes and did not change since their last save are skipped.
+     */
     public static void save(File folder) {
         long start = java.lang.System.currentTimeMillis();
         MeteorClient.LOG.info("Saving");
 
-        for (System<?> system : systems.values()) system.save(folder);
+        int saved = 0;
 
-        MeteorClient.LOG.info("Saved in {} milliseconds.", java.lang.System.currentTimeMillis() - start);
+        for (System<?> system : systems.values()) {
+            if (folder == null && !system.isDirty()) continue;
+
+            system.save(folder);
+            saved++;
+        }
+
+        MeteorClient.LOG.info("Queued {} systems in {} milliseconds.", saved, java.lang.System.currentTimeMillis() - start);
     }
 
     public static void save() {
         save(null);
     }
 
+    /** Blocks until every queued save has been written to disk. */
+    public static void flush() {
+        SaveQueue.flush();
+    }
+
     public static void load(File folder) {
         long start = java.lang.System.currentTimeMillis();
         MeteorClient.LOG.info("Loading");
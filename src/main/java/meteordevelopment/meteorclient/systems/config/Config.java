@@ -169,6 +169,11 @@ public class Config extends System<Config> {
         return Systems.get(Config.class);
     }
 
+    @Override
+    protected boolean tracksChanges() {
+        return true;
+    }
+
     @Override
     public NbtCompound toTag() {
         NbtCompound tag = new NbtCompound();
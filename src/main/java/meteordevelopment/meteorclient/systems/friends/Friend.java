@@ -68,7 +68,10 @@ public class Friend implements ISerializable<Friend>, Comparable<Friend> {
         }
 
         if (res != null && res.statusCode() == 200) {
+            boolean renamed = !res.body().name.equals(name);
+
             name = res.body().name;
+            if (renamed) mc.execute(() -> Friends.get().reindex());
             id = UndashedUuid.fromStringLenient(res.body().id);
             mc.execute(() -> headTexture = PlayerHeadUtils.fetchHead(id));
         }
@@ -78,6 +81,7 @@ public class Friend implements ISerializable<Friend>, Comparable<Friend> {
             id = null;
         }
 
+        Friends.get().markDirty();
         updating = false;
     }
 
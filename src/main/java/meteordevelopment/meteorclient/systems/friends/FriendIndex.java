@@ -0,0 +1,54 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.systems.friends;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lookup snapshot of the friend list. The names never change after construction, {@link Friends} publishes a new
+ * snapshot instead, so a lookup racing a rebuild can only ever cache into the snapshot that is being replaced.
+ */
+final class FriendIndex {
+    static final FriendIndex EMPTY = new FriendIndex(List.of());
+
+    // Cached result for players that aren't friends
+    private static final Friend NONE = new Friend("");
+
+    private final Map<String, Friend> names;
+    private final Map<UUID, Friend> players = new ConcurrentHashMap<>();
+
+    /** The first friend with a name wins like it did when the list was scanned. */
+    FriendIndex(Iterable<Friend> friends) {
+        Map<String, Friend> names = new HashMap<>();
+        for (Friend friend : friends) names.putIfAbsent(friend.name.toLowerCase(Locale.ROOT), friend);
+
+        this.names = names;
+    }
+
+    Friend get(String name) {
+        return names.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    Friend get(UUID uuid, String name) {
+        Friend friend = players.get(uuid);
+
+        if (friend == null) {
+            friend = get(name);
+            players.put(uuid, friend != null ? friend : NONE);
+        }
+
+        return friend != NONE ? friend : null;
+    }
+
+    void clearPlayers() {
+        players.clear();
+    }
+}
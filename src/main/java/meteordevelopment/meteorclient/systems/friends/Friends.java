@@ -6,23 +6,28 @@
 package meteordevelopment.meteorclient.systems.friends;
 
 import com.mojang.util.UndashedUuid;
+import meteordevelopment.meteorclient.events.game.GameLeftEvent;
 import meteordevelopment.meteorclient.systems.System;
 import meteordevelopment.meteorclient.systems.Systems;
 import meteordevelopment.meteorclient.utils.misc.NbtUtils;
 import meteordevelopment.meteorclient.utils.network.MeteorExecutor;
+import meteordevelopment.orbit.EventHandler;
 import net.minecraft.client.network.PlayerListEntry;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtElement;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class Friends extends System<Friends> implements Iterable<Friend> {
-    private final List<Friend> friends = new ArrayList<>();
+    private final List<Friend> friends = new CopyOnWriteArrayList<>();
+
+    // Lowercase name -> friend, and player uuid -> friend, so the targeting checks of every entity each tick don't scan
+    // the whole list. Players are looked up from render, tick and network threads, so whenever the list or a name
+    // changes a fresh index is built and swapped in instead of clearing the current one under the readers.
+    private volatile FriendIndex index = FriendIndex.EMPTY;
 
     public Friends() {
         super("friends");
@@ -32,11 +37,17 @@ public class Friends extends System<Friends> implements Iterable<Friend> {
         return Systems.get(Friends.class);
     }
 
-    public boolean add(Friend friend) {
+    @Override
+    protected boolean tracksChanges() {
+        return true;
+    }
+
+    public synchronized boolean add(Friend friend) {
         if (friend.name.isEmpty() || friend.name.contains(" ")) return false;
 
         if (!friends.contains(friend)) {
             friends.add(friend);
+            reindex();
             save();
 
             return true;
@@ -45,8 +56,9 @@ public class Friends extends System<Friends> implements Iterable<Friend> {
         return false;
     }
 
-    public boolean remove(Friend friend) {
+    public synchronized boolean remove(Friend friend) {
         if (friends.remove(friend)) {
+            reindex();
             save();
             return true;
         }
@@ -55,21 +67,24 @@ public class Friends extends System<Friends> implements Iterable<Friend> {
     }
 
     public Friend get(String name) {
-        for (Friend friend : friends) {
-            if (friend.name.equalsIgnoreCase(name)) {
-                return friend;
-            }
-        }
-
-        return null;
+        return index.get(name);
     }
 
     public Friend get(PlayerEntity player) {
-        return get(player.getName().getString());
+        return get(player.getUuid(), player.getName().getString());
     }
 
     public Friend get(PlayerListEntry player) {
-        return get(player.getProfile().name());
+        return get(player.getProfile().id(), player.getProfile().name());
+    }
+
+    Friend get(UUID uuid, String name) {
+        return index.get(uuid, name);
+    }
+
+    /** Publishes a new lookup index for the current list, lookups still running on the old one finish against it. */
+    synchronized void reindex() {
+        index = new FriendIndex(friends);
     }
 
     public boolean isFriend(PlayerEntity player) {
@@ -92,6 +107,11 @@ public class Friends extends System<Friends> implements Iterable<Friend> {
         return friends.isEmpty();
     }
 
+    @EventHandler
+    private void onGameLeft(GameLeftEvent event) {
+        index.clearPlayers();
+    }
+
     @Override
     public @NotNull Iterator<Friend> iterator() {
         return friends.iterator();
@@ -107,25 +127,30 @@ public class Friends extends System<Friends> implements Iterable<Friend> {
     }
 
     @Override
-    public Friends fromTag(NbtCompound tag) {
-        friends.clear();
+    public synchronized Friends fromTag(NbtCompound tag) {
+        List<Friend> loaded = new ArrayList<>();
+        Set<String> added = new HashSet<>();
 
         for (NbtElement itemTag : tag.getListOrEmpty("friends")) {
             NbtCompound friendTag = (NbtCompound) itemTag;
             if (!friendTag.contains("name")) continue;
 
             String name = friendTag.getString("name", "");
-            if (get(name) != null) continue;
+            if (!added.add(name.toLowerCase(Locale.ROOT))) continue;
 
             String uuid = friendTag.getString("id", "");
             Friend friend = !uuid.isBlank()
                 ? new Friend(name, UndashedUuid.fromStringLenient(uuid))
                 : new Friend(name);
 
-            friends.add(friend);
+            loaded.add(friend);
         }
 
-        Collections.sort(friends);
+        Collections.sort(loaded);
+
+        friends.clear();
+        friends.addAll(loaded);
+        reindex();
 
         MeteorExecutor.execute(() -> friends.forEach(Friend::updateInfo));
 
@@ -103,6 +103,7 @@ public class Hud extends System<Hud> implements Iterable<HudElement> {
     );
 
     private boolean resetToDefaultElements;
+    private int savedStateHash;
 
     public Hud() {
         super("hud");
@@ -112,6 +113,37 @@ public class Hud extends System<Hud> implements Iterable<HudElement> {
         return Systems.get(Hud.class);
     }
 
+    @Override
+    protected boolean tracksChanges() {
+        return true;
+    }
+
+    @Override
+    public boolean isDirty() {
+        return super.isDirty() || getStateHash() != savedStateHash;
+    }
+
+    @Override
+    protected void onSaved() {
+        savedStateHash = getStateHash();
+    }
+
+    /** Covers the hud state that is saved but not stored in settings, the editor writes most of it straight to the fields. */
+    private int getStateHash() {
+        int hash = active ? 1 : 0;
+
+        for (HudElement element : elements) {
+            hash = hash * 31 + (element.isActive() ? 1 : 0);
+            hash = hash * 31 + (element.autoAnchors ? 1 : 0);
+            hash = hash * 31 + element.box.xAnchor.ordinal();
+            hash = hash * 31 + element.box.yAnchor.ordinal();
+            hash = hash * 31 + element.box.x;
+            hash = hash * 31 + element.box.y;
+        }
+
+        return hash;
+    }
+
     @Override
     public void init() {
         settings.registerColorSettings(null);
@@ -150,6 +182,7 @@ public class Hud extends System<Hud> implements Iterable<HudElement> {
         element.settings.registerColorSettings(null);
 
         elements.add(element);
+        markDirty();
     }
 
     public void add(HudElementInfo<?> info, int x, int y, XAnchor xAnchor, YAnchor yAnchor) {
@@ -173,11 +206,12 @@ public class Hud extends System<Hud> implements Iterable<HudElement> {
 
     void remove(HudElement element) {
         element.settings.unregisterColorSettings();
-        elements.remove(element);
+        if (elements.remove(element)) markDirty();
     }
 
     public void clear() {
         elements.clear();
+        markDirty();
     }
 
     public void resetToDefaultElements() {
@@ -185,7 +219,7 @@ public class Hud extends System<Hud> implements Iterable<HudElement> {
     }
 
     private void resetToDefaultElementsImpl() {
-        elements.clear();
+        clear();
 
         int h = (int) Math.ceil(HudRenderer.INSTANCE.textHeight(true));
 
@@ -31,7 +31,7 @@ public class HoleHud extends HudElement {
 
     // General
 
-    public final Setting<List<Block>> safe = sgGeneral.add(new BlockListSetting.Builder()
+    public final BlockListSetting safe = sgGeneral.add(new BlockListSetting.Builder()
         .name("safe-blocks")
         .description("Which blocks to consider safe.")
         .defaultValue(Blocks.OBSIDIAN, Blocks.BEDROCK, Blocks.CRYING_OBSIDIAN, Blocks.NETHERITE_BLOCK)
@@ -110,7 +110,7 @@ public class HoleHud extends HudElement {
 
     private void drawBlock(HudRenderer renderer, Direction dir, double x, double y) {
         Block block = dir == Direction.DOWN ? Blocks.OBSIDIAN : mc.world.getBlockState(mc.player.getBlockPos().offset(dir)).getBlock();
-        if (!safe.get().contains(block)) return;
+        if (!safe.contains(block)) return;
 
         renderer.item(block.asItem().getDefaultStack(), (int) x, (int) y, getScale(), false);
 
@@ -32,6 +32,11 @@ public class Macros extends System<Macros> implements Iterable<Macro> {
         return Systems.get(Macros.class);
     }
 
+    @Override
+    protected boolean tracksChanges() {
+        return true;
+    }
+
     public void add(Macro macro) {
         macros.add(macro);
         MeteorClient.EVENT_BUS.subscribe(macro);
@@ -15,6 +15,7 @@ import meteordevelopment.meteorclient.systems.config.Config;
 import meteordevelopment.meteorclient.utils.Utils;
 import meteordevelopment.meteorclient.utils.misc.ISerializable;
 import meteordevelopment.meteorclient.utils.misc.Keybind;
+import meteordevelopment.meteorclient.utils.network.PacketRouter;
 import meteordevelopment.meteorclient.utils.player.ChatUtils;
 import meteordevelopment.meteorclient.utils.render.color.Color;
 import net.minecraft.client.MinecraftClient;
@@ -24,7 +25,10 @@ import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 public abstract class Module implements ISerializable<Module>, Comparable<Module> {
     protected final MinecraftClient mc;
@@ -38,6 +42,7 @@ public abstract class Module implements ISerializable<Module>, Comparable<Module
 
     public final MeteorAddon addon;
     public final Settings settings = new Settings();
+    private final List<PacketRouter<?>.Listener> packetListeners = new ArrayList<>(0);
 
     private boolean active;
 
@@ -91,13 +96,13 @@ public abstract class Module implements ISerializable<Module>, Comparable<Module
             settings.onActivated();
 
             if (runInMainMenu || Utils.canUpdate()) {
-                if (autoSubscribe) MeteorClient.EVENT_BUS.subscribe(this);
+                if (autoSubscribe) subscribe();
                 onActivate();
             }
         }
         else {
             if (runInMainMenu || Utils.canUpdate()) {
-                if (autoSubscribe) MeteorClient.EVENT_BUS.unsubscribe(this);
+                if (autoSubscribe) unsubscribe();
                 onDeactivate();
             }
 
@@ -106,6 +111,27 @@ public abstract class Module implements ISerializable<Module>, Comparable<Module
         }
     }
 
+    void subscribe() {
+        MeteorClient.EVENT_BUS.subscribe(this);
+        for (PacketRouter<?>.Listener listener : packetListeners) listener.subscribe();
+    }
+
+    void unsubscribe() {
+        MeteorClient.EVENT_BUS.unsubscribe(this);
+        for (PacketRouter<?>.Listener listener : packetListeners) listener.unsubscribe();
+    }
+
+    /**
+     * Creates a packet listener that is subscribed together with the module, set the packets it handles with
+     * {@link PacketRouter.Listener#packets}.
+     */
+    protected <E> PacketRouter<E>.Listener packetListener(PacketRouter<E> router, int priority, Consumer<E> handler) {
+        PacketRouter<E>.Listener listener = router.listener(priority, handler);
+        packetListeners.add(listener);
+
+        return listener;
+    }
+
     public void enable() {
         if (!isActive()) toggle();
     }
@@ -5,6 +5,8 @@
 
 package meteordevelopment.meteorclient.systems.modules;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Reference2ReferenceOpenHashMap;
 import meteordevelopment.meteorclient.MeteorClient;
 import meteordevelopment.meteorclient.events.game.GameJoinedEvent;
@@ -34,7 +36,7 @@ import meteordevelopment.meteorclient.systems.modules.world.Timer;
 import meteordevelopment.meteorclient.systems.modules.world.*;
 import meteordevelopment.meteorclient.utils.Utils;
 import meteordevelopment.meteorclient.utils.misc.Keybind;
-import meteordevelopment.meteorclient.utils.misc.ValueComparableMap;
+import meteordevelopment.meteorclient.utils.misc.SearchIndex;
 import meteordevelopment.meteorclient.utils.misc.input.Input;
 import meteordevelopment.meteorclient.utils.misc.input.KeyAction;
 import meteordevelopment.orbit.EventHandler;
@@ -58,8 +60,17 @@ public class Modules extends System<Modules> {
     private final Map<Category, List<Module>> groups = new Reference2ReferenceOpenHashMap<>();
 
     private final List<Module> active = new ArrayList<>();
+
+    private final Map<String, Module> names = new HashMap<>();
+    private final Map<String, Module> aliases = new HashMap<>();
+
+    private final Long2ObjectMap<List<Module>> keybinds = new Long2ObjectOpenHashMap<>();
+    private int keybindChanges = -1;
+
+    private SearchIndex<Module> titleIndex, aliasTitleIndex, settingTitleIndex;
     private Module moduleToBind;
     private boolean awaitingKeyRelease = false;
+    private int savedStateHash;
 
     public Modules() {
         super("modules");
@@ -90,6 +101,36 @@ public class Modules extends System<Modules> {
         super.load(folder);
     }
 
+    @Override
+    protected boolean tracksChanges() {
+        return true;
+    }
+
+    @Override
+    public boolean isDirty() {
+        return super.isDirty() || getStateHash() != savedStateHash;
+    }
+
+    @Override
+    protected void onSaved() {
+        savedStateHash = getStateHash();
+    }
+
+    /** Covers the module state that is saved but not stored in settings. */
+    private int getStateHash() {
+        int hash = 1;
+
+        for (Module module : getAll()) {
+            hash = hash * 31 + module.keybind.hashCode();
+            hash = hash * 31 + (module.isActive() ? 1 : 0);
+            hash = hash * 31 + (module.toggleOnBindRelease ? 1 : 0);
+            hash = hash * 31 + (module.chatFeedback ? 1 : 0);
+            hash = hash * 31 + (module.favorite ? 1 : 0);
+        }
+
+        return hash;
+    }
+
     public void sortModules() {
         for (List<Module> modules : groups.values()) {
             modules.sort(Comparator.comparing(o -> o.title));
@@ -119,11 +160,12 @@ public class Modules extends System<Modules> {
 
     @Nullable
     public Module get(String name) {
-        for (Module module : moduleInstances.values()) {
-            if (module.name.equalsIgnoreCase(name)) return module;
-        }
+        return names.get(name.toLowerCase(Locale.ROOT));
+    }
 
-        return null;
+    @Nullable
+    public Module getByAlias(String alias) {
+        return aliases.get(alias.toLowerCase(Locale.ROOT));
     }
 
     public boolean isActive(Class<? extends Module> klass) {
@@ -149,37 +191,51 @@ public class Modules extends System<Modules> {
     }
 
     public Set<Module> searchTitles(String text) {
-        Map<Module, Integer> modules = new ValueComparableMap<>(Comparator.naturalOrder());
-
-        for (Module module : this.moduleInstances.values()) {
-            int score = Utils.searchLevenshteinDefault(module.title, text, false);
-            if (Config.get().moduleAliases.get()) {
-                for (String alias : module.aliases) {
-                    int aliasScore = Utils.searchLevenshteinDefault(alias, text, false);
-                    if (aliasScore < score) score = aliasScore;
-                }
-            }
-            modules.put(module, modules.getOrDefault(module, 0) + score);
-        }
+        return searchTitles(text, Integer.MAX_VALUE);
+    }
 
-        return modules.keySet();
+    /** Returns the best {@code limit} modules by title, and by alias when aliases are enabled. */
+    public Set<Module> searchTitles(String text, int limit) {
+        if (titleIndex == null) buildSearchIndexes();
+
+        return new LinkedHashSet<>((Config.get().moduleAliases.get() ? aliasTitleIndex : titleIndex).search(text, limit));
     }
 
     public Set<Module> searchSettingTitles(String text) {
-        Map<Module, Integer> modules = new ValueComparableMap<>(Comparator.naturalOrder());
+        return searchSettingTitles(text, Integer.MAX_VALUE);
+    }
+
+    /** Returns the best {@code limit} modules by the titles of their settings. */
+    public Set<Module> searchSettingTitles(String text, int limit) {
+        if (settingTitleIndex == null) buildSearchIndexes();
+
+        return new LinkedHashSet<>(settingTitleIndex.search(text, limit));
+    }
+
+    private void buildSearchIndexes() {
+        titleIndex = new SearchIndex<>();
+        aliasTitleIndex = new SearchIndex<>();
+        settingTitleIndex = new SearchIndex<>();
+
+        List<Module> modules = new ArrayList<>(moduleInstances.values());
+        modules.sort(Comparator.naturalOrder());
 
-        for (Module module : this.moduleInstances.values()) {
-            int lowest = Integer.MAX_VALUE;
+        List<String> settingTitles = new ArrayList<>();
+
+        for (Module module : modules) {
+            titleIndex.add(module, module.title);
+
+            String[] titles = new String[module.aliases.length + 1];
+            titles[0] = module.title;
+            java.lang.System.arraycopy(module.aliases, 0, titles, 1, module.aliases.length);
+            aliasTitleIndex.add(module, titles);
+
+            settingTitles.clear();
             for (SettingGroup sg : module.settings) {
-                for (Setting<?> setting : sg) {
-                    int score = Utils.searchLevenshteinDefault(setting.title, text, false);
-                    if (score < lowest) lowest = score;
-                }
+                for (Setting<?> setting : sg) settingTitles.add(setting.title);
             }
-            modules.put(module, modules.getOrDefault(module, 0) + lowest);
+            settingTitleIndex.add(module, settingTitles.toArray(new String[0]));
         }
-
-        return modules.keySet();
     }
 
     void addActive(Module module) {
@@ -268,7 +324,12 @@ public class Modules extends System<Modules> {
     private void onAction(boolean isKey, int value, int modifiers, boolean isPress) {
         if (mc.currentScreen != null || Input.isKeyPressed(GLFW.GLFW_KEY_F3)) return;
 
-        for (Module module : moduleInstances.values()) {
+        if (keybindChanges != Keybind.getChanges()) rebuildKeybinds();
+
+        List<Module> modules = keybinds.get(keybindKey(isKey, value));
+        if (modules == null) return;
+
+        for (Module module : modules) {
             if (module.keybind.matches(isKey, value, modifiers) && (isPress || (module.toggleOnBindRelease && module.isActive()))) {
                 module.toggle();
                 module.sendToggledMsg();
@@ -276,6 +337,23 @@ public class Modules extends System<Modules> {
         }
     }
 
+    /** Groups modules by the key or button they are bound to, modifiers are still checked when dispatching. */
+    private void rebuildKeybinds() {
+        keybinds.clear();
+
+        for (Module module : moduleInstances.values()) {
+            if (!module.keybind.isSet()) continue;
+
+            keybinds.computeIfAbsent(keybindKey(module.keybind.isKey(), module.keybind.getValue()), key -> new ArrayList<>(1)).add(module);
+        }
+
+        keybindChanges = Keybind.getChanges();
+    }
+
+    private static long keybindKey(boolean isKey, int value) {
+        return (isKey ? 1L << 32 : 0) | (value & 0xFFFFFFFFL);
+    }
+
     // End of binding
 
     @EventHandler(priority = EventPriority.HIGHEST + 1)
@@ -295,7 +373,7 @@ public class Modules extends System<Modules> {
         synchronized (active) {
             for (Module module : getAll()) {
                 if (module.isActive() && !module.runInMainMenu) {
-                    MeteorClient.EVENT_BUS.subscribe(module);
+                    module.subscribe();
                     module.onActivate();
                 }
             }
@@ -307,7 +385,7 @@ public class Modules extends System<Modules> {
         synchronized (active) {
             for (Module module : getAll()) {
                 if (module.isActive() && !module.runInMainMenu) {
-                    MeteorClient.EVENT_BUS.unsubscribe(module);
+                    module.unsubscribe();
                     module.onDeactivate();
                 }
             }
@@ -371,12 +449,23 @@ public class Modules extends System<Modules> {
             return false;
         })) {
             getGroup(removedModule.get().category).remove(removedModule.get());
+
+            for (String alias : removedModule.get().aliases) aliases.remove(alias.toLowerCase(Locale.ROOT), removedModule.get());
         }
 
         // Add the module
         moduleInstances.put(module.getClass(), module);
         getGroup(module.category).add(module);
 
+        // Update lookup tables
+        names.put(module.name.toLowerCase(Locale.ROOT), module);
+        for (String alias : module.aliases) aliases.putIfAbsent(alias.toLowerCase(Locale.ROOT), module);
+
+        keybindChanges = -1;
+        titleIndex = null;
+        aliasTitleIndex = null;
+        settingTitleIndex = null;
+
         // Register color settings for the module
         module.settings.registerColorSettings(module);
     }
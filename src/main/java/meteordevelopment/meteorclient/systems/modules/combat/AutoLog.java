@@ -18,8 +18,10 @@ import meteordevelopment.meteorclient.systems.modules.Modules;
 import meteordevelopment.meteorclient.systems.modules.misc.AutoReconnect;
 import meteordevelopment.meteorclient.utils.Utils;
 import meteordevelopment.meteorclient.utils.entity.DamageUtils;
+import meteordevelopment.meteorclient.utils.network.PacketRouter;
 import meteordevelopment.meteorclient.utils.player.PlayerUtils;
 import meteordevelopment.orbit.EventHandler;
+import meteordevelopment.orbit.EventPriority;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityStatuses;
 import net.minecraft.entity.EntityType;
@@ -98,7 +100,7 @@ public class AutoLog extends Module {
 
     // Entities
 
-    private final Setting<Set<EntityType<?>>> entities = sgEntities.add(new EntityTypeListSetting.Builder()
+    private final EntityTypeListSetting entities = sgEntities.add(new EntityTypeListSetting.Builder()
         .name("entities")
         .description("Disconnects when a specified entity is present within a specified range.")
         .defaultValue(EntityType.END_CRYSTAL)
@@ -149,6 +151,8 @@ public class AutoLog extends Module {
 
     public AutoLog() {
         super(Categories.Combat, "auto-log", "Automatically disconnects you when certain requirements are met.");
+
+        packetListener(PacketRouter.RECEIVE, EventPriority.MEDIUM, this::onReceivePacket).packets(EntityStatusS2CPacket.class);
     }
 
     @Override
@@ -156,9 +160,8 @@ public class AutoLog extends Module {
         pops = 0;
     }
 
-    @EventHandler
     private void onReceivePacket(PacketEvent.Receive event) {
-        if (!(event.packet instanceof EntityStatusS2CPacket p)) return;
+        EntityStatusS2CPacket p = (EntityStatusS2CPacket) event.packet;
         if (p.getStatus() != EntityStatuses.USE_TOTEM_OF_UNDYING) return;
 
         Entity entity = p.getEntity(mc.world);
@@ -221,7 +224,7 @@ public class AutoLog extends Module {
 
             // Iterate through all entities in the world and count the ones that match the selected types and are within range
             for (Entity entity : mc.world.getEntities()) {
-                if (PlayerUtils.isWithin(entity, range.get()) && entities.get().contains(entity.getType())) {
+                if (PlayerUtils.isWithin(entity, range.get()) && entities.contains(entity.getType())) {
                     totalEntities++;
                     if (!useTotalCount.get()) {
                         entityCounts.put(entity.getType(), entityCounts.getOrDefault(entity.getType(), 0) + 1);
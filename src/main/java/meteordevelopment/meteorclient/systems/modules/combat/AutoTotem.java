@@ -10,6 +10,7 @@ import meteordevelopment.meteorclient.events.world.TickEvent;
 import meteordevelopment.meteorclient.settings.*;
 import meteordevelopment.meteorclient.systems.modules.Categories;
 import meteordevelopment.meteorclient.systems.modules.Module;
+import meteordevelopment.meteorclient.utils.network.PacketRouter;
 import meteordevelopment.meteorclient.utils.player.FindItemResult;
 import meteordevelopment.meteorclient.utils.player.InvUtils;
 import meteordevelopment.meteorclient.utils.player.PlayerUtils;
@@ -78,6 +79,8 @@ public class AutoTotem extends Module {
 
     public AutoTotem() {
         super(Categories.Combat, "auto-totem", "Automatically equips a totem in your offhand.");
+
+        packetListener(PacketRouter.RECEIVE, EventPriority.HIGH, this::onReceivePacket).packets(EntityStatusS2CPacket.class);
     }
 
     @EventHandler(priority = EventPriority.HIGHEST)
@@ -103,9 +106,8 @@ public class AutoTotem extends Module {
         ticks++;
     }
 
-    @EventHandler(priority = EventPriority.HIGH)
     private void onReceivePacket(PacketEvent.Receive event) {
-        if (!(event.packet instanceof EntityStatusS2CPacket p)) return;
+        EntityStatusS2CPacket p = (EntityStatusS2CPacket) event.packet;
         if (p.getStatus() != EntityStatuses.USE_TOTEM_OF_UNDYING) return;
 
         Entity entity = p.getEntity(mc.world);
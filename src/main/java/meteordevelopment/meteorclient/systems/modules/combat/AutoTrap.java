@@ -43,7 +43,7 @@ public class AutoTrap extends Module {
 
     // General
 
-    private final Setting<List<Block>> blocks = sgGeneral.add(new BlockListSetting.Builder()
+    private final BlockListSetting blocks = sgGeneral.add(new BlockListSetting.Builder()
         .name("whitelist")
         .description("Which blocks to use.")
         .defaultValue(Blocks.OBSIDIAN, Blocks.CRYING_OBSIDIAN)
@@ -207,7 +207,7 @@ public class AutoTrap extends Module {
         }
 
         // Grab blocks from hotbar
-        FindItemResult block = InvUtils.findInHotbar(itemStack -> blocks.get().contains(Block.getBlockFromItem(itemStack.getItem())));
+        FindItemResult block = InvUtils.findInHotbar(itemStack -> blocks.contains(Block.getBlockFromItem(itemStack.getItem())));
         if (!block.found()) return;
 
         // Find target to trap
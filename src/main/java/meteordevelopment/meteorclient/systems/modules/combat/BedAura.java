@@ -18,12 +18,13 @@ import meteordevelopment.meteorclient.utils.entity.SortPriority;
 import meteordevelopment.meteorclient.utils.entity.TargetUtils;
 import meteordevelopment.meteorclient.utils.player.*;
 import meteordevelopment.meteorclient.utils.render.color.SettingColor;
+import meteordevelopment.meteorclient.utils.world.BlockEntityIndex;
 import meteordevelopment.meteorclient.utils.world.BlockUtils;
 import meteordevelopment.meteorclient.utils.world.CardinalDirection;
 import meteordevelopment.orbit.EventHandler;
 import net.minecraft.block.BedBlock;
-import net.minecraft.block.entity.BedBlockEntity;
 import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.block.entity.BlockEntityType;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.BedItem;
 import net.minecraft.util.Hand;
@@ -278,21 +279,16 @@ public class BedAura extends Module {
     }
 
     private BlockPos findBreak() {
-        for (BlockEntity blockEntity : Utils.blockEntities()) {
-            if (!(blockEntity instanceof BedBlockEntity)) continue;
+        BlockEntity bed = BlockEntityIndex.findInRange(BlockEntityType.BED, mc.player.getBlockInteractionRange() + 1, blockEntity -> {
+            Vec3d bedVec = Utils.vec3d(blockEntity.getPos());
 
-            BlockPos bedPos = blockEntity.getPos();
-            Vec3d bedVec = Utils.vec3d(bedPos);
-
-            if (PlayerUtils.isWithinReach(bedVec)
+            return PlayerUtils.isWithinReach(bedVec)
                 && DamageUtils.bedDamage(target, bedVec) >= minDamage.get()
                 && DamageUtils.bedDamage(mc.player, bedVec) < maxSelfDamage.get()
-                && (!antiSuicide.get() || PlayerUtils.getTotalHealth() - DamageUtils.bedDamage(mc.player, bedVec) > 0)) {
-                return bedPos;
-            }
-        }
+                && (!antiSuicide.get() || PlayerUtils.getTotalHealth() - DamageUtils.bedDamage(mc.player, bedVec) > 0);
+        });
 
-        return null;
+        return bed == null ? null : bed.getPos();
     }
 
     private boolean placeBed(BlockPos pos) {
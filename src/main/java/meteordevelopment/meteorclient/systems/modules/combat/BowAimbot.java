@@ -42,7 +42,7 @@ public class BowAimbot extends Module {
         .build()
     );
 
-    private final Setting<Set<EntityType<?>>> entities = sgGeneral.add(new EntityTypeListSetting.Builder()
+    private final EntityTypeListSetting entities = sgGeneral.add(new EntityTypeListSetting.Builder()
         .name("entities")
         .description("Entities to attack.")
         .onlyAttackable()
@@ -96,11 +96,11 @@ public class BowAimbot extends Module {
         if (!PlayerUtils.isAlive() || !itemInHand()) return;
         if (!mc.player.getAbilities().creativeMode && !InvUtils.find(itemStack -> itemStack.getItem() instanceof ArrowItem).found()) return;
 
-        target = TargetUtils.get(entity -> {
+        target = TargetUtils.get(range.get(), entity -> {
             if (entity == mc.player || entity == mc.getCameraEntity()) return false;
             if ((entity instanceof LivingEntity && ((LivingEntity) entity).isDead()) || !entity.isAlive()) return false;
             if (!PlayerUtils.isWithin(entity, range.get())) return false;
-            if (!entities.get().contains(entity.getType())) return false;
+            if (!entities.contains(entity.getType())) return false;
             if (!nametagged.get() && entity.hasCustomName()) return false;
             if (!PlayerUtils.canSeeEntity(entity)) return false;
             if (entity instanceof PlayerEntity) {
@@ -5,7 +5,6 @@
 
 package meteordevelopment.meteorclient.systems.modules.combat;
 
-import com.google.common.util.concurrent.AtomicDouble;
 import it.unimi.dsi.fastutil.ints.*;
 import meteordevelopment.meteorclient.events.entity.EntityAddedEvent;
 import meteordevelopment.meteorclient.events.entity.EntityRemovedEvent;
@@ -23,7 +22,9 @@ import meteordevelopment.meteorclient.systems.friends.Friends;
 import meteordevelopment.meteorclient.systems.modules.Categories;
 import meteordevelopment.meteorclient.systems.modules.Module;
 import meteordevelopment.meteorclient.utils.entity.DamageUtils;
+import meteordevelopment.meteorclient.utils.entity.EntityIndex;
 import meteordevelopment.meteorclient.utils.entity.EntityUtils;
+import meteordevelopment.meteorclient.utils.entity.ExplosionExposure;
 import meteordevelopment.meteorclient.utils.entity.Target;
 import meteordevelopment.meteorclient.utils.misc.Keybind;
 import meteordevelopment.meteorclient.utils.player.FindItemResult;
@@ -39,6 +40,7 @@ import meteordevelopment.meteorclient.utils.world.BlockUtils;
 import meteordevelopment.meteorclient.utils.world.TickRate;
 import meteordevelopment.orbit.EventHandler;
 import meteordevelopment.orbit.EventPriority;
+import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.component.type.AttributeModifierSlot;
 import net.minecraft.entity.Entity;
@@ -61,12 +63,27 @@ import net.minecraft.world.RaycastContext;
 import org.joml.Vector3d;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
 
 public class CrystalAura extends Module {
+    private static final int PARALLEL_THRESHOLD = 64;
+
+    private static final ForkJoinPool SCORE_POOL = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), pool -> {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("Meteor-CrystalAura-" + thread.getPoolIndex());
+        return thread;
+    }, null, false);
+
+    private static final ThreadLocal<Vec3d> SCRATCH_VEC = ThreadLocal.withInitial(() -> new Vec3d(0, 0, 0));
+    private static final ThreadLocal<BlockPos.Mutable> SCRATCH_POS = ThreadLocal.withInitial(BlockPos.Mutable::new);
+
     private final SettingGroup sgGeneral = settings.getDefaultGroup();
     private final SettingGroup sgSwitch = settings.createGroup("Switch");
     private final SettingGroup sgPlace = settings.createGroup("Place");
@@ -148,7 +165,7 @@ public class CrystalAura extends Module {
         .build()
     );
 
-    private final Setting<Set<EntityType<?>>> entities = sgGeneral.add(new EntityTypeListSetting.Builder()
+    private final EntityTypeListSetting entities = sgGeneral.add(new EntityTypeListSetting.Builder()
         .name("entities")
         .description("Entities to attack.")
         .onlyAttackable()
@@ -570,6 +587,8 @@ public class CrystalAura extends Module {
     private final Vec3d vec3dRayTraceEnd = new Vec3d(0, 0, 0);
     private RaycastContext raycastContext;
 
+    private final PlaceCandidates candidates = new PlaceCandidates();
+
     private final IntSet placedCrystals = new IntOpenHashSet();
     private boolean placing;
     private int placingTimer;
@@ -913,16 +932,18 @@ public class CrystalAura extends Module {
             if (getBreakDamage(entity, false) > 0) return;
         }
 
-        // Setup variables
-        AtomicDouble bestDamage = new AtomicDouble(0);
-        AtomicReference<BlockPos.Mutable> bestBlockPos = new AtomicReference<>(new BlockPos.Mutable());
-        AtomicBoolean isSupport = new AtomicBoolean(support.get() != SupportMode.Disabled);
+        // Gather candidates, everything that needs the world beyond explosion exposure is checked here
+        candidates.clear();
+
+        boolean canSupport = support.get() != SupportMode.Disabled;
 
-        // Find best position to place the crystal on
-        BlockIterator.register((int) Math.ceil(placeRange.get()), (int) Math.ceil(placeRange.get()), (bp, blockState) -> {
-            // Check if its bedrock or obsidian and return if isSupport is false
-            boolean hasBlock = blockState.isOf(Blocks.BEDROCK) || blockState.isOf(Blocks.OBSIDIAN);
-            if (!hasBlock && (!isSupport.get() || !blockState.isReplaceable())) return;
+        // Only bedrock and obsidian can hold a crystal when support is disabled
+        Predicate<BlockState> filter = canSupport ? null : CrystalAura::isCrystalBase;
+
+        BlockIterator.register((int) Math.ceil(placeRange.get()), (int) Math.ceil(placeRange.get()), filter, (bp, blockState) -> {
+            // Check if its bedrock or obsidian and return if it can't be supported
+            boolean hasBlock = isCrystalBase(blockState);
+            if (!hasBlock && (!canSupport || !blockState.isReplaceable())) return;
 
             // Check if there is air on top
             blockPos.set(bp.getX(), bp.getY() + 1, bp.getZ());
@@ -938,18 +959,6 @@ public class CrystalAura extends Module {
             blockPos.set(bp).move(0, 1, 0);
             if (isOutOfRange(vec3d, blockPos, true)) return;
 
-            // Check damage to self and anti suicide
-            float selfDamage = DamageUtils.crystalDamage(mc.player, vec3d, predictMovement.get(), bp);
-            if (selfDamage > maxDamage.get() || (antiSuicide.get() && selfDamage >= EntityUtils.getTotalHealth(mc.player))) return;
-
-            // Check damage to targets and face place
-            float damage = getDamageToTargets(vec3d, bp, false, !hasBlock && support.get() == SupportMode.Fast);
-
-            boolean shouldFacePlace = shouldFacePlace();
-            double minimumDamage = Math.min(minDamage.get(), shouldFacePlace ? 1.5 : minDamage.get());
-
-            if (damage < minimumDamage) return;
-
             // Check if it can be placed
             double x = bp.getX();
             double y = bp.getY() + 1;
@@ -958,20 +967,60 @@ public class CrystalAura extends Module {
 
             if (intersectsWithEntities(box)) return;
 
-            // Compare damage
-            if (damage > bestDamage.get() || (isSupport.get() && hasBlock)) {
-                bestDamage.set(damage);
-                bestBlockPos.get().set(bp);
-            }
-
-            if (hasBlock) isSupport.set(false);
+            candidates.add(bp.asLong(), hasBlock);
         });
 
-        // Place the crystal
+        // Score candidates and place the crystal
         BlockIterator.after(() -> {
-            if (bestDamage.get() == 0) return;
+            if (candidates.size == 0) return;
+
+            scoreCandidates();
+
+            // Pick the best candidate, in iteration order so ties resolve the same way the single threaded search did
+            boolean shouldFacePlace = shouldFacePlace();
+            double minimumDamage = Math.min(minDamage.get(), shouldFacePlace ? 1.5 : minDamage.get());
+
+            int best = -1;
+            float bestDamage = 0;
+            boolean isSupport = canSupport;
 
-            BlockHitResult result = getPlaceInfo(bestBlockPos.get());
+            for (int i = 0; i < candidates.size; i++) {
+                float damage = candidates.damages[i];
+                boolean hasBlock = candidates.hasBlock[i];
+
+                // Too much self damage, never picked and never counted as a base
+                if (Float.isNaN(damage)) continue;
+
+                // Once a bedrock or obsidian base was found, blocks that would need support are no longer considered
+                if (!hasBlock && !isSupport) continue;
+
+                int target = candidates.targets[i];
+
+                // Update best target
+                if (target != -1 && candidates.targetDamages[i] > bestTargetDamage) {
+                    bestTarget = targets.get(target);
+                    bestTargetDamage = candidates.targetDamages[i];
+                    bestTargetTimer = 10;
+                }
+
+                if (damage < minimumDamage) continue;
+
+                // Compare damage
+                if (damage > bestDamage || (isSupport && hasBlock)) {
+                    best = i;
+                    bestDamage = damage;
+                }
+
+                if (hasBlock) isSupport = false;
+            }
+
+            if (bestDamage == 0) return;
+
+            BlockPos bestBlockPos = BlockPos.fromLong(candidates.positions[best]);
+            BlockPos supportBlock = isSupport ? bestBlockPos : null;
+            float damage = bestDamage;
+
+            BlockHitResult result = getPlaceInfo(bestBlockPos);
 
             ((IVec3d) vec3d).meteor$set(
                     result.getBlockPos().getX() + 0.5 + result.getSide().getVector().getX() * 1.0 / 2.0,
@@ -985,18 +1034,115 @@ public class CrystalAura extends Module {
 
                 if (yawStepMode.get() == YawStepMode.Break || doYawSteps(yaw, pitch)) {
                     setRotation(true, vec3d, 0, 0);
-                    Rotations.rotate(yaw, pitch, 50, () -> placeCrystal(result, bestDamage.get(), isSupport.get() ? bestBlockPos.get() : null));
+                    Rotations.rotate(yaw, pitch, 50, () -> placeCrystal(result, damage, supportBlock));
 
                     placeTimer += placeDelay.get();
                 }
             }
             else {
-                placeCrystal(result, bestDamage.get(), isSupport.get() ? bestBlockPos.get() : null);
+                placeCrystal(result, damage, supportBlock);
                 placeTimer += placeDelay.get();
             }
         });
     }
 
+    /**
+     * Calculates self and target damage for every gathered candidate. Everything the damage calculation needs from the
+     * player and the targets is captured on the client thread first, large candidate sets are then split across
+     * {@link #SCORE_POOL} while the client thread waits.
+     */
+    private void scoreCandidates() {
+        boolean predict = predictMovement.get();
+        double maxSelfDamage = maxDamage.get();
+        boolean antiSuicide = this.antiSuicide.get();
+        float selfHealth = EntityUtils.getTotalHealth(mc.player);
+        boolean fast = support.get() == SupportMode.Fast;
+
+        DamageUtils.ExplosionTarget self = new DamageUtils.ExplosionTarget(mc.player, predict);
+        LivingEntity nearest = fast ? getNearestTarget() : null;
+        DamageUtils.ExplosionTarget nearestTarget = nearest == null ? null : new DamageUtils.ExplosionTarget(nearest, predict);
+
+        DamageUtils.ExplosionTarget[] explosionTargets = new DamageUtils.ExplosionTarget[targets.size()];
+        for (int j = 0; j < explosionTargets.length; j++) explosionTargets[j] = new DamageUtils.ExplosionTarget(targets.get(j), predict);
+
+        IntConsumer scorer = i -> {
+            Vec3d pos = SCRATCH_VEC.get();
+            BlockPos.Mutable bp = SCRATCH_POS.get().set(candidates.positions[i]);
+            ((IVec3d) pos).meteor$set(bp.getX() + 0.5, bp.getY() + 1, bp.getZ() + 0.5);
+
+            candidates.damages[i] = Float.NaN;
+            candidates.targets[i] = -1;
+            candidates.targetDamages[i] = 0;
+
+            // Check damage to self and anti suicide, rejected candidates keep a NaN damage
+            float selfDamage = DamageUtils.crystalDamage(self, pos, bp);
+            if (selfDamage > maxSelfDamage || (antiSuicide && selfDamage >= selfHealth)) return;
+
+            // Check damage to targets
+            if (fast && !candidates.hasBlock[i]) {
+                candidates.damages[i] = DamageUtils.crystalDamage(nearestTarget, pos, bp);
+                return;
+            }
+
+            float damage = 0;
+
+            for (int j = 0; j < explosionTargets.length; j++) {
+                float dmg = DamageUtils.crystalDamage(explosionTargets[j], pos, bp);
+
+                if (dmg > candidates.targetDamages[i]) {
+                    candidates.targets[i] = j;
+                    candidates.targetDamages[i] = dmg;
+                }
+
+                damage += dmg;
+            }
+
+            candidates.damages[i] = damage;
+        };
+
+        if (candidates.size < PARALLEL_THRESHOLD) {
+            for (int i = 0; i < candidates.size; i++) scorer.accept(i);
+            return;
+        }
+
+        prefillExposure();
+        SCORE_POOL.submit(() -> IntStream.range(0, candidates.size).parallel().forEach(scorer)).join();
+    }
+
+    /** Caches the blocks between the candidates and every damaged entity before they are read off the client thread. */
+    private void prefillExposure() {
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+
+        for (int i = 0; i < candidates.size; i++) {
+            long pos = candidates.positions[i];
+
+            minX = Math.min(minX, BlockPos.unpackLongX(pos));
+            minY = Math.min(minY, BlockPos.unpackLongY(pos));
+            minZ = Math.min(minZ, BlockPos.unpackLongZ(pos));
+            maxX = Math.max(maxX, BlockPos.unpackLongX(pos));
+            maxY = Math.max(maxY, BlockPos.unpackLongY(pos) + 1);
+            maxZ = Math.max(maxZ, BlockPos.unpackLongZ(pos));
+        }
+
+        for (int i = -1; i < targets.size(); i++) {
+            Box entityBox = (i == -1 ? mc.player : targets.get(i)).getBoundingBox();
+
+            minX = Math.min(minX, MathHelper.floor(entityBox.minX) - 1);
+            minY = Math.min(minY, MathHelper.floor(entityBox.minY) - 1);
+            minZ = Math.min(minZ, MathHelper.floor(entityBox.minZ) - 1);
+            maxX = Math.max(maxX, MathHelper.floor(entityBox.maxX) + 1);
+            maxY = Math.max(maxY, MathHelper.floor(entityBox.maxY) + 1);
+            maxZ = Math.max(maxZ, MathHelper.floor(entityBox.maxZ) + 1);
+        }
+
+        ExplosionExposure.prefill(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    private static boolean isCrystalBase(BlockState state) {
+        return state.isOf(Blocks.BEDROCK) || state.isOf(Blocks.OBSIDIAN);
+    }
+
     private BlockHitResult getPlaceInfo(BlockPos blockPos) {
         ((IVec3d) vec3d).meteor$set(mc.player.getX(), mc.player.getY() + mc.player.getEyeHeight(mc.player.getPose()), mc.player.getZ());
 
@@ -1213,34 +1359,36 @@ public class CrystalAura extends Module {
         targets.clear();
 
         // Living Entities
-        for (Entity entity : mc.world.getEntities()) {
-            // Ignore non-living
-            if (!(entity instanceof LivingEntity livingEntity)) continue;
-
-            // Player
-            if (livingEntity instanceof PlayerEntity player) {
-                if (player.getAbilities().creativeMode || livingEntity == mc.player) continue;
-                if (!player.isAlive() || !Friends.get().shouldAttack(player)) continue;
-
-                if (ignoreNakeds.get()) {
-                    if (player.getOffHandStack().isEmpty()
-                        && player.getMainHandStack().isEmpty()
-                        && player.getEquippedStack(EquipmentSlot.FEET).isEmpty()
-                        && player.getEquippedStack(EquipmentSlot.LEGS).isEmpty()
-                        && player.getEquippedStack(EquipmentSlot.CHEST).isEmpty()
-                        && player.getEquippedStack(EquipmentSlot.HEAD).isEmpty()
-                    ) continue;
-                }
+        EntityIndex.forEachInRange(targetRange.get(), this::findTarget);
+    }
+
+    private void findTarget(Entity entity) {
+        // Ignore non-living
+        if (!(entity instanceof LivingEntity livingEntity)) return;
+
+        // Player
+        if (livingEntity instanceof PlayerEntity player) {
+            if (player.getAbilities().creativeMode || livingEntity == mc.player) return;
+            if (!player.isAlive() || !Friends.get().shouldAttack(player)) return;
+
+            if (ignoreNakeds.get()) {
+                if (player.getOffHandStack().isEmpty()
+                    && player.getMainHandStack().isEmpty()
+                    && player.getEquippedStack(EquipmentSlot.FEET).isEmpty()
+                    && player.getEquippedStack(EquipmentSlot.LEGS).isEmpty()
+                    && player.getEquippedStack(EquipmentSlot.CHEST).isEmpty()
+                    && player.getEquippedStack(EquipmentSlot.HEAD).isEmpty()
+                ) return;
             }
+        }
 
-            // Animals, water animals, monsters, bats, misc
-            if (!(entities.get().contains(livingEntity.getType()))) continue;
+        // Animals, water animals, monsters, bats, misc
+        if (!(entities.contains(livingEntity.getType()))) return;
 
-            // Close enough to damage
-            if (livingEntity.squaredDistanceTo(mc.player) > targetRange.get() * targetRange.get()) continue;
+        // Close enough to damage
+        if (livingEntity.squaredDistanceTo(mc.player) > targetRange.get() * targetRange.get()) return;
 
-            targets.add(livingEntity);
-        }
+        targets.add(livingEntity);
     }
 
     private boolean intersectsWithEntities(Box box) {
@@ -1341,6 +1489,38 @@ public class CrystalAura extends Module {
         }
     }
 
+    /** Place positions that passed every world check, stored in iteration order. */
+    private static class PlaceCandidates {
+        private int size;
+
+        private long[] positions = new long[64];
+        private boolean[] hasBlock = new boolean[64];
+
+        private float[] damages = new float[64];
+        private int[] targets = new int[64];
+        private float[] targetDamages = new float[64];
+
+        public void add(long pos, boolean hasBlock) {
+            if (size == positions.length) {
+                int length = size * 2;
+
+                positions = Arrays.copyOf(positions, length);
+                this.hasBlock = Arrays.copyOf(this.hasBlock, length);
+                damages = Arrays.copyOf(damages, length);
+                targets = Arrays.copyOf(targets, length);
+                targetDamages = Arrays.copyOf(targetDamages, length);
+            }
+
+            positions[size] = pos;
+            this.hasBlock[size] = hasBlock;
+            size++;
+        }
+
+        public void clear() {
+            size = 0;
+        }
+    }
+
     public enum YawStepMode {
         Break,
         All,
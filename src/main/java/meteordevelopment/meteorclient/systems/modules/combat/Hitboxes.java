@@ -22,7 +22,7 @@ public class Hitboxes extends Module {
     private final SettingGroup sgGeneral = settings.getDefaultGroup();
     private final SettingGroup sgWeapon = settings.createGroup("Weapon Options");
 
-    private final Setting<Set<EntityType<?>>> entities = sgGeneral.add(new EntityTypeListSetting.Builder()
+    private final EntityTypeListSetting entities = sgGeneral.add(new EntityTypeListSetting.Builder()
         .name("entities")
         .description("Which entities to target.")
         .defaultValue(EntityType.PLAYER)
@@ -104,7 +104,7 @@ public class Hitboxes extends Module {
 
     public double getEntityValue(Entity entity) {
         if (!(isActive() && testWeapon()) || (ignoreFriends.get() && entity instanceof PlayerEntity playerEntity && Friends.get().isFriend(playerEntity))) return 0;
-        if (entities.get().contains(entity.getType())) return value.get();
+        if (entities.contains(entity.getType())) return value.get();
         return 0;
     }
 
@@ -19,13 +19,12 @@ import meteordevelopment.meteorclient.utils.player.InvUtils;
 import meteordevelopment.meteorclient.utils.player.PlayerUtils;
 import meteordevelopment.meteorclient.utils.render.color.Color;
 import meteordevelopment.meteorclient.utils.render.color.SettingColor;
-import meteordevelopment.meteorclient.utils.world.BlockIterator;
 import meteordevelopment.meteorclient.utils.world.BlockUtils;
 import meteordevelopment.meteorclient.utils.world.Dir;
+import meteordevelopment.meteorclient.utils.world.HoleIndex;
 import meteordevelopment.orbit.EventHandler;
 import meteordevelopment.orbit.EventPriority;
 import net.minecraft.block.Block;
-import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.util.hit.BlockHitResult;
@@ -35,6 +34,7 @@ import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.RaycastContext;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 public class HoleFiller extends Module {
@@ -42,7 +42,7 @@ public class HoleFiller extends Module {
     private final SettingGroup sgSmart = settings.createGroup("Smart");
     private final SettingGroup sgRender = settings.createGroup("Render");
 
-    private final Setting<List<Block>> blocks = sgGeneral.add(new BlockListSetting.Builder()
+    private final BlockListSetting blocks = sgGeneral.add(new BlockListSetting.Builder()
         .name("blocks")
         .description("Which blocks can be used to fill holes.")
         .defaultValue(
@@ -250,55 +250,38 @@ public class HoleFiller extends Module {
 
     @Override
     public void onActivate() {
+        HoleIndex.acquire();
         timer = 0;
     }
 
+    @Override
+    public void onDeactivate() {
+        HoleIndex.release();
+    }
+
     @EventHandler
     private void onTick(TickEvent.Pre event) {
         if (smart.get()) setTargets();
         holes.clear();
 
         // Grab blocks from hotbar
-        FindItemResult block = InvUtils.findInHotbar(itemStack -> blocks.get().contains(Block.getBlockFromItem(itemStack.getItem())));
+        FindItemResult block = InvUtils.findInHotbar(itemStack -> blocks.contains(Block.getBlockFromItem(itemStack.getItem())));
         if (!block.found()) return;
 
-        // Probe for holes
-        BlockIterator.register(searchRadius.get(), searchRadius.get(), (blockPos, blockState) -> {
-            if (!validHole(blockPos)) return;
-
-            int surroundBlocks = 0;
-            Direction air = null;
-
-            for (Direction direction : Direction.values()) {
-                if (direction == Direction.UP) continue;
-
-                BlockState state = mc.world.getBlockState(blockPos.offset(direction));
-
-                if (state.getBlock().getBlastResistance() >= 600) surroundBlocks++;
-                else if (direction == Direction.DOWN) return;
-                else if (validHole(blockPos.offset(direction)) && air == null) {
-                    for (Direction dir : Direction.values()) {
-                        if (dir == direction.getOpposite() || dir == Direction.UP) continue;
-
-                        BlockState state1 = mc.world.getBlockState(blockPos.offset(direction).offset(dir));
-
-                        if (state1.getBlock().getBlastResistance() >= 600) surroundBlocks++;
-                        else return;
-                    }
+        // Find holes
+        HoleIndex.forEach(searchRadius.get(), searchRadius.get(), hole -> {
+            if (!validHole(hole.pos)) return;
 
-                    air = direction;
-                }
-
-                if (surroundBlocks == 5 && air == null) holes.add(new Hole(blockPos, (byte) 0));
-                else if (surroundBlocks == 8 && doubles.get() && air != null) {
-                    holes.add(new Hole(blockPos, Dir.get(air)));
-                }
-            }
+            if (hole.air == null) holes.add(new Hole(hole.pos, (byte) 0));
+            else if (doubles.get() && validHole(hole.pos.offset(hole.air))) holes.add(new Hole(hole.pos, Dir.get(hole.air)));
         });
 
-        BlockIterator.after(() -> {
-            if (timer > 0 || holes.isEmpty()) return;
+        // The index has no order, fill the closest holes first
+        holes.sort(Comparator.comparingDouble(hole -> PlayerUtils.squaredDistanceTo(hole.blockPos)));
+
+        timer--;
 
+        if (timer <= 0 && !holes.isEmpty()) {
             // Fill holes!
             int placedCount = 0;
             for (Hole hole : holes) {
@@ -307,9 +290,7 @@ public class HoleFiller extends Module {
             }
 
             timer = placeDelay.get();
-        });
-
-        timer--;
+        }
     }
 
     @EventHandler(priority = EventPriority.HIGH)
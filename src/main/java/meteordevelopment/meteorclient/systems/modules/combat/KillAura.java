@@ -17,12 +17,14 @@ import meteordevelopment.meteorclient.utils.entity.EntityUtils;
 import meteordevelopment.meteorclient.utils.entity.SortPriority;
 import meteordevelopment.meteorclient.utils.entity.Target;
 import meteordevelopment.meteorclient.utils.entity.TargetUtils;
+import meteordevelopment.meteorclient.utils.network.PacketRouter;
 import meteordevelopment.meteorclient.utils.player.FindItemResult;
 import meteordevelopment.meteorclient.utils.player.InvUtils;
 import meteordevelopment.meteorclient.utils.player.PlayerUtils;
 import meteordevelopment.meteorclient.utils.player.Rotations;
 import meteordevelopment.meteorclient.utils.world.TickRate;
 import meteordevelopment.orbit.EventHandler;
+import meteordevelopment.orbit.EventPriority;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityType;
 import net.minecraft.entity.LivingEntity;
@@ -116,7 +118,7 @@ public class KillAura extends Module {
 
     // Targeting
 
-    private final Setting<Set<EntityType<?>>> entities = sgTargeting.add(new EntityTypeListSetting.Builder()
+    private final EntityTypeListSetting entities = sgTargeting.add(new EntityTypeListSetting.Builder()
         .name("entities")
         .description("Entities to attack.")
         .onlyAttackable()
@@ -251,6 +253,8 @@ public class KillAura extends Module {
 
     public KillAura() {
         super(Categories.Combat, "kill-aura", "Attacks specified entities around you.");
+
+        packetListener(PacketRouter.SEND, EventPriority.MEDIUM, this::onSendPacket).packets(UpdateSelectedSlotC2SPacket.class);
     }
 
     @Override
@@ -299,7 +303,7 @@ public class KillAura extends Module {
             targets.add(mc.targetedEntity);
         } else {
             targets.clear();
-            TargetUtils.getList(targets, this::entityCheck, priority.get(), maxTargets.get());
+            TargetUtils.getList(targets, range.get(), this::entityCheck, priority.get(), maxTargets.get());
         }
 
         if (targets.isEmpty()) {
@@ -347,11 +351,8 @@ public class KillAura extends Module {
         if (delayCheck()) targets.forEach(this::attack);
     }
 
-    @EventHandler
     private void onSendPacket(PacketEvent.Send event) {
-        if (event.packet instanceof UpdateSelectedSlotC2SPacket) {
-            switchTimer = switchDelay.get();
-        }
+        switchTimer = switchDelay.get();
     }
 
     private void stopAttacking() {
@@ -392,7 +393,7 @@ public class KillAura extends Module {
             range.get()
         )) return false;
 
-        if (!entities.get().contains(entity.getType())) return false;
+        if (!entities.contains(entity.getType())) return false;
         if (ignoreNamed.get() && entity.hasCustomName()) return false;
         if (!PlayerUtils.canSeeEntity(entity) && !PlayerUtils.isWithin(entity, wallsRange.get())) return false;
         if (ignoreTamed.get()) {
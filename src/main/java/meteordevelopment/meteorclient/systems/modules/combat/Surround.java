@@ -49,7 +49,7 @@ public class Surround extends Module {
 
     // General
 
-    private final Setting<List<Block>> blocks = sgGeneral.add(new BlockListSetting.Builder()
+    private final BlockListSetting blocks = sgGeneral.add(new BlockListSetting.Builder()
         .name("blocks")
         .description("What blocks to use for surround.")
         .defaultValue(Blocks.OBSIDIAN, Blocks.CRYING_OBSIDIAN, Blocks.NETHERITE_BLOCK)
@@ -317,7 +317,7 @@ public class Surround extends Module {
         if (onlyOnGround.get() && !mc.player.isOnGround()) return;
 
         // Wait until the player has a block available to place
-        FindItemResult block = InvUtils.findInHotbar(itemStack -> blocks.get().contains(Block.getBlockFromItem(itemStack.getItem())));
+        FindItemResult block = InvUtils.findInHotbar(itemStack -> blocks.contains(Block.getBlockFromItem(itemStack.getItem())));
         if (!block.found()) return;
 
         // Centering player
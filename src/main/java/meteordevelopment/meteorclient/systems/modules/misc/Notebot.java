@@ -22,6 +22,7 @@ import meteordevelopment.meteorclient.settings.*;
 import meteordevelopment.meteorclient.systems.modules.Categories;
 import meteordevelopment.meteorclient.systems.modules.Module;
 import meteordevelopment.meteorclient.utils.notebot.NotebotUtils;
+import meteordevelopment.meteorclient.utils.notebot.SongLibrary;
 import meteordevelopment.meteorclient.utils.notebot.decoder.SongDecoder;
 import meteordevelopment.meteorclient.utils.notebot.decoder.SongDecoders;
 import meteordevelopment.meteorclient.utils.notebot.instrumentdetect.InstrumentDetectMode;
@@ -448,7 +449,7 @@ public class Notebot extends Module {
                 return;
             }
 
-            if (song.getNotesMap().containsKey(currentTick)) {
+            if (song.hasNotes(currentTick)) {
                 if (playingMode == PlayingMode.Preview) onTickPreview();
                 else if (mc.player.getAbilities().creativeMode) {
                     error("You need to be in survival mode.");
@@ -651,15 +652,10 @@ public class Notebot extends Module {
     }
 
     public void playRandomSong() {
-        File[] files = MeteorClient.FOLDER.toPath().resolve("notebot").toFile().listFiles();
-        if (files == null) return;
+        List<SongLibrary.Entry> songs = SongLibrary.getEntries();
+        if (songs.isEmpty()) return;
 
-        File randomSong = files[ThreadLocalRandom.current().nextInt(files.length)];
-        if (SongDecoders.hasDecoder(randomSong)) {
-            loadSong(randomSong);
-        } else {
-            playRandomSong();
-        }
+        loadSong(songs.get(ThreadLocalRandom.current().nextInt(songs.size())).path().toFile());
     }
 
     public void disableNotebot() {
@@ -722,13 +718,7 @@ public class Notebot extends Module {
         info("Loading song \"%s\".", FilenameUtils.getBaseName(file.getName()));
 
         // Start loading song
-        loadingSongFuture = CompletableFuture.supplyAsync(() -> {
-            try {
-                return SongDecoders.parse(file);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-        });
+        loadingSongFuture = SongLibrary.load(file);
         loadingSongFuture.completeOnTimeout(null, 60, TimeUnit.SECONDS);
 
         stage = Stage.LoadingSong;
@@ -793,7 +783,11 @@ public class Notebot extends Module {
     }
 
     private void onTickPreview() {
-        for (Note note : song.getNotesMap().get(currentTick)) {
+        int end = song.getNotesEnd(currentTick);
+
+        for (int i = song.getNotesStart(currentTick); i < end; i++) {
+            Note note = song.getNote(i);
+
             if (mode.get() == NotebotUtils.NotebotMode.ExactInstruments) {
                 mc.player.playSound(note.getInstrument().getSound().value(), 2f, (float) Math.pow(2.0D, (note.getNoteLevel() - 12) / 12.0D));
             } else {
@@ -888,18 +882,17 @@ public class Notebot extends Module {
     }
 
     private void onTickPlay() {
-        Collection<Note> notes = song.getNotesMap().get(this.currentTick);
-        if (!notes.isEmpty()) {
+        int start = song.getNotesStart(this.currentTick);
+        int end = song.getNotesEnd(this.currentTick);
+
+        if (start < end) {
 
             // Rotate player's head
             if (autoRotate.get()) {
-                Optional<Note> firstNote = notes.stream().findFirst();
-                if (firstNote.isPresent()) {
-                    BlockPos firstPos = noteBlockPositions.get(firstNote.get());
+                BlockPos firstPos = noteBlockPositions.get(song.getNote(start));
 
-                    if (firstPos != null) {
-                        Rotations.rotate(Rotations.getYaw(firstPos), Rotations.getPitch(firstPos));
-                    }
+                if (firstPos != null) {
+                    Rotations.rotate(Rotations.getYaw(firstPos), Rotations.getPitch(firstPos));
                 }
             }
 
@@ -909,8 +902,8 @@ public class Notebot extends Module {
             }
 
             // Play notes
-            for (Note note : notes) {
-                BlockPos pos = noteBlockPositions.get(note);
+            for (int i = start; i < end; i++) {
+                BlockPos pos = noteBlockPositions.get(song.getNote(i));
                 if (pos == null) {
                     return;
                 }
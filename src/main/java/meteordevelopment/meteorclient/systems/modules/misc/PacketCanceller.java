@@ -11,20 +11,25 @@ import meteordevelopment.meteorclient.settings.Setting;
 import meteordevelopment.meteorclient.settings.SettingGroup;
 import meteordevelopment.meteorclient.systems.modules.Categories;
 import meteordevelopment.meteorclient.systems.modules.Module;
+import meteordevelopment.meteorclient.utils.network.PacketRouter;
 import meteordevelopment.meteorclient.utils.network.PacketUtils;
-import meteordevelopment.orbit.EventHandler;
 import meteordevelopment.orbit.EventPriority;
 import net.minecraft.network.packet.Packet;
 
 import java.util.Set;
 
 public class PacketCanceller extends Module {
+    // Only called for the selected packets
+    private final PacketRouter<PacketEvent.Receive>.Listener receiveListener = packetListener(PacketRouter.RECEIVE, EventPriority.HIGHEST + 1, PacketEvent.Receive::cancel);
+    private final PacketRouter<PacketEvent.Send>.Listener sendListener = packetListener(PacketRouter.SEND, EventPriority.HIGHEST + 1, PacketEvent.Send::cancel);
+
     private final SettingGroup sgGeneral = settings.getDefaultGroup();
 
     private final Setting<Set<Class<? extends Packet<?>>>> s2cPackets = sgGeneral.add(new PacketListSetting.Builder()
         .name("S2C-packets")
         .description("Server-to-client packets to cancel.")
         .filter(aClass -> PacketUtils.getS2CPackets().contains(aClass))
+        .onChanged(packets -> receiveListener.packets(packets))
         .build()
     );
 
@@ -32,6 +37,7 @@ public class PacketCanceller extends Module {
         .name("C2S-packets")
         .description("Client-to-server packets to cancel.")
         .filter(aClass -> PacketUtils.getC2SPackets().contains(aClass))
+        .onChanged(packets -> sendListener.packets(packets))
         .build()
     );
 
@@ -40,13 +46,9 @@ public class PacketCanceller extends Module {
         runInMainMenu = true;
     }
 
-    @EventHandler(priority = EventPriority.HIGHEST + 1)
-    private void onReceivePacket(PacketEvent.Receive event) {
-        if (s2cPackets.get().contains(event.packet.getClass())) event.cancel();
-    }
-
-    @EventHandler(priority = EventPriority.HIGHEST + 1)
-    private void onSendPacket(PacketEvent.Send event) {
-        if (c2sPackets.get().contains(event.packet.getClass())) event.cancel();
+    @Override
+    public void onActivate() {
+        receiveListener.packets(s2cPackets.get());
+        sendListener.packets(c2sPackets.get());
     }
 }
@@ -5,66 +5,192 @@
 
 package meteordevelopment.meteorclient.systems.modules.misc.swarm;
 
-import meteordevelopment.meteorclient.utils.player.ChatUtils;
-
-import java.io.DataOutputStream;
 import java.io.IOException;
-import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * One end of a swarm connection, driven by the selector thread of a {@link SwarmHost} or {@link SwarmWorker}.
+ * <p>
+ * Every frame is an int length followed by a type byte and the payload. Frames can be queued from any thread and are
+ * written by the selector thread, as many as possible in one gathering write.
+ */
+public class SwarmConnection {
+    private static final int COMMAND = 0;
+    private static final int PING = 1;
+    private static final int PONG = 2;
+
+    private static final int MAX_FRAME_LENGTH = 1 << 20;
+    private static final int MAX_GATHER = 64;
+
+    public final SocketChannel channel;
+    private final SelectionKey key;
+    private final String address;
+
+    private final Queue<ByteBuffer> outbound = new ConcurrentLinkedQueue<>();
+    private final ByteBuffer[] gather = new ByteBuffer[MAX_GATHER];
+    private ByteBuffer in = ByteBuffer.allocate(1024);
+
+    private long lastReceived = System.currentTimeMillis();
+    private volatile long latency = -1;
 
-public class SwarmConnection extends Thread {
-    public final Socket socket;
-    public String messageToSend;
+    public SwarmConnection(SocketChannel channel, Selector selector) throws IOException {
+        this.channel = channel;
 
-    public SwarmConnection(Socket socket) {
-        this.socket = socket;
-        start();
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        key = channel.register(selector, SelectionKey.OP_READ, this);
+
+        address = getIp(channel.socket().getInetAddress().getHostAddress()) + ":" + channel.socket().getPort();
     }
 
-    @Override
-    public void run() {
-        ChatUtils.infoPrefix("Swarm", "New worker connected on %s.", getIp(socket.getInetAddress().getHostAddress()));
+    // Writing
 
-        try {
-            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
-
-            while (!isInterrupted()) {
-                if (messageToSend != null) {
-                    try {
-                        out.writeUTF(messageToSend);
-                        out.flush();
-                    } catch (Exception e) {
-                        ChatUtils.errorPrefix("Swarm", "Encountered error when sending command.");
-                        e.printStackTrace();
-                    }
-
-                    messageToSend = null;
+    /** Queues a frame, the buffer is shared between connections so it is only read through a duplicate. */
+    public void send(ByteBuffer frame) {
+        outbound.add(frame.duplicate());
+    }
+
+    public void ping() {
+        ByteBuffer payload = ByteBuffer.allocate(Long.BYTES).putLong(System.nanoTime()).flip();
+        send(frame(PING, payload));
+    }
+
+    public boolean hasOutbound() {
+        return !outbound.isEmpty();
+    }
+
+    /** Writes queued frames until the socket buffer is full, then waits for the channel to become writable again. */
+    public void flush() throws IOException {
+        while (!outbound.isEmpty()) {
+            int count = 0;
+            for (Iterator<ByteBuffer> it = outbound.iterator(); it.hasNext() && count < MAX_GATHER; ) gather[count++] = it.next();
+
+            channel.write(gather, 0, count);
+
+            for (int i = 0; i < count; i++) {
+                if (gather[i].hasRemaining()) {
+                    clearGather(count);
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
                 }
+
+                outbound.poll();
             }
 
-            out.close();
-        } catch (IOException e) {
-            ChatUtils.infoPrefix("Swarm", "Error creating a connection with %s on port %s.", getIp(socket.getInetAddress().getHostAddress()), socket.getPort());
-            e.printStackTrace();
+            clearGather(count);
+        }
+
+        key.interestOps(SelectionKey.OP_READ);
+    }
+
+    private void clearGather(int count) {
+        for (int i = 0; i < count; i++) gather[i] = null;
+    }
+
+    // Reading
+
+    /**
+     * Reads the available bytes and handles every complete frame, heartbeats are answered here and commands are passed
+     * to the consumer.
+     *
+     * @return false if the other end closed the connection
+     */
+    public boolean read(Consumer<String> commands) throws IOException {
+        int read = channel.read(in);
+        if (read == -1) return false;
+
+        in.flip();
+
+        while (in.remaining() >= Integer.BYTES) {
+            int length = in.getInt(in.position());
+            if (length < 1 || length > MAX_FRAME_LENGTH) throw new IOException("Invalid swarm frame length " + length + ".");
+
+            if (in.remaining() < Integer.BYTES + length) {
+                // Grow the buffer for frames bigger than it
+                if (in.capacity() < Integer.BYTES + length) {
+                    ByteBuffer bigger = ByteBuffer.allocate(Integer.BYTES + length);
+                    bigger.put(in);
+                    in = bigger;
+                    return true;
+                }
+
+                break;
+            }
+
+            in.position(in.position() + Integer.BYTES);
+            int type = in.get();
+
+            ByteBuffer payload = in.slice(in.position(), length - 1);
+            in.position(in.position() + length - 1);
+
+            handle(type, payload, commands);
+        }
+
+        in.compact();
+        return true;
+    }
+
+    private void handle(int type, ByteBuffer payload, Consumer<String> commands) {
+        lastReceived = System.currentTimeMillis();
+
+        switch (type) {
+            case COMMAND -> commands.accept(StandardCharsets.UTF_8.decode(payload).toString());
+            case PING -> send(frame(PONG, payload));
+            case PONG -> latency = (System.nanoTime() - payload.getLong()) / 1_000_000;
         }
     }
 
-    public void disconnect() {
+    // Frames
+
+    public static ByteBuffer command(String command) {
+        return frame(COMMAND, ByteBuffer.wrap(command.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static ByteBuffer frame(int type, ByteBuffer payload) {
+        ByteBuffer frame = ByteBuffer.allocate(Integer.BYTES + 1 + payload.remaining());
+
+        frame.putInt(1 + payload.remaining());
+        frame.put((byte) type);
+        frame.put(payload);
+
+        return frame.flip();
+    }
+
+    // Other
+
+    public void close() {
+        key.cancel();
+
         try {
-            socket.close();
+            channel.close();
         } catch (IOException e) {
             e.printStackTrace();
         }
+    }
 
-        ChatUtils.infoPrefix("Swarm", "Worker disconnected on ip: %s.", socket.getInetAddress().getHostAddress());
+    /** Milliseconds since the last frame from the other end. */
+    public long getIdleTime() {
+        return System.currentTimeMillis() - lastReceived;
+    }
 
-        interrupt();
+    /** Round trip time of the last heartbeat in milliseconds, -1 before the first one was answered. */
+    public long getLatency() {
+        return latency;
     }
 
     public String getConnection() {
-        return getIp(socket.getInetAddress().getHostAddress()) + ":" + socket.getPort();
+        return address;
     }
 
-    private String getIp(String ip) {
+    private static String getIp(String ip) {
         return ip.equals("127.0.0.1") ? "localhost" : ip;
     }
 }
@@ -5,90 +5,178 @@
 
 package meteordevelopment.meteorclient.systems.modules.misc.swarm;
 
-import meteordevelopment.meteorclient.utils.network.MeteorExecutor;
 import meteordevelopment.meteorclient.utils.player.ChatUtils;
 
 import java.io.IOException;
-import java.net.ServerSocket;
-import java.net.Socket;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class SwarmHost extends Thread {
-    private ServerSocket socket;
-    private final SwarmConnection[] clientConnections = new SwarmConnection[50];
+    private static final long HEARTBEAT_INTERVAL = 5000;
+    private static final long TIMEOUT = 30000;
+
+    private final int port;
+    private Selector selector;
+    private ServerSocketChannel server;
+    private final List<SwarmConnection> connections = new CopyOnWriteArrayList<>();
+
+    private final AtomicBoolean disconnected = new AtomicBoolean();
+    private long lastHeartbeat;
 
     public SwarmHost(int port) {
+        this.port = port;
+
         try {
-            socket = new ServerSocket(port);
+            selector = Selector.open();
+
+            server = ServerSocketChannel.open();
+            server.bind(new InetSocketAddress(port));
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
         } catch (IOException e) {
-            socket = null;
-            ChatUtils.errorPrefix("Swarm", "Couldn't start a server on port %s.", port);
+            server = null;
+            error("Couldn't start a server on port %s.", port);
             e.printStackTrace();
         }
 
-        if (socket != null) start();
+        setName("Meteor-Swarm-Host");
+        setDaemon(true);
+
+        if (server != null) start();
     }
 
     @Override
     public void run() {
-        ChatUtils.infoPrefix("Swarm", "Listening for incoming connections on port %s.", socket.getLocalPort());
-
-        while (!isInterrupted()) {
-            try {
-                Socket connection = socket.accept();
-                assignConnectionToSubServer(connection);
-            } catch (IOException e) {
-                ChatUtils.errorPrefix("Swarm", "Error making a connection to worker.");
-                e.printStackTrace();
+        info("Listening for incoming connections on port %s.", port);
+
+        try {
+            while (!isInterrupted()) {
+                // Only wakes up for network activity, new messages and heartbeats
+                selector.select(1000);
+
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+
+                    if (!key.isValid()) continue;
+
+                    if (key.isAcceptable()) accept();
+                    else if (key.attachment() instanceof SwarmConnection connection) {
+                        try {
+                            if (key.isReadable() && !connection.read(command -> {})) remove(connection);
+                            else if (key.isValid() && key.isWritable()) connection.flush();
+                        } catch (IOException e) {
+                            remove(connection);
+                        }
+                    }
+                }
+
+                heartbeat();
+
+                for (SwarmConnection connection : connections) {
+                    if (!connection.hasOutbound()) continue;
+
+                    try {
+                        connection.flush();
+                    } catch (IOException e) {
+                        remove(connection);
+                    }
+                }
             }
+        } catch (ClosedSelectorException ignored) {
+        } catch (IOException e) {
+            if (disconnected.get()) return;
+
+            error("Error in swarm server.");
+            e.printStackTrace();
         }
     }
 
-    public void assignConnectionToSubServer(Socket connection) {
-        for (int i = 0; i < clientConnections.length; i++) {
-            if (this.clientConnections[i] == null) {
-                this.clientConnections[i] = new SwarmConnection(connection);
-                break;
-            }
+    private void accept() {
+        try {
+            SocketChannel channel = server.accept();
+            if (channel == null) return;
+
+            SwarmConnection connection = new SwarmConnection(channel, selector);
+            connections.add(connection);
+
+            info("New worker connected on %s.", connection.getConnection());
+        } catch (IOException e) {
+            error("Error making a connection to worker.");
+            e.printStackTrace();
         }
     }
 
-    public void disconnect() {
-        for (SwarmConnection connection : clientConnections) {
-            if (connection != null) connection.disconnect();
+    private void heartbeat() {
+        long time = System.currentTimeMillis();
+        if (time - lastHeartbeat < HEARTBEAT_INTERVAL) return;
+
+        lastHeartbeat = time;
+
+        for (SwarmConnection connection : connections) {
+            if (connection.getIdleTime() > TIMEOUT) remove(connection);
+            else connection.ping();
         }
+    }
+
+    private void remove(SwarmConnection connection) {
+        if (!connections.remove(connection)) return;
+
+        connection.close();
+        info("Worker disconnected on ip: %s.", connection.getConnection());
+    }
+
+    /** Can be called from any thread, only the first call closes the server. */
+    public void disconnect() {
+        if (!disconnected.compareAndSet(false, true)) return;
+
+        interrupt();
+
+        for (SwarmConnection connection : connections) connection.close();
+        connections.clear();
 
         try {
-            socket.close();
+            server.close();
+            selector.close();
         } catch (IOException e) {
             e.printStackTrace();
         }
 
-        ChatUtils.infoPrefix("Swarm", "Server closed on port %s.", socket.getLocalPort());
-
-        interrupt();
+        info("Server closed on port %s.", port);
     }
 
+    /** Queues the message for every worker, the frame is encoded once and shared between them. */
     public void sendMessage(String s) {
-        MeteorExecutor.execute(() -> {
-            for (SwarmConnection connection : clientConnections) {
-                if (connection != null) {
-                    connection.messageToSend = s;
-                }
-            }
-        });
+        ByteBuffer frame = SwarmConnection.command(s);
+        for (SwarmConnection connection : connections) connection.send(frame);
+
+        selector.wakeup();
     }
 
-    public SwarmConnection[] getConnections() {
-        return clientConnections;
+    public List<SwarmConnection> getConnections() {
+        return connections;
     }
 
     public int getConnectionCount() {
-        int count = 0;
+        return connections.size();
+    }
 
-        for (SwarmConnection clientConnection : clientConnections) {
-            if (clientConnection != null) count++;
-        }
+    int getLocalPort() {
+        return server.socket().getLocalPort();
+    }
+
+    void info(String message, Object... args) {
+        ChatUtils.infoPrefix("Swarm", message, args);
+    }
 
-        return count;
+    void error(String message, Object... args) {
+        ChatUtils.errorPrefix("Swarm", message, args);
     }
 }
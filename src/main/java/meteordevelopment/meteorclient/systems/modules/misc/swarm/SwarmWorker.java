@@ -10,69 +10,123 @@ import meteordevelopment.meteorclient.pathing.PathManagers;
 import meteordevelopment.meteorclient.utils.player.ChatUtils;
 import net.minecraft.block.Block;
 
-import java.io.DataInputStream;
 import java.io.IOException;
-import java.net.Socket;
+import java.net.InetSocketAddress;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static meteordevelopment.meteorclient.MeteorClient.mc;
 
 public class SwarmWorker extends Thread {
-    private Socket socket;
+    // The host sends a heartbeat every 5 seconds
+    private static final long TIMEOUT = 30000;
+
+    private Selector selector;
+    private SwarmConnection connection;
+    private final AtomicBoolean disconnected = new AtomicBoolean();
     public Block target;
 
     public SwarmWorker(String ip, int port) {
         try {
-            socket = new Socket(ip, port);
+            selector = Selector.open();
+            connection = new SwarmConnection(SocketChannel.open(new InetSocketAddress(ip, port)), selector);
         } catch (Exception e) {
-            socket = null;
-            ChatUtils.warningPrefix("Swarm", "Server not found at %s on port %s.", ip, port);
+            connection = null;
+            warning("Server not found at %s on port %s.", ip, port);
             e.printStackTrace();
         }
 
-        if (socket != null) start();
+        setName("Meteor-Swarm-Worker");
+        setDaemon(true);
+
+        if (connection != null) start();
     }
 
     @Override
     public void run() {
-        ChatUtils.infoPrefix("Swarm", "Connected to Swarm host on at %s on port %s.", getIp(socket.getInetAddress().getHostAddress()), socket.getPort());
+        info("Connected to Swarm host at %s.", connection.getConnection());
 
         try {
-            DataInputStream in = new DataInputStream(socket.getInputStream());
-
-
             while (!isInterrupted()) {
-                String read = in.readUTF();
+                selector.select(1000);
+
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
 
-                if (read.startsWith("swarm")) {
-                    ChatUtils.infoPrefix("Swarm", "Received command: (highlight)%s", read);
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
 
-                    try {
-                        Commands.dispatch(read);
-                    } catch (Exception e) {
-                        ChatUtils.error("Error fetching command.");
-                        e.printStackTrace();
+                    if (key.isValid() && key.isReadable() && !connection.read(this::onCommand)) {
+                        error("Host closed the connection.");
+                        disconnect();
+                        return;
                     }
                 }
-            }
 
-            in.close();
+                if (connection.getIdleTime() > TIMEOUT) {
+                    error("Connection to host timed out.");
+                    disconnect();
+                    return;
+                }
+
+                // Heartbeat answers
+                if (connection.hasOutbound()) connection.flush();
+            }
+        } catch (ClosedSelectorException ignored) {
         } catch (IOException e) {
-            ChatUtils.errorPrefix("Swarm", "Error in connection to host.");
+            // Closing the connection from the client thread fails a flush or read that is still running
+            if (disconnected.get()) return;
+
+            error("Error in connection to host.");
             e.printStackTrace();
             disconnect();
         }
     }
 
+    private void onCommand(String read) {
+        if (!read.startsWith("swarm")) return;
+
+        info("Received command: (highlight)%s", read);
+        dispatch(read);
+    }
+
+    void dispatch(String command) {
+        mc.execute(() -> {
+            try {
+                Commands.dispatch(command);
+            } catch (Exception e) {
+                ChatUtils.error("Error fetching command.");
+                e.printStackTrace();
+            }
+        });
+    }
+
+    /** Can be called from the client and the worker thread at the same time, only the first call disconnects. */
     public void disconnect() {
+        if (!disconnected.compareAndSet(false, true)) return;
+
+        interrupt();
+
+        connection.close();
+
         try {
-            socket.close();
+            selector.close();
         } catch (IOException e) {
             e.printStackTrace();
         }
 
-        PathManagers.get().stop();
+        stopPathing();
 
-        ChatUtils.infoPrefix("Swarm", "Disconnected from host.");
+        info("Disconnected from host.");
+    }
 
-        interrupt();
+    /** Also called from the worker thread, the path manager must only be touched from the client thread. */
+    void stopPathing() {
+        mc.execute(() -> PathManagers.get().stop());
     }
 
     public void tick() {
@@ -85,10 +139,18 @@ public class SwarmWorker extends Thread {
     }
 
     public String getConnection() {
-        return getIp(socket.getInetAddress().getHostAddress()) + ":" + socket.getPort();
+        return connection.getConnection();
+    }
+
+    void info(String message, Object... args) {
+        ChatUtils.infoPrefix("Swarm", message, args);
+    }
+
+    void warning(String message, Object... args) {
+        ChatUtils.warningPrefix("Swarm", message, args);
     }
 
-    private String getIp(String ip) {
-        return ip.equals("127.0.0.1") ? "localhost" : ip;
+    void error(String message, Object... args) {
+        ChatUtils.errorPrefix("Swarm", message, args);
     }
 }
@@ -39,7 +39,7 @@ public class AutoEat extends Module {
     private final SettingGroup sgThreshold = settings.createGroup("Threshold");
 
     // General
-    public final Setting<List<Item>> blacklist = sgGeneral.add(new ItemListSetting.Builder()
+    public final ItemListSetting blacklist = sgGeneral.add(new ItemListSetting.Builder()
         .name("blacklist")
         .description("Which items to not eat.")
         .defaultValue(
@@ -250,7 +250,7 @@ public class AutoEat extends Module {
             int hunger = foodComponent.nutrition();
             if (hunger > bestHunger) {
                 // Skip if item is in blacklist
-                if (blacklist.get().contains(item)) continue;
+                if (blacklist.contains(item)) continue;
 
                 // Select the current item
                 slot = i;
@@ -260,7 +260,7 @@ public class AutoEat extends Module {
 
         Item offHandItem = mc.player.getOffHandStack().getItem();
         FoodComponent offHandFood = offHandItem.getComponents().get(DataComponentTypes.FOOD);
-        if (offHandFood != null && !blacklist.get().contains(offHandItem) && offHandFood.nutrition() > bestHunger) {
+        if (offHandFood != null && !blacklist.contains(offHandItem) && offHandFood.nutrition() > bestHunger) {
             slot = SlotUtils.OFFHAND;
         }
 
@@ -70,7 +70,7 @@ public class AutoReplenish extends Module {
         .build()
     );
 
-    private final Setting<List<Item>> excludedItems = sgGeneral.add(new ItemListSetting.Builder()
+    private final ItemListSetting excludedItems = sgGeneral.add(new ItemListSetting.Builder()
         .name("excluded-items")
         .description("Items that won't be replenished.")
         .build()
@@ -132,8 +132,8 @@ public class AutoReplenish extends Module {
 
         if (slot == 9) slot = SlotUtils.OFFHAND;
         
-        if (excludedItems.get().contains(stack.getItem())) return;
-        if (excludedItems.get().contains(prevStack.getItem())) return;
+        if (excludedItems.contains(stack.getItem())) return;
+        if (excludedItems.contains(prevStack.getItem())) return;
 
         int fromSlot = -1;
 
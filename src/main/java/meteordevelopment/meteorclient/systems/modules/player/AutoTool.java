@@ -98,7 +98,7 @@ public class AutoTool extends Module {
         .build()
     );
 
-    private final Setting<List<Item>> whitelist = sgWhitelist.add(new ItemListSetting.Builder()
+    private final ItemListSetting whitelist = sgWhitelist.add(new ItemListSetting.Builder()
         .name("whitelist")
         .description("The tools you want to use.")
         .visible(() -> listMode.get() == ListMode.Whitelist)
@@ -106,7 +106,7 @@ public class AutoTool extends Module {
         .build()
     );
 
-    private final Setting<List<Item>> blacklist = sgWhitelist.add(new ItemListSetting.Builder()
+    private final ItemListSetting blacklist = sgWhitelist.add(new ItemListSetting.Builder()
         .name("blacklist")
         .description("The tools you don't want to use.")
         .visible(() -> listMode.get() == ListMode.Blacklist)
@@ -161,8 +161,8 @@ public class AutoTool extends Module {
         for (int i = 0; i < 9; i++) {
             ItemStack itemStack = mc.player.getInventory().getStack(i);
 
-            if (listMode.get() == ListMode.Whitelist && !whitelist.get().contains(itemStack.getItem())) continue;
-            if (listMode.get() == ListMode.Blacklist && blacklist.get().contains(itemStack.getItem())) continue;
+            if (listMode.get() == ListMode.Whitelist && !whitelist.contains(itemStack.getItem())) continue;
+            if (listMode.get() == ListMode.Blacklist && blacklist.contains(itemStack.getItem())) continue;
 
             double score = getScore(itemStack, blockState, silkTouchForEnderChest.get(), fortuneForOresCrops.get(), prefer.get(), itemStack2 -> !shouldStopUsing(itemStack2));
             if (score < 0) continue;
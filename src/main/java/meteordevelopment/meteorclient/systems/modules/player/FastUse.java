@@ -29,7 +29,7 @@ public class FastUse extends Module {
         .build()
     );
 
-    private final Setting<List<Item>> items = sgGeneral.add(new ItemListSetting.Builder()
+    private final ItemListSetting items = sgGeneral.add(new ItemListSetting.Builder()
         .name("items")
         .description("Which items should fast place work on in \"Some\" mode.")
         .visible(() -> mode.get() == Mode.Some)
@@ -65,6 +65,6 @@ public class FastUse extends Module {
     }
 
     private boolean shouldWorkSome(ItemStack itemStack) {
-        return (blocks.get() && itemStack.getItem() instanceof BlockItem) || items.get().contains(itemStack.getItem());
+        return (blocks.get() && itemStack.getItem() instanceof BlockItem) || items.contains(itemStack.getItem());
     }
 }
@@ -33,7 +33,7 @@ public class NoInteract extends Module {
 
     // Blocks
 
-    private final Setting<List<Block>> blockMine = sgBlocks.add(new BlockListSetting.Builder()
+    private final BlockListSetting blockMine = sgBlocks.add(new BlockListSetting.Builder()
         .name("block-mine")
         .description("Cancels block mining.")
         .build()
@@ -46,7 +46,7 @@ public class NoInteract extends Module {
         .build()
     );
 
-    private final Setting<List<Block>> blockInteract = sgBlocks.add(new BlockListSetting.Builder()
+    private final BlockListSetting blockInteract = sgBlocks.add(new BlockListSetting.Builder()
         .name("block-interact")
         .description("Cancels block interaction.")
         .build()
@@ -68,7 +68,7 @@ public class NoInteract extends Module {
 
     // Entities
 
-    private final Setting<Set<EntityType<?>>> entityHit = sgEntities.add(new EntityTypeListSetting.Builder()
+    private final EntityTypeListSetting entityHit = sgEntities.add(new EntityTypeListSetting.Builder()
         .name("entity-hit")
         .description("Cancel entity hitting.")
         .onlyAttackable()
@@ -82,7 +82,7 @@ public class NoInteract extends Module {
         .build()
     );
 
-    private final Setting<Set<EntityType<?>>> entityInteract = sgEntities.add(new EntityTypeListSetting.Builder()
+    private final EntityTypeListSetting entityInteract = sgEntities.add(new EntityTypeListSetting.Builder()
         .name("entity-interact")
         .description("Cancel entity interaction.")
         .onlyAttackable()
@@ -150,12 +150,12 @@ public class NoInteract extends Module {
 
     private boolean shouldAttackBlock(BlockPos blockPos) {
         if (blockMineMode.get() == ListMode.WhiteList &&
-            blockMine.get().contains(mc.world.getBlockState(blockPos).getBlock())) {
+            blockMine.contains(mc.world.getBlockState(blockPos).getBlock())) {
             return false;
         }
 
         return blockMineMode.get() != ListMode.BlackList ||
-            !blockMine.get().contains(mc.world.getBlockState(blockPos).getBlock());
+            !blockMine.contains(mc.world.getBlockState(blockPos).getBlock());
     }
 
     private boolean shouldInteractBlock(BlockHitResult hitResult, Hand hand) {
@@ -168,12 +168,12 @@ public class NoInteract extends Module {
 
         // Blocks
         if (blockInteractMode.get() == ListMode.BlackList &&
-            blockInteract.get().contains(mc.world.getBlockState(hitResult.getBlockPos()).getBlock())) {
+            blockInteract.contains(mc.world.getBlockState(hitResult.getBlockPos()).getBlock())) {
             return false;
         }
 
         return blockInteractMode.get() != ListMode.WhiteList ||
-            blockInteract.get().contains(mc.world.getBlockState(hitResult.getBlockPos()).getBlock());
+            blockInteract.contains(mc.world.getBlockState(hitResult.getBlockPos()).getBlock());
     }
 
     private boolean shouldAttackEntity(Entity entity) {
@@ -194,12 +194,12 @@ public class NoInteract extends Module {
 
         // Entities
         if (entityHitMode.get() == ListMode.BlackList &&
-            entityHit.get().contains(entity.getType())) {
+            entityHit.contains(entity.getType())) {
             return false;
         }
 
         else return entityHitMode.get() != ListMode.WhiteList ||
-            entityHit.get().contains(entity.getType());
+            entityHit.contains(entity.getType());
     }
 
     private boolean shouldInteractEntity(Entity entity, Hand hand) {
@@ -227,11 +227,11 @@ public class NoInteract extends Module {
 
         // Entities
         if (entityInteractMode.get() == ListMode.BlackList &&
-            entityInteract.get().contains(entity.getType())) {
+            entityInteract.contains(entity.getType())) {
             return false;
         }
         else return entityInteractMode.get() != ListMode.WhiteList ||
-            entityInteract.get().contains(entity.getType());
+            entityInteract.contains(entity.getType());
     }
 
     public enum HandMode {
@@ -20,7 +20,7 @@ import java.util.Set;
 public class NoMiningTrace extends Module {
     private final SettingGroup sgGeneral = settings.getDefaultGroup();
 
-    private final Setting<Set<EntityType<?>>> entities = sgGeneral.add(new EntityTypeListSetting.Builder()
+    private final EntityTypeListSetting entities = sgGeneral.add(new EntityTypeListSetting.Builder()
         .name("blacklisted-entities")
         .description("Entities you will interact with as normal.")
         .defaultValue()
@@ -42,6 +42,6 @@ public class NoMiningTrace extends Module {
         if (!isActive()) return false;
 
         return (!onlyWhenHoldingPickaxe.get() || mc.player.getMainHandStack().isIn(ItemTags.PICKAXES) || mc.player.getOffHandStack().isIn(ItemTags.PICKAXES)) &&
-            (entity == null || !entities.get().contains(entity.getType()));
+            (entity == null || !entities.contains(entity.getType()));
     }
 }
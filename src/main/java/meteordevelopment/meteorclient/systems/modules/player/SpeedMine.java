@@ -32,7 +32,7 @@ public class SpeedMine extends Module {
         .build()
     );
 
-    private final Setting<List<Block>> blocks = sgGeneral.add(new BlockListSetting.Builder()
+    private final BlockListSetting blocks = sgGeneral.add(new BlockListSetting.Builder()
         .name("blocks")
         .description("Selected blocks.")
         .filter(block -> block.getHardness() > 0)
@@ -132,8 +132,8 @@ public class SpeedMine extends Module {
     }
 
     public boolean filter(Block block) {
-        if (blocksFilter.get() == ListMode.Blacklist && !blocks.get().contains(block)) return true;
-        return blocksFilter.get() == ListMode.Whitelist && blocks.get().contains(block);
+        if (blocksFilter.get() == ListMode.Blacklist && !blocks.contains(block)) return true;
+        return blocksFilter.get() == ListMode.Whitelist && blocks.contains(block);
     }
 
     public boolean instamine() {
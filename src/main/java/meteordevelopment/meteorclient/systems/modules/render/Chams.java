@@ -26,7 +26,7 @@ public class Chams extends Module {
 
     // Through walls
 
-    public final Setting<Set<EntityType<?>>> entities = sgThroughWalls.add(new EntityTypeListSetting.Builder()
+    public final EntityTypeListSetting entities = sgThroughWalls.add(new EntityTypeListSetting.Builder()
         .name("entities")
         .description("Select entities to show through walls.")
         .onlyAttackable()
@@ -183,7 +183,7 @@ public class Chams extends Module {
     }
 
     public boolean shouldRender(Entity entity) {
-        return isActive() && !isShader() && entities.get().contains(entity.getType()) && (entity != mc.player || !ignoreSelfDepth.get());
+        return isActive() && !isShader() && entities.contains(entity.getType()) && (entity != mc.player || !ignoreSelfDepth.get());
     }
 
     public boolean isShader() {
@@ -114,7 +114,7 @@ public class ESP extends Module {
         .build()
     );
 
-    private final Setting<Set<EntityType<?>>> entities = sgGeneral.add(new EntityTypeListSetting.Builder()
+    private final EntityTypeListSetting entities = sgGeneral.add(new EntityTypeListSetting.Builder()
         .name("entities")
         .description("Select specific entities.")
         .defaultValue(EntityType.PLAYER)
@@ -345,7 +345,7 @@ public class ESP extends Module {
 
     public boolean shouldSkip(Entity entity) {
         if (drawAsTarget(entity)) return false;
-        if (!entities.get().contains(entity.getType())) return true;
+        if (!entities.contains(entity.getType())) return true;
         if (entity == mc.player && ignoreSelf.get()) return true;
         if (entity == mc.getCameraEntity() && mc.options.getPerspective().isFirstPerson()) return true;
         return !EntityUtils.isInRenderDistance(entity);
@@ -358,7 +358,7 @@ public class ESP extends Module {
         if (drawAsTarget(entity)) {
             color = targetColor.get();
         } else {
-            if (!entities.get().contains(entity.getType())) return null;
+            if (!entities.contains(entity.getType())) return null;
 
             alpha = getFadeAlpha(entity);
             if (alpha == 0) return null;
@@ -5,9 +5,12 @@
 
 package meteordevelopment.meteorclient.systems.modules.render;
 
+import it.unimi.dsi.fastutil.longs.*;
 import meteordevelopment.meteorclient.events.render.Render3DEvent;
 import meteordevelopment.meteorclient.events.world.TickEvent;
 import meteordevelopment.meteorclient.mixin.AbstractBlockAccessor;
+import meteordevelopment.meteorclient.renderer.ChunkMeshes;
+import meteordevelopment.meteorclient.renderer.MeteorRenderPipelines;
 import meteordevelopment.meteorclient.renderer.Renderer3D;
 import meteordevelopment.meteorclient.renderer.ShapeMode;
 import meteordevelopment.meteorclient.settings.*;
@@ -17,18 +20,19 @@ import meteordevelopment.meteorclient.systems.modules.Modules;
 import meteordevelopment.meteorclient.utils.misc.Pool;
 import meteordevelopment.meteorclient.utils.render.color.Color;
 import meteordevelopment.meteorclient.utils.render.color.SettingColor;
-import meteordevelopment.meteorclient.utils.world.BlockIterator;
 import meteordevelopment.meteorclient.utils.world.Dir;
+import meteordevelopment.meteorclient.utils.world.HoleIndex;
 import meteordevelopment.orbit.EventHandler;
 import net.minecraft.block.Block;
 import net.minecraft.block.Blocks;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.ChunkSectionPos;
-import net.minecraft.util.math.Direction;
 import net.minecraft.world.chunk.WorldChunk;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 public class HoleESP extends Module {
     private final SettingGroup sgGeneral = settings.getDefaultGroup();
@@ -158,7 +162,13 @@ public class HoleESP extends Module {
     );
 
     private final Pool<Hole> holePool = new Pool<>(Hole::new);
-    private final List<Hole> holes = new ArrayList<>();
+
+    // Holes of the last tick by chunk, only chunks whose holes changed since the last frame are rebuilt
+    private Long2ObjectMap<List<Hole>> holes = new Long2ObjectOpenHashMap<>();
+    private final LongSet changed = new LongOpenHashSet();
+
+    private ChunkMeshes meshes;
+    private int lastStyle;
 
     private final byte NULL = 0;
 
@@ -166,50 +176,53 @@ public class HoleESP extends Module {
         super(Categories.Render, "hole-esp", "Displays holes that you will take less damage in.");
     }
 
-    @EventHandler
-    private void onTick(TickEvent.Pre event) {
-        holePool.freeAll(holes);
+    @Override
+    public void onActivate() {
+        HoleIndex.acquire();
+    }
+
+    @Override
+    public void onDeactivate() {
+        HoleIndex.release();
+
+        for (List<Hole> chunk : holes.values()) holePool.freeAll(chunk);
         holes.clear();
+        changed.clear();
 
-        // Probe for holes
-        BlockIterator.register(horizontalRadius.get(), verticalRadius.get(), (blockPos, blockState) -> {
-            if (!validHole(blockPos)) return;
+        if (meshes != null) meshes.clear();
+    }
 
-            int bedrock = 0, obsidian = 0;
-            Direction air = null;
+    @EventHandler
+    private void onTick(TickEvent.Pre event) {
+        Long2ObjectMap<List<Hole>> found = new Long2ObjectOpenHashMap<>();
 
-            for (Direction direction : Direction.values()) {
-                if (direction == Direction.UP) continue;
-                BlockPos offsetPos = blockPos.offset(direction);
-                Block block = mc.world.getBlockState(offsetPos).getBlock();
-                boolean breakable = block.getHardness() >= 0;
+        HoleIndex.forEach(horizontalRadius.get(), verticalRadius.get(), hole -> {
+            if (!validHole(hole.pos)) return;
 
-                if (((AbstractBlockAccessor) block).meteor$isCollidable() && !breakable) bedrock++;
-                else if (block.getBlastResistance() >= 600 && breakable) obsidian++;
-                else if (direction == Direction.DOWN) return;
-                else if (doubles.get() && air == null && validHole(offsetPos)) {
-                    for (Direction dir : Direction.values()) {
-                        if (dir == direction.getOpposite() || dir == Direction.UP) continue;
+            if (hole.air == null) add(found, holePool.get().set(hole.pos, hole.type, NULL));
+            else if (doubles.get() && validHole(hole.pos.offset(hole.air))) add(found, holePool.get().set(hole.pos, hole.type, Dir.get(hole.air)));
+        });
 
-                        block = mc.world.getBlockState(offsetPos.offset(dir)).getBlock();
-                        breakable = block.getHardness() >= 0;
+        for (Long2ObjectMap.Entry<List<Hole>> entry : found.long2ObjectEntrySet()) {
+            if (!sameHoles(entry.getValue(), holes.get(entry.getLongKey()))) changed.add(entry.getLongKey());
+        }
 
-                        if (((AbstractBlockAccessor) block).meteor$isCollidable() && !breakable) bedrock++;
-                        else if (block.getBlastResistance() >= 600 && breakable) obsidian++;
-                        else return;
-                    }
+        for (Long2ObjectMap.Entry<List<Hole>> entry : holes.long2ObjectEntrySet()) {
+            if (!found.containsKey(entry.getLongKey())) changed.add(entry.getLongKey());
+            holePool.freeAll(entry.getValue());
+        }
 
-                    air = direction;
-                }
-            }
+        holes = found;
+    }
 
-            if (obsidian + bedrock == 5 && air == null) {
-                holes.add(holePool.get().set(blockPos, obsidian == 5 ? Hole.Type.Obsidian : (bedrock == 5 ? Hole.Type.Bedrock : Hole.Type.Mixed), NULL));
-            }
-            else if (obsidian + bedrock == 8 && doubles.get() && air != null) {
-                holes.add(holePool.get().set(blockPos, obsidian == 8 ? Hole.Type.Obsidian : (bedrock == 8 ? Hole.Type.Bedrock : Hole.Type.Mixed), Dir.get(air)));
-            }
-        });
+    private static void add(Long2ObjectMap<List<Hole>> holes, Hole hole) {
+        long key = ChunkPos.toLong(hole.blockPos.getX() >> 4, hole.blockPos.getZ() >> 4);
+        holes.computeIfAbsent(key, k -> new ArrayList<>()).add(hole);
+    }
+
+    /** The index visits holes in no particular order, so the lists are compared as sets. */
+    private static boolean sameHoles(List<Hole> holes, List<Hole> previous) {
+        return previous != null && holes.size() == previous.size() && holes.containsAll(previous);
     }
 
     private boolean validHole(BlockPos pos) {
@@ -230,15 +243,43 @@ public class HoleESP extends Module {
 
     @EventHandler
     private void onRender(Render3DEvent event) {
-        for (Hole hole : holes) hole.render(event.renderer, shapeMode.get(), height.get(), topQuad.get(), bottomQuad.get());
+        if (meshes == null) meshes = new ChunkMeshes(MeteorRenderPipelines.WORLD_COLORED_LINES, MeteorRenderPipelines.WORLD_COLORED);
+
+        // The gradients need both colors in the vertices, so they are baked in. Rainbow colors only change once a tick.
+        int style = Objects.hash(
+            shapeMode.get(), height.get(), topQuad.get(), bottomQuad.get(),
+            bedrockColorTop.get().getPacked(), bedrockColorBottom.get().getPacked(),
+            obsidianColorTop.get().getPacked(), obsidianColorBottom.get().getPacked(),
+            mixedColorTop.get().getPacked(), mixedColorBottom.get().getPacked()
+        );
+
+        if (style != lastStyle) {
+            meshes.markAllDirty();
+            lastStyle = style;
+        }
+
+        meshes.retain(holes::containsKey);
+
+        for (LongIterator it = changed.iterator(); it.hasNext();) {
+            long key = it.nextLong();
+            if (holes.containsKey(key)) meshes.markDirty(key);
+        }
+
+        changed.clear();
+
+        meshes.rebuild((key, renderer) -> {
+            for (Hole hole : holes.get(key)) hole.render(renderer, shapeMode.get(), height.get(), topQuad.get(), bottomQuad.get());
+        });
+
+        meshes.render(event.matrices);
     }
 
     private static class Hole {
         public BlockPos.Mutable blockPos = new BlockPos.Mutable();
         public byte exclude;
-        public Type type;
+        public HoleIndex.Type type;
 
-        public Hole set(BlockPos blockPos, Type type, byte exclude) {
+        public Hole set(BlockPos blockPos, HoleIndex.Type type, byte exclude) {
             this.blockPos.set(blockPos);
             this.exclude = exclude;
             this.type = type;
@@ -246,6 +287,16 @@ public class HoleESP extends Module {
             return this;
         }
 
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Hole hole && blockPos.equals(hole.blockPos) && exclude == hole.exclude && type == hole.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(blockPos, exclude, type);
+        }
+
         public Color getTopColor() {
             return switch (this.type) {
                 case Obsidian -> Modules.get().get(HoleESP.class).obsidianColorTop.get();
@@ -307,11 +358,5 @@ public class HoleESP extends Module {
                 bottom.a = originalBottompA;
             }
         }
-
-        public enum Type {
-            Bedrock,
-            Obsidian,
-            Mixed
-        }
     }
 }
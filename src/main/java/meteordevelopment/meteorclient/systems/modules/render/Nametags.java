@@ -55,7 +55,7 @@ public class Nametags extends Module {
 
     // General
 
-    private final Setting<Set<EntityType<?>>> entities = sgGeneral.add(new EntityTypeListSetting.Builder()
+    private final EntityTypeListSetting entities = sgGeneral.add(new EntityTypeListSetting.Builder()
         .name("entities")
         .description("Select entities to draw nametags on.")
         .defaultValue(EntityType.PLAYER, EntityType.ITEM)
@@ -325,7 +325,7 @@ public class Nametags extends Module {
 
         for (Entity entity : mc.world.getEntities()) {
             EntityType<?> type = entity.getType();
-            if (!entities.get().contains(type)) continue;
+            if (!entities.contains(type)) continue;
 
             if (type == EntityType.PLAYER) {
                 if ((ignoreSelf.get() || (freecamNotActive && notThirdPerson)) && entity == mc.player) continue;
@@ -733,6 +733,6 @@ public class Nametags extends Module {
     }
 
     public boolean playerNametags() {
-        return isActive() && entities.get().contains(EntityType.PLAYER);
+        return isActive() && entities.contains(EntityType.PLAYER);
     }
 }
@@ -315,7 +315,7 @@ public class NoRender extends Module {
         .build()
     );
 
-    private final Setting<List<Block>> blockEntities = sgWorld.add(new BlockListSetting.Builder()
+    private final BlockListSetting blockEntities = sgWorld.add(new BlockListSetting.Builder()
         .name("block-entities")
         .description("Block entities (chest, shulker block, etc.) to not render.")
         .filter(block -> block instanceof BlockEntityProvider && !(block instanceof AbstractBannerBlock))
@@ -324,7 +324,7 @@ public class NoRender extends Module {
 
     // Entity
 
-    private final Setting<Set<EntityType<?>>> entities = sgEntity.add(new EntityTypeListSetting.Builder()
+    private final EntityTypeListSetting entities = sgEntity.add(new EntityTypeListSetting.Builder()
         .name("entities")
         .description("Disables rendering of selected entities.")
         .build()
@@ -565,17 +565,17 @@ public class NoRender extends Module {
 
     @EventHandler
     private void onRenderBlockEntity(RenderBlockEntityEvent event) {
-        if (blockEntities.get().contains(event.blockEntityState.blockState.getBlock())) event.cancel();
+        if (blockEntities.contains(event.blockEntityState.blockState.getBlock())) event.cancel();
     }
 
     // Entity
 
     public boolean noEntity(Entity entity) {
-        return isActive() && entities.get().contains(entity.getType());
+        return isActive() && entities.contains(entity.getType());
     }
 
     public boolean noEntity(EntityType<?> entity) {
-        return isActive() && entities.get().contains(entity);
+        return isActive() && entities.contains(entity);
     }
 
     public boolean getDropSpawnPacket() {
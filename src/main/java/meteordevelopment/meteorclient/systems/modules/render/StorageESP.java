@@ -5,6 +5,10 @@
 
 package meteordevelopment.meteorclient.systems.modules.render;
 
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import meteordevelopment.meteorclient.events.entity.player.InteractBlockEvent;
 import meteordevelopment.meteorclient.events.render.Render3DEvent;
 import meteordevelopment.meteorclient.gui.GuiTheme;
@@ -26,6 +30,7 @@ import meteordevelopment.meteorclient.utils.render.SimpleBlockRenderer;
 import meteordevelopment.meteorclient.utils.render.color.Color;
 import meteordevelopment.meteorclient.utils.render.color.SettingColor;
 import meteordevelopment.meteorclient.utils.render.postprocess.PostProcessShaders;
+import meteordevelopment.meteorclient.utils.world.BlockEntityIndex;
 import meteordevelopment.meteorclient.utils.world.Dir;
 import meteordevelopment.orbit.EventHandler;
 import net.minecraft.block.BlockState;
@@ -36,14 +41,12 @@ import net.minecraft.block.enums.ChestType;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Direction;
 
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 public class StorageESP extends Module {
     private final SettingGroup sgGeneral = settings.getDefaultGroup();
     private final SettingGroup sgOpened = settings.createGroup("Opened Rendering");
-    private final Set<BlockPos> interactedBlocks = new HashSet<>();
+    private final LongSet interactedBlocks = new LongOpenHashSet();
 
     private final Setting<Mode> mode = sgGeneral.add(new EnumSetting.Builder<Mode>()
         .name("mode")
@@ -170,9 +173,10 @@ public class StorageESP extends Module {
     );
 
 
+    private final Reference2ObjectMap<BlockEntityType<?>, Setting<SettingColor>> colors = new Reference2ObjectOpenHashMap<>();
+
     private final Color lineColor = new Color(0, 0, 0, 0);
     private final Color sideColor = new Color(0, 0, 0, 0);
-    private boolean render;
     private int count;
 
     private final MeshBuilder mesh;
@@ -183,22 +187,24 @@ public class StorageESP extends Module {
 
         mesh = new MeshBuilder(MeteorRenderPipelines.WORLD_COLORED);
         vertexConsumerProvider = new MeshBuilderVertexConsumerProvider(mesh);
-    }
-
-    private void getBlockEntityColor(BlockEntity blockEntity) {
-        render = false;
 
-        if (!storageBlocks.get().contains(blockEntity.getType())) return;
-
-        if (blockEntity instanceof TrappedChestBlockEntity) lineColor.set(trappedChest.get()); // Must come before ChestBlockEntity as it is the superclass of TrappedChestBlockEntity
-        else if (blockEntity instanceof ChestBlockEntity) lineColor.set(chest.get());
-        else if (blockEntity instanceof BarrelBlockEntity) lineColor.set(barrel.get());
-        else if (blockEntity instanceof ShulkerBoxBlockEntity) lineColor.set(shulker.get());
-        else if (blockEntity instanceof EnderChestBlockEntity) lineColor.set(enderChest.get());
-        else if (blockEntity instanceof AbstractFurnaceBlockEntity || blockEntity instanceof BrewingStandBlockEntity || blockEntity instanceof ChiseledBookshelfBlockEntity || blockEntity instanceof CrafterBlockEntity || blockEntity instanceof DispenserBlockEntity || blockEntity instanceof DecoratedPotBlockEntity || blockEntity instanceof HopperBlockEntity) lineColor.set(other.get());
-        else return;
+        colors.put(BlockEntityType.CHEST, chest);
+        colors.put(BlockEntityType.TRAPPED_CHEST, trappedChest);
+        colors.put(BlockEntityType.BARREL, barrel);
+        colors.put(BlockEntityType.SHULKER_BOX, shulker);
+        colors.put(BlockEntityType.ENDER_CHEST, enderChest);
+
+        for (BlockEntityType<?> type : List.of(
+            BlockEntityType.FURNACE, BlockEntityType.BLAST_FURNACE, BlockEntityType.SMOKER, BlockEntityType.BREWING_STAND,
+            BlockEntityType.CHISELED_BOOKSHELF, BlockEntityType.CRAFTER, BlockEntityType.DISPENSER, BlockEntityType.DROPPER,
+            BlockEntityType.DECORATED_POT, BlockEntityType.HOPPER
+        )) {
+            colors.put(type, other);
+        }
+    }
 
-        render = true;
+    private void setColor(Setting<SettingColor> color) {
+        lineColor.set(color.get());
 
         if (shapeMode.get() == ShapeMode.Sides || shapeMode.get() == ShapeMode.Both) {
             sideColor.set(lineColor);
@@ -225,7 +231,7 @@ public class StorageESP extends Module {
 
         if (blockEntity == null) return;
 
-        interactedBlocks.add(pos);
+        interactedBlocks.add(pos.asLong());
         if (blockEntity instanceof ChestBlockEntity chestBlockEntity) {
             BlockState state = chestBlockEntity.getCachedState();
             ChestType chestType = state.get(ChestBlock.CHEST_TYPE);
@@ -235,7 +241,7 @@ public class StorageESP extends Module {
                 Direction facing = state.get(ChestBlock.FACING);
                 BlockPos otherPartPos = pos.offset(chestType == ChestType.LEFT ? facing.rotateYClockwise() : facing.rotateYCounterclockwise());
 
-                interactedBlocks.add(otherPartPos);
+                interactedBlocks.add(otherPartPos.asLong());
             }
         }
     }
@@ -244,69 +250,77 @@ public class StorageESP extends Module {
     private void onRender(Render3DEvent event) {
         count = 0;
 
-        for (BlockEntity blockEntity : Utils.blockEntities()) {
-            // Check if the block has been interacted with (opened)
-            boolean interacted = interactedBlocks.contains(blockEntity.getPos());
-            if (interacted && hideOpened.get()) continue;  // Skip rendering if "hideOpened" is true
+        // Only the selected types in chunks within view distance are visited, the rest of the loaded block entities are never looked at
+        double range = (Utils.getRenderDistance() + 1) * 16;
 
-            getBlockEntityColor(blockEntity);
+        for (BlockEntityType<?> type : storageBlocks.get()) {
+            Setting<SettingColor> color = colors.get(type);
+            if (color == null) continue;
 
-            // Set the color to openedColor if its alpha is greater than 0
-            if (interacted && openedColor.get().a > 0) {
-                // openedColor takes precedence.
-                lineColor.set(openedColor.get());
-                sideColor.set(openedColor.get());
-                sideColor.a = fillOpacity.get(); // Maintain fill opacity setting for consistency
-            }
+            BlockEntityIndex.forEachInRange(type, range, blockEntity -> render(event, blockEntity, color));
+        }
 
-            if (render) {
-                double dist = PlayerUtils.squaredDistanceTo(blockEntity.getPos().getX() + 0.5, blockEntity.getPos().getY() + 0.5, blockEntity.getPos().getZ() + 0.5);
-                double a = 1;
-                if (dist <= fadeDistance.get() * fadeDistance.get()) a = dist / (fadeDistance.get() * fadeDistance.get());
+        if (mode.get() == Mode.Shader && count > 0) {
+            PostProcessShaders.STORAGE_OUTLINE.endRender(() -> MeshRenderer.begin()
+                .attachments(mc.getFramebuffer())
+                .clearColor(Color.CLEAR)
+                .pipeline(MeteorRenderPipelines.WORLD_COLORED)
+                .mesh(mesh, event.matrices)
+                .end()
+            );
+        }
+    }
 
-                if (a < 0.075) continue;
 
-                // Only start a mesh when there's something to render
-                if (count == 0 && mode.get() == Mode.Shader) {
-                    mesh.begin();
-                }
+    private void render(Render3DEvent event, BlockEntity blockEntity, Setting<SettingColor> color) {
+        // Check if the block has been interacted with (opened)
+        boolean interacted = interactedBlocks.contains(blockEntity.getPos().asLong());
+        if (interacted && hideOpened.get()) return;  // Skip rendering if "hideOpened" is true
 
-                int prevLineA = lineColor.a;
-                int prevSideA = sideColor.a;
+        setColor(color);
 
-                lineColor.a *= a;
-                sideColor.a *= a;
+        // Set the color to openedColor if its alpha is greater than 0
+        if (interacted && openedColor.get().a > 0) {
+            // openedColor takes precedence.
+            lineColor.set(openedColor.get());
+            sideColor.set(openedColor.get());
+            sideColor.a = fillOpacity.get(); // Maintain fill opacity setting for consistency
+        }
 
-                if (tracers.get()) {
-                    event.renderer.line(RenderUtils.center.x, RenderUtils.center.y, RenderUtils.center.z, blockEntity.getPos().getX() + 0.5, blockEntity.getPos().getY() + 0.5, blockEntity.getPos().getZ() + 0.5, lineColor);
-                }
+        double dist = PlayerUtils.squaredDistanceTo(blockEntity.getPos().getX() + 0.5, blockEntity.getPos().getY() + 0.5, blockEntity.getPos().getZ() + 0.5);
+        double a = 1;
+        if (dist <= fadeDistance.get() * fadeDistance.get()) a = dist / (fadeDistance.get() * fadeDistance.get());
 
-                if (mode.get() == Mode.Box) {
-                    renderBox(event, blockEntity);
-                }
+        if (a < 0.075) return;
 
-                if (mode.get() == Mode.Shader) {
-                    renderShader(event, blockEntity);
-                }
+        // Only start a mesh when there's something to render
+        if (count == 0 && mode.get() == Mode.Shader) {
+            mesh.begin();
+        }
 
-                lineColor.a = prevLineA;
-                sideColor.a = prevSideA;
+        int prevLineA = lineColor.a;
+        int prevSideA = sideColor.a;
 
-                count++;
-            }
+        lineColor.a *= a;
+        sideColor.a *= a;
+
+        if (tracers.get()) {
+            event.renderer.line(RenderUtils.center.x, RenderUtils.center.y, RenderUtils.center.z, blockEntity.getPos().getX() + 0.5, blockEntity.getPos().getY() + 0.5, blockEntity.getPos().getZ() + 0.5, lineColor);
         }
 
-        if (mode.get() == Mode.Shader && count > 0) {
-            PostProcessShaders.STORAGE_OUTLINE.endRender(() -> MeshRenderer.begin()
-                .attachments(mc.getFramebuffer())
-                .clearColor(Color.CLEAR)
-                .pipeline(MeteorRenderPipelines.WORLD_COLORED)
-                .mesh(mesh, event.matrices)
-                .end()
-            );
+        if (mode.get() == Mode.Box) {
+            renderBox(event, blockEntity);
         }
-    }
 
+        if (mode.get() == Mode.Shader) {
+            renderShader(event, blockEntity);
+        }
+
+        lineColor.a = prevLineA;
+        sideColor.a = prevSideA;
+
+        count++;
+    }
 
     private void renderBox(Render3DEvent event, BlockEntity blockEntity) {
         double x1 = blockEntity.getPos().getX();
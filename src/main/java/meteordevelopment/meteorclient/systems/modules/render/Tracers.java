@@ -14,6 +14,7 @@ import meteordevelopment.meteorclient.systems.friends.Friends;
 import meteordevelopment.meteorclient.systems.modules.Categories;
 import meteordevelopment.meteorclient.systems.modules.Module;
 import meteordevelopment.meteorclient.systems.modules.Modules;
+import meteordevelopment.meteorclient.utils.entity.EntityIndex;
 import meteordevelopment.meteorclient.utils.entity.EntityUtils;
 import meteordevelopment.meteorclient.utils.entity.Target;
 import meteordevelopment.meteorclient.utils.player.PlayerUtils;
@@ -45,7 +46,7 @@ public class Tracers extends Module {
 
     // General
 
-    private final Setting<Set<EntityType<?>>> entities = sgGeneral.add(new EntityTypeListSetting.Builder()
+    private final EntityTypeListSetting entities = sgGeneral.add(new EntityTypeListSetting.Builder()
         .name("entities")
         .description("Select specific entities.")
         .defaultValue(EntityType.PLAYER)
@@ -218,7 +219,7 @@ public class Tracers extends Module {
     }
 
     private boolean shouldBeIgnored(Entity entity) {
-        return !PlayerUtils.isWithin(entity, maxDist.get()) || (!Modules.get().isActive(Freecam.class) && entity == mc.player) || !entities.get().contains(entity.getType()) || (ignoreSelf.get() && entity == mc.player) || (ignoreFriends.get() && entity instanceof PlayerEntity && Friends.get().isFriend((PlayerEntity) entity)) || (!showInvis.get() && entity.isInvisible()) | !EntityUtils.isInRenderDistance(entity);
+        return !PlayerUtils.isWithin(entity, maxDist.get()) || (!Modules.get().isActive(Freecam.class) && entity == mc.player) || !entities.contains(entity.getType()) || (ignoreSelf.get() && entity == mc.player) || (ignoreFriends.get() && entity instanceof PlayerEntity && Friends.get().isFriend((PlayerEntity) entity)) || (!showInvis.get() && entity.isInvisible()) | !EntityUtils.isInRenderDistance(entity);
     }
 
     private Color getEntityColor(Entity entity) {
@@ -251,8 +252,8 @@ public class Tracers extends Module {
         if (mc.options.hudHidden || style.get() == TracerStyle.Offscreen) return;
         count = 0;
 
-        for (Entity entity : mc.world.getEntities()) {
-            if (shouldBeIgnored(entity)) continue;
+        EntityIndex.forEachInRange(maxDist.get(), entity -> {
+            if (shouldBeIgnored(entity)) return;
 
             Color color = getEntityColor(entity);
 
@@ -268,7 +269,7 @@ public class Tracers extends Module {
             if (stem.get()) event.renderer.line(x, entity.getY(), z, x, entity.getY() + height, z, color);
 
             count++;
-        }
+        });
     }
 
     @EventHandler
@@ -278,8 +279,8 @@ public class Tracers extends Module {
 
         Renderer2D.COLOR.begin();
 
-        for (Entity entity : mc.world.getEntities()) {
-            if (shouldBeIgnored(entity)) continue;
+        EntityIndex.forEachInRange(maxDist.get(), entity -> {
+            if (shouldBeIgnored(entity)) return;
 
             Color color = getEntityColor(entity);
 
@@ -292,7 +293,7 @@ public class Tracers extends Module {
             boolean projSucceeded = NametagUtils.to2D(projection, 1, false, false);
 
             if (projSucceeded && projection.x > 0.f && projection.x < mc.getWindow().getFramebufferWidth() && projection.y > 0.f && projection.y < mc.getWindow().getFramebufferHeight())
-                continue;
+                return;
 
             projection = new Vector3d(entity.lastX, entity.lastY, entity.lastZ);
             NametagUtils.to2D(projection, 1, false, true);
@@ -323,7 +324,7 @@ public class Tracers extends Module {
             );
 
             count++;
-        }
+        });
 
         Renderer2D.COLOR.render();
     }
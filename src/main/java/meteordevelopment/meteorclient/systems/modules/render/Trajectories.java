@@ -39,7 +39,7 @@ public class Trajectories extends Module {
 
     // General
 
-    private final Setting<List<Item>> items = sgGeneral.add(new ItemListSetting.Builder()
+    private final ItemListSetting items = sgGeneral.add(new ItemListSetting.Builder()
         .name("items")
         .description("Items to display trajectories for.")
         .defaultValue(getDefaultItems())
@@ -182,9 +182,9 @@ public class Trajectories extends Module {
 
         // Get item
         ItemStack itemStack = player.getMainHandStack();
-        if (!items.get().contains(itemStack.getItem())) {
+        if (!items.contains(itemStack.getItem())) {
             itemStack = player.getOffHandStack();
-            if (!items.get().contains(itemStack.getItem())) return;
+            if (!items.contains(itemStack.getItem())) return;
         }
 
         // Calculate paths
@@ -13,6 +13,8 @@ import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import meteordevelopment.meteorclient.MeteorClient;
 import meteordevelopment.meteorclient.events.render.Render3DEvent;
 import meteordevelopment.meteorclient.events.world.TickEvent;
+import meteordevelopment.meteorclient.renderer.ChunkMeshes;
+import meteordevelopment.meteorclient.renderer.MeteorRenderPipelines;
 import meteordevelopment.meteorclient.renderer.Renderer3D;
 import meteordevelopment.meteorclient.renderer.ShapeMode;
 import meteordevelopment.meteorclient.settings.*;
@@ -20,6 +22,7 @@ import meteordevelopment.meteorclient.systems.modules.Categories;
 import meteordevelopment.meteorclient.systems.modules.Module;
 import meteordevelopment.meteorclient.utils.Utils;
 import meteordevelopment.meteorclient.utils.network.MeteorExecutor;
+import meteordevelopment.meteorclient.utils.render.color.Color;
 import meteordevelopment.meteorclient.utils.render.color.SettingColor;
 import meteordevelopment.meteorclient.utils.world.Dir;
 import meteordevelopment.orbit.EventHandler;
@@ -34,6 +37,8 @@ import net.minecraft.world.chunk.Chunk;
 import net.minecraft.world.chunk.ChunkSection;
 import net.minecraft.world.chunk.ChunkStatus;
 
+import java.util.Objects;
+
 public class TunnelESP extends Module {
     private static final BlockPos.Mutable BP = new BlockPos.Mutable();
     private static final Direction[] DIRECTIONS = { Direction.EAST, Direction.NORTH, Direction.SOUTH, Direction.WEST };
@@ -77,6 +82,9 @@ public class TunnelESP extends Module {
     );
 
     private final Long2ObjectMap<TChunk> chunks = new Long2ObjectOpenHashMap<>();
+    private ChunkMeshes meshes;
+
+    private int lastStyle;
 
     public TunnelESP() {
         super(Categories.Render, "tunnel-esp", "Highlights tunnels.");
@@ -84,7 +92,11 @@ public class TunnelESP extends Module {
 
     @Override
     public void onDeactivate() {
-        chunks.clear();
+        synchronized (chunks) {
+            chunks.clear();
+        }
+
+        if (meshes != null) meshes.clear();
     }
 
     private static int pack(int x, int y, int z) {
@@ -221,14 +233,53 @@ public class TunnelESP extends Module {
                 }
             }
 
-            chunks.values().removeIf(tChunk -> !tChunk.marked);
+            chunks.values().removeIf(tChunk -> {
+                if (tChunk.marked) return false;
+
+                markNeighboursDirty(tChunk);
+                return true;
+            });
         }
     }
 
     @EventHandler
     private void onRender3D(Render3DEvent event) {
+        if (meshes == null) meshes = new ChunkMeshes(MeteorRenderPipelines.WORLD_COLORED_LINES, MeteorRenderPipelines.WORLD_COLORED);
+
         synchronized (chunks) {
-            for (TChunk chunk : chunks.values()) chunk.render(event.renderer);
+            // Tunnels are only rebuilt when a chunk was searched again or the settings changed, colors are applied when drawing
+            int style = Objects.hash(height.get(), connected.get(), shapeMode.get());
+
+            if (style != lastStyle) {
+                meshes.markAllDirty();
+                lastStyle = style;
+            }
+
+            for (TChunk chunk : chunks.values()) {
+                IntSet positions = chunk.positions;
+                if (positions == chunk.builtPositions) continue;
+
+                chunk.builtPositions = positions;
+                meshes.markDirty(chunk.getKey());
+                markNeighboursDirty(chunk);
+            }
+
+            meshes.retain(chunks::containsKey);
+            meshes.rebuild((key, renderer) -> {
+                TChunk chunk = chunks.get(key);
+                if (chunk != null) chunk.render(renderer);
+            });
+        }
+
+        meshes.render(event.matrices, lineColor.get(), sideColor.get());
+    }
+
+    private void markNeighboursDirty(TChunk chunk) {
+        if (meshes == null || !connected.get()) return;
+
+        for (Direction dir : DIRECTIONS) {
+            long key = ChunkPos.toLong(chunk.x + dir.getOffsetX(), chunk.z + dir.getOffsetZ());
+            if (chunks.containsKey(key)) meshes.markDirty(key);
         }
     }
 
@@ -253,12 +304,13 @@ public class TunnelESP extends Module {
         }
         else key = pack(x, y, z);
 
-        return chunk != null && chunk.positions != null && chunk.positions.contains(key);
+        return chunk != null && chunk.builtPositions != null && chunk.builtPositions.contains(key);
     }
 
     private class TChunk {
         private final int x, z;
-        public IntSet positions;
+        public volatile IntSet positions;
+        private IntSet builtPositions;
 
         public boolean marked;
 
@@ -269,6 +321,7 @@ public class TunnelESP extends Module {
         }
 
         public void render(Renderer3D renderer) {
+            IntSet positions = builtPositions;
             if (positions == null) return;
 
             // Manual iteration to avoid boxing
@@ -290,7 +343,7 @@ public class TunnelESP extends Module {
                 x += this.x * 16;
                 z += this.z * 16;
 
-                renderer.box(x, y, z, x + 1, y + height.get(), z + 1, sideColor.get(), lineColor.get(), shapeMode.get(), excludeDir);
+                renderer.box(x, y, z, x + 1, y + height.get(), z + 1, Color.WHITE, Color.WHITE, shapeMode.get(), excludeDir);
             }
         }
 
@@ -5,19 +5,25 @@
 
 package meteordevelopment.meteorclient.systems.modules.render;
 
+import it.unimi.dsi.fastutil.longs.*;
 import meteordevelopment.meteorclient.events.render.Render3DEvent;
 import meteordevelopment.meteorclient.events.world.TickEvent;
+import meteordevelopment.meteorclient.renderer.ChunkMeshes;
+import meteordevelopment.meteorclient.renderer.MeteorRenderPipelines;
+import meteordevelopment.meteorclient.renderer.Renderer3D;
 import meteordevelopment.meteorclient.renderer.ShapeMode;
 import meteordevelopment.meteorclient.settings.*;
 import meteordevelopment.meteorclient.systems.modules.Categories;
 import meteordevelopment.meteorclient.systems.modules.Module;
 import meteordevelopment.meteorclient.utils.misc.Pool;
+import meteordevelopment.meteorclient.utils.render.color.Color;
 import meteordevelopment.meteorclient.utils.render.color.SettingColor;
 import meteordevelopment.meteorclient.utils.world.Dir;
 import meteordevelopment.orbit.EventHandler;
 import net.minecraft.block.Block;
 import net.minecraft.block.Blocks;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.Direction;
 import net.minecraft.world.chunk.Chunk;
 import net.minecraft.world.chunk.ChunkStatus;
@@ -25,6 +31,7 @@ import net.minecraft.world.dimension.DimensionTypes;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 public class VoidESP extends Module {
     private static final Direction[] SIDES = {Direction.EAST, Direction.NORTH, Direction.SOUTH, Direction.WEST};
@@ -92,17 +99,46 @@ public class VoidESP extends Module {
     private final BlockPos.Mutable blockPos = new BlockPos.Mutable();
 
     private final Pool<Void> voidHolePool = new Pool<>(Void::new);
-    private final List<Void> voidHoles = new ArrayList<>();
+
+    // Holes of the last tick by chunk, only chunks whose holes changed since the last frame are rebuilt
+    private Long2ObjectMap<List<Void>> voidHoles = new Long2ObjectOpenHashMap<>();
+    private final LongSet changed = new LongOpenHashSet();
+
+    private ChunkMeshes meshes;
+    private ShapeMode lastShapeMode;
 
     public VoidESP() {
         super(Categories.Render, "void-esp", "Renders holes in bedrock layers that lead to the void.");
     }
 
+    @Override
+    public void onDeactivate() {
+        for (List<Void> chunk : voidHoles.values()) voidHolePool.freeAll(chunk);
+        voidHoles.clear();
+        changed.clear();
+
+        if (meshes != null) meshes.clear();
+    }
+
     @EventHandler
     private void onTick(TickEvent.Post event) {
-        voidHoles.clear();
-        if (mc.world.getDimensionEntry() == DimensionTypes.THE_END) return;
+        Long2ObjectMap<List<Void>> found = new Long2ObjectOpenHashMap<>();
+        if (mc.world.getDimensionEntry() != DimensionTypes.THE_END) scan(found);
 
+        // Holes are scanned in the same order every tick, so the lists of unchanged chunks are equal
+        for (Long2ObjectMap.Entry<List<Void>> entry : found.long2ObjectEntrySet()) {
+            if (!entry.getValue().equals(voidHoles.get(entry.getLongKey()))) changed.add(entry.getLongKey());
+        }
+
+        for (Long2ObjectMap.Entry<List<Void>> entry : voidHoles.long2ObjectEntrySet()) {
+            if (!found.containsKey(entry.getLongKey())) changed.add(entry.getLongKey());
+            voidHolePool.freeAll(entry.getValue());
+        }
+
+        voidHoles = found;
+    }
+
+    private void scan(Long2ObjectMap<List<Void>> voidHoles) {
         int px = mc.player.getBlockPos().getX();
         int pz = mc.player.getBlockPos().getZ();
         int radius = horizontalRadius.get();
@@ -110,20 +146,45 @@ public class VoidESP extends Module {
         for (int x = px - radius; x <= px + radius; x++) {
             for (int z = pz - radius; z <= pz + radius; z++) {
                 blockPos.set(x, mc.world.getBottomY(), z);
-                if (isHole(blockPos, false)) voidHoles.add(voidHolePool.get().set(blockPos.set(x, mc.world.getBottomY(), z), false));
+                if (isHole(blockPos, false)) add(voidHoles, voidHolePool.get().set(blockPos.set(x, mc.world.getBottomY(), z), false));
 
                 // Check for nether roof
                 if (netherRoof.get() && mc.world.getDimensionEntry() == DimensionTypes.THE_NETHER) {
                     blockPos.set(x, 127, z);
-                    if (isHole(blockPos, true)) voidHoles.add(voidHolePool.get().set(blockPos.set(x, 127, z), true));
+                    if (isHole(blockPos, true)) add(voidHoles, voidHolePool.get().set(blockPos.set(x, 127, z), true));
                 }
             }
         }
     }
 
+    private static void add(Long2ObjectMap<List<Void>> voidHoles, Void voidHole) {
+        voidHoles.computeIfAbsent(ChunkPos.toLong(voidHole.x >> 4, voidHole.z >> 4), k -> new ArrayList<>()).add(voidHole);
+    }
+
     @EventHandler
     private void onRender(Render3DEvent event) {
-        for (Void voidHole : voidHoles) voidHole.render(event);
+        if (meshes == null) meshes = new ChunkMeshes(MeteorRenderPipelines.WORLD_COLORED_LINES, MeteorRenderPipelines.WORLD_COLORED);
+
+        // Colors are applied when drawing
+        if (shapeMode.get() != lastShapeMode) {
+            meshes.markAllDirty();
+            lastShapeMode = shapeMode.get();
+        }
+
+        meshes.retain(voidHoles::containsKey);
+
+        for (LongIterator it = changed.iterator(); it.hasNext();) {
+            long key = it.nextLong();
+            if (voidHoles.containsKey(key)) meshes.markDirty(key);
+        }
+
+        changed.clear();
+
+        meshes.rebuild((key, renderer) -> {
+            for (Void voidHole : voidHoles.get(key)) voidHole.render(renderer);
+        });
+
+        meshes.render(event.matrices, lineColor.get(), sideColor.get());
     }
 
     private boolean isBlockWrong(BlockPos blockPos) {
@@ -164,8 +225,18 @@ public class VoidESP extends Module {
             return this;
         }
 
-        public void render(Render3DEvent event) {
-            event.renderer.box(x, y, z, x + 1, y + 1, z + 1, sideColor.get(), lineColor.get(), shapeMode.get(), excludeDir);
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Void voidHole && x == voidHole.x && y == voidHole.y && z == voidHole.z && excludeDir == voidHole.excludeDir;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(x, y, z, excludeDir);
+        }
+
+        public void render(Renderer3D renderer) {
+            renderer.box(x, y, z, x + 1, y + 1, z + 1, Color.WHITE, Color.WHITE, shapeMode.get(), excludeDir);
         }
     }
 }
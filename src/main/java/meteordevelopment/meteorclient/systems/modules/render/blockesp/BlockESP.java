@@ -5,13 +5,21 @@
 
 package meteordevelopment.meteorclient.systems.modules.render.blockesp;
 
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import meteordevelopment.meteorclient.events.render.Render3DEvent;
 import meteordevelopment.meteorclient.events.world.BlockUpdateEvent;
 import meteordevelopment.meteorclient.events.world.ChunkDataEvent;
 import meteordevelopment.meteorclient.events.world.TickEvent;
+import meteordevelopment.meteorclient.renderer.ChunkMeshes;
+import meteordevelopment.meteorclient.renderer.MeteorRenderPipelines;
 import meteordevelopment.meteorclient.renderer.ShapeMode;
 import meteordevelopment.meteorclient.settings.*;
 import meteordevelopment.meteorclient.systems.modules.Categories;
@@ -19,8 +27,10 @@ import meteordevelopment.meteorclient.systems.modules.Module;
 import meteordevelopment.meteorclient.utils.Utils;
 import meteordevelopment.meteorclient.utils.render.color.RainbowColors;
 import meteordevelopment.meteorclient.utils.render.color.SettingColor;
+import meteordevelopment.meteorclient.utils.world.ChunkScanner;
 import meteordevelopment.orbit.EventHandler;
 import net.minecraft.block.Block;
+import net.minecraft.client.world.ClientWorld;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.chunk.Chunk;
@@ -30,8 +40,10 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class BlockESP extends Module {
     private final SettingGroup sgGeneral = settings.getDefaultGroup();
@@ -76,26 +88,72 @@ public class BlockESP extends Module {
         .build()
     );
 
-    private final BlockPos.Mutable blockPos = new BlockPos.Mutable();
+    private static final ESPChunk[] EMPTY_CHUNKS = new ESPChunk[0];
+    private static final ESPGroup.Snapshot[] EMPTY_GROUPS = new ESPGroup.Snapshot[0];
+
+    // Block updates jump ahead of chunk scans, a scan still queued when an update of its chunk is applied reapplies it
+    private static final int RESET_PRIORITY = 0;
+    private static final int BLOCK_UPDATE_PRIORITY = 1;
+    private static final int SCAN_PRIORITY = 2;
+    private static final int CLEANUP_PRIORITY = 3;
 
+    private static final long PUBLISH_INTERVAL = 50;
+
+    // Only touched from the apply thread
+    private final BlockPos.Mutable blockPos = new BlockPos.Mutable();
     private final Long2ObjectMap<ESPChunk> chunks = new Long2ObjectOpenHashMap<>();
     private final Set<ESPGroup> groups = new ReferenceOpenHashSet<>();
-    private final ExecutorService workerThread = Executors.newSingleThreadExecutor();
+    private final Long2ObjectMap<LongList> scanningUpdates = new Long2ObjectOpenHashMap<>();
+    private boolean changed, chunksChanged;
+    private long lastPublish;
+
+    // Snapshots published by the apply thread for the render thread
+    private volatile ESPChunk[] renderChunks = EMPTY_CHUNKS;
+    private volatile ESPGroup.Snapshot[] renderGroups = EMPTY_GROUPS;
+
+    // Only touched from the render thread, one set of meshes per block type so each is tinted with its own colors
+    private final Reference2ObjectMap<Block, BlockMeshes> meshes = new Reference2ObjectOpenHashMap<>();
+    private final Long2ObjectMap<ESPChunk> builtChunks = new Long2ObjectOpenHashMap<>();
+    private ESPChunk[] builtRenderChunks;
+
+    private final ExecutorService searchPool;
+    private final PriorityBlockingQueue<Runnable> applyQueue = new PriorityBlockingQueue<>();
+    private final ExecutorService applyThread;
+
+    private final AtomicInteger generation = new AtomicInteger();
+    private final AtomicBoolean cleanupQueued = new AtomicBoolean();
+    private final Long2IntMap chunkTokens = new Long2IntOpenHashMap();
+    private int nextToken;
 
+    private volatile ChunkScanner scanner;
     private DimensionType lastDimension;
 
     public BlockESP() {
         super(Categories.Render, "block-esp", "Renders specified blocks through walls.", "search");
 
+        // Leave a core for the client thread
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        searchPool = Executors.newFixedThreadPool(threads, threadFactory("Meteor-BlockESP-Search-"));
+        applyThread = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, applyQueue, threadFactory("Meteor-BlockESP-Apply-"));
+
         RainbowColors.register(this::onTickRainbow);
     }
 
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+
+        return task -> {
+            Thread thread = new Thread(task);
+            thread.setDaemon(true);
+            thread.setName(name + threadNumber.getAndIncrement());
+            return thread;
+        };
+    }
+
     @Override
     public void onActivate() {
-        synchronized (chunks) {
-            chunks.clear();
-            groups.clear();
-        }
+        invalidate();
+        scanner = new ChunkScanner(blocks.get());
 
         for (Chunk chunk : Utils.chunks()) {
             searchChunk(chunk);
@@ -106,10 +164,34 @@ public class BlockESP extends Module {
 
     @Override
     public void onDeactivate() {
-        synchronized (chunks) {
+        invalidate();
+    }
+
+    /** Drops every queued or running scan and clears all found blocks. */
+    private void invalidate() {
+        generation.incrementAndGet();
+
+        synchronized (chunkTokens) {
+            chunkTokens.clear();
+        }
+
+        renderChunks = EMPTY_CHUNKS;
+        renderGroups = EMPTY_GROUPS;
+
+        for (BlockMeshes blockMeshes : meshes.values()) blockMeshes.meshes.clear();
+        meshes.clear();
+        builtChunks.clear();
+        builtRenderChunks = null;
+
+        applyThread.execute(new Task(RESET_PRIORITY, () -> {
             chunks.clear();
             groups.clear();
-        }
+            scanningUpdates.clear();
+
+            changed = true;
+            chunksChanged = true;
+            publish(true);
+        }));
     }
 
     private void onTickRainbow() {
@@ -134,22 +216,87 @@ public class BlockESP extends Module {
         if (chunk != null) chunk.update(x, y, z);
     }
 
+    /** Only valid on the apply thread. */
     public ESPBlock getBlock(int x, int y, int z) {
         ESPChunk chunk = chunks.get(ChunkPos.toLong(x >> 4, z >> 4));
         return chunk == null ? null : chunk.get(x, y, z);
     }
 
     public ESPGroup newGroup(Block block) {
-        synchronized (chunks) {
-            ESPGroup group = new ESPGroup(block);
-            groups.add(group);
-            return group;
-        }
+        ESPGroup group = new ESPGroup(block);
+        groups.add(group);
+        return group;
     }
 
     public void removeGroup(ESPGroup group) {
-        synchronized (chunks) {
-            groups.remove(group);
+        groups.remove(group);
+    }
+
+    private void unloadChunk(ESPChunk chunk) {
+        if (chunk.blocks == null) return;
+
+        for (ESPBlock block : chunk.blocks.values()) {
+            block.group.remove(block, false);
+            block.loaded = false;
+        }
+    }
+
+    /** Runs the action on the apply thread unless BlockESP was reset in the meantime. */
+    private void apply(int priority, int generation, Runnable action) {
+        applyThread.execute(new Task(priority, () -> {
+            if (generation == this.generation.get() && Utils.canUpdate()) {
+                action.run();
+                changed = true;
+            }
+
+            // Stale tasks publish too, the last task in the queue has to publish whatever the ones before it applied
+            publish(false);
+        }));
+    }
+
+    private void publish(boolean force) {
+        if (!changed) return;
+
+        long time = System.currentTimeMillis();
+
+        // Coalesce bursts of applied changes into a single snapshot
+        if (!force && !applyQueue.isEmpty() && time - lastPublish < PUBLISH_INTERVAL) return;
+
+        for (ESPChunk chunk : chunks.values()) chunk.publish();
+
+        if (chunksChanged) {
+            renderChunks = chunks.values().toArray(EMPTY_CHUNKS);
+            chunksChanged = false;
+        }
+
+        // Group centers move with every added or removed block, so they are copied on every publish
+        ESPGroup.Snapshot[] snapshot = new ESPGroup.Snapshot[groups.size()];
+        int i = 0;
+
+        for (ESPGroup group : groups) snapshot[i++] = group.snapshot();
+        renderGroups = snapshot;
+
+        changed = false;
+        lastPublish = time;
+    }
+
+    private boolean isCurrent(long key, int token, int generation) {
+        if (generation != this.generation.get()) return false;
+
+        synchronized (chunkTokens) {
+            return chunkTokens.get(key) == token;
+        }
+    }
+
+    private void releaseToken(long key, int token) {
+        synchronized (chunkTokens) {
+            chunkTokens.remove(key, token);
+        }
+    }
+
+    private boolean isScanning(long key) {
+        synchronized (chunkTokens) {
+            return chunkTokens.containsKey(key);
         }
     }
 
@@ -159,27 +306,69 @@ public class BlockESP extends Module {
     }
 
     private void searchChunk(Chunk chunk) {
-        workerThread.submit(() -> {
-            if (!isActive()) return;
-            ESPChunk schunk = ESPChunk.searchChunk(chunk, blocks.get());
-
-            if (schunk.size() > 0) {
-                synchronized (chunks) {
-                    chunks.put(chunk.getPos().toLong(), schunk);
-                    schunk.update();
-
-                    // Update neighbour chunks
-                    updateChunk(chunk.getPos().x - 1, chunk.getPos().z);
-                    updateChunk(chunk.getPos().x + 1, chunk.getPos().z);
-                    updateChunk(chunk.getPos().x, chunk.getPos().z - 1);
-                    updateChunk(chunk.getPos().x, chunk.getPos().z + 1);
-                }
+        ChunkScanner scanner = this.scanner;
+        if (scanner == null) return;
+
+        // Captured on the client thread, the world can be unloaded while the scan waits in the pool
+        ClientWorld world = mc.world;
+        if (world == null) return;
+
+        ChunkPos pos = chunk.getPos();
+        long key = pos.toLong();
+        int generation = this.generation.get();
+        int token;
+
+        // A newer scan of the same chunk makes this one stale
+        synchronized (chunkTokens) {
+            token = ++nextToken;
+            chunkTokens.put(key, token);
+        }
+
+        searchPool.execute(() -> {
+            if (!isCurrent(key, token, generation) || mc.world != world || !world.getChunkManager().isChunkLoaded(pos.x, pos.z)) {
+                releaseToken(key, token);
+                return;
             }
+
+            ESPChunk schunk = ESPChunk.searchChunk(chunk, scanner);
+
+            if (schunk.size() == 0) {
+                releaseToken(key, token);
+                return;
+            }
+
+            apply(SCAN_PRIORITY, generation, () -> {
+                if (!isCurrent(key, token, generation) || schunk.shouldBeDeleted()) {
+                    releaseToken(key, token);
+                    return;
+                }
+
+                ESPChunk prev = chunks.put(key, schunk);
+                if (prev != null) unloadChunk(prev);
+                chunksChanged = true;
+
+                schunk.update();
+
+                // Update neighbour chunks
+                updateChunk(pos.x - 1, pos.z);
+                updateChunk(pos.x + 1, pos.z);
+                updateChunk(pos.x, pos.z - 1);
+                updateChunk(pos.x, pos.z + 1);
+
+                // The scan might have read the chunk before block updates that were applied while it ran
+                LongList updates = scanningUpdates.remove(key);
+                if (updates != null) reapply(updates, scanner, world);
+
+                releaseToken(key, token);
+            });
         });
     }
 
     @EventHandler
     private void onBlockUpdate(BlockUpdateEvent event) {
+        ChunkScanner scanner = this.scanner;
+        if (scanner == null) return;
+
         // Minecraft probably reuses the event.pos BlockPos instance because it causes problems when trying to use it inside another thread
         int bx = event.pos.getX();
         int by = event.pos.getY();
@@ -189,38 +378,61 @@ public class BlockESP extends Module {
         int chunkZ = bz >> 4;
         long key = ChunkPos.toLong(chunkX, chunkZ);
 
-        boolean added = blocks.get().contains(event.newState.getBlock()) && !blocks.get().contains(event.oldState.getBlock());
-        boolean removed = !added && !blocks.get().contains(event.newState.getBlock()) && blocks.get().contains(event.oldState.getBlock());
+        boolean added = scanner.contains(event.newState) && !scanner.contains(event.oldState);
+        boolean removed = !added && !scanner.contains(event.newState) && scanner.contains(event.oldState);
 
         if (added || removed) {
-            workerThread.submit(() -> {
-                synchronized (chunks) {
-                    ESPChunk chunk = chunks.get(key);
+            apply(BLOCK_UPDATE_PRIORITY, generation.get(), () -> {
+                setBlock(bx, by, bz, added);
 
-                    if (chunk == null) {
-                        chunk = new ESPChunk(chunkX, chunkZ);
-                        if (chunk.shouldBeDeleted()) return;
+                // Remembered so the scan can be corrected once it is applied
+                if (isScanning(key)) scanningUpdates.computeIfAbsent(key, k -> new LongArrayList()).add(BlockPos.asLong(bx, by, bz));
+            });
+        }
+    }
 
-                        chunks.put(key, chunk);
-                    }
+    private void setBlock(int bx, int by, int bz, boolean add) {
+        long key = ChunkPos.toLong(bx >> 4, bz >> 4);
+        ESPChunk chunk = chunks.get(key);
 
-                    blockPos.set(bx, by, bz);
+        if (chunk == null) {
+            if (!add) return;
 
-                    if (added) chunk.add(blockPos);
-                    else chunk.remove(blockPos);
+            chunk = new ESPChunk(bx >> 4, bz >> 4);
+            if (chunk.shouldBeDeleted()) return;
 
-                    // Update neighbour blocks
-                    for (int x = -1; x < 2; x++) {
-                        for (int z = -1; z < 2; z++) {
-                            for (int y = -1; y < 2; y++) {
-                                if (x == 0 && y == 0 && z == 0) continue;
+            chunks.put(key, chunk);
+            chunksChanged = true;
+        }
 
-                                updateBlock(bx + x, by + y, bz + z);
-                            }
-                        }
-                    }
+        if ((chunk.get(bx, by, bz) != null) == add) return;
+
+        blockPos.set(bx, by, bz);
+
+        if (add) chunk.add(blockPos);
+        else chunk.remove(blockPos);
+
+        // Update neighbour blocks
+        for (int x = -1; x < 2; x++) {
+            for (int z = -1; z < 2; z++) {
+                for (int y = -1; y < 2; y++) {
+                    if (x == 0 && y == 0 && z == 0) continue;
+
+                    updateBlock(bx + x, by + y, bz + z);
                 }
-            });
+            }
+        }
+    }
+
+    /** Brings the given positions in line with the world after a scan replaced their chunk. */
+    private void reapply(LongList updates, ChunkScanner scanner, ClientWorld world) {
+        for (int i = 0; i < updates.size(); i++) {
+            long pos = updates.getLong(i);
+            int x = BlockPos.unpackLongX(pos);
+            int y = BlockPos.unpackLongY(pos);
+            int z = BlockPos.unpackLongZ(pos);
+
+            setBlock(x, y, z, scanner.contains(world.getBlockState(blockPos.set(x, y, z))));
         }
     }
 
@@ -230,37 +442,117 @@ public class BlockESP extends Module {
 
         if (lastDimension != dimension) onActivate();
         lastDimension = dimension;
+
+        // Remove chunks that went out of render distance
+        if (cleanupQueued.compareAndSet(false, true)) {
+            applyThread.execute(new Task(CLEANUP_PRIORITY, () -> {
+                cleanupQueued.set(false);
+                if (!Utils.canUpdate()) return;
+
+                for (Iterator<ESPChunk> it = chunks.values().iterator(); it.hasNext();) {
+                    ESPChunk chunk = it.next();
+
+                    if (chunk.shouldBeDeleted()) {
+                        unloadChunk(chunk);
+                        it.remove();
+                        changed = true;
+                        chunksChanged = true;
+                    }
+                }
+
+                // Updates of scans that were dropped without being applied
+                scanningUpdates.keySet().removeIf(key -> !isScanning(key));
+
+                publish(false);
+            }));
+        }
     }
 
     @EventHandler
     private void onRender(Render3DEvent event) {
-        synchronized (chunks) {
-            for (Iterator<ESPChunk> it = chunks.values().iterator(); it.hasNext();) {
-                ESPChunk chunk = it.next();
-
-                if (chunk.shouldBeDeleted()) {
-                    workerThread.submit(() -> {
-                        for (ESPBlock block : chunk.blocks.values()) {
-                            block.group.remove(block, false);
-                            block.loaded = false;
-                        }
-                    });
-
-                    it.remove();
-                }
-                else chunk.render(event);
+        ESPChunk[] chunks = renderChunks;
+
+        // Chunks were added, replaced or removed
+        if (chunks != builtRenderChunks) {
+            builtChunks.clear();
+            for (ESPChunk chunk : chunks) builtChunks.put(chunk.getKey(), chunk);
+
+            for (BlockMeshes blockMeshes : meshes.values()) blockMeshes.meshes.retain(builtChunks::containsKey);
+            builtRenderChunks = chunks;
+        }
+
+        for (ESPChunk chunk : chunks) {
+            ESPBlock[] blocks = chunk.getRenderBlocks();
+            if (blocks == chunk.builtBlocks) continue;
+
+            // Also marks the meshes of block types that are gone from the chunk, so they drop it
+            long key = chunk.getKey();
+            for (BlockMeshes blockMeshes : meshes.values()) blockMeshes.meshes.markDirty(key);
+            for (ESPBlock block : blocks) meshes.computeIfAbsent(block.getBlock(), b -> new BlockMeshes()).meshes.markDirty(key);
+
+            chunk.builtBlocks = blocks;
+        }
+
+        for (Reference2ObjectMap.Entry<Block, BlockMeshes> entry : meshes.reference2ObjectEntrySet()) {
+            Block block = entry.getKey();
+            BlockMeshes blockMeshes = entry.getValue();
+            ESPBlockData blockData = getBlockData(block);
+
+            if (blockData.shapeMode != blockMeshes.shapeMode) {
+                blockMeshes.meshes.markAllDirty();
+                blockMeshes.shapeMode = blockData.shapeMode;
             }
 
-            if (tracers.get()) {
-                for (ESPGroup group : groups) {
-                    group.render(event);
+            blockMeshes.meshes.rebuild((key, renderer) -> {
+                ESPChunk chunk = builtChunks.get(key);
+                if (chunk == null) return;
+
+                for (ESPBlock espBlock : chunk.builtBlocks) {
+                    if (espBlock.getBlock() == block) espBlock.render(renderer, blockData.shapeMode);
                 }
+            });
+
+            blockMeshes.meshes.render(event.matrices, blockData.lineColor, blockData.sideColor);
+        }
+
+        if (tracers.get()) {
+            for (ESPGroup.Snapshot group : renderGroups) {
+                group.render(event);
             }
         }
     }
 
     @Override
     public String getInfoString() {
-        return "%s groups".formatted(groups.size());
+        return "%s groups".formatted(renderGroups.length);
+    }
+
+    private static class BlockMeshes {
+        private final ChunkMeshes meshes = new ChunkMeshes(MeteorRenderPipelines.WORLD_COLORED_LINES, MeteorRenderPipelines.WORLD_COLORED);
+        private ShapeMode shapeMode;
+    }
+
+    private static class Task implements Runnable, Comparable<Task> {
+        private static final AtomicLong SEQUENCE = new AtomicLong();
+
+        private final int priority;
+        private final long sequence = SEQUENCE.getAndIncrement();
+        private final Runnable action;
+
+        public Task(int priority, Runnable action) {
+            this.priority = priority;
+            this.action = action;
+        }
+
+        @Override
+        public void run() {
+            action.run();
+        }
+
+        @Override
+        public int compareTo(Task o) {
+            int c = Integer.compare(priority, o.priority);
+            return c != 0 ? c : Long.compare(sequence, o.sequence);
+        }
     }
 }
@@ -5,10 +5,11 @@
 
 package meteordevelopment.meteorclient.systems.modules.render.blockesp;
 
-import meteordevelopment.meteorclient.events.render.Render3DEvent;
+import meteordevelopment.meteorclient.renderer.Renderer3D;
 import meteordevelopment.meteorclient.renderer.ShapeMode;
 import meteordevelopment.meteorclient.systems.modules.Modules;
 import meteordevelopment.meteorclient.utils.render.color.Color;
+import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Direction;
@@ -19,6 +20,7 @@ import static meteordevelopment.meteorclient.MeteorClient.mc;
 
 public class ESPBlock {
     private static final BlockPos.Mutable blockPos = new BlockPos.Mutable();
+    private static final BlockPos.Mutable renderPos = new BlockPos.Mutable();
 
     private static final BlockESP blockEsp = Modules.get().get(BlockESP.class);
 
@@ -52,12 +54,30 @@ public class ESPBlock {
 
     public boolean loaded = true;
 
+    // Detached copy handed to the render thread, dropped whenever the block changes
+    private ESPBlock snapshot;
+
     public ESPBlock(int x, int y, int z) {
         this.x = x;
         this.y = y;
         this.z = z;
     }
 
+    /** Returns a copy that isn't part of a group and never changes, so the render thread can read it safely. */
+    public ESPBlock snapshot() {
+        if (snapshot == null) {
+            snapshot = new ESPBlock(x, y, z);
+            snapshot.state = state;
+            snapshot.neighbours = neighbours;
+        }
+
+        return snapshot;
+    }
+
+    public Block getBlock() {
+        return state.getBlock();
+    }
+
     public ESPBlock getSideBlock(int side) {
         return switch (side) {
             case FO -> blockEsp.getBlock(x, y, z + 1);
@@ -97,6 +117,7 @@ public class ESPBlock {
     public void update() {
         state = mc.world.getBlockState(blockPos.set(x, y, z));
         neighbours = 0;
+        snapshot = null;
 
         if (isNeighbour(Direction.SOUTH)) neighbours |= FO;
         if (isNeighbourDiagonal(1, 0, 1)) neighbours |= FO_RI;
@@ -168,7 +189,8 @@ public class ESPBlock {
         return state.getBlock() == mc.world.getBlockState(blockPos).getBlock();
     }
 
-    public void render(Render3DEvent event) {
+    /** Builds the outline in white, {@link BlockESP} tints it with the block's colors when drawing the mesh. */
+    public void render(Renderer3D renderer, ShapeMode shapeMode) {
         double x1 = x;
         double y1 = y;
         double z1 = z;
@@ -176,7 +198,7 @@ public class ESPBlock {
         double y2 = y + 1;
         double z2 = z + 1;
 
-        VoxelShape shape = state.getOutlineShape(mc.world, blockPos);
+        VoxelShape shape = state.getOutlineShape(mc.world, renderPos.set(x, y, z));
 
         if (!shape.isEmpty()) {
             x1 = x + shape.getMin(Direction.Axis.X);
@@ -187,67 +209,64 @@ public class ESPBlock {
             z2 = z + shape.getMax(Direction.Axis.Z);
         }
 
-        ESPBlockData blockData = blockEsp.getBlockData(state.getBlock());
-
-        ShapeMode shapeMode = blockData.shapeMode;
-        Color lineColor = blockData.lineColor;
-        Color sideColor = blockData.sideColor;
+        Color lineColor = Color.WHITE;
+        Color sideColor = Color.WHITE;
 
         if (neighbours == 0) {
-            event.renderer.box(x1, y1, z1, x2, y2, z2, sideColor, lineColor, shapeMode, 0);
+            renderer.box(x1, y1, z1, x2, y2, z2, sideColor, lineColor, shapeMode, 0);
         }
         else {
             // Lines
             if (shapeMode.lines()) {
                 // Vertical, BA_LE
                 if (((neighbours & LE) != LE && (neighbours & BA) != BA) || ((neighbours & LE) == LE && (neighbours & BA) == BA && (neighbours & BA_LE) != BA_LE)) {
-                    event.renderer.line(x1, y1, z1, x1, y2, z1, lineColor);
+                    renderer.line(x1, y1, z1, x1, y2, z1, lineColor);
                 }
                 // Vertical, FO_LE
                 if (((neighbours & LE) != LE && (neighbours & FO) != FO) || ((neighbours & LE) == LE && (neighbours & FO) == FO && (neighbours & FO_LE) != FO_LE)) {
-                    event.renderer.line(x1, y1, z2, x1, y2, z2, lineColor);
+                    renderer.line(x1, y1, z2, x1, y2, z2, lineColor);
                 }
                 // Vertical, BA_RI
                 if (((neighbours & RI) != RI && (neighbours & BA) != BA) || ((neighbours & RI) == RI && (neighbours & BA) == BA && (neighbours & BA_RI) != BA_RI)) {
-                    event.renderer.line(x2, y1, z1, x2, y2, z1, lineColor);
+                    renderer.line(x2, y1, z1, x2, y2, z1, lineColor);
                 }
                 // Vertical, FO_RI
                 if (((neighbours & RI) != RI && (neighbours & FO) != FO) || ((neighbours & RI) == RI && (neighbours & FO) == FO && (neighbours & FO_RI) != FO_RI)) {
-                    event.renderer.line(x2, y1, z2, x2, y2, z2, lineColor);
+                    renderer.line(x2, y1, z2, x2, y2, z2, lineColor);
                 }
 
                 // Horizontal bottom, BA_LE - BA_RI
                 if (((neighbours & BA) != BA && (neighbours & BO) != BO) || ((neighbours & BA) != BA && (neighbours & BO_BA) == BO_BA)) {
-                    event.renderer.line(x1, y1, z1, x2, y1, z1, lineColor);
+                    renderer.line(x1, y1, z1, x2, y1, z1, lineColor);
                 }
                 // Horizontal bottom, FO_LE - FO_RI
                 if (((neighbours & FO) != FO && (neighbours & BO) != BO) || ((neighbours & FO) != FO && (neighbours & BO_FO) == BO_FO)) {
-                    event.renderer.line(x1, y1, z2, x2, y1, z2, lineColor);
+                    renderer.line(x1, y1, z2, x2, y1, z2, lineColor);
                 }
                 // Horizontal top, BA_LE - BA_RI
                 if (((neighbours & BA) != BA && (neighbours & TO) != TO) || ((neighbours & BA) != BA && (neighbours & TO_BA) == TO_BA)) {
-                    event.renderer.line(x1, y2, z1, x2, y2, z1, lineColor);
+                    renderer.line(x1, y2, z1, x2, y2, z1, lineColor);
                 }
                 // Horizontal top, FO_LE - FO_RI
                 if (((neighbours & FO) != FO && (neighbours & TO) != TO) || ((neighbours & FO) != FO && (neighbours & TO_FO) == TO_FO)) {
-                    event.renderer.line(x1, y2, z2, x2, y2, z2, lineColor);
+                    renderer.line(x1, y2, z2, x2, y2, z2, lineColor);
                 }
 
                 // Horizontal bottom, BA_LE - FO_LE
                 if (((neighbours & LE) != LE && (neighbours & BO) != BO) || ((neighbours & LE) != LE && (neighbours & BO_LE) == BO_LE)) {
-                    event.renderer.line(x1, y1, z1, x1, y1, z2, lineColor);
+                    renderer.line(x1, y1, z1, x1, y1, z2, lineColor);
                 }
                 // Horizontal bottom, BA_RI - FO_RI
                 if (((neighbours & RI) != RI && (neighbours & BO) != BO) || ((neighbours & RI) != RI && (neighbours & BO_RI) == BO_RI)) {
-                    event.renderer.line(x2, y1, z1, x2, y1, z2, lineColor);
+                    renderer.line(x2, y1, z1, x2, y1, z2, lineColor);
                 }
                 // Horizontal top, BA_LE - FO_LE
                 if (((neighbours & LE) != LE && (neighbours & TO) != TO) || ((neighbours & LE) != LE && (neighbours & TO_LE) == TO_LE)) {
-                    event.renderer.line(x1, y2, z1, x1, y2, z2, lineColor);
+                    renderer.line(x1, y2, z1, x1, y2, z2, lineColor);
                 }
                 // Horizontal top, BA_RI - FO_RI
                 if (((neighbours & RI) != RI && (neighbours & TO) != TO) || ((neighbours & RI) != RI && (neighbours & TO_RI) == TO_RI)) {
-                    event.renderer.line(x2, y2, z1, x2, y2, z2, lineColor);
+                    renderer.line(x2, y2, z1, x2, y2, z2, lineColor);
                 }
             }
 
@@ -255,27 +274,27 @@ public class ESPBlock {
             if (shapeMode.sides()) {
                 // Bottom
                 if ((neighbours & BO) != BO) {
-                    event.renderer.quadHorizontal(x1, y1, z1, x2, z2, sideColor);
+                    renderer.quadHorizontal(x1, y1, z1, x2, z2, sideColor);
                 }
                 // Top
                 if ((neighbours & TO) != TO) {
-                    event.renderer.quadHorizontal(x1, y2, z1, x2, z2, sideColor);
+                    renderer.quadHorizontal(x1, y2, z1, x2, z2, sideColor);
                 }
                 // Front
                 if ((neighbours & FO) != FO) {
-                    event.renderer.quadVertical(x1, y1, z2, x2, y2, z2, sideColor);
+                    renderer.quadVertical(x1, y1, z2, x2, y2, z2, sideColor);
                 }
                 // Back
                 if ((neighbours & BA) != BA) {
-                    event.renderer.quadVertical(x1, y1, z1, x2, y2, z1, sideColor);
+                    renderer.quadVertical(x1, y1, z1, x2, y2, z1, sideColor);
                 }
                 // Right
                 if ((neighbours & RI) != RI) {
-                    event.renderer.quadVertical(x2, y1, z1, x2, y2, z2, sideColor);
+                    renderer.quadVertical(x2, y1, z1, x2, y2, z2, sideColor);
                 }
                 // Left
                 if ((neighbours & LE) != LE) {
-                    event.renderer.quadVertical(x1, y1, z1, x1, y2, z2, sideColor);
+                    renderer.quadVertical(x1, y1, z1, x1, y2, z2, sideColor);
                 }
             }
         }
@@ -7,24 +7,30 @@ package meteordevelopment.meteorclient.systems.modules.render.blockesp;
 
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
-import meteordevelopment.meteorclient.events.render.Render3DEvent;
-import net.minecraft.block.Block;
-import net.minecraft.block.BlockState;
+import meteordevelopment.meteorclient.utils.world.ChunkScanner;
+import net.minecraft.client.network.ClientPlayerEntity;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.ChunkSectionPos;
 import net.minecraft.world.Heightmap;
 import net.minecraft.world.chunk.Chunk;
 
-import java.util.List;
-
 import static meteordevelopment.meteorclient.MeteorClient.mc;
 import static meteordevelopment.meteorclient.utils.Utils.getRenderDistance;
 
 public class ESPChunk {
+    private static final ESPBlock[] EMPTY = new ESPBlock[0];
 
     private final int x, z;
     public Long2ObjectMap<ESPBlock> blocks;
 
+    // Written by the BlockESP apply thread, read by the render thread
+    private volatile ESPBlock[] renderBlocks = EMPTY;
+    private boolean dirty;
+
+    // Blocks the retained meshes were last built from, only touched by the render thread
+    ESPBlock[] builtBlocks;
+
     public ESPChunk(int x, int z) {
         this.x = x;
         this.z = z;
@@ -39,6 +45,7 @@ public class ESPChunk {
 
         if (blocks == null) blocks = new Long2ObjectOpenHashMap<>(64);
         blocks.put(ESPBlock.getKey(blockPos), block);
+        dirty = true;
 
         if (update) block.update();
     }
@@ -50,20 +57,29 @@ public class ESPChunk {
     public void remove(BlockPos blockPos) {
         if (blocks != null) {
             ESPBlock block = blocks.remove(ESPBlock.getKey(blockPos));
-            if (block != null) block.group.remove(block);
+
+            if (block != null) {
+                block.group.remove(block);
+                dirty = true;
+            }
         }
     }
 
     public void update() {
         if (blocks != null) {
             for (ESPBlock block : blocks.values()) block.update();
+            dirty = true;
         }
     }
 
     public void update(int x, int y, int z) {
         if (blocks != null) {
             ESPBlock block = blocks.get(ESPBlock.getKey(x, y, z));
-            if (block != null) block.update();
+
+            if (block != null) {
+                block.update();
+                dirty = true;
+            }
         }
     }
 
@@ -72,38 +88,47 @@ public class ESPChunk {
     }
 
     public boolean shouldBeDeleted() {
+        // Also called from the search and apply threads, the player can be gone by now
+        ClientPlayerEntity player = mc.player;
+        if (player == null) return true;
+
         int viewDist = getRenderDistance() + 1;
-        int chunkX = ChunkSectionPos.getSectionCoord(mc.player.getBlockPos().getX());
-        int chunkZ = ChunkSectionPos.getSectionCoord(mc.player.getBlockPos().getZ());
+        int chunkX = ChunkSectionPos.getSectionCoord(player.getBlockPos().getX());
+        int chunkZ = ChunkSectionPos.getSectionCoord(player.getBlockPos().getZ());
 
         return x > chunkX + viewDist || x < chunkX - viewDist || z > chunkZ + viewDist || z < chunkZ - viewDist;
     }
 
-    public void render(Render3DEvent event) {
-        if (blocks != null) {
-            for (ESPBlock block : blocks.values()) block.render(event);
+    /** Publishes copies of the current blocks to the render thread if they changed since the last call. */
+    public void publish() {
+        if (!dirty) return;
+
+        if (blocks == null) renderBlocks = EMPTY;
+        else {
+            ESPBlock[] snapshot = new ESPBlock[blocks.size()];
+            int i = 0;
+
+            for (ESPBlock block : blocks.values()) snapshot[i++] = block.snapshot();
+            renderBlocks = snapshot;
         }
+
+        dirty = false;
     }
 
+    public ESPBlock[] getRenderBlocks() {
+        return renderBlocks;
+    }
+
+    public long getKey() {
+        return ChunkPos.toLong(x, z);
+    }
 
-    public static ESPChunk searchChunk(Chunk chunk, List<Block> blocks) {
+    public static ESPChunk searchChunk(Chunk chunk, ChunkScanner scanner) {
         ESPChunk schunk = new ESPChunk(chunk.getPos().x, chunk.getPos().z);
         if (schunk.shouldBeDeleted()) return schunk;
 
         BlockPos.Mutable blockPos = new BlockPos.Mutable();
-
-        for (int x = chunk.getPos().getStartX(); x <= chunk.getPos().getEndX(); x++) {
-            for (int z = chunk.getPos().getStartZ(); z <= chunk.getPos().getEndZ(); z++) {
-                int height = chunk.getHeightmap(Heightmap.Type.WORLD_SURFACE).get(x - chunk.getPos().getStartX(), z - chunk.getPos().getStartZ());
-
-                for (int y = mc.world.getBottomY(); y < height; y++) {
-                    blockPos.set(x, y, z);
-                    BlockState bs = chunk.getBlockState(blockPos);
-
-                    if (blocks.contains(bs.getBlock())) schunk.add(blockPos, false);
-                }
-            }
-        }
+        scanner.scan(chunk, Heightmap.Type.WORLD_SURFACE, (x, y, z, state) -> schunk.add(blockPos.set(x, y, z), false));
 
         return schunk;
     }
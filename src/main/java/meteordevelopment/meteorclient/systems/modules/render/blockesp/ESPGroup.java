@@ -138,11 +138,19 @@ public class ESPGroup {
         blockEsp.removeGroup(group);
     }
 
-    public void render(Render3DEvent event) {
-        ESPBlockData blockData = blockEsp.getBlockData(block);
+    /** Copies the group's center for the render thread. */
+    public Snapshot snapshot() {
+        int size = blocks.size();
+        return new Snapshot(block, sumX / size + 0.5, sumY / size + 0.5, sumZ / size + 0.5);
+    }
+
+    public record Snapshot(Block block, double x, double y, double z) {
+        public void render(Render3DEvent event) {
+            ESPBlockData blockData = blockEsp.getBlockData(block);
 
-        if (blockData.tracer) {
-            event.renderer.line(RenderUtils.center.x, RenderUtils.center.y, RenderUtils.center.z, sumX / blocks.size() + 0.5, sumY / blocks.size() + 0.5, sumZ / blocks.size() + 0.5, blockData.tracerColor);
+            if (blockData.tracer) {
+                event.renderer.line(RenderUtils.center.x, RenderUtils.center.y, RenderUtils.center.z, x, y, z, blockData.tracerColor);
+            }
         }
     }
 }
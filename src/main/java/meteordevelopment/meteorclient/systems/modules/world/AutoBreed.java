@@ -25,7 +25,7 @@ import java.util.Set;
 public class AutoBreed extends Module {
     private final SettingGroup sgGeneral = settings.getDefaultGroup();
 
-    private final Setting<Set<EntityType<?>>> entities = sgGeneral.add(new EntityTypeListSetting.Builder()
+    private final EntityTypeListSetting entities = sgGeneral.add(new EntityTypeListSetting.Builder()
         .name("entities")
         .description("Entities to breed.")
         .defaultValue(EntityType.HORSE, EntityType.DONKEY, EntityType.COW,
@@ -74,7 +74,7 @@ public class AutoBreed extends Module {
         for (Entity entity : mc.world.getEntities()) {
             if (!(entity instanceof AnimalEntity animal)) continue;
 
-            if (!entities.get().contains(animal.getType())
+            if (!entities.contains(animal.getType())
                 || !switch (mobAgeFilter.get()) {
                 case Baby -> animal.isBaby();
                 case Adult -> !animal.isBaby();
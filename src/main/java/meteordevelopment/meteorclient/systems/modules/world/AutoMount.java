@@ -49,7 +49,7 @@ public class AutoMount extends Module {
         .build()
     );
 
-    private final Setting<Set<EntityType<?>>> entities = sgGeneral.add(new EntityTypeListSetting.Builder()
+    private final EntityTypeListSetting entities = sgGeneral.add(new EntityTypeListSetting.Builder()
         .name("entities")
         .description("Rideable entities.")
         .filter(EntityUtils::isRideable)
@@ -67,7 +67,7 @@ public class AutoMount extends Module {
         if (mc.player.getMainHandStack().getItem() instanceof SpawnEggItem) return;
 
         for (Entity entity : mc.world.getEntities()) {
-            if (!entities.get().contains(entity.getType())) continue;
+            if (!entities.contains(entity.getType())) continue;
             if (!PlayerUtils.isWithin(entity, 4)) continue;
             if ((entity instanceof PigEntity || entity instanceof SkeletonHorseEntity || entity instanceof StriderEntity || entity instanceof ZombieHorseEntity) && !((MobEntity) entity).hasSaddleEquipped()) continue;
             if (!(entity instanceof LlamaEntity) && entity instanceof MobEntity mobEntity && checkSaddle.get() && !mobEntity.hasSaddleEquipped()) continue;
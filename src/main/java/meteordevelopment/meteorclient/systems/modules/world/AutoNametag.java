@@ -30,7 +30,7 @@ import java.util.Set;
 public class AutoNametag extends Module {
     private final SettingGroup sgGeneral = settings.getDefaultGroup();
 
-    private final Setting<Set<EntityType<?>>> entities = sgGeneral.add(new EntityTypeListSetting.Builder()
+    private final EntityTypeListSetting entities = sgGeneral.add(new EntityTypeListSetting.Builder()
         .name("entities")
         .description("Which entities to nametag.")
         .build()
@@ -94,7 +94,7 @@ public class AutoNametag extends Module {
         // Target
         target = TargetUtils.get(entity -> {
             if (!PlayerUtils.isWithin(entity, range.get())) return false;
-            if (!entities.get().contains(entity.getType())) return false;
+            if (!entities.contains(entity.getType())) return false;
 
             if (entity.hasCustomName() && (!renametag.get() || entity.getCustomName().equals(mc.player.getInventory().getStack(findNametag.slot()).getName())))
                 return false;
@@ -26,7 +26,7 @@ import java.util.List;
 public class Collisions extends Module {
     private final SettingGroup sgGeneral = settings.getDefaultGroup();
 
-    public final Setting<List<Block>> blocks = sgGeneral.add(new BlockListSetting.Builder()
+    public final BlockListSetting blocks = sgGeneral.add(new BlockListSetting.Builder()
         .name("blocks")
         .description("What blocks should be added collision box.")
         .filter(this::blockFilter)
@@ -62,7 +62,7 @@ public class Collisions extends Module {
     private void onCollisionShape(CollisionShapeEvent event) {
         if (mc.world == null || mc.player == null) return;
         if (!event.state.getFluidState().isEmpty()) return;
-        if (blocks.get().contains(event.state.getBlock())) {
+        if (blocks.contains(event.state.getBlock())) {
             event.shape = VoxelShapes.fullCube();
         } else if (magma.get() && !mc.player.isSneaking()
             && event.state.isAir()
@@ -73,7 +73,7 @@ public class Flamethrower extends Module {
         .build()
     );
 
-    private final Setting<Set<EntityType<?>>> entities = sgGeneral.add(new EntityTypeListSetting.Builder()
+    private final EntityTypeListSetting entities = sgGeneral.add(new EntityTypeListSetting.Builder()
         .name("entities")
         .description("Entities to cook.")
         .defaultValue(
@@ -104,7 +104,7 @@ public class Flamethrower extends Module {
         entity = null;
         ticks++;
         for (Entity entity : mc.world.getEntities()) {
-            if (!entities.get().contains(entity.getType()) || !PlayerUtils.isWithin(entity, distance.get())) continue;
+            if (!entities.contains(entity.getType()) || !PlayerUtils.isWithin(entity, distance.get())) continue;
             if (entity == mc.player) continue;
             if (!entity.isAlive() || entity.inPowderSnow || entity.isTouchingWaterOrRain() || entity.isFireImmune()) continue;
 
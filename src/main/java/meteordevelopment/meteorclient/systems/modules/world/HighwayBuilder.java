@@ -254,7 +254,7 @@ public class HighwayBuilder extends Module {
 
     // Paving
 
-    public final Setting<List<Block>> blocksToPlace = sgPaving.add(new BlockListSetting.Builder()
+    public final BlockListSetting blocksToPlace = sgPaving.add(new BlockListSetting.Builder()
         .name("blocks-to-place")
         .description("Blocks it is allowed to place.")
         .defaultValue(Blocks.OBSIDIAN)
@@ -288,7 +288,7 @@ public class HighwayBuilder extends Module {
 
     // Inventory
 
-    private final Setting<List<Item>> trashItems = sgInventory.add(new ItemListSetting.Builder()
+    private final ItemListSetting trashItems = sgInventory.add(new ItemListSetting.Builder()
         .name("trash-items")
         .description("Items that are considered trash and can be thrown out.")
         .defaultValue(
@@ -620,7 +620,7 @@ public class HighwayBuilder extends Module {
                     render(event, blockPosProvider.getRailings(-1), mBlockPos -> {
                         boolean valid = false;
                         for (MBlockPos pos : blockPosProvider.getRailings(0)) {
-                            if (!blocksToPlace.get().contains(pos.getState().getBlock()) && pos.add(0, -1, 0).equals(mBlockPos)) {
+                            if (!blocksToPlace.contains(pos.getState().getBlock()) && pos.add(0, -1, 0).equals(mBlockPos)) {
                                 valid = true;
                                 break;
                             }
@@ -703,7 +703,7 @@ public class HighwayBuilder extends Module {
 
     private boolean canMine(MBlockPos pos, boolean mineBlocksToPlace) {
         BlockState state = pos.getState();
-        return BlockUtils.canBreak(pos.getBlockPos(), state) && (mineBlocksToPlace || !blocksToPlace.get().contains(state.getBlock()));
+        return BlockUtils.canBreak(pos.getBlockPos(), state) && (mineBlocksToPlace || !blocksToPlace.contains(state.getBlock()));
     }
 
     private boolean canPlace(MBlockPos pos, boolean liquids) {
@@ -923,7 +923,7 @@ public class HighwayBuilder extends Module {
                 int slot = -1;
                 if (pos.getY() == startPos.down().getY()) {
                     // we would prefer the block flush with the highway to be an appropriate placement block, not trash
-                    slot = findAndMoveToHotbar(b, itemStack -> itemStack.getItem() instanceof BlockItem blockItem && b.blocksToPlace.get().contains(blockItem.getBlock()));
+                    slot = findAndMoveToHotbar(b, itemStack -> itemStack.getItem() instanceof BlockItem blockItem && b.blocksToPlace.contains(blockItem.getBlock()));
                 }
 
                 if (slot == -1) {
@@ -941,13 +941,13 @@ public class HighwayBuilder extends Module {
                 // still should prioritise trash
                 int slot = findAndMoveToHotbar(b, itemStack -> {
                     if (!(itemStack.getItem() instanceof BlockItem)) return false;
-                    return b.trashItems.get().contains(itemStack.getItem());
+                    return b.trashItems.contains(itemStack.getItem());
                 });
 
                 // next we prioritise placement blocks
                 if (slot == -1) slot = findAndMoveToHotbar(b, itemStack -> {
                     if (!(itemStack.getItem() instanceof BlockItem bi)) return false;
-                    return b.blocksToPlace.get().contains(bi.getBlock());
+                    return b.blocksToPlace.contains(bi.getBlock());
                 });
 
                 // falling is an emergency; in this case only, we allow access to any whole block in your inventory
@@ -1087,7 +1087,7 @@ public class HighwayBuilder extends Module {
                 for (int i = 0; i < b.mc.player.getInventory().getMainStacks().size(); i++) {
                     ItemStack itemStack = b.mc.player.getInventory().getStack(i);
 
-                    if (itemStack.getItem() instanceof BlockItem && b.trashItems.get().contains(itemStack.getItem()) && itemStack.getCount() > biggestCount) {
+                    if (itemStack.getItem() instanceof BlockItem && b.trashItems.contains(itemStack.getItem()) && itemStack.getCount() > biggestCount) {
                         biggestCount = itemStack.getCount();
                         skipSlot = i;
 
@@ -1128,7 +1128,7 @@ public class HighwayBuilder extends Module {
 
                     ItemStack itemStack = b.mc.player.getInventory().getStack(i);
 
-                    if (b.trashItems.get().contains(itemStack.getItem())) {
+                    if (b.trashItems.contains(itemStack.getItem())) {
                         InvUtils.drop().slot(i);
                         threwItems = true;
                         return;
@@ -1138,7 +1138,7 @@ public class HighwayBuilder extends Module {
                         Utils.getItemsInContainerItem(itemStack, ITEMS);
                         boolean eject = true;
                         for (ItemStack stack : ITEMS) {
-                            if (stack.getItem() instanceof BlockItem bi && (b.blocksToPlace.get().contains(bi.getBlock()) || (b.blocksToPlace.get().contains(Blocks.OBSIDIAN) && bi == Items.ENDER_CHEST))) {
+                            if (stack.getItem() instanceof BlockItem bi && (b.blocksToPlace.contains(bi.getBlock()) || (b.blocksToPlace.contains(Blocks.OBSIDIAN) && bi == Items.ENDER_CHEST))) {
                                 eject = false;
                                 break;
                             }
@@ -1404,7 +1404,7 @@ public class HighwayBuilder extends Module {
                     if (EChestMemory.isKnown()) {
                         for (ItemStack stack : EChestMemory.ITEMS) {
                             if (b.restockTask.materials && stack.getItem() instanceof BlockItem bi) {
-                                if (b.blocksToPlace.get().contains(bi.getBlock()) || (b.blocksToPlace.get().contains(Blocks.OBSIDIAN) && bi == Items.ENDER_CHEST)) {
+                                if (b.blocksToPlace.contains(bi.getBlock()) || (b.blocksToPlace.contains(Blocks.OBSIDIAN) && bi == Items.ENDER_CHEST)) {
                                     stop = false;
                                     break;
                                 }
@@ -1431,7 +1431,7 @@ public class HighwayBuilder extends Module {
                 // by this point we have searched shulkers and your ender chest, and no more items could be found to pull from
                 if (slot == -1) {
                     boolean restockOccurred = (
-                        (b.restockTask.materials && (hasItem(b, stack -> stack.getItem() instanceof BlockItem bi && b.blocksToPlace.get().contains(bi.getBlock())) || b.blocksToPlace.get().contains(Blocks.OBSIDIAN) && countItem(b, itemStack -> itemStack.getItem() == Items.ENDER_CHEST) > b.saveEchests.get())) ||
+                        (b.restockTask.materials && (hasItem(b, stack -> stack.getItem() instanceof BlockItem bi && b.blocksToPlace.contains(bi.getBlock())) || b.blocksToPlace.contains(Blocks.OBSIDIAN) && countItem(b, itemStack -> itemStack.getItem() == Items.ENDER_CHEST) > b.saveEchests.get())) ||
                         (b.restockTask.pickaxes && countItem(b, itemStack -> itemStack.isIn(ItemTags.PICKAXES)) > b.savePickaxes.get()) ||
                         (b.restockTask.food && hasItem(b, itemStack -> itemStack.contains(DataComponentTypes.FOOD) && !Modules.get().get(AutoEat.class).blacklist.get().contains(itemStack.getItem())))
                     );
@@ -1480,7 +1480,7 @@ public class HighwayBuilder extends Module {
                 if (indicateStopping && !breakContainer) {
                     if (stopTimer > 0) stopTimer--;
                     else {
-                        if (b.lastState == PlaceShulkerBlockade) {// && !(b.blocksToPlace.get().contains(Blocks.OBSIDIAN) && countItem(b, stack -> stack.getItem() == Items.ENDER_CHEST) > b.saveEchests.get() && !hasItem(b, stack -> stack.getItem() == Items.OBSIDIAN))) {
+                        if (b.lastState == PlaceShulkerBlockade) {// && !(b.blocksToPlace.contains(Blocks.OBSIDIAN) && countItem(b, stack -> stack.getItem() == Items.ENDER_CHEST) > b.saveEchests.get() && !hasItem(b, stack -> stack.getItem() == Items.OBSIDIAN))) {
                             b.setState(MineShulkerBlockade);
                         } else {
                             b.setState(ThrowOutTrash, Forward);
@@ -1504,8 +1504,8 @@ public class HighwayBuilder extends Module {
                 // calculate the amount of materials we have already pulled
                 int slotsPulled = 0;
                 if (b.restockTask.materials) {
-                    slotsPulled += countSlots(b, itemStack -> itemStack.getItem() instanceof BlockItem bi && b.blocksToPlace.get().contains(bi.getBlock()));
-                    if (b.blocksToPlace.get().contains(Blocks.OBSIDIAN)) slotsPulled += ((countItem(b, itemStack -> itemStack.getItem() == Items.ENDER_CHEST) - b.saveEchests.get()) * 8) / 64;
+                    slotsPulled += countSlots(b, itemStack -> itemStack.getItem() instanceof BlockItem bi && b.blocksToPlace.contains(bi.getBlock()));
+                    if (b.blocksToPlace.contains(Blocks.OBSIDIAN)) slotsPulled += ((countItem(b, itemStack -> itemStack.getItem() == Items.ENDER_CHEST) - b.saveEchests.get()) * 8) / 64;
                 }
                 if (b.restockTask.pickaxes) slotsPulled += countSlots(b, itemStack -> itemStack.isIn(ItemTags.PICKAXES)) - b.savePickaxes.get();
                 if (b.restockTask.food) slotsPulled += countSlots(b, itemStack -> itemStack.contains(DataComponentTypes.FOOD) && !Modules.get().get(AutoEat.class).blacklist.get().contains(itemStack.getItem()));
@@ -1613,10 +1613,10 @@ public class HighwayBuilder extends Module {
             private boolean restockItems(HighwayBuilder b, Inventory inv) {
                 if (b.restockTask.materials) {
                     // take raw material
-                    if (grabFromInventory(inv, itemStack -> itemStack.getItem() instanceof BlockItem bi && b.blocksToPlace.get().contains(bi.getBlock()))) return true;
+                    if (grabFromInventory(inv, itemStack -> itemStack.getItem() instanceof BlockItem bi && b.blocksToPlace.contains(bi.getBlock()))) return true;
 
                     // prefer taking raw material before echests
-                    if (b.blocksToPlace.get().contains(Blocks.OBSIDIAN)) {
+                    if (b.blocksToPlace.contains(Blocks.OBSIDIAN)) {
                         if (grabFromInventory(inv, itemStack -> itemStack.getItem() == Items.ENDER_CHEST)) return true;
                     }
                 }
@@ -1649,7 +1649,7 @@ public class HighwayBuilder extends Module {
 
                     for (ItemStack stack : ITEMS) {
                         if (b.restockTask.materials && stack.getItem() instanceof BlockItem bi) {
-                            if (b.blocksToPlace.get().contains(bi.getBlock()) || (b.blocksToPlace.get().contains(Blocks.OBSIDIAN) && bi == Items.ENDER_CHEST)) return true;
+                            if (b.blocksToPlace.contains(bi.getBlock()) || (b.blocksToPlace.contains(Blocks.OBSIDIAN) && bi == Items.ENDER_CHEST)) return true;
                         }
                         if (b.restockTask.pickaxes && stack.isIn(ItemTags.PICKAXES)) return true;
                         if (b.restockTask.food && stack.contains(DataComponentTypes.FOOD) && !Modules.get().get(AutoEat.class).blacklist.get().contains(stack.getItem())) return true;
@@ -1870,7 +1870,7 @@ public class HighwayBuilder extends Module {
                     // only want to double mine blocks that we can mine, that are not instamined, and we are not already mining
                     if (
                         BlockUtils.canBreak(pos.getBlockPos(), pos.getState())
-                        && (mineBlocksToPlace || !b.blocksToPlace.get().contains(pos.getState().getBlock()))
+                        && (mineBlocksToPlace || !b.blocksToPlace.contains(pos.getState().getBlock()))
                         && !BlockUtils.canInstaBreak(pos.getBlockPos()) && (!Modules.get().get(SpeedMine.class).instamine() || pos.getState().calcBlockBreakingDelta(b.mc.player, b.mc.world, pos.getBlockPos()) <= 0.5)
                         && (b.normalMining == null || !pos.getBlockPos().equals(b.normalMining.blockPos))
                         && (b.packetMining == null || !pos.getBlockPos().equals(b.packetMining.blockPos))
@@ -1907,7 +1907,7 @@ public class HighwayBuilder extends Module {
                 if (b.breakTimer > 0) return;
 
                 BlockState state = pos.getState();
-                if (state.isAir() || (!mineBlocksToPlace && b.blocksToPlace.get().contains(state.getBlock()))) continue;
+                if (state.isAir() || (!mineBlocksToPlace && b.blocksToPlace.contains(state.getBlock()))) continue;
 
                 int slot = findAndMoveBestToolToHotbar(b, state, false);
                 if (slot == -1) return;
@@ -2019,10 +2019,10 @@ public class HighwayBuilder extends Module {
                 if (replaceTools && AutoTool.isTool(itemStack)) return i;
 
                 // Store the slot if it contains thrash
-                if (b.trashItems.get().contains(itemStack.getItem())) thrashSlot = i;
+                if (b.trashItems.contains(itemStack.getItem())) thrashSlot = i;
 
                 // Update tracked stats about slots that contain building blocks
-                if (itemStack.getItem() instanceof BlockItem blockItem && (b.blocksToPlace.get().contains(blockItem.getBlock()) || b.blocksToPlace.get().contains(Blocks.OBSIDIAN) && blockItem == Items.ENDER_CHEST)) {
+                if (itemStack.getItem() instanceof BlockItem blockItem && (b.blocksToPlace.contains(blockItem.getBlock()) || b.blocksToPlace.contains(Blocks.OBSIDIAN) && blockItem == Items.ENDER_CHEST)) {
                     slotsWithBlocks++;
 
                     if (itemStack.getCount() < slotWithLeastBlocksCount) {
@@ -2139,10 +2139,10 @@ public class HighwayBuilder extends Module {
 
         protected int findBlocksToPlace(HighwayBuilder b) {
             // find a block and move it to your hotbar
-            int slot = findAndMoveToHotbar(b, itemStack -> itemStack.getItem() instanceof BlockItem blockItem && b.blocksToPlace.get().contains(blockItem.getBlock()));
+            int slot = findAndMoveToHotbar(b, itemStack -> itemStack.getItem() instanceof BlockItem blockItem && b.blocksToPlace.contains(blockItem.getBlock()));
 
             if (slot == -1) {
-                if (b.mineEnderChests.get() && b.blocksToPlace.get().contains(Blocks.OBSIDIAN) && countItem(b, stack -> stack.getItem().equals(Items.ENDER_CHEST)) > b.saveEchests.get()) {
+                if (b.mineEnderChests.get() && b.blocksToPlace.contains(Blocks.OBSIDIAN) && countItem(b, stack -> stack.getItem().equals(Items.ENDER_CHEST)) > b.saveEchests.get()) {
                     // can grind echests for obsidian
                     b.setState(MineEnderChests);
                 }
@@ -2163,7 +2163,7 @@ public class HighwayBuilder extends Module {
         protected int findBlocksToPlacePrioritizeTrash(HighwayBuilder b) {
             int slot = findAndMoveToHotbar(b, itemStack -> {
                 if (!(itemStack.getItem() instanceof BlockItem)) return false;
-                return b.trashItems.get().contains(itemStack.getItem());
+                return b.trashItems.contains(itemStack.getItem());
             });
 
             return slot != -1 ? slot : findBlocksToPlace(b);
@@ -105,7 +105,7 @@ public class LiquidFiller extends Module {
         .build()
     );
 
-    private final Setting<List<Block>> whitelist = sgWhitelist.add(new BlockListSetting.Builder()
+    private final BlockListSetting whitelist = sgWhitelist.add(new BlockListSetting.Builder()
         .name("whitelist")
         .description("The allowed blocks that it will use to fill up the liquid.")
         .defaultValue(
@@ -121,7 +121,7 @@ public class LiquidFiller extends Module {
         .build()
     );
 
-    private final Setting<List<Block>> blacklist = sgWhitelist.add(new BlockListSetting.Builder()
+    private final BlockListSetting blacklist = sgWhitelist.add(new BlockListSetting.Builder()
         .name("blacklist")
         .description("The denied blocks that it not will use to fill up the liquid.")
         .visible(() -> listMode.get() == ListMode.Blacklist)
@@ -159,9 +159,9 @@ public class LiquidFiller extends Module {
         // Find slot with a block
         FindItemResult item;
         if (listMode.get() == ListMode.Whitelist) {
-            item = InvUtils.findInHotbar(itemStack -> itemStack.getItem() instanceof BlockItem && whitelist.get().contains(Block.getBlockFromItem(itemStack.getItem())));
+            item = InvUtils.findInHotbar(itemStack -> itemStack.getItem() instanceof BlockItem && whitelist.contains(Block.getBlockFromItem(itemStack.getItem())));
         } else {
-            item = InvUtils.findInHotbar(itemStack -> itemStack.getItem() instanceof BlockItem && !blacklist.get().contains(Block.getBlockFromItem(itemStack.getItem())));
+            item = InvUtils.findInHotbar(itemStack -> itemStack.getItem() instanceof BlockItem && !blacklist.contains(Block.getBlockFromItem(itemStack.getItem())));
         }
         if (!item.found()) return;
 
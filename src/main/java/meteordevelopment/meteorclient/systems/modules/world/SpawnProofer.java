@@ -72,7 +72,7 @@ public class SpawnProofer extends Module {
         .build()
     );
 
-    private final Setting<List<Block>> blocks = sgGeneral.add(new BlockListSetting.Builder()
+    private final BlockListSetting blocks = sgGeneral.add(new BlockListSetting.Builder()
         .name("blocks")
         .description("Block to use for spawn proofing.")
         .defaultValue(Blocks.TORCH, Blocks.STONE_BUTTON, Blocks.STONE_SLAB)
@@ -107,7 +107,7 @@ public class SpawnProofer extends Module {
         if (timer < placeDelay.get()) return;
 
         // Find slot
-        boolean foundBlock = InvUtils.testInHotbar(itemStack -> blocks.get().contains(Block.getBlockFromItem(itemStack.getItem())));
+        boolean foundBlock = InvUtils.testInHotbar(itemStack -> blocks.contains(Block.getBlockFromItem(itemStack.getItem())));
         if (!foundBlock) {
             error("Found none of the chosen blocks in hotbar.");
             toggle();
@@ -142,7 +142,7 @@ public class SpawnProofer extends Module {
         if (spawns.isEmpty()) return;
 
         // Find slot
-        FindItemResult block = InvUtils.findInHotbar(itemStack -> blocks.get().contains(Block.getBlockFromItem(itemStack.getItem())));
+        FindItemResult block = InvUtils.findInHotbar(itemStack -> blocks.contains(Block.getBlockFromItem(itemStack.getItem())));
         if (!block.found()) {
             error("Found none of the chosen blocks in hotbar.");
             toggle();
@@ -8,11 +8,15 @@ package meteordevelopment.meteorclient.systems.modules.world;
 import com.google.common.reflect.TypeToken;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import meteordevelopment.meteorclient.MeteorClient;
 import meteordevelopment.meteorclient.events.world.ChunkDataEvent;
+import meteordevelopment.meteorclient.events.world.TickEvent;
 import meteordevelopment.meteorclient.gui.GuiTheme;
 import meteordevelopment.meteorclient.gui.WindowScreen;
 import meteordevelopment.meteorclient.gui.widgets.WWidget;
+import meteordevelopment.meteorclient.gui.widgets.containers.WHorizontalList;
 import meteordevelopment.meteorclient.gui.widgets.containers.WTable;
 import meteordevelopment.meteorclient.gui.widgets.containers.WVerticalList;
 import meteordevelopment.meteorclient.gui.widgets.pressable.WButton;
@@ -30,14 +34,30 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
 
 import java.io.*;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Objects;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class StashFinder extends Module {
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
 
+    // Journal
+    private static final int COMPACT_MIN_RECORDS = 4096;
+
+    // Export
+    private static final long EXPORT_INTERVAL = 60 * 1000;
+
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task);
+        thread.setDaemon(true);
+        thread.setName("Meteor-StashFinder");
+        return thread;
+    });
+
     private final SettingGroup sgGeneral = settings.getDefaultGroup();
 
     private final Setting<List<BlockEntityType<?>>> storageBlocks = sgGeneral.add(new StorageBlockListSetting.Builder()
@@ -80,7 +100,21 @@ public class StashFinder extends Module {
         .build()
     );
 
-    public List<Chunk> chunks = new ArrayList<>();
+    /** Read only view of the recorded chunks, in the order they were found. */
+    public final List<Chunk> chunks = new ChunkList();
+
+    // Recorded chunks keyed by ChunkPos#toLong()
+    private final Long2ObjectMap<Chunk> recordedChunks = new Long2ObjectLinkedOpenHashMap<>();
+
+    private int journalRecords;
+    private int loadGeneration;
+
+    private boolean exportChanged;
+    private long lastExport;
+
+    // Only accessed from the writer thread
+    private DataOutputStream journal;
+    private File journalFile;
 
     public StashFinder() {
         super(Categories.World, "stash-finder", "Searches loaded chunks for storage blocks. Saves to <your minecraft folder>/meteor-client");
@@ -91,6 +125,17 @@ public class StashFinder extends Module {
         load();
     }
 
+    @Override
+    public void onDeactivate() {
+        export();
+    }
+
+    @EventHandler
+    private void onTick(TickEvent.Post event) {
+        // Keep the exported files close to the journal so a crash doesn't lose them
+        if (exportChanged && System.currentTimeMillis() - lastExport >= EXPORT_INTERVAL) export();
+    }
+
     @EventHandler
     private void onChunkData(ChunkDataEvent event) {
         // Check the distance.
@@ -113,16 +158,12 @@ public class StashFinder extends Module {
         }
 
         if (chunk.getTotal() >= minimumStorageCount.get()) {
-            Chunk prevChunk = null;
-            int i = chunks.indexOf(chunk);
-
-            if (i < 0) chunks.add(chunk);
-            else prevChunk = chunks.set(i, chunk);
+            Chunk prevChunk = recordedChunks.put(chunk.chunkPos.toLong(), chunk);
+            boolean changed = !chunk.countsEqual(prevChunk);
 
-            saveJson();
-            saveCsv();
+            if (changed) append(chunk, true);
 
-            if (sendNotifications.get() && (!chunk.equals(prevChunk) || !chunk.countsEqual(prevChunk))) {
+            if (sendNotifications.get() && changed) {
                 switch (notificationMode.get()) {
                     case Chat -> info("Found stash at (highlight)%s(default), (highlight)%s(default).", chunk.x, chunk.z);
                     case Toast -> {
@@ -141,22 +182,27 @@ public class StashFinder extends Module {
 
     @Override
     public WWidget getWidget(GuiTheme theme) {
-        // Sort
-        chunks.sort(Comparator.comparingInt(value -> -value.getTotal()));
-
         WVerticalList list = theme.verticalList();
 
-        // Clear
-        WButton clear = list.add(theme.button("Clear")).widget();
+        // Clear and export
+        WHorizontalList buttons = list.add(theme.horizontalList()).widget();
+        WButton clear = buttons.add(theme.button("Clear")).widget();
+        WButton export = buttons.add(theme.button("Export")).widget();
 
         WTable table = new WTable();
-        if (!chunks.isEmpty()) list.add(table);
+        if (!recordedChunks.isEmpty()) list.add(table);
 
         clear.action = () -> {
-            chunks.clear();
+            // Drop a load that is still running, its chunks were cleared too
+            loadGeneration++;
+            recordedChunks.clear();
             table.clear();
+
+            compact();
         };
 
+        export.action = this::export;
+
         // Chunks
         fillTable(theme, table);
 
@@ -164,7 +210,10 @@ public class StashFinder extends Module {
     }
 
     private void fillTable(GuiTheme theme, WTable table) {
-        for (Chunk chunk : chunks) {
+        List<Chunk> sorted = new ArrayList<>(recordedChunks.values());
+        sorted.sort(Comparator.comparingInt(value -> -value.getTotal()));
+
+        for (Chunk chunk : sorted) {
             table.add(theme.label("Pos: " + chunk.x + ", " + chunk.z));
             table.add(theme.label("Total: " + chunk.getTotal()));
 
@@ -176,12 +225,11 @@ public class StashFinder extends Module {
 
             WMinus delete = table.add(theme.minus()).widget();
             delete.action = () -> {
-                if (chunks.remove(chunk)) {
+                if (recordedChunks.remove(chunk.chunkPos.toLong()) != null) {
                     table.clear();
                     fillTable(theme, table);
 
-                    saveJson();
-                    saveCsv();
+                    append(chunk, false);
                 }
             };
 
@@ -189,30 +237,157 @@ public class StashFinder extends Module {
         }
     }
 
+    // Journal
+
+    /**
+     * Appends a single record to the journal on the writer thread, so recording a chunk costs the same no matter how many
+     * are already stored. The journal is compacted once most of it is made up of overwritten or removed records.
+     */
+    private void append(Chunk chunk, boolean put) {
+        File file = getJournalFile();
+        WRITER.execute(() -> writeRecord(file, chunk, put));
+        exportChanged = true;
+
+        if (++journalRecords > Math.max(COMPACT_MIN_RECORDS, recordedChunks.size() * 2)) compact();
+    }
+
+    private void compact() {
+        File file = getJournalFile();
+        List<Chunk> snapshot = new ArrayList<>(recordedChunks.values());
+
+        journalRecords = snapshot.size();
+        WRITER.execute(() -> writeCompacted(file, snapshot));
+        exportChanged = true;
+    }
+
+    private void writeRecord(File file, Chunk chunk, boolean put) {
+        try {
+            DataOutputStream out = openJournal(file);
+            StashJournal.writeRecord(out, chunk, put);
+            out.flush();
+        } catch (IOException e) {
+            MeteorClient.LOG.error("Error writing stash journal.", e);
+            closeJournal();
+        }
+    }
+
+    private void writeCompacted(File file, List<Chunk> snapshot) {
+        closeJournal();
+
+        try {
+            StashJournal.writeCompacted(file, snapshot);
+        } catch (IOException e) {
+            MeteorClient.LOG.error("Error compacting stash journal.", e);
+        }
+    }
+
+    private DataOutputStream openJournal(File file) throws IOException {
+        if (journal != null && file.equals(journalFile)) return journal;
+
+        closeJournal();
+        file.getParentFile().mkdirs();
+
+        boolean empty = !file.exists() || file.length() == 0;
+
+        journal = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+        journalFile = file;
+
+        if (empty) StashJournal.writeHeader(journal);
+        return journal;
+    }
+
+    private void closeJournal() {
+        if (journal == null) return;
+
+        try {
+            journal.close();
+        } catch (IOException ignored) {}
+
+        journal = null;
+        journalFile = null;
+    }
+
+    // Loading
+
+    /**
+     * Reads the stored chunks on the writer thread, queued behind any records still being written. The result is handed
+     * back to the client thread, where chunks recorded in the meantime take priority over the loaded ones.
+     */
     private void load() {
+        int generation = ++loadGeneration;
+
+        recordedChunks.clear();
+        journalRecords = 0;
+
+        File journalFile = getJournalFile();
+        File jsonFile = getJsonFile();
+        File csvFile = getCsvFile();
+
+        WRITER.execute(() -> {
+            Long2ObjectMap<Chunk> loaded = new Long2ObjectLinkedOpenHashMap<>();
+            int records = -1;
+
+            // Try to load the journal
+            if (journalFile.exists()) {
+                try {
+                    records = StashJournal.read(journalFile, loaded);
+                } catch (IOException e) {
+                    MeteorClient.LOG.error("Error loading stash journal.", e);
+                    loaded.clear();
+                }
+            }
+
+            // Fall back to the exported files and start a journal from them
+            if (records == -1) {
+                loadLegacy(jsonFile, csvFile, loaded);
+                writeCompacted(journalFile, new ArrayList<>(loaded.values()));
+                records = loaded.size();
+            }
+
+            int loadedRecords = records;
+            mc.execute(() -> onLoaded(generation, loaded, loadedRecords));
+        });
+    }
+
+    private void onLoaded(int generation, Long2ObjectMap<Chunk> loaded, int records) {
+        if (generation != loadGeneration || !isActive()) return;
+
+        // Chunks recorded while loading are newer and already in the journal
+        loaded.putAll(recordedChunks);
+        recordedChunks.clear();
+        recordedChunks.putAll(loaded);
+
+        journalRecords += records;
+        if (journalRecords > Math.max(COMPACT_MIN_RECORDS, recordedChunks.size() * 2)) compact();
+    }
+
+    private static void loadLegacy(File jsonFile, File csvFile, Long2ObjectMap<Chunk> chunks) {
         boolean loaded = false;
 
         // Try to load json
-        File file = getJsonFile();
-        if (file.exists()) {
+        if (jsonFile.exists()) {
             try {
-                FileReader reader = new FileReader(file);
-                chunks = GSON.fromJson(reader, new TypeToken<List<Chunk>>() {}.getType());
+                FileReader reader = new FileReader(jsonFile);
+                List<Chunk> list = GSON.fromJson(reader, new TypeToken<List<Chunk>>() {}.getType());
                 reader.close();
 
-                for (Chunk chunk : chunks) chunk.calculatePos();
+                if (list != null) {
+                    for (Chunk chunk : list) {
+                        chunk.calculatePos();
+                        chunks.put(chunk.chunkPos.toLong(), chunk);
+                    }
+                }
 
                 loaded = true;
             } catch (Exception ignored) {
-                if (chunks == null) chunks = new ArrayList<>();
+                chunks.clear();
             }
         }
 
         // Try to load csv
-        file = getCsvFile();
-        if (!loaded && file.exists()) {
+        if (!loaded && csvFile.exists()) {
             try {
-                BufferedReader reader = new BufferedReader(new FileReader(file));
+                BufferedReader reader = new BufferedReader(new FileReader(csvFile));
                 reader.readLine();
 
                 String line;
@@ -227,43 +402,86 @@ public class StashFinder extends Module {
                     chunk.dispensersDroppers = Integer.parseInt(values[6]);
                     chunk.hoppers = Integer.parseInt(values[7]);
 
-                    chunks.add(chunk);
+                    chunks.put(chunk.chunkPos.toLong(), chunk);
                 }
 
                 reader.close();
             } catch (Exception ignored) {
-                if (chunks == null) chunks = new ArrayList<>();
+                chunks.clear();
             }
         }
     }
 
-    private void saveCsv() {
-        try {
-            File file = getCsvFile();
-            file.getParentFile().mkdirs();
-            Writer writer = new FileWriter(file);
+    // Export
+
+    /**
+     * Writes the json and csv files from a snapshot of the recorded chunks on the writer thread. Runs on deactivate and
+     * at most once every {@link #EXPORT_INTERVAL} while chunks keep changing.
+     */
+    private void export() {
+        File jsonFile = getJsonFile();
+        File csvFile = getCsvFile();
+        List<Chunk> snapshot = new ArrayList<>(recordedChunks.values());
 
-            writer.write("X,Z,Chests,Barrels,Shulkers,EnderChests,Furnaces,DispensersDroppers,Hoppers\n");
-            for (Chunk chunk : chunks) chunk.write(writer);
+        exportChanged = false;
+        lastExport = System.currentTimeMillis();
 
-            writer.close();
+        WRITER.execute(() -> {
+            saveJson(jsonFile, snapshot);
+            saveCsv(csvFile, snapshot);
+        });
+    }
+
+    private static void saveCsv(File file, List<Chunk> snapshot) {
+        try {
+            writeAtomically(file, writer -> {
+                writer.write("X,Z,Chests,Barrels,Shulkers,EnderChests,Furnaces,DispensersDroppers,Hoppers\n");
+                for (Chunk chunk : snapshot) chunk.write(writer);
+            });
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
-    private void saveJson() {
+    private static void saveJson(File file, List<Chunk> snapshot) {
         try {
-            File file = getJsonFile();
-            file.getParentFile().mkdirs();
-            Writer writer = new FileWriter(file);
-            GSON.toJson(chunks, writer);
-            writer.close();
+            writeAtomically(file, writer -> GSON.toJson(snapshot, writer));
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
+    /** Writes to a temporary file first, so a crash in the middle of an export keeps the previous one intact. */
+    private static void writeAtomically(File file, ExportWriter export) throws IOException {
+        Path dir = file.getParentFile().toPath();
+        Files.createDirectories(dir);
+
+        Path tempFile = Files.createTempFile(dir, file.getName(), ".tmp");
+
+        try {
+            try (Writer writer = Files.newBufferedWriter(tempFile)) {
+                export.write(writer);
+            }
+
+            try {
+                Files.move(tempFile, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ExportWriter {
+        void write(Writer writer) throws IOException;
+    }
+
+    private File getJournalFile() {
+        return new File(new File(new File(MeteorClient.FOLDER, "stashes"), Utils.getFileWorldName()), "stashes.journal");
+    }
+
     private File getJsonFile() {
         return new File(new File(new File(MeteorClient.FOLDER, "stashes"), Utils.getFileWorldName()), "stashes.json");
     }
@@ -274,7 +492,28 @@ public class StashFinder extends Module {
 
     @Override
     public String getInfoString() {
-        return String.valueOf(chunks.size());
+        return String.valueOf(recordedChunks.size());
+    }
+
+    private class ChunkList extends AbstractList<Chunk> {
+        @Override
+        public Chunk get(int index) {
+            Objects.checkIndex(index, size());
+
+            Iterator<Chunk> iterator = iterator();
+            for (int i = 0; i < index; i++) iterator.next();
+            return iterator.next();
+        }
+
+        @Override
+        public Iterator<Chunk> iterator() {
+            return Collections.unmodifiableCollection(recordedChunks.values()).iterator();
+        }
+
+        @Override
+        public int size() {
+            return recordedChunks.size();
+        }
     }
 
     public enum Mode {
@@ -314,7 +553,7 @@ public class StashFinder extends Module {
 
         public boolean countsEqual(Chunk c) {
             if (c == null) return false;
-            return chests != c.chests || barrels != c.barrels || shulkers != c.shulkers || enderChests != c.enderChests || furnaces != c.furnaces || dispensersDroppers != c.dispensersDroppers || hoppers != c.hoppers;
+            return chests == c.chests && barrels == c.barrels && shulkers == c.shulkers && enderChests == c.enderChests && furnaces == c.furnaces && dispensersDroppers == c.dispensersDroppers && hoppers == c.hoppers;
         }
 
         @Override
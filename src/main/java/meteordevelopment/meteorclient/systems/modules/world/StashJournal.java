@@ -0,0 +1,107 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.systems.modules.world;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import meteordevelopment.meteorclient.systems.modules.world.StashFinder.Chunk;
+import net.minecraft.util.math.ChunkPos;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+
+/**
+ * File format of the {@link StashFinder} journal, a version header followed by fixed size records. Each record either
+ * puts a chunk with its counts or removes it, replaying them in order gives the recorded chunks.
+ */
+final class StashJournal {
+    static final int VERSION = 1;
+    static final int RECORD_SIZE = 1 + 9 * Integer.BYTES;
+
+    private StashJournal() {}
+
+    static void writeHeader(DataOutputStream out) throws IOException {
+        out.writeInt(VERSION);
+    }
+
+    static void writeRecord(DataOutputStream out, Chunk chunk, boolean put) throws IOException {
+        out.writeBoolean(put);
+        out.writeInt(chunk.chunkPos.x);
+        out.writeInt(chunk.chunkPos.z);
+        out.writeInt(chunk.chests);
+        out.writeInt(chunk.barrels);
+        out.writeInt(chunk.shulkers);
+        out.writeInt(chunk.enderChests);
+        out.writeInt(chunk.furnaces);
+        out.writeInt(chunk.dispensersDroppers);
+        out.writeInt(chunk.hoppers);
+    }
+
+    /** Replaces the journal with one put record per chunk, written to a temporary file and moved into place. */
+    static void writeCompacted(File file, Collection<Chunk> chunks) throws IOException {
+        Path dir = file.getParentFile().toPath();
+        Files.createDirectories(dir);
+
+        Path tempFile = Files.createTempFile(dir, file.getName(), ".tmp");
+
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                writeHeader(out);
+                for (Chunk chunk : chunks) writeRecord(out, chunk, true);
+            }
+
+            try {
+                Files.move(tempFile, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Replays the journal into {@code chunks}. A partially written record at the end is dropped.
+     *
+     * @return the number of records read
+     */
+    static int read(File file, Long2ObjectMap<Chunk> chunks) throws IOException {
+        int records = 0;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != VERSION) throw new IOException("Unknown stash journal version.");
+
+            byte[] record = new byte[RECORD_SIZE];
+            ByteBuffer buffer = ByteBuffer.wrap(record);
+
+            while (in.readNBytes(record, 0, RECORD_SIZE) == RECORD_SIZE) {
+                buffer.clear();
+
+                boolean put = buffer.get() != 0;
+                Chunk chunk = new Chunk(new ChunkPos(buffer.getInt(), buffer.getInt()));
+
+                chunk.chests = buffer.getInt();
+                chunk.barrels = buffer.getInt();
+                chunk.shulkers = buffer.getInt();
+                chunk.enderChests = buffer.getInt();
+                chunk.furnaces = buffer.getInt();
+                chunk.dispensersDroppers = buffer.getInt();
+                chunk.hoppers = buffer.getInt();
+
+                if (put) chunks.put(chunk.chunkPos.toLong(), chunk);
+                else chunks.remove(chunk.chunkPos.toLong());
+
+                records++;
+            }
+        }
+
+        return records;
+    }
+}
@@ -33,6 +33,11 @@ public class Profiles extends System<Profiles> implements Iterable<Profile> {
         return Systems.get(Profiles.class);
     }
 
+    @Override
+    protected boolean tracksChanges() {
+        return true;
+    }
+
     public void add(Profile profile) {
         if (!profiles.contains(profile)) profiles.add(profile);
         profile.save();
@@ -14,7 +14,6 @@ import net.minecraft.nbt.NbtCompound;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
-import java.util.concurrent.*;
 import java.util.regex.Pattern;
 
 public class Proxies extends System<Proxies> implements Iterable<Proxy> {
@@ -24,10 +23,10 @@ public class Proxies extends System<Proxies> implements Iterable<Proxy> {
 
     private final Setting<Integer> threads = sgRefreshing.add(new IntSetting.Builder()
         .name("threads")
-        .description("The number of concurrent threads to check proxies with.")
-        .defaultValue(8)
-        .min(0)
-        .sliderRange(0, 32)
+        .description("The number of proxies to check at the same time.")
+        .defaultValue(64)
+        .min(1)
+        .sliderRange(1, 1024)
         .build()
     );
 
@@ -87,8 +86,12 @@ public class Proxies extends System<Proxies> implements Iterable<Proxy> {
     // https://regex101.com/r/7M2LFx/1
     public static final Pattern PROXY_PATTERN_URI = Pattern.compile("^(?:(socks|socks4|socks5)://)?(?:(?<user>[\\w~-]+)(:(?<pass>[\\w~-]+))?@)?(?<addr>(?:0*(?:\\d|[1-9]\\d|1\\d\\d|2[0-4]\\d|25[0-5])(?:\\.(?!:)|)){4}):(?!0)(?<port>\\d{1,4}|[1-5]\\d{4}|6[0-4]\\d{3}|65[0-4]\\d{2}|655[0-2]\\d|6553[0-5])$", Pattern.MULTILINE);
 
+    // Delay before the first retry of a check that timed out, doubled for every further retry
+    private static final long RETRY_DELAY = 250;
+
     private List<Proxy> proxies = new ArrayList<>();
-    public boolean refreshing;
+    private final Map<Key, Proxy> index = new HashMap<>();
+    public volatile boolean refreshing;
 
     public Proxies() {
         super("proxies");
@@ -99,24 +102,42 @@ public class Proxies extends System<Proxies> implements Iterable<Proxy> {
     }
 
     public boolean add(Proxy proxy) {
-        for (Proxy p : proxies) {
-            if (p.type.get().equals(proxy.type.get()) && p.address.get().equals(proxy.address.get()) && Objects.equals(p.port.get(), proxy.port.get())) return false;
-        }
+        return add(proxy, true);
+    }
+
+    /**
+     * Adds the proxy unless one with the same type, address and port already exists. Imports add many proxies at once
+     * without saving and then {@link #save()} once at the end.
+     */
+    public boolean add(Proxy proxy, boolean save) {
+        Key key = new Key(proxy);
+        Proxy existing = index.get(key);
+
+        // Proxies can be edited after they were added, so the entry is only trusted if it still matches
+        if (existing != null && key.equals(new Key(existing))) return false;
 
         if (proxies.isEmpty()) proxy.enabled.set(true);
 
         proxies.add(proxy);
-        save();
+        index.put(key, proxy);
+        if (save) save();
 
         return true;
     }
 
     public void remove(Proxy proxy) {
         if (proxies.remove(proxy)) {
+            if (!index.remove(new Key(proxy), proxy)) index.values().remove(proxy);
             save();
         }
     }
 
+    /** Rebuilds the duplicate index, needs to be called after the type, address or port of a proxy changed. */
+    public void reindex() {
+        index.clear();
+        for (Proxy proxy : proxies) index.putIfAbsent(new Key(proxy), proxy);
+    }
+
     public Proxy getEnabled() {
         for (Proxy proxy : proxies) {
             if (proxy.enabled.get()) return proxy;
@@ -138,45 +159,19 @@ public class Proxies extends System<Proxies> implements Iterable<Proxy> {
         if (refreshing || isEmpty()) return;
         refreshing = true;
 
+        List<Proxy> toCheck = new ArrayList<>();
+        for (Proxy proxy : proxies) {
+            if (all || proxy.status == Proxy.Status.UNCHECKED) toCheck.add(proxy);
+        }
+
+        int timeout = this.timeout.get();
+
         MeteorExecutor.execute(() -> {
-            BlockingQueue<Proxy> toCheck = new ArrayBlockingQueue<>(proxies.size());
-            proxies.forEach(proxy -> {
-                if (all || proxy.status == Proxy.Status.UNCHECKED) toCheck.add(proxy);
-            });
-
-            ConcurrentHashMap<Proxy, Integer> checked = new ConcurrentHashMap<>(proxies.size(), 1);
-            proxies.forEach(proxy -> checked.put(proxy, 0));
-
-            try (ExecutorService executor = Executors.newFixedThreadPool(threads.get())) {
-                for (int i = 0; i < threads.get(); i++) {
-                    executor.execute(() -> {
-                        try {
-                            check(toCheck, checked);
-                        } catch (InterruptedException ignored) {}
-                    });
-                }
-
-                try {
-                    executor.shutdown();
-                    //noinspection ResultOfMethodCallIgnored
-                    executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
-                } catch (InterruptedException ignored) {}
-
-                refreshing = false;
-            }
+            ProxyChecker.checkAll(toCheck, proxy -> proxy.checkStatus(timeout), threads.get(), tries.get(), RETRY_DELAY);
+            refreshing = false;
         });
     }
 
-    private void check(BlockingQueue<Proxy> queue, ConcurrentHashMap<Proxy, Integer> checks) throws InterruptedException {
-        while (!queue.isEmpty()) {
-            Proxy proxy = queue.take();
-            if (proxy.checkStatus() == 3 && checks.get(proxy) <= tries.get()) {
-                checks.put(proxy, checks.get(proxy) + 1);
-                queue.put(proxy);
-            }
-        }
-    }
-
     public void clean() {
         if (refreshing) return;
 
@@ -188,9 +183,17 @@ public class Proxies extends System<Proxies> implements Iterable<Proxy> {
         List<Proxy> p = (sort.get() ? proxies : new ArrayList<>(proxies));
         p.sort(Comparator.comparingLong(proxy -> proxy.status == Proxy.Status.ALIVE ? proxy.latency : Long.MAX_VALUE));
 
-        if (pruneExcess.get() == 0 || pruneExcess.get() >= p.size()) return;
-        p.subList(pruneExcess.get(), p.size()).clear();
-        if (!sort.get()) proxies.removeIf(proxy -> !p.contains(proxy));
+        if (pruneExcess.get() != 0 && pruneExcess.get() < p.size()) {
+            p.subList(pruneExcess.get(), p.size()).clear();
+
+            if (!sort.get()) {
+                Set<Proxy> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+                kept.addAll(p);
+                proxies.removeIf(proxy -> !kept.contains(proxy));
+            }
+        }
+
+        reindex();
     }
 
     public boolean isEmpty() {
@@ -221,7 +224,14 @@ public class Proxies extends System<Proxies> implements Iterable<Proxy> {
     public Proxies fromTag(NbtCompound tag) {
         if (tag.contains("settings")) settings.fromTag(tag.getCompoundOrEmpty("settings"));
         proxies = NbtUtils.listFromTag(tag.getListOrEmpty("proxies"), Proxy::new);
+        reindex();
 
         return this;
     }
+
+    private record Key(ProxyType type, String address, int port) {
+        private Key(Proxy proxy) {
+            this(proxy.type.get(), proxy.address.get(), proxy.port.get());
+        }
+    }
 }
@@ -99,6 +99,10 @@ public class Proxy implements ISerializable<Proxy> {
         return Utils.resolveAddress(this.address.get(), this.port.get());
     }
 
+    public int checkStatus() {
+        return checkStatus(Proxies.get().timeout.get());
+    }
+
     /**
      *  Return codes: <br>
      *  0: In the process of checking <br>
@@ -106,64 +110,71 @@ public class Proxy implements ISerializable<Proxy> {
      *  2: The proxy is dead <br>
      *  3: The check timed out
      */
-    public int checkStatus() {
+    public int checkStatus(int timeout) {
         if (status == Status.CHECKING) return 0;
         status = Status.CHECKING;
 
-        boolean timeout = false;
+        Probe probe = probe(address.get(), port.get(), username.get(), timeout);
+
+        if (probe.result == 1) {
+            latency = probe.latency;
+            status = Status.ALIVE;
+        }
+        else status = Status.DEAD;
+
+        return probe.result;
+    }
+
+    /**
+     * Tries a SOCKS4 and then a SOCKS5 handshake. The result uses the same codes as {@link #checkStatus(int)} apart from
+     * 0, the latency is that of the handshake that succeeded.
+     */
+    static Probe probe(String address, int port, String username, int timeout) {
+        boolean timedOut = false;
 
         try {
             Instant before = Instant.now();
-            if (isSocks4()) {
-                status = Status.ALIVE;
-                latency = Duration.between(before, Instant.now()).toMillis();
-                return 1;
-            }
+            if (isSocks4(address, port, username, timeout)) return new Probe(1, Duration.between(before, Instant.now()).toMillis());
         }
         catch (SocketTimeoutException e) {
-            timeout = true;
+            timedOut = true;
         }
         catch (IOException ignored) {}
 
         try {
             Instant before = Instant.now();
-            if (isSocks5()) {
-                status = Status.ALIVE;
-                latency = Duration.between(before, Instant.now()).toMillis();
-                return 1;
-            }
+            if (isSocks5(address, port, timeout)) return new Probe(1, Duration.between(before, Instant.now()).toMillis());
         }
         catch (SocketTimeoutException e) {
-            timeout = true;
+            timedOut = true;
         }
         catch (IOException ignored) {}
 
-        status = Status.DEAD;
-        return timeout ? 3 : 2;
+        return new Probe(timedOut ? 3 : 2, 0);
     }
 
-    private boolean isSocks4() throws IOException {
+    private static boolean isSocks4(String address, int port, String username, int timeout) throws IOException {
         ByteBuffer bb;
-        byte[] u = username.get().getBytes();
+        byte[] u = username.getBytes();
 
         // SOCKS4
-        if (InetAddresses.isInetAddress(address.get())) {
+        if (InetAddresses.isInetAddress(address)) {
             bb = ByteBuffer.allocate(9 + u.length)
                 .put((byte) 4)
                 .put((byte) 1)
-                .putShort(port.get().shortValue())
-                .putInt(InetAddress.getByName(address.get()).hashCode()) // :clueless:
+                .putShort((short) port)
+                .putInt(InetAddress.getByName(address).hashCode()) // :clueless:
                 .put(u)
                 .put((byte) 0);
         }
 
         // SOCKS4a
         else {
-            byte[] addr = address.get().getBytes();
+            byte[] addr = address.getBytes();
             bb = ByteBuffer.allocate(10 + u.length + addr.length)
                 .put((byte) 4)
                 .put((byte) 1)
-                .putShort(port.get().shortValue())
+                .putShort((short) port)
                 .put(new byte[]{0, 0, 0, 1})
                 .put(u)
                 .put((byte) 0)
@@ -171,29 +182,29 @@ public class Proxy implements ISerializable<Proxy> {
                 .put((byte) 0);
         }
 
-        byte[] data = sendData(bb.array(), 8);
+        byte[] data = sendData(address, port, timeout, bb.array(), 8);
 
         if (data.length < 2) return false;
         return data[0] == 0 && data[1] == 90;
     }
 
-    private boolean isSocks5() throws IOException {
+    private static boolean isSocks5(String address, int port, int timeout) throws IOException {
         ByteBuffer bb = ByteBuffer.allocate(4)
             .put((byte) 5)
             .put((byte) 2)
             .put((byte) 0)
             .put((byte) 2);
 
-        byte[] data = sendData(bb.array(), 2);
+        byte[] data = sendData(address, port, timeout, bb.array(), 2);
 
         if (data.length < 2) return false;
         return data[0] == 5 && (data[1] == 0 || data[1] == 2);
     }
 
-    private byte[] sendData(byte[] data, int read) throws IOException {
+    private static byte[] sendData(String address, int port, int timeout, byte[] data, int read) throws IOException {
         try (Socket s = new Socket()) {
-            s.setSoTimeout(Proxies.get().timeout.get());
-            s.connect(new InetSocketAddress(address.get(), port.get()), Proxies.get().timeout.get());
+            s.setSoTimeout(timeout);
+            s.connect(new InetSocketAddress(address, port), timeout);
             OutputStream out = s.getOutputStream();
 
             out.write(data);
@@ -309,4 +320,6 @@ public class Proxy implements ISerializable<Proxy> {
             };
         }
     }
+
+    record Probe(int result, long latency) {}
 }
@@ -0,0 +1,56 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.systems.proxies;
+
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.ToIntFunction;
+
+/**
+ * Checks mostly wait on the network, so every target gets a virtual thread and a semaphore limits how many handshakes
+ * are in flight. Checks that time out are retried after a delay that doubles with every attempt, without holding a
+ * permit while waiting.
+ */
+final class ProxyChecker {
+    // Result of a check that timed out, see Proxy#checkStatus
+    static final int TIMED_OUT = 3;
+
+    private ProxyChecker() {}
+
+    /** Blocks until every target was checked. */
+    static <T> void checkAll(Collection<T> targets, ToIntFunction<T> check, int permits, int retries, long retryDelay) {
+        Semaphore semaphore = new Semaphore(Math.max(1, permits));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (T target : targets) {
+                executor.execute(() -> check(target, check, semaphore, retries, retryDelay));
+            }
+        }
+    }
+
+    private static <T> void check(T target, ToIntFunction<T> check, Semaphore permits, int retries, long retryDelay) {
+        for (int attempt = 0; ; attempt++) {
+            int result;
+
+            permits.acquireUninterruptibly();
+            try {
+                result = check.applyAsInt(target);
+            } finally {
+                permits.release();
+            }
+
+            if (result != TIMED_OUT || attempt >= retries) return;
+
+            try {
+                Thread.sleep(retryDelay << attempt);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+}
@@ -55,6 +55,11 @@ public class Waypoints extends System<Waypoints> implements Iterable<Waypoint> {
         return Systems.get(Waypoints.class);
     }
 
+    @Override
+    protected boolean tracksChanges() {
+        return true;
+    }
+
     @Override
     public void init() {
         File iconsFolder = new File(new File(MeteorClient.FOLDER, "waypoints"), "icons");
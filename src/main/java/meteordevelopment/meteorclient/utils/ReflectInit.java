@@ -5,50 +5,119 @@
 
 package meteordevelopment.meteorclient.utils;
 
+import meteordevelopment.meteorclient.MeteorClient;
 import meteordevelopment.meteorclient.addons.AddonManager;
 import meteordevelopment.meteorclient.addons.MeteorAddon;
 import org.reflections.Reflections;
 import org.reflections.scanners.Scanners;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * Runs the {@link PreInit} and {@link PostInit} methods of Meteor and its addons. Packages compiled with the init index
+ * annotation processor ship their tasks already sorted in {@code META-INF/meteor-init/<package>.txt}, only the other
+ * ones are scanned with Reflections.
+ */
 public class ReflectInit {
-    private static final List<Reflections> reflections = new ArrayList<>();
+    private static final String INDEX_DIRECTORY = "META-INF/meteor-init/";
+
+    // Ignores the init indexes, to compare startup against scanning with the registerPackages log line
+    private static final boolean FORCE_SCAN = Boolean.getBoolean("meteor.init.scan");
+
+    private static final List<Source> sources = new ArrayList<>();
 
     private ReflectInit() {
     }
 
     public static void registerPackages() {
+        long start = System.nanoTime();
+        int indexed = 0;
+
         for (MeteorAddon addon : AddonManager.ADDONS) {
             try {
-                add(addon);
+                if (add(addon) instanceof Indexed) indexed++;
             } catch (AbstractMethodError e) {
                 throw new RuntimeException("Addon \"%s\" is too old and cannot be ran.".formatted(addon.name), e);
             }
         }
+
+        MeteorClient.LOG.info("Registered init tasks of {} packages in {} ms, {} from init indexes and {} scanned.", sources.size(), (System.nanoTime() - start) / 1_000_000, indexed, sources.size() - indexed);
     }
 
-    private static void add(MeteorAddon addon) {
+    private static Source add(MeteorAddon addon) {
         String pkg = addon.getPackage();
-        if (pkg == null || pkg.isBlank()) return;
-        reflections.add(new Reflections(pkg, Scanners.MethodsAnnotated));
+        if (pkg == null || pkg.isBlank()) return null;
+
+        Source source = FORCE_SCAN ? null : readIndex(pkg);
+        if (source == null) source = new Scanned(new Reflections(pkg, Scanners.MethodsAnnotated));
+
+        sources.add(source);
+        return source;
+    }
+
+    private static Indexed readIndex(String pkg) {
+        InputStream in = ReflectInit.class.getClassLoader().getResourceAsStream(INDEX_DIRECTORY + pkg + ".txt");
+        if (in == null) return null;
+
+        Map<String, List<String[]>> tasks = new HashMap<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] split = line.split(" ");
+                if (split.length != 3) continue;
+
+                tasks.computeIfAbsent(split[0], k -> new ArrayList<>()).add(new String[] { split[1], split[2] });
+            }
+        } catch (IOException e) {
+            MeteorClient.LOG.error("Error reading init index of package '{}', scanning it instead.", pkg, e);
+            return null;
+        }
+
+        return new Indexed(tasks);
     }
 
     public static void init(Class<? extends Annotation> annotation) {
-        for (Reflections reflection : reflections) {
-            Set<Method> initTasks = reflection.getMethodsAnnotatedWith(annotation);
-            if (initTasks == null) return;
+        for (Source source : sources) {
+            switch (source) {
+                case Indexed indexed -> initIndexed(indexed, annotation);
+                case Scanned scanned -> initScanned(scanned.reflections, annotation);
+            }
+        }
+    }
 
-            Map<Class<?>, List<Method>> byClass = initTasks.stream().collect(Collectors.groupingBy(Method::getDeclaringClass));
-            Set<Method> left = new HashSet<>(initTasks);
+    private static void initIndexed(Indexed indexed, Class<? extends Annotation> annotation) {
+        for (String[] task : indexed.tasks.getOrDefault(annotation.getSimpleName(), Collections.emptyList())) {
+            Method method;
 
-            for (Method m; (m = left.stream().findAny().orElse(null)) != null; ) {
-                reflectInit(m, annotation, left, byClass);
+            try {
+                method = Class.forName(task[0], false, ReflectInit.class.getClassLoader()).getDeclaredMethod(task[1]);
+            } catch (ClassNotFoundException | NoSuchMethodException e) {
+                throw new IllegalStateException("Init index lists @%s task '%s.%s' which doesn't exist".formatted(annotation.getSimpleName(), task[0], task[1]), e);
             }
+
+            invoke(method, annotation);
+        }
+    }
+
+    private static void initScanned(Reflections reflection, Class<? extends Annotation> annotation) {
+        Set<Method> initTasks = reflection.getMethodsAnnotatedWith(annotation);
+        if (initTasks == null) return;
+
+        Map<Class<?>, List<Method>> byClass = initTasks.stream().collect(Collectors.groupingBy(Method::getDeclaringClass));
+        Set<Method> left = new HashSet<>(initTasks);
+
+        for (Method m; (m = left.stream().findAny().orElse(null)) != null; ) {
+            reflectInit(m, annotation, left, byClass);
         }
     }
 
@@ -63,6 +132,10 @@ public class ReflectInit {
             }
         }
 
+        invoke(task, annotation);
+    }
+
+    private static void invoke(Method task, Class<? extends Annotation> annotation) {
         try {
             task.invoke(null);
         } catch (IllegalAccessException | InvocationTargetException e) {
@@ -81,4 +154,11 @@ public class ReflectInit {
             default -> new Class<?>[]{};
         };
     }
+
+    private sealed interface Source permits Indexed, Scanned {}
+
+    /** Annotation simple name -> class and method names of its tasks, in the order they have to run in. */
+    private record Indexed(Map<String, List<String[]>> tasks) implements Source {}
+
+    private record Scanned(Reflections reflections) implements Source {}
 }
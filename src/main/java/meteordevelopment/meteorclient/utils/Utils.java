@@ -19,6 +19,7 @@ import meteordevelopment.meteorclient.systems.modules.Modules;
 import meteordevelopment.meteorclient.systems.modules.render.BetterTooltips;
 import meteordevelopment.meteorclient.systems.modules.world.Timer;
 import meteordevelopment.meteorclient.utils.misc.Names;
+import meteordevelopment.meteorclient.utils.misc.SearchUtils;
 import meteordevelopment.meteorclient.utils.player.EChestMemory;
 import meteordevelopment.meteorclient.utils.render.PeekScreen;
 import meteordevelopment.meteorclient.utils.render.RenderUtils;
@@ -329,57 +330,19 @@ public class Utils {
     }
 
     public static boolean searchTextDefault(String text, String filter, boolean caseSensitive) {
-        return searchInWords(text, filter) > 0 || searchLevenshteinDefault(text, filter, caseSensitive) < text.length() / 2;
+        return SearchUtils.searchTextDefault(text, filter, caseSensitive);
     }
 
     public static int searchLevenshteinDefault(String text, String filter, boolean caseSensitive) {
-        return levenshteinDistance(caseSensitive ? filter : filter.toLowerCase(Locale.ROOT), caseSensitive ? text : text.toLowerCase(Locale.ROOT), 1, 8, 8);
+        return SearchUtils.searchLevenshteinDefault(text, filter, caseSensitive);
     }
 
     public static int searchInWords(String text, String filter) {
-        if (filter.isEmpty()) return 1;
-
-        int wordsFound = 0;
-        text = text.toLowerCase(Locale.ROOT);
-        String[] words = filter.toLowerCase(Locale.ROOT).split(" ");
-
-        for (String word : words) {
-            if (!text.contains(word)) return 0;
-            wordsFound += StringUtils.countMatches(text, word);
-        }
-
-        return wordsFound;
+        return SearchUtils.searchInWords(text, filter);
     }
 
     public static int levenshteinDistance(String from, String to, int insCost, int subCost, int delCost) {
-        int textLength = from.length();
-        int filterLength = to.length();
-
-        if (textLength == 0) return filterLength * insCost;
-        if (filterLength == 0) return textLength * delCost;
-
-        // Populate matrix
-        int[][] d = new int[textLength + 1][filterLength + 1];
-
-        for (int i = 0; i <= textLength; i++) {
-            d[i][0] = i * delCost;
-        }
-
-        for (int j = 0; j <= filterLength; j++) {
-            d[0][j] = j * insCost;
-        }
-
-        // Find best route
-        for (int i = 1; i <= textLength; i++) {
-            for (int j = 1; j <= filterLength; j++) {
-                int sCost = d[i - 1][j - 1] + (from.charAt(i - 1) == to.charAt(j - 1) ? 0 : subCost);
-                int dCost = d[i - 1][j] + delCost;
-                int iCost = d[i][j - 1] + insCost;
-                d[i][j] = Math.min(Math.min(dCost, iCost), sCost);
-            }
-        }
-
-        return d[textLength][filterLength];
+        return SearchUtils.levenshteinDistance(from, to, insCost, subCost, delCost);
     }
 
     public static double squaredDistance(double x1, double y1, double z1, double x2, double y2, double z2) {
@@ -0,0 +1,288 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.entity;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.events.entity.EntityEquipmentUpdateEvent;
+import meteordevelopment.meteorclient.events.packets.ContainerSlotUpdateEvent;
+import meteordevelopment.meteorclient.events.packets.InventoryEvent;
+import meteordevelopment.meteorclient.events.world.BlockUpdateEvent;
+import meteordevelopment.meteorclient.events.world.TickEvent;
+import meteordevelopment.meteorclient.utils.PreInit;
+import meteordevelopment.meteorclient.utils.Utils;
+import meteordevelopment.orbit.EventHandler;
+import meteordevelopment.orbit.EventPriority;
+import net.minecraft.block.BlockState;
+import net.minecraft.component.type.AttributeModifierSlot;
+import net.minecraft.enchantment.Enchantment;
+import net.minecraft.enchantment.Enchantments;
+import net.minecraft.entity.EquipmentSlot;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.attribute.EntityAttributes;
+import net.minecraft.entity.effect.StatusEffectInstance;
+import net.minecraft.entity.effect.StatusEffects;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+import org.jetbrains.annotations.Nullable;
+
+import static meteordevelopment.meteorclient.MeteorClient.mc;
+
+/**
+ * Tick scoped cache shared by everything that goes through {@link DamageUtils}. Holds the armor, toughness, protection
+ * and resistance of every entity damage was calculated for, and memoizes explosion damage per entity, explosion position,
+ * power and override block. Everything is dropped at the start of each tick. Equipment changes only drop the results
+ * of that entity and block updates only the results whose rays could pass through the block.
+ * <p>
+ * Like {@link ExplosionExposure}, only the client thread writes to the cache, other threads may read it while the client
+ * thread waits for them.
+ */
+public class DamageCache {
+    private static final Int2ObjectMap<Profile> profiles = new Int2ObjectOpenHashMap<>();
+    private static final Object2IntMap<RegistryEntry<Enchantment>> enchantments = new Object2IntOpenHashMap<>();
+
+    private static final int MEMO_SIZE = 512;
+    private static final Entry[] memo = new Entry[MEMO_SIZE];
+    private static int generation = 1;
+
+    // Entity id -> stamp, bumped when the entity's equipment changes so only its results are dropped
+    private static final Int2IntMap entityStamps = new Int2IntOpenHashMap();
+    private static int nextStamp;
+
+    private static long hits, misses;
+    private static long profileHits, profileMisses;
+
+    private DamageCache() {
+    }
+
+    @PreInit
+    public static void init() {
+        for (int i = 0; i < MEMO_SIZE; i++) memo[i] = new Entry();
+
+        MeteorClient.EVENT_BUS.subscribe(DamageCache.class);
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST + 1)
+    private static void onTick(TickEvent.Pre event) {
+        profiles.clear();
+        entityStamps.clear();
+        generation++;
+    }
+
+    @EventHandler
+    private static void onBlockUpdate(BlockUpdateEvent event) {
+        invalidate(event.pos.getX(), event.pos.getY(), event.pos.getZ());
+    }
+
+    @EventHandler
+    private static void onEquipmentUpdate(EntityEquipmentUpdateEvent event) {
+        invalidate(event.entity.getId());
+    }
+
+    @EventHandler
+    private static void onContainerSlotUpdate(ContainerSlotUpdateEvent event) {
+        if (mc.player != null) invalidate(mc.player.getId());
+    }
+
+    @EventHandler
+    private static void onInventory(InventoryEvent event) {
+        if (mc.player != null) invalidate(mc.player.getId());
+    }
+
+    /** Drops the cached profile and damage results of an entity, for example after its armor changed. */
+    public static void invalidate(int entityId) {
+        profiles.remove(entityId);
+        entityStamps.put(entityId, ++nextStamp);
+    }
+
+    /** Drops the damage results whose rays could pass through the block at the position. */
+    static void invalidate(int x, int y, int z) {
+        for (Entry entry : memo) {
+            if (entry.generation == generation && entry.contains(x, y, z)) entry.generation = 0;
+        }
+    }
+
+    // Profiles
+
+    /** Returns the damage reduction related stats of the entity, computed at most once per tick. */
+    public static Profile getProfile(LivingEntity entity) {
+        if (!mc.isOnThread()) {
+            Profile profile = profiles.get(entity.getId());
+            return profile != null && profile.entity == entity ? profile : new Profile().set(entity, new Object2IntOpenHashMap<>());
+        }
+
+        Profile profile = profiles.get(entity.getId());
+
+        if (profile == null || profile.entity != entity) {
+            if (profile == null) profile = new Profile();
+            profiles.put(entity.getId(), profile.set(entity, enchantments));
+
+            profileMisses++;
+        }
+        else profileHits++;
+
+        return profile;
+    }
+
+    // Explosion damage
+
+    /** Returns the memoized damage, or {@link Float#NaN} if it hasn't been calculated yet. */
+    static float getExplosionDamage(LivingEntity target, Box box, Vec3d explosionPos, float power, @Nullable BlockPos overridePos, @Nullable BlockState overrideState) {
+        long override = overridePos == null ? Long.MAX_VALUE : overridePos.asLong();
+        Entry entry = memo[hash(target, box, explosionPos, power, override) & (MEMO_SIZE - 1)];
+
+        boolean matches = entry.matches(generation, entityStamps.get(target.getId()), target, box, explosionPos, power, override, overrideState);
+
+        if (mc.isOnThread()) {
+            if (matches) hits++;
+            else misses++;
+        }
+
+        return matches ? entry.damage : Float.NaN;
+    }
+
+    static void putExplosionDamage(LivingEntity target, Box box, Vec3d explosionPos, float power, @Nullable BlockPos overridePos, @Nullable BlockState overrideState, float damage) {
+        if (!mc.isOnThread()) return;
+
+        long override = overridePos == null ? Long.MAX_VALUE : overridePos.asLong();
+        memo[hash(target, box, explosionPos, power, override) & (MEMO_SIZE - 1)].set(generation, entityStamps.get(target.getId()), target, box, explosionPos, power, override, overrideState, damage);
+    }
+
+    private static int hash(LivingEntity target, Box box, Vec3d explosionPos, float power, long override) {
+        long hash = target.getId();
+        hash = hash * 31 + Double.hashCode(box.minX);
+        hash = hash * 31 + Double.hashCode(box.minY);
+        hash = hash * 31 + Double.hashCode(box.minZ);
+        hash = hash * 31 + Double.hashCode(explosionPos.x);
+        hash = hash * 31 + Double.hashCode(explosionPos.y);
+        hash = hash * 31 + Double.hashCode(explosionPos.z);
+        hash = hash * 31 + Float.floatToIntBits(power);
+        hash = hash * 31 + override;
+
+        return (int) HashCommon.mix(hash);
+    }
+
+    // Counters
+
+    public static long getHits() {
+        return hits;
+    }
+
+    public static long getMisses() {
+        return misses;
+    }
+
+    public static long getProfileHits() {
+        return profileHits;
+    }
+
+    public static long getProfileMisses() {
+        return profileMisses;
+    }
+
+    public static void resetCounters() {
+        hits = 0;
+        misses = 0;
+        profileHits = 0;
+        profileMisses = 0;
+    }
+
+    public static class Profile {
+        private LivingEntity entity;
+
+        public float armor, toughness;
+        public int resistance;
+
+        public int protection, fireProtection, blastProtection, projectileProtection, featherFalling;
+
+        private Profile set(LivingEntity entity, Object2IntMap<RegistryEntry<Enchantment>> enchantments) {
+            this.entity = entity;
+
+            armor = (float) Math.floor(entity.getAttributeValue(EntityAttributes.ARMOR));
+            toughness = (float) entity.getAttributeValue(EntityAttributes.ARMOR_TOUGHNESS);
+
+            StatusEffectInstance effect = entity.getStatusEffect(StatusEffects.RESISTANCE);
+            resistance = effect != null ? effect.getAmplifier() + 1 : 0;
+
+            protection = 0;
+            fireProtection = 0;
+            blastProtection = 0;
+            projectileProtection = 0;
+            featherFalling = 0;
+
+            for (EquipmentSlot slot : AttributeModifierSlot.ARMOR) {
+                Utils.getEnchantments(entity.getEquippedStack(slot), enchantments);
+
+                protection += Utils.getEnchantmentLevel(enchantments, Enchantments.PROTECTION);
+                fireProtection += Utils.getEnchantmentLevel(enchantments, Enchantments.FIRE_PROTECTION);
+                blastProtection += Utils.getEnchantmentLevel(enchantments, Enchantments.BLAST_PROTECTION);
+                projectileProtection += Utils.getEnchantmentLevel(enchantments, Enchantments.PROJECTILE_PROTECTION);
+                featherFalling += Utils.getEnchantmentLevel(enchantments, Enchantments.FEATHER_FALLING);
+            }
+
+            return this;
+        }
+    }
+
+    private static class Entry {
+        private int generation, entityStamp;
+
+        private LivingEntity target;
+        private double minX, minY, minZ, maxX, maxY, maxZ;
+        private double explosionX, explosionY, explosionZ;
+        private float power;
+        private long override;
+        private BlockState overrideState;
+
+        private float damage;
+
+        public boolean matches(int generation, int entityStamp, LivingEntity target, Box box, Vec3d explosionPos, float power, long override, BlockState overrideState) {
+            return this.generation == generation && this.entityStamp == entityStamp && this.target == target
+                && minX == box.minX && minY == box.minY && minZ == box.minZ && maxX == box.maxX && maxY == box.maxY && maxZ == box.maxZ
+                && explosionX == explosionPos.x && explosionY == explosionPos.y && explosionZ == explosionPos.z
+                && this.power == power && this.override == override && this.overrideState == overrideState;
+        }
+
+        /** Whether the block at the position is inside the bounds of the rays between the explosion and the box. */
+        public boolean contains(int x, int y, int z) {
+            // One block of margin for the sample offsets and the block the rays start in, like ExplosionExposure
+            return x >= MathHelper.floor(Math.min(explosionX, minX)) - 1 && x <= MathHelper.floor(Math.max(explosionX, maxX)) + 1
+                && y >= MathHelper.floor(Math.min(explosionY, minY)) - 1 && y <= MathHelper.floor(Math.max(explosionY, maxY)) + 1
+                && z >= MathHelper.floor(Math.min(explosionZ, minZ)) - 1 && z <= MathHelper.floor(Math.max(explosionZ, maxZ)) + 1;
+        }
+
+        public void set(int generation, int entityStamp, LivingEntity target, Box box, Vec3d explosionPos, float power, long override, BlockState overrideState, float damage) {
+            this.generation = generation;
+            this.entityStamp = entityStamp;
+            this.target = target;
+
+            minX = box.minX;
+            minY = box.minY;
+            minZ = box.minZ;
+            maxX = box.maxX;
+            maxY = box.maxY;
+            maxZ = box.maxZ;
+
+            explosionX = explosionPos.x;
+            explosionY = explosionPos.y;
+            explosionZ = explosionPos.z;
+
+            this.power = power;
+            this.override = override;
+            this.overrideState = overrideState;
+            this.damage = damage;
+        }
+    }
+}
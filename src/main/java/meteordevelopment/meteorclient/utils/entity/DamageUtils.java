@@ -13,7 +13,6 @@ import meteordevelopment.meteorclient.utils.player.PlayerUtils;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.component.DataComponentTypes;
-import net.minecraft.component.type.AttributeModifierSlot;
 import net.minecraft.component.type.AttributeModifiersComponent;
 import net.minecraft.enchantment.Enchantment;
 import net.minecraft.enchantment.Enchantments;
@@ -41,6 +40,7 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Box;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.BlockView;
+import net.minecraft.world.Difficulty;
 import net.minecraft.world.GameMode;
 import net.minecraft.world.Heightmap;
 import net.minecraft.world.RaycastContext;
@@ -58,8 +58,8 @@ public class DamageUtils {
     // Explosion damage
 
     /**
-     * It is recommended to use this {@link RaycastFactory} unless you implement custom behaviour, as soon:tm: it will be the
-     * target of optimizations to make it more performant.
+     * It is recommended to use this {@link RaycastFactory} unless you implement custom behaviour, exposure calculations
+     * using it are routed through the cached and allocation free {@link ExplosionExposure}.
      * @see BlockView#raycast(RaycastContext)
      */
     public static final RaycastFactory HIT_FACTORY = (context, blockPos) -> {
@@ -90,7 +90,19 @@ public class DamageUtils {
         double modDistance = PlayerUtils.distance(targetPos.x, targetPos.y, targetPos.z, explosionPos.x, explosionPos.y, explosionPos.z);
         if (modDistance > power) return 0f;
 
-        double exposure = getExposure(explosionPos, targetBox, raycastFactory);
+        double exposure = raycastFactory == HIT_FACTORY ? ExplosionExposure.getExposure(explosionPos, targetBox) : getExposure(explosionPos, targetBox, raycastFactory);
+        return exposureDamage(target, modDistance, exposure, power);
+    }
+
+    private static float explosionDamage(LivingEntity target, Vec3d targetPos, Box targetBox, Vec3d explosionPos, float power, @Nullable BlockPos overridePos, @Nullable BlockState overrideState) {
+        double modDistance = PlayerUtils.distance(targetPos.x, targetPos.y, targetPos.z, explosionPos.x, explosionPos.y, explosionPos.z);
+        if (modDistance > power) return 0f;
+
+        double exposure = ExplosionExposure.getExposure(explosionPos, targetBox, overridePos, overrideState);
+        return exposureDamage(target, modDistance, exposure, power);
+    }
+
+    private static float exposureDamage(LivingEntity target, double modDistance, double exposure, float power) {
         double impact = (1 - (modDistance / power)) * exposure;
         float damage = (int) ((impact * impact + impact) / 2 * 7 * 12 + 1);
 
@@ -107,6 +119,25 @@ public class DamageUtils {
         return explosionDamage(target, crystal, 12f, false);
     }
 
+    /**
+     * Same as {@link #crystalDamage(LivingEntity, Vec3d, boolean, BlockPos)} but only uses the state captured in the
+     * target, so it can be called from other threads while the client thread waits for them. Exposure is read from
+     * {@link ExplosionExposure}, {@link ExplosionExposure#prefill} the region first.
+     */
+    public static float crystalDamage(@Nullable ExplosionTarget target, Vec3d crystal, BlockPos obsidianPos) {
+        if (target == null || target.immune) return 0f;
+
+        double modDistance = PlayerUtils.distance(target.pos.x, target.pos.y, target.pos.z, crystal.x, crystal.y, crystal.z);
+        if (modDistance > 12f) return 0f;
+
+        double exposure = ExplosionExposure.getExposure(crystal, target.box, obsidianPos, Blocks.OBSIDIAN.getDefaultState());
+
+        double impact = (1 - (modDistance / 12f)) * exposure;
+        float damage = (int) ((impact * impact + impact) / 2 * 7 * 12 + 1);
+
+        return calculateReductions(damage, target.entity, target.difficulty, target.source, target.profile);
+    }
+
     public static float bedDamage(LivingEntity target, Vec3d bed) {
         return explosionDamage(target, bed, 10f, false);
     }
@@ -116,14 +147,14 @@ public class DamageUtils {
     }
 
     private static float overridingExplosionDamage(LivingEntity target, Vec3d explosionPos, float power, boolean predictMovement, BlockPos overridePos, BlockState overrideState) {
-        return explosionDamage(target, explosionPos, power, predictMovement, getOverridingHitFactory(overridePos, overrideState));
+        return explosionDamage(target, explosionPos, power, predictMovement, overridePos, overrideState);
     }
 
     private static float explosionDamage(LivingEntity target, Vec3d explosionPos, float power, boolean predictMovement) {
-        return explosionDamage(target, explosionPos, power, predictMovement, HIT_FACTORY);
+        return explosionDamage(target, explosionPos, power, predictMovement, null, null);
     }
 
-    private static float explosionDamage(LivingEntity target, Vec3d explosionPos, float power, boolean predictMovement, RaycastFactory raycastFactory) {
+    private static float explosionDamage(LivingEntity target, Vec3d explosionPos, float power, boolean predictMovement, @Nullable BlockPos overridePos, @Nullable BlockState overrideState) {
         if (target == null) return 0f;
         if (target instanceof PlayerEntity player && EntityUtils.getGameMode(player) == GameMode.CREATIVE && !(player instanceof FakePlayerEntity)) return 0f;
 
@@ -132,7 +163,14 @@ public class DamageUtils {
         Box box = target.getBoundingBox();
         if (predictMovement) box = box.offset(target.getVelocity());
 
-        return explosionDamage(target, position, box, explosionPos, power, raycastFactory);
+        float damage = DamageCache.getExplosionDamage(target, box, explosionPos, power, overridePos, overrideState);
+
+        if (Float.isNaN(damage)) {
+            damage = explosionDamage(target, position, box, explosionPos, power, overridePos, overrideState);
+            DamageCache.putExplosionDamage(target, box, explosionPos, power, overridePos, overrideState, damage);
+        }
+
+        return damage;
     }
 
     public static RaycastFactory getOverridingHitFactory(BlockPos overridePos, BlockState overrideState) {
@@ -269,69 +307,42 @@ public class DamageUtils {
      * @see LivingEntity#applyDamage(ServerWorld, DamageSource, float)
      */
     public static float calculateReductions(float damage, Entity entity, DamageSource damageSource) {
+        return calculateReductions(damage, entity, mc.world.getDifficulty(), damageSource, entity instanceof LivingEntity livingEntity ? DamageCache.getProfile(livingEntity) : null);
+    }
+
+    private static float calculateReductions(float damage, Entity entity, Difficulty difficulty, DamageSource damageSource, @Nullable DamageCache.Profile profile) {
         if (damageSource.isScaledWithDifficulty()) {
-            switch (mc.world.getDifficulty()) {
+            switch (difficulty) {
                 case EASY     -> damage = Math.min(damage / 2 + 1, damage);
                 case HARD     -> damage *= 1.5f;
             }
         }
 
-        if (entity instanceof LivingEntity livingEntity) { // Armor reduction
-            damage = DamageUtil.getDamageLeft(livingEntity, damage, damageSource, getArmor(livingEntity), (float) livingEntity.getAttributeValue(EntityAttributes.ARMOR_TOUGHNESS));
+        if (entity instanceof LivingEntity livingEntity && profile != null) { // Armor reduction
+            damage = DamageUtil.getDamageLeft(livingEntity, damage, damageSource, profile.armor, profile.toughness);
 
             // Resistance reduction
-            damage = resistanceReduction(livingEntity, damage);
+            damage = resistanceReduction(profile, damage);
 
             // Protection reduction
-            damage = protectionReduction(livingEntity, damage, damageSource);
+            damage = protectionReduction(profile, damage, damageSource);
         }
 
         return Math.max(damage, 0);
     }
 
-    private static float getArmor(LivingEntity entity) {
-        return (float) Math.floor(entity.getAttributeValue(EntityAttributes.ARMOR));
-    }
-
     /**
      * @see LivingEntity#modifyAppliedDamage(DamageSource, float)
      */
-    private static float protectionReduction(LivingEntity player, float damage, DamageSource source) {
+    private static float protectionReduction(DamageCache.Profile profile, float damage, DamageSource source) {
         if (source.isIn(DamageTypeTags.BYPASSES_INVULNERABILITY)) return damage;
 
-        int damageProtection = 0;
-
-        for (EquipmentSlot slot : AttributeModifierSlot.ARMOR) {
-            ItemStack stack = player.getEquippedStack(slot);
-
-            Object2IntMap<RegistryEntry<Enchantment>> enchantments = new Object2IntOpenHashMap<>();
-            Utils.getEnchantments(stack, enchantments);
-
-            int protection = Utils.getEnchantmentLevel(enchantments, Enchantments.PROTECTION);
-            if (protection > 0) {
-                damageProtection += protection;
-            }
-
-            int fireProtection = Utils.getEnchantmentLevel(enchantments, Enchantments.FIRE_PROTECTION);
-            if (fireProtection > 0 && source.isIn(DamageTypeTags.IS_FIRE)) {
-                damageProtection += 2 * fireProtection;
-            }
-
-            int blastProtection = Utils.getEnchantmentLevel(enchantments, Enchantments.BLAST_PROTECTION);
-            if (blastProtection > 0 && source.isIn(DamageTypeTags.IS_EXPLOSION)) {
-                damageProtection += 2 * blastProtection;
-            }
-
-            int projectileProtection = Utils.getEnchantmentLevel(enchantments, Enchantments.PROJECTILE_PROTECTION);
-            if (projectileProtection > 0 && source.isIn(DamageTypeTags.IS_PROJECTILE)) {
-                damageProtection += 2 * projectileProtection;
-            }
+        int damageProtection = profile.protection;
 
-            int featherFalling = Utils.getEnchantmentLevel(enchantments, Enchantments.FEATHER_FALLING);
-            if (featherFalling > 0 && source.isIn(DamageTypeTags.IS_FALL)) {
-                damageProtection += 3 * featherFalling;
-            }
-        }
+        if (source.isIn(DamageTypeTags.IS_FIRE)) damageProtection += 2 * profile.fireProtection;
+        if (source.isIn(DamageTypeTags.IS_EXPLOSION)) damageProtection += 2 * profile.blastProtection;
+        if (source.isIn(DamageTypeTags.IS_PROJECTILE)) damageProtection += 2 * profile.projectileProtection;
+        if (source.isIn(DamageTypeTags.IS_FALL)) damageProtection += 3 * profile.featherFalling;
 
         return DamageUtil.getInflictedDamage(damage, damageProtection);
     }
@@ -339,11 +350,9 @@ public class DamageUtils {
     /**
      * @see LivingEntity#modifyAppliedDamage(DamageSource, float)
      */
-    private static float resistanceReduction(LivingEntity player, float damage) {
-        StatusEffectInstance resistance = player.getStatusEffect(StatusEffects.RESISTANCE);
-        if (resistance != null) {
-            int lvl = resistance.getAmplifier() + 1;
-            damage *= (1 - (lvl * 0.2f));
+    private static float resistanceReduction(DamageCache.Profile profile, float damage) {
+        if (profile.resistance > 0) {
+            damage *= (1 - (profile.resistance * 0.2f));
         }
 
         return Math.max(damage, 0);
@@ -352,7 +361,7 @@ public class DamageUtils {
     /**
      * @see net.minecraft.world.explosion.ExplosionImpl#calculateReceivedDamage(Vec3d, Entity)
      */
-    private static float getExposure(Vec3d source, Box box, RaycastFactory raycastFactory) {
+    static float getExposure(Vec3d source, Box box, RaycastFactory raycastFactory) {
         double xDiff = box.maxX - box.minX;
         double yDiff = box.maxY - box.minY;
         double zDiff = box.maxZ - box.minZ;
@@ -407,4 +416,30 @@ public class DamageUtils {
 
     @FunctionalInterface
     public interface RaycastFactory extends BiFunction<ExposureRaycastContext, BlockPos, BlockHitResult> {}
+
+    /**
+     * The position, bounding box, game mode and damage reductions of an entity at the time it was created, so explosion
+     * damage to it can be calculated off the client thread. Must be created on the client thread.
+     */
+    public static class ExplosionTarget {
+        public final LivingEntity entity;
+
+        private final boolean immune;
+        private final Vec3d pos;
+        private final Box box;
+        private final DamageCache.Profile profile;
+        private final Difficulty difficulty;
+        private final DamageSource source;
+
+        public ExplosionTarget(LivingEntity entity, boolean predictMovement) {
+            this.entity = entity;
+
+            immune = entity instanceof PlayerEntity player && EntityUtils.getGameMode(player) == GameMode.CREATIVE && !(player instanceof FakePlayerEntity);
+            pos = predictMovement ? entity.getEntityPos().add(entity.getVelocity()) : entity.getEntityPos();
+            box = predictMovement ? entity.getBoundingBox().offset(entity.getVelocity()) : entity.getBoundingBox();
+            profile = DamageCache.getProfile(entity);
+            difficulty = mc.world.getDifficulty();
+            source = mc.world.getDamageSources().explosion(null);
+        }
+    }
 }
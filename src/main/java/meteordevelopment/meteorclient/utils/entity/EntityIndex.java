@@ -0,0 +1,201 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.entity;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.events.entity.EntityAddedEvent;
+import meteordevelopment.meteorclient.events.entity.EntityRemovedEvent;
+import meteordevelopment.meteorclient.events.game.GameLeftEvent;
+import meteordevelopment.meteorclient.events.world.TickEvent;
+import meteordevelopment.meteorclient.utils.PreInit;
+import meteordevelopment.meteorclient.utils.entity.fakeplayer.FakePlayerManager;
+import meteordevelopment.orbit.EventHandler;
+import meteordevelopment.orbit.EventPriority;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static meteordevelopment.meteorclient.MeteorClient.mc;
+
+/**
+ * Snapshot of the world's entities and fake players. It is rebuilt lazily, on the first query after a tick started or an
+ * entity was removed, new entities are added to it directly. Entities are bucketed into 16 block wide columns so range queries only visit the columns that overlap the range,
+ * players are also kept in their own list. Must only be used from the client thread.
+ */
+public class EntityIndex {
+    private static final int CELL_SHIFT = 4;
+
+    // Entities can be slightly outside the range by their position but still inside it by their hitbox
+    private static final double MARGIN = 2;
+
+    private static final List<Entity> entities = new ArrayList<>();
+    private static final List<PlayerEntity> players = new ArrayList<>();
+
+    private static final Long2ObjectMap<List<Entity>> cells = new Long2ObjectOpenHashMap<>();
+    private static final List<List<Entity>> cellPool = new ArrayList<>();
+
+    private static boolean dirty = true;
+
+    private static long visited, skipped;
+
+    private EntityIndex() {
+    }
+
+    @PreInit
+    public static void init() {
+        MeteorClient.EVENT_BUS.subscribe(EntityIndex.class);
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST + 1)
+    private static void onTick(TickEvent.Pre event) {
+        dirty = true;
+    }
+
+    @EventHandler
+    private static void onEntityAdded(EntityAddedEvent event) {
+        if (!dirty) add(event.entity);
+    }
+
+    @EventHandler
+    private static void onEntityRemoved(EntityRemovedEvent event) {
+        dirty = true;
+    }
+
+    @EventHandler
+    private static void onGameLeft(GameLeftEvent event) {
+        clear();
+        dirty = true;
+    }
+
+    /** Every entity in the world plus fake players. */
+    public static List<Entity> getEntities() {
+        update();
+        return entities;
+    }
+
+    /** Every player in the world plus fake players. */
+    public static List<PlayerEntity> getPlayers() {
+        update();
+        return players;
+    }
+
+    /**
+     * Visits the entities in the columns overlapping the square of the given range around the position. Entities outside
+     * of the range can still be visited, the action has to check the exact distance itself.
+     */
+    public static void forEachInRange(double x, double z, double range, Consumer<Entity> action) {
+        update();
+
+        range += MARGIN;
+
+        int minX = ((int) Math.floor(x - range)) >> CELL_SHIFT;
+        int minZ = ((int) Math.floor(z - range)) >> CELL_SHIFT;
+        int maxX = ((int) Math.floor(x + range)) >> CELL_SHIFT;
+        int maxZ = ((int) Math.floor(z + range)) >> CELL_SHIFT;
+
+        long count = 0;
+
+        // Ranges larger than the loaded area are cheaper to walk as a plain list
+        if ((long) (maxX - minX + 1) * (maxZ - minZ + 1) > cells.size()) {
+            for (Entity entity : entities) {
+                if (entity.isRemoved()) continue;
+
+                action.accept(entity);
+                count++;
+            }
+        }
+        else {
+            for (int cellX = minX; cellX <= maxX; cellX++) {
+                for (int cellZ = minZ; cellZ <= maxZ; cellZ++) {
+                    List<Entity> cell = cells.get(ChunkPos.toLong(cellX, cellZ));
+                    if (cell == null) continue;
+
+                    for (int i = 0; i < cell.size(); i++) {
+                        Entity entity = cell.get(i);
+                        if (entity.isRemoved()) continue;
+
+                        action.accept(entity);
+                        count++;
+                    }
+                }
+            }
+        }
+
+        visited += count;
+        skipped += entities.size() - count;
+    }
+
+    /** Visits every entity within the range of the local player, see {@link #forEachInRange(double, double, double, Consumer)}. */
+    public static void forEachInRange(double range, Consumer<Entity> action) {
+        forEachInRange(mc.player.getX(), mc.player.getZ(), range, action);
+    }
+
+    private static void update() {
+        if (!dirty) return;
+        dirty = false;
+
+        clear();
+        if (mc.world == null) return;
+
+        for (Entity entity : mc.world.getEntities()) {
+            if (entity != null) add(entity);
+        }
+
+        // Spawned fake players are already part of the world
+        FakePlayerManager.forEach(fp -> {
+            if (fp != null && mc.world.getEntityById(fp.getId()) != fp) add(fp);
+        });
+    }
+
+    private static void add(Entity entity) {
+        entities.add(entity);
+        if (entity instanceof PlayerEntity player) players.add(player);
+
+        long key = ChunkPos.toLong(entity.getBlockX() >> CELL_SHIFT, entity.getBlockZ() >> CELL_SHIFT);
+        List<Entity> cell = cells.get(key);
+
+        if (cell == null) {
+            cell = cellPool.isEmpty() ? new ArrayList<>() : cellPool.removeLast();
+            cells.put(key, cell);
+        }
+
+        cell.add(entity);
+    }
+
+    private static void clear() {
+        for (List<Entity> cell : cells.values()) {
+            cell.clear();
+            cellPool.add(cell);
+        }
+
+        cells.clear();
+        entities.clear();
+        players.clear();
+    }
+
+    // Counters
+
+    /** Number of entities range queries handed to their action. */
+    public static long getVisited() {
+        return visited;
+    }
+
+    /** Number of entities range queries didn't have to look at compared to scanning every entity. */
+    public static long getSkipped() {
+        return skipped;
+    }
+
+    public static void resetCounters() {
+        visited = 0;
+        skipped = 0;
+    }
+}
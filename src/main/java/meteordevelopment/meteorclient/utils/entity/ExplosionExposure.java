@@ -0,0 +1,466 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.entity;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.events.world.BlockUpdateEvent;
+import meteordevelopment.meteorclient.events.world.TickEvent;
+import meteordevelopment.meteorclient.utils.PreInit;
+import meteordevelopment.orbit.EventHandler;
+import meteordevelopment.orbit.EventPriority;
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.util.shape.VoxelShape;
+import net.minecraft.util.shape.VoxelShapes;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static meteordevelopment.meteorclient.MeteorClient.mc;
+
+/**
+ * Allocation free implementation of {@link DamageUtils#HIT_FACTORY} based explosion exposure. Blast resistant collision
+ * shapes around the player are cached in a grid whose cells are only valid for the tick they were filled in, and exposure
+ * results are memoized per explosion position and target box until the next tick or a block update between them.
+ * <p>
+ * Other threads may call {@link #getExposure} while the client thread is blocked waiting for them, for example during
+ * parallel damage calculations. They only read the caches and never write to them, so {@link #prefill} the region they
+ * will need beforehand.
+ * @see net.minecraft.world.explosion.ExplosionImpl#calculateReceivedDamage(Vec3d, net.minecraft.entity.Entity)
+ */
+public class ExplosionExposure {
+    private static final int RADIUS = 24;
+    private static final int SIZE = RADIUS * 2 + 1;
+
+    // Grid cell values, everything above FULL is an index into partialShapes
+    private static final short UNKNOWN = 0;
+    private static final short EMPTY = 1;
+    private static final short FULL = 2;
+
+    private static final double[] NO_BOXES = {};
+    private static final double[] FULL_CUBE = { 0, 0, 0, 1, 1, 1 };
+
+    private static final short[] grid = new short[SIZE * SIZE * SIZE];
+    // Tick each cell was filled in, cells from older ticks count as unknown so the grid never has to be cleared
+    private static final int[] stamps = new int[SIZE * SIZE * SIZE];
+    private static final List<double[]> partialShapes = new ArrayList<>();
+    private static int originX, originY, originZ;
+
+    private static final Reference2ObjectMap<BlockState, double[]> overrideShapes = new Reference2ObjectOpenHashMap<>();
+
+    private static final int MEMO_SIZE = 1024;
+    private static final Entry[] memo = new Entry[MEMO_SIZE];
+    private static int tick = 1;
+
+    private static final BlockPos.Mutable blockPos = new BlockPos.Mutable();
+
+    // Where the blocks are read from, tests replace it with a fake world
+    static BlockShapes shapes = pos -> {
+        BlockState state = mc.world.getBlockState(pos);
+        if (state.getBlock().getBlastResistance() < 600) return VoxelShapes.empty();
+
+        return state.getCollisionShape(mc.world, pos);
+    };
+
+    static {
+        for (int i = 0; i < MEMO_SIZE; i++) memo[i] = new Entry();
+    }
+
+    private ExplosionExposure() {
+    }
+
+    @PreInit
+    public static void init() {
+        MeteorClient.EVENT_BUS.subscribe(ExplosionExposure.class);
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST + 1)
+    private static void onTick(TickEvent.Pre event) {
+        if (mc.player != null) nextTick(mc.player.getBlockX(), mc.player.getBlockY(), mc.player.getBlockZ());
+        else nextTick(originX + RADIUS, originY + RADIUS, originZ + RADIUS);
+    }
+
+    /** Drops everything cached in the last tick and centers the block grid on the position. */
+    static void nextTick(int x, int y, int z) {
+        partialShapes.clear();
+        tick++;
+
+        originX = x - RADIUS;
+        originY = y - RADIUS;
+        originZ = z - RADIUS;
+    }
+
+    @EventHandler
+    private static void onBlockUpdate(BlockUpdateEvent event) {
+        invalidate(event.pos.getX(), event.pos.getY(), event.pos.getZ());
+    }
+
+    static void invalidate(int x, int y, int z) {
+        int i = index(x, y, z);
+        if (i != -1) stamps[i] = 0;
+
+        // Only results whose rays could pass through the block are affected
+        for (Entry entry : memo) {
+            if (entry.tick == tick && entry.contains(x, y, z)) entry.tick = 0;
+        }
+    }
+
+    /** Caches the blocks in the given region so that exposure calculations off the client thread can use them. */
+    public static void prefill(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        for (int x = Math.max(minX, originX); x <= Math.min(maxX, originX + SIZE - 1); x++) {
+            for (int y = Math.max(minY, originY); y <= Math.min(maxY, originY + SIZE - 1); y++) {
+                for (int z = Math.max(minZ, originZ); z <= Math.min(maxZ, originZ + SIZE - 1); z++) {
+                    getBoxes(x, y, z, true);
+                }
+            }
+        }
+    }
+
+    public static float getExposure(Vec3d source, Box box) {
+        return getExposure(source, box, null, null);
+    }
+
+    /**
+     * @param overridePos if not null, the block at this position is treated as {@code overrideState} regardless of its
+     *                    blast resistance
+     */
+    public static float getExposure(Vec3d source, Box box, @Nullable BlockPos overridePos, @Nullable BlockState overrideState) {
+        return getExposure(source, box, overridePos, overrideState, mc.isOnThread());
+    }
+
+    /** Only the client thread may {@code cache}, see the class comment. */
+    static float getExposure(Vec3d source, Box box, @Nullable BlockPos overridePos, @Nullable BlockState overrideState, boolean cache) {
+        long override = overridePos == null || overrideState == null ? Long.MAX_VALUE : overridePos.asLong();
+        double[] overrideBoxes = override == Long.MAX_VALUE ? NO_BOXES : getOverrideBoxes(overridePos, overrideState, cache);
+
+        if (!cache) return computeExposure(source.x, source.y, source.z, box, override, overrideBoxes, false);
+
+        int hash = hash(source.x, source.y, source.z, box, override);
+        Entry entry = memo[hash & (MEMO_SIZE - 1)];
+
+        if (entry.matches(tick, source, box, override, overrideBoxes)) return entry.exposure;
+
+        float exposure = computeExposure(source.x, source.y, source.z, box, override, overrideBoxes, true);
+        entry.set(tick, source, box, override, overrideBoxes, exposure);
+
+        return exposure;
+    }
+
+    private static float computeExposure(double sourceX, double sourceY, double sourceZ, Box box, long override, double[] overrideBoxes, boolean cache) {
+        double xDiff = box.maxX - box.minX;
+        double yDiff = box.maxY - box.minY;
+        double zDiff = box.maxZ - box.minZ;
+
+        double xStep = 1 / (xDiff * 2 + 1);
+        double yStep = 1 / (yDiff * 2 + 1);
+        double zStep = 1 / (zDiff * 2 + 1);
+
+        if (xStep > 0 && yStep > 0 && zStep > 0) {
+            int misses = 0;
+            int hits = 0;
+
+            double xOffset = (1 - Math.floor(1 / xStep) * xStep) * 0.5;
+            double zOffset = (1 - Math.floor(1 / zStep) * zStep) * 0.5;
+
+            xStep = xStep * xDiff;
+            yStep = yStep * yDiff;
+            zStep = zStep * zDiff;
+
+            double startX = box.minX + xOffset;
+            double startY = box.minY;
+            double startZ = box.minZ + zOffset;
+            double endX = box.maxX + xOffset;
+            double endY = box.maxY;
+            double endZ = box.maxZ + zOffset;
+
+            for (double x = startX; x <= endX; x += xStep) {
+                for (double y = startY; y <= endY; y += yStep) {
+                    for (double z = startZ; z <= endZ; z += zStep) {
+                        if (!raycast(x, y, z, sourceX, sourceY, sourceZ, override, overrideBoxes, cache)) misses++;
+
+                        hits++;
+                    }
+                }
+            }
+
+            return (float) misses / hits;
+        }
+
+        return 0f;
+    }
+
+    /**
+     * Same block traversal as {@link net.minecraft.world.BlockView#raycast}, returns true if the segment hits a blast
+     * resistant block.
+     */
+    private static boolean raycast(double startX, double startY, double startZ, double endX, double endY, double endZ, long override, double[] overrideBoxes, boolean cache) {
+        if (startX == endX && startY == endY && startZ == endZ) return false;
+
+        double dirX = endX - startX;
+        double dirY = endY - startY;
+        double dirZ = endZ - startZ;
+
+        // VoxelShape#raycast ignores segments this short
+        if (dirX * dirX + dirY * dirY + dirZ * dirZ < 1.0E-7) return false;
+
+        double toX = MathHelper.lerp(-1.0E-7, endX, startX);
+        double toY = MathHelper.lerp(-1.0E-7, endY, startY);
+        double toZ = MathHelper.lerp(-1.0E-7, endZ, startZ);
+        double fromX = MathHelper.lerp(-1.0E-7, startX, endX);
+        double fromY = MathHelper.lerp(-1.0E-7, startY, endY);
+        double fromZ = MathHelper.lerp(-1.0E-7, startZ, endZ);
+
+        int x = MathHelper.floor(fromX);
+        int y = MathHelper.floor(fromY);
+        int z = MathHelper.floor(fromZ);
+
+        if (hitsBlock(x, y, z, startX, startY, startZ, dirX, dirY, dirZ, override, overrideBoxes, cache)) return true;
+
+        double dx = toX - fromX;
+        double dy = toY - fromY;
+        double dz = toZ - fromZ;
+
+        int signX = MathHelper.sign(dx);
+        int signY = MathHelper.sign(dy);
+        int signZ = MathHelper.sign(dz);
+
+        double stepX = signX == 0 ? Double.MAX_VALUE : signX / dx;
+        double stepY = signY == 0 ? Double.MAX_VALUE : signY / dy;
+        double stepZ = signZ == 0 ? Double.MAX_VALUE : signZ / dz;
+
+        double tX = stepX * (signX > 0 ? 1 - MathHelper.fractionalPart(fromX) : MathHelper.fractionalPart(fromX));
+        double tY = stepY * (signY > 0 ? 1 - MathHelper.fractionalPart(fromY) : MathHelper.fractionalPart(fromY));
+        double tZ = stepZ * (signZ > 0 ? 1 - MathHelper.fractionalPart(fromZ) : MathHelper.fractionalPart(fromZ));
+
+        while (tX <= 1 || tY <= 1 || tZ <= 1) {
+            if (tX < tY) {
+                if (tX < tZ) {
+                    x += signX;
+                    tX += stepX;
+                }
+                else {
+                    z += signZ;
+                    tZ += stepZ;
+                }
+            }
+            else if (tY < tZ) {
+                y += signY;
+                tY += stepY;
+            }
+            else {
+                z += signZ;
+                tZ += stepZ;
+            }
+
+            if (hitsBlock(x, y, z, startX, startY, startZ, dirX, dirY, dirZ, override, overrideBoxes, cache)) return true;
+        }
+
+        return false;
+    }
+
+    private static boolean hitsBlock(int x, int y, int z, double startX, double startY, double startZ, double dirX, double dirY, double dirZ, long override, double[] overrideBoxes, boolean cache) {
+        double[] boxes = override != Long.MAX_VALUE && BlockPos.asLong(x, y, z) == override ? overrideBoxes : getBoxes(x, y, z, cache);
+        if (boxes.length == 0) return false;
+
+        // Relative to the block
+        startX -= x;
+        startY -= y;
+        startZ -= z;
+
+        // VoxelShape#raycast hits if a point just past the start is inside the shape, otherwise only entered faces count
+        double insideX = startX + dirX * 0.001;
+        double insideY = startY + dirY * 0.001;
+        double insideZ = startZ + dirZ * 0.001;
+
+        for (int i = 0; i < boxes.length; i += 6) {
+            if (contains(boxes, i, insideX, insideY, insideZ)) return true;
+        }
+
+        for (int i = 0; i < boxes.length; i += 6) {
+            if (enters(startX, startY, startZ, dirX, dirY, dirZ, boxes, i)) return true;
+        }
+
+        return false;
+    }
+
+    private static boolean contains(double[] boxes, int i, double x, double y, double z) {
+        return x >= boxes[i] && x < boxes[i + 3]
+            && y >= boxes[i + 1] && y < boxes[i + 4]
+            && z >= boxes[i + 2] && z < boxes[i + 5];
+    }
+
+    /**
+     * Whether the segment start + t * dir, t in (0, 1), enters the box at {@code boxes[i]} through one of its faces.
+     * Same as {@link Box#raycast(Iterable, Vec3d, Vec3d, BlockPos)}, a segment starting inside the box never enters it.
+     */
+    private static boolean enters(double startX, double startY, double startZ, double dirX, double dirY, double dirZ, double[] boxes, int i) {
+        return dirX > 1.0E-7 && entersFace((boxes[i] - startX) / dirX, startY, dirY, boxes[i + 1], boxes[i + 4], startZ, dirZ, boxes[i + 2], boxes[i + 5])
+            || dirX < -1.0E-7 && entersFace((boxes[i + 3] - startX) / dirX, startY, dirY, boxes[i + 1], boxes[i + 4], startZ, dirZ, boxes[i + 2], boxes[i + 5])
+            || dirY > 1.0E-7 && entersFace((boxes[i + 1] - startY) / dirY, startX, dirX, boxes[i], boxes[i + 3], startZ, dirZ, boxes[i + 2], boxes[i + 5])
+            || dirY < -1.0E-7 && entersFace((boxes[i + 4] - startY) / dirY, startX, dirX, boxes[i], boxes[i + 3], startZ, dirZ, boxes[i + 2], boxes[i + 5])
+            || dirZ > 1.0E-7 && entersFace((boxes[i + 2] - startZ) / dirZ, startX, dirX, boxes[i], boxes[i + 3], startY, dirY, boxes[i + 1], boxes[i + 4])
+            || dirZ < -1.0E-7 && entersFace((boxes[i + 5] - startZ) / dirZ, startX, dirX, boxes[i], boxes[i + 3], startY, dirY, boxes[i + 1], boxes[i + 4]);
+    }
+
+    /** Whether the segment crosses the plane of a face at t inside the face's bounds on the two other axes. */
+    private static boolean entersFace(double t, double startA, double dirA, double minA, double maxA, double startB, double dirB, double minB, double maxB) {
+        if (t <= 0 || t >= 1) return false;
+
+        double a = startA + t * dirA;
+        double b = startB + t * dirB;
+
+        return a > minA - 1.0E-7 && a < maxA + 1.0E-7 && b > minB - 1.0E-7 && b < maxB + 1.0E-7;
+    }
+
+    // Block shapes
+
+    private static int index(int x, int y, int z) {
+        x -= originX;
+        y -= originY;
+        z -= originZ;
+
+        if (x < 0 || y < 0 || z < 0 || x >= SIZE || y >= SIZE || z >= SIZE) return -1;
+        return (y * SIZE + z) * SIZE + x;
+    }
+
+    private static double[] getBoxes(int x, int y, int z, boolean cache) {
+        int i = index(x, y, z);
+        if (i == -1) return getWorldBoxes(x, y, z, cache);
+
+        short cell = stamps[i] == tick ? grid[i] : UNKNOWN;
+
+        if (cell == UNKNOWN) {
+            double[] boxes = getWorldBoxes(x, y, z, cache);
+            if (!cache) return boxes;
+
+            if (boxes == NO_BOXES) cell = EMPTY;
+            else if (boxes == FULL_CUBE) cell = FULL;
+            else if (partialShapes.size() < Short.MAX_VALUE - FULL) {
+                partialShapes.add(boxes);
+                cell = (short) (FULL + partialShapes.size());
+            }
+            else return boxes;
+
+            grid[i] = cell;
+            stamps[i] = tick;
+        }
+
+        return switch (cell) {
+            case EMPTY -> NO_BOXES;
+            case FULL -> FULL_CUBE;
+            default -> partialShapes.get(cell - FULL - 1);
+        };
+    }
+
+    private static double[] getWorldBoxes(int x, int y, int z, boolean cache) {
+        BlockPos.Mutable pos = cache ? blockPos : new BlockPos.Mutable();
+
+        return toBoxes(shapes.get(pos.set(x, y, z)));
+    }
+
+    private static double[] getOverrideBoxes(BlockPos pos, BlockState state, boolean cache) {
+        double[] boxes = overrideShapes.get(state);
+
+        if (boxes == null) {
+            boxes = toBoxes(state.getCollisionShape(mc.world, pos));
+            if (cache) overrideShapes.put(state, boxes);
+        }
+
+        return boxes;
+    }
+
+    private static double[] toBoxes(VoxelShape shape) {
+        if (shape.isEmpty()) return NO_BOXES;
+        if (shape == VoxelShapes.fullCube()) return FULL_CUBE;
+
+        List<Box> list = shape.getBoundingBoxes();
+        double[] boxes = new double[list.size() * 6];
+
+        for (int i = 0; i < list.size(); i++) {
+            Box box = list.get(i);
+
+            boxes[i * 6] = box.minX;
+            boxes[i * 6 + 1] = box.minY;
+            boxes[i * 6 + 2] = box.minZ;
+            boxes[i * 6 + 3] = box.maxX;
+            boxes[i * 6 + 4] = box.maxY;
+            boxes[i * 6 + 5] = box.maxZ;
+        }
+
+        return boxes;
+    }
+
+    // Memo
+
+    private static int hash(double x, double y, double z, Box box, long override) {
+        long h = Double.doubleToLongBits(x);
+        h = h * 31 + Double.doubleToLongBits(y);
+        h = h * 31 + Double.doubleToLongBits(z);
+        h = h * 31 + Double.doubleToLongBits(box.minX);
+        h = h * 31 + Double.doubleToLongBits(box.minY);
+        h = h * 31 + Double.doubleToLongBits(box.minZ);
+        h = h * 31 + Double.doubleToLongBits(box.maxX);
+        h = h * 31 + Double.doubleToLongBits(box.maxY);
+        h = h * 31 + Double.doubleToLongBits(box.maxZ);
+        h = h * 31 + override;
+
+        return (int) HashCommon.mix(h);
+    }
+
+    /** Returns the collision shape of the block at the position if it is blast resistant, an empty shape otherwise. */
+    @FunctionalInterface
+    interface BlockShapes {
+        VoxelShape get(BlockPos pos);
+    }
+
+    private static class Entry {
+        private int tick;
+        private double x, y, z;
+        private double minX, minY, minZ, maxX, maxY, maxZ;
+        private long override;
+        private double[] overrideBoxes;
+        private float exposure;
+
+        public boolean matches(int tick, Vec3d source, Box box, long override, double[] overrideBoxes) {
+            return this.tick == tick
+                && x == source.x && y == source.y && z == source.z
+                && minX == box.minX && minY == box.minY && minZ == box.minZ
+                && maxX == box.maxX && maxY == box.maxY && maxZ == box.maxZ
+                && this.override == override && this.overrideBoxes == overrideBoxes;
+        }
+
+        /** Whether the block at the position is inside the bounds of the rays between the source and the box. */
+        public boolean contains(int x, int y, int z) {
+            // One block of margin for the sample offsets and the block the rays start in
+            return x >= MathHelper.floor(Math.min(this.x, minX)) - 1 && x <= MathHelper.floor(Math.max(this.x, maxX)) + 1
+                && y >= MathHelper.floor(Math.min(this.y, minY)) - 1 && y <= MathHelper.floor(Math.max(this.y, maxY)) + 1
+                && z >= MathHelper.floor(Math.min(this.z, minZ)) - 1 && z <= MathHelper.floor(Math.max(this.z, maxZ)) + 1;
+        }
+
+        public void set(int tick, Vec3d source, Box box, long override, double[] overrideBoxes, float exposure) {
+            this.tick = tick;
+            this.x = source.x;
+            this.y = source.y;
+            this.z = source.z;
+            this.minX = box.minX;
+            this.minY = box.minY;
+            this.minZ = box.minZ;
+            this.maxX = box.maxX;
+            this.maxY = box.maxY;
+            this.maxZ = box.maxZ;
+            this.override = override;
+            this.overrideBoxes = overrideBoxes;
+            this.exposure = exposure;
+        }
+    }
+}
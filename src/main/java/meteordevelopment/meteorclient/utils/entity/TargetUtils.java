@@ -8,7 +8,6 @@ package meteordevelopment.meteorclient.utils.entity;
 import meteordevelopment.meteorclient.systems.friends.Friends;
 import meteordevelopment.meteorclient.utils.Utils;
 import meteordevelopment.meteorclient.utils.entity.fakeplayer.FakePlayerEntity;
-import meteordevelopment.meteorclient.utils.entity.fakeplayer.FakePlayerManager;
 import meteordevelopment.meteorclient.utils.player.PlayerUtils;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.PlayerEntity;
@@ -38,34 +37,106 @@ public class TargetUtils {
         return null;
     }
 
+    /** Same as {@link #get(Predicate, SortPriority)} but only looks at entities around the player, see {@link EntityIndex}. */
+    @Nullable
+    public static Entity get(double range, Predicate<Entity> isGood, SortPriority sortPriority) {
+        ENTITIES.clear();
+        getList(ENTITIES, range, isGood, sortPriority, 1);
+        if (!ENTITIES.isEmpty()) {
+            return ENTITIES.getFirst();
+        }
+
+        return null;
+    }
+
     public static void getList(List<Entity> targetList, Predicate<Entity> isGood, SortPriority sortPriority, int maxCount) {
         targetList.clear();
+        if (maxCount <= 0) return;
 
-        for (Entity entity : mc.world.getEntities()) {
-            if (entity != null && isGood.test(entity)) targetList.add(entity);
+        for (Entity entity : EntityIndex.getEntities()) {
+            if (!entity.isRemoved() && isGood.test(entity)) offer(targetList, entity, sortPriority, maxCount);
         }
 
-        FakePlayerManager.forEach(fp -> {
-            if (fp != null && isGood.test(fp)) targetList.add(fp);
+        targetList.sort(sortPriority);
+    }
+
+    /**
+     * Same as {@link #getList(List, Predicate, SortPriority, int)} but only looks at entities around the player, the
+     * predicate still needs to check the exact range.
+     */
+    public static void getList(List<Entity> targetList, double range, Predicate<Entity> isGood, SortPriority sortPriority, int maxCount) {
+        targetList.clear();
+        if (maxCount <= 0) return;
+
+        EntityIndex.forEachInRange(range, entity -> {
+            if (isGood.test(entity)) offer(targetList, entity, sortPriority, maxCount);
         });
 
         targetList.sort(sortPriority);
-        // fast list trimming
-        if (targetList.size() > maxCount) {
-            targetList.subList(maxCount, targetList.size()).clear();
-        }
     }
 
     @Nullable
     public static PlayerEntity getPlayerTarget(double range, SortPriority priority) {
         if (!Utils.canUpdate()) return null;
-        return (PlayerEntity) get(entity -> {
-            if (!(entity instanceof PlayerEntity) || entity == mc.player) return false;
-            if (((PlayerEntity) entity).isDead() || ((PlayerEntity) entity).getHealth() <= 0) return false;
-            if (!PlayerUtils.isWithin(entity, range)) return false;
-            if (!Friends.get().shouldAttack((PlayerEntity) entity)) return false;
-            return EntityUtils.getGameMode((PlayerEntity) entity) == GameMode.SURVIVAL || entity instanceof FakePlayerEntity;
-        }, priority);
+
+        PlayerEntity best = null;
+
+        for (PlayerEntity player : EntityIndex.getPlayers()) {
+            if (player == mc.player || player.isRemoved()) continue;
+            if (player.isDead() || player.getHealth() <= 0) continue;
+            if (!PlayerUtils.isWithin(player, range)) continue;
+            if (!Friends.get().shouldAttack(player)) continue;
+            if (EntityUtils.getGameMode(player) != GameMode.SURVIVAL && !(player instanceof FakePlayerEntity)) continue;
+
+            if (best == null || priority.compare(player, best) < 0) best = player;
+        }
+
+        return best;
+    }
+
+    // Top k selection, the target list is kept as a heap with the worst of the best entities at its root until the end
+
+    private static void offer(List<Entity> heap, Entity entity, SortPriority sortPriority, int maxCount) {
+        if (heap.size() < maxCount) {
+            heap.add(entity);
+            siftUp(heap, heap.size() - 1, sortPriority);
+        }
+        else if (sortPriority.compare(entity, heap.getFirst()) < 0) {
+            heap.set(0, entity);
+            siftDown(heap, 0, sortPriority);
+        }
+    }
+
+    private static void siftUp(List<Entity> heap, int i, SortPriority sortPriority) {
+        Entity entity = heap.get(i);
+
+        while (i > 0) {
+            int parent = (i - 1) >> 1;
+            if (sortPriority.compare(entity, heap.get(parent)) <= 0) break;
+
+            heap.set(i, heap.get(parent));
+            i = parent;
+        }
+
+        heap.set(i, entity);
+    }
+
+    private static void siftDown(List<Entity> heap, int i, SortPriority sortPriority) {
+        Entity entity = heap.get(i);
+        int size = heap.size();
+
+        while (true) {
+            int child = (i << 1) + 1;
+            if (child >= size) break;
+
+            if (child + 1 < size && sortPriority.compare(heap.get(child + 1), heap.get(child)) > 0) child++;
+            if (sortPriority.compare(heap.get(child), entity) <= 0) break;
+
+            heap.set(i, heap.get(child));
+            i = child;
+        }
+
+        heap.set(i, entity);
     }
 
     public static boolean isBadTarget(PlayerEntity target, double range) {
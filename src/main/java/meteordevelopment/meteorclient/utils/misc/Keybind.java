@@ -16,6 +16,8 @@ import java.util.Objects;
 import static org.lwjgl.glfw.GLFW.*;
 
 public class Keybind implements ISerializable<Keybind>, ICopyable<Keybind> {
+    private static int changes;
+
     private boolean isKey;
     private int value;
     private int modifiers;
@@ -60,6 +62,8 @@ public class Keybind implements ISerializable<Keybind>, ICopyable<Keybind> {
         this.isKey = isKey;
         this.value = value;
         this.modifiers = modifiers;
+
+        changes++;
     }
 
     @Override
@@ -68,9 +72,15 @@ public class Keybind implements ISerializable<Keybind>, ICopyable<Keybind> {
         this.value = value.value;
         this.modifiers = value.modifiers;
 
+        changes++;
         return this;
     }
 
+    /** Incremented every time any keybind changes, used to tell when keybind lookup tables need to be rebuilt. */
+    public static int getChanges() {
+        return changes;
+    }
+
     public void reset() {
         set(true, GLFW_KEY_UNKNOWN, 0);
     }
@@ -181,6 +191,7 @@ public class Keybind implements ISerializable<Keybind>, ICopyable<Keybind> {
         value = tag.getInt("value", 0);
         modifiers = tag.getInt("modifiers", 0);
 
+        changes++;
         return this;
     }
 }
@@ -0,0 +1,209 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.misc;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrays;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Fuzzy search over a fixed set of entries, each with one or more terms. A sorted array of every suffix of every
+ * lowercase term, and of the word initials of multi word terms, returns the entries containing the query, or whose
+ * initials start with it ("ka" finds Kill Aura), with one binary search. Those are ranked first with
+ * {@link SearchUtils#searchLevenshteinDefault}, the remaining entries are only ranked when the candidates don't fill the
+ * requested number of results, so typos still find something. Ties keep insertion order.
+ */
+public class SearchIndex<T> {
+    private final List<T> entries = new ArrayList<>();
+    private final List<String[]> terms = new ArrayList<>();
+
+    // Indexed strings and the entry each of them belongs to
+    private final List<String> keys = new ArrayList<>();
+    private final IntList owners = new IntArrayList();
+
+    // Key index << 32 | offset, sorted by the suffix starting at offset. Built on the first search after an add.
+    private final LongArrayList suffixes = new LongArrayList();
+    private boolean sorted;
+
+    public void add(T entry, String... entryTerms) {
+        int id = entries.size();
+
+        String[] lowercase = new String[entryTerms.length];
+        for (int i = 0; i < entryTerms.length; i++) {
+            lowercase[i] = entryTerms[i].toLowerCase(Locale.ROOT);
+
+            String term = lowercase[i];
+            addKey(term, id);
+
+            String initials = initials(term);
+            if (initials.length() > 1) addKey(initials, id);
+        }
+
+        entries.add(entry);
+        terms.add(lowercase);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /** Returns every entry, best match first. */
+    public List<T> search(String query) {
+        return search(query, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the best {@code limit} entries. Entries with a term containing the query or whose initials start with it
+     * come first, the rest is filled with the remaining entries ranked the same way.
+     */
+    public List<T> search(String query, int limit) {
+        String filter = query.toLowerCase(Locale.ROOT);
+        if (filter.isEmpty()) return new ArrayList<>(entries.subList(0, Math.min(limit, entries.size())));
+
+        IntArrayList candidates = substringCandidates(filter);
+        List<T> results = new ArrayList<>(Math.min(limit, entries.size()));
+
+        rank(filter, candidates, limit, results);
+
+        if (results.size() < limit) {
+            // Candidates are sorted, so everything else is what lies between them
+            IntArrayList rest = new IntArrayList(entries.size() - candidates.size());
+
+            for (int id = 0, i = 0; id < entries.size(); id++) {
+                if (i < candidates.size() && candidates.getInt(i) == id) i++;
+                else rest.add(id);
+            }
+
+            rank(filter, rest, limit, results);
+        }
+
+        return results;
+    }
+
+    private void rank(String filter, IntList ids, int limit, List<T> results) {
+        long[] ranked = new long[ids.size()];
+
+        for (int i = 0; i < ranked.length; i++) {
+            int id = ids.getInt(i);
+
+            int score = Integer.MAX_VALUE;
+            for (String term : terms.get(id)) score = Math.min(score, SearchUtils.levenshteinDistance(filter, term, 1, 8, 8));
+
+            ranked[i] = ((long) score << 32) | id;
+        }
+
+        LongArrays.quickSort(ranked);
+
+        for (int i = 0; i < ranked.length && results.size() < limit; i++) results.add(entries.get((int) ranked[i]));
+    }
+
+    private IntArrayList substringCandidates(String filter) {
+        if (!sorted) {
+            LongArrays.quickSort(suffixes.elements(), 0, suffixes.size(), this::compareSuffixes);
+            sorted = true;
+        }
+
+        // First suffix not before the filter, every suffix starting with the filter follows it
+        int low = 0, high = suffixes.size();
+
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+
+            if (compare(suffixes.getLong(mid), filter) < 0) low = mid + 1;
+            else high = mid;
+        }
+
+        IntArrayList ids = new IntArrayList();
+
+        for (int i = low; i < suffixes.size(); i++) {
+            long suffix = suffixes.getLong(i);
+            if (!keys.get(key(suffix)).startsWith(filter, offset(suffix))) break;
+
+            ids.add(owners.getInt(key(suffix)));
+        }
+
+        return unique(ids);
+    }
+
+    private void addKey(String key, int id) {
+        int index = keys.size();
+
+        keys.add(key);
+        owners.add(id);
+
+        for (int offset = 0; offset < key.length(); offset++) suffixes.add(((long) index << 32) | offset);
+        sorted = false;
+    }
+
+    private int compareSuffixes(long a, long b) {
+        String keyA = keys.get(key(a)), keyB = keys.get(key(b));
+        int i = offset(a), j = offset(b);
+
+        while (i < keyA.length() && j < keyB.length()) {
+            int c = Character.compare(keyA.charAt(i++), keyB.charAt(j++));
+            if (c != 0) return c;
+        }
+
+        return Integer.compare(keyA.length() - i, keyB.length() - j);
+    }
+
+    private int compare(long suffix, String filter) {
+        String key = keys.get(key(suffix));
+        int i = offset(suffix), j = 0;
+
+        while (i < key.length() && j < filter.length()) {
+            int c = Character.compare(key.charAt(i++), filter.charAt(j++));
+            if (c != 0) return c;
+        }
+
+        return Integer.compare(key.length() - i, filter.length() - j);
+    }
+
+    private static int key(long suffix) {
+        return (int) (suffix >>> 32);
+    }
+
+    private static int offset(long suffix) {
+        return (int) suffix;
+    }
+
+    private static String initials(String term) {
+        StringBuilder sb = new StringBuilder();
+        boolean start = true;
+
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+
+            if (c == ' ' || c == '-') start = true;
+            else if (start) {
+                sb.append(c);
+                start = false;
+            }
+        }
+
+        return sb.toString();
+    }
+
+    private static IntArrayList unique(IntArrayList ids) {
+        if (ids.size() < 2) return ids;
+
+        IntArrays.quickSort(ids.elements(), 0, ids.size());
+
+        int size = 1;
+        for (int i = 1; i < ids.size(); i++) {
+            if (ids.getInt(i) != ids.getInt(size - 1)) ids.set(size++, ids.getInt(i));
+        }
+
+        ids.size(size);
+        return ids;
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.network;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.events.packets.PacketEvent;
+import meteordevelopment.orbit.ICancellable;
+import meteordevelopment.orbit.IEventBus;
+import meteordevelopment.orbit.listeners.ConsumerListener;
+import net.minecraft.network.packet.Packet;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Dispatches {@link PacketEvent}s only to the listeners that declared the packet classes they handle. Listeners are
+ * grouped by priority and each group is a single listener on the event bus, so they keep their place among the regular
+ * {@link meteordevelopment.orbit.EventHandler}s. Within a group the handlers for a packet class are resolved once and
+ * stored in a per class array, packets no listener asked for cost one lookup.
+ * <p>
+ * Listeners are subscribed and unsubscribed from the client thread, dispatch happens on whichever thread posts the event.
+ */
+public class PacketRouter<E> {
+    public static final PacketRouter<PacketEvent.Receive> RECEIVE = new PacketRouter<>(() -> MeteorClient.EVENT_BUS, PacketEvent.Receive.class, event -> event.packet);
+    public static final PacketRouter<PacketEvent.Send> SEND = new PacketRouter<>(() -> MeteorClient.EVENT_BUS, PacketEvent.Send.class, event -> event.packet);
+    public static final PacketRouter<PacketEvent.Sent> SENT = new PacketRouter<>(() -> MeteorClient.EVENT_BUS, PacketEvent.Sent.class, event -> event.packet);
+
+    private static final Consumer<?>[] EMPTY = new Consumer<?>[0];
+
+    // A supplier so that creating a router does not load the client
+    private final Supplier<IEventBus> bus;
+    private final Class<E> eventClass;
+    private final Function<E, Packet<?>> packetGetter;
+
+    private final Int2ObjectMap<Group> groups = new Int2ObjectOpenHashMap<>();
+
+    PacketRouter(Supplier<IEventBus> bus, Class<E> eventClass, Function<E, Packet<?>> packetGetter) {
+        this.bus = bus;
+        this.eventClass = eventClass;
+        this.packetGetter = packetGetter;
+    }
+
+    public Listener listener(int priority, Consumer<E> handler) {
+        return new Listener(priority, handler);
+    }
+
+    private Group getGroup(int priority) {
+        Group group = groups.get(priority);
+
+        if (group == null) {
+            group = new Group(priority);
+            groups.put(priority, group);
+        }
+
+        return group;
+    }
+
+    public class Listener {
+        private final int priority;
+        private final Consumer<E> handler;
+
+        private Set<Class<?>> packets = Set.of();
+        private boolean subscribed;
+
+        private Listener(int priority, Consumer<E> handler) {
+            this.priority = priority;
+            this.handler = handler;
+        }
+
+        /** Sets the packet classes this listener handles, only packets of exactly these classes are dispatched to it. */
+        public Listener packets(Collection<? extends Class<?>> packets) {
+            this.packets = new ReferenceOpenHashSet<>(packets);
+            if (subscribed) getGroup(priority).rebuild();
+
+            return this;
+        }
+
+        @SafeVarargs
+        public final Listener packets(Class<? extends Packet<?>>... packets) {
+            return packets(List.of(packets));
+        }
+
+        public void subscribe() {
+            if (subscribed) return;
+
+            subscribed = true;
+            getGroup(priority).add(this);
+        }
+
+        public void unsubscribe() {
+            if (!subscribed) return;
+
+            subscribed = false;
+            getGroup(priority).remove(this);
+        }
+
+        public boolean isSubscribed() {
+            return subscribed;
+        }
+
+        private boolean handles(Class<?> packet) {
+            return packets.contains(packet);
+        }
+    }
+
+    private class Group {
+        private final List<Listener> listeners = new ArrayList<>();
+        private final ConsumerListener<E> busListener;
+
+        private volatile ClassValue<Consumer<?>[]> handlers;
+
+        private Group(int priority) {
+            this.busListener = new ConsumerListener<>(eventClass, priority, this::dispatch);
+        }
+
+        private void add(Listener listener) {
+            listeners.add(listener);
+            rebuild();
+
+            if (listeners.size() == 1) bus.get().subscribe(busListener);
+        }
+
+        private void remove(Listener listener) {
+            listeners.remove(listener);
+            rebuild();
+
+            if (listeners.isEmpty()) bus.get().unsubscribe(busListener);
+        }
+
+        /** Replaces the lookup table, handler arrays are then resolved lazily per packet class. */
+        private void rebuild() {
+            List<Listener> snapshot = List.copyOf(listeners);
+
+            handlers = new ClassValue<>() {
+                @Override
+                protected Consumer<?>[] computeValue(Class<?> packet) {
+                    List<Consumer<?>> list = new ArrayList<>(1);
+
+                    for (Listener listener : snapshot) {
+                        if (listener.handles(packet)) list.add(listener.handler);
+                    }
+
+                    return list.isEmpty() ? EMPTY : list.toArray(new Consumer<?>[0]);
+                }
+            };
+        }
+
+        @SuppressWarnings("unchecked")
+        private void dispatch(E event) {
+            Consumer<?>[] array = handlers.get(packetGetter.apply(event).getClass());
+
+            for (Consumer<?> handler : array) {
+                ((Consumer<E>) handler).accept(event);
+                if (event instanceof ICancellable cancellable && cancellable.isCancelled()) break;
+            }
+        }
+    }
+}
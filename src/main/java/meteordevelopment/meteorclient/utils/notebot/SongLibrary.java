@@ -0,0 +1,297 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.notebot;
+
+import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.utils.notebot.decoder.SongDecoders;
+import meteordevelopment.meteorclient.utils.notebot.song.Note;
+import meteordevelopment.meteorclient.utils.notebot.song.Song;
+import net.minecraft.block.enums.NoteBlockInstrument;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Index of the songs in the notebot folder. The title, author, length and required notes of every song are stored in
+ * a cache file keyed by file name, modification time and size, so a song is only decoded again after it changed. The
+ * folder is scanned and watched on a background thread, readers get an immutable snapshot.
+ * <p>
+ * Songs can also be decoded ahead of time with {@link #preload(Path)}, {@link #load(File)} then reuses that result.
+ */
+public class SongLibrary {
+    public static final Path FOLDER = MeteorClient.FOLDER.toPath().resolve("notebot");
+    private static final File CACHE_FILE = new File(MeteorClient.FOLDER, "notebot-library.bin");
+    private static final int CACHE_VERSION = 1;
+
+    private static final int MAX_PRELOADED = 4;
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task);
+        thread.setDaemon(true);
+        thread.setName("Meteor-Notebot");
+        return thread;
+    });
+
+    private static volatile List<Entry> entries = List.of();
+    private static volatile int version;
+
+    // Path -> decoded song, oldest first
+    private static final Map<Path, Preloaded> preloaded = new LinkedHashMap<>();
+
+    private static boolean started;
+
+    private SongLibrary() {
+    }
+
+    /** Loads the cache, scans the folder and starts watching it, only does something the first time it is called. */
+    public static synchronized void start() {
+        if (started) return;
+        started = true;
+
+        EXECUTOR.execute(() -> {
+            entries = readCache();
+            version++;
+
+            scan();
+        });
+
+        Thread watcher = new Thread(SongLibrary::watch);
+        watcher.setDaemon(true);
+        watcher.setName("Meteor-Notebot-Watcher");
+        watcher.start();
+    }
+
+    /** Sorted snapshot of the indexed songs. */
+    public static List<Entry> getEntries() {
+        start();
+        return entries;
+    }
+
+    /** Incremented every time the entries change. */
+    public static int getVersion() {
+        return version;
+    }
+
+    public static void refresh() {
+        start();
+        EXECUTOR.execute(SongLibrary::scan);
+    }
+
+    // Loading
+
+    /** Starts decoding the song in the background so a later {@link #load(File)} doesn't have to wait for it. */
+    public static void preload(Path path) {
+        synchronized (preloaded) {
+            if (preloaded.containsKey(path)) return;
+
+            if (preloaded.size() >= MAX_PRELOADED) {
+                Iterator<Preloaded> it = preloaded.values().iterator();
+                it.next().future.cancel(false);
+                it.remove();
+            }
+
+            preloaded.put(path, new Preloaded(lastModified(path), CompletableFuture.supplyAsync(() -> decode(path.toFile()))));
+        }
+    }
+
+    /** Decodes and finishes the song in the background, using the preloaded song if there is one and the file didn't change. */
+    public static CompletableFuture<Song> load(File file) {
+        Preloaded entry;
+
+        synchronized (preloaded) {
+            entry = preloaded.remove(file.toPath());
+        }
+
+        CompletableFuture<Song> decoded = entry != null && entry.modified == lastModified(file.toPath()) && !entry.future.isCompletedExceptionally()
+            ? entry.future
+            : CompletableFuture.supplyAsync(() -> decode(file));
+
+        return decoded.thenApplyAsync(SongDecoders::finish);
+    }
+
+    private static Song decode(File file) {
+        try {
+            return SongDecoders.decode(file);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    // Scanning
+
+    private static void scan() {
+        Map<String, Entry> old = new HashMap<>();
+        for (Entry entry : entries) old.put(entry.fileName, entry);
+
+        List<Entry> list = new ArrayList<>();
+        boolean changed = false;
+
+        try (Stream<Path> paths = Files.list(FOLDER)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                if (!SongDecoders.hasDecoder(path) || !Files.isRegularFile(path)) continue;
+
+                String fileName = path.getFileName().toString();
+                long modified = Files.getLastModifiedTime(path).toMillis();
+                long size = Files.size(path);
+
+                Entry entry = old.get(fileName);
+
+                if (entry == null || entry.modified != modified || entry.size != size) {
+                    entry = read(path, modified, size);
+                    changed = true;
+                }
+
+                list.add(entry);
+            }
+        } catch (NoSuchFileException ignored) {
+        } catch (IOException e) {
+            MeteorClient.LOG.error("Error scanning notebot songs.", e);
+        }
+
+        if (list.size() != old.size()) changed = true;
+        if (!changed) return;
+
+        list.sort(Comparator.comparing(entry -> entry.fileName.toLowerCase(Locale.ROOT)));
+
+        entries = Collections.unmodifiableList(list);
+        version++;
+
+        writeCache(list);
+    }
+
+    private static Entry read(Path path, long modified, long size) {
+        String fileName = path.getFileName().toString();
+
+        try {
+            Song song = SongDecoders.decode(path.toFile());
+
+            int instruments = 0;
+            for (Note note : song.getRequirements()) {
+                if (note.getInstrument() != null) instruments |= 1 << note.getInstrument().ordinal();
+            }
+
+            return new Entry(path, fileName, modified, size, Objects.requireNonNullElse(song.getTitle(), ""), Objects.requireNonNullElse(song.getAuthor(), ""), song.getLastTick(), song.getNoteCount(), song.getRequirements().size(), instruments);
+        } catch (Exception e) {
+            MeteorClient.LOG.warn("Error reading notebot song '{}'.", fileName, e);
+            return new Entry(path, fileName, modified, size, "", "", 0, -1, 0, 0);
+        }
+    }
+
+    /** Watches the folder and scans it again after something in it changed. */
+    private static void watch() {
+        try (WatchService service = FileSystems.getDefault().newWatchService()) {
+            FOLDER.toFile().mkdirs();
+            FOLDER.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+            while (true) {
+                WatchKey key = service.take();
+
+                // Copying many songs at once fires many events, wait for them to settle
+                Thread.sleep(500);
+                key.pollEvents();
+                key.reset();
+
+                EXECUTOR.execute(SongLibrary::scan);
+            }
+        } catch (InterruptedException ignored) {
+        } catch (IOException e) {
+            MeteorClient.LOG.error("Error watching notebot folder, changes will only show up after a refresh.", e);
+        }
+    }
+
+    // Cache
+
+    private static List<Entry> readCache() {
+        if (!CACHE_FILE.exists()) return List.of();
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(CACHE_FILE)))) {
+            if (in.readInt() != CACHE_VERSION) return List.of();
+
+            int count = in.readInt();
+            List<Entry> list = new ArrayList<>(count);
+
+            for (int i = 0; i < count; i++) {
+                String fileName = in.readUTF();
+                list.add(new Entry(FOLDER.resolve(fileName), fileName, in.readLong(), in.readLong(), in.readUTF(), in.readUTF(), in.readInt(), in.readInt(), in.readInt(), in.readInt()));
+            }
+
+            return Collections.unmodifiableList(list);
+        } catch (IOException e) {
+            MeteorClient.LOG.warn("Error reading notebot library cache, rebuilding it.", e);
+            return List.of();
+        }
+    }
+
+    /** Writes to a temporary file first, a crash or a second scan never leaves a half written cache behind. */
+    private static void writeCache(List<Entry> list) {
+        try {
+            Path dir = CACHE_FILE.getParentFile().toPath();
+            Files.createDirectories(dir);
+
+            Path tempFile = Files.createTempFile(dir, CACHE_FILE.getName(), ".tmp");
+
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                    out.writeInt(CACHE_VERSION);
+                    out.writeInt(list.size());
+
+                    for (Entry entry : list) {
+                        out.writeUTF(entry.fileName);
+                        out.writeLong(entry.modified);
+                        out.writeLong(entry.size);
+                        out.writeUTF(entry.title);
+                        out.writeUTF(entry.author);
+                        out.writeInt(entry.length);
+                        out.writeInt(entry.notes);
+                        out.writeInt(entry.requirements);
+                        out.writeInt(entry.instruments);
+                    }
+                }
+
+                try {
+                    Files.move(tempFile, CACHE_FILE.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tempFile, CACHE_FILE.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (IOException e) {
+            MeteorClient.LOG.error("Error writing notebot library cache.", e);
+        }
+    }
+
+    /**
+     * @param length       Last tick of the song, in game ticks
+     * @param notes        Number of notes, -1 if the song couldn't be decoded
+     * @param requirements Number of distinct notes, the note blocks needed to play it
+     * @param instruments  Bit set of the {@link NoteBlockInstrument} ordinals the song uses
+     */
+    public record Entry(Path path, String fileName, long modified, long size, String title, String author, int length, int notes, int requirements, int instruments) {
+        public boolean isValid() {
+            return notes >= 0;
+        }
+
+        public boolean usesInstrument(NoteBlockInstrument instrument) {
+            return (instruments & (1 << instrument.ordinal())) != 0;
+        }
+    }
+
+    private record Preloaded(long modified, CompletableFuture<Song> future) {}
+}
@@ -5,6 +5,7 @@
 
 package meteordevelopment.meteorclient.utils.notebot.decoder;
 
+import meteordevelopment.meteorclient.MeteorClient;
 import meteordevelopment.meteorclient.systems.modules.Modules;
 import meteordevelopment.meteorclient.systems.modules.misc.Notebot;
 import meteordevelopment.meteorclient.utils.notebot.NotebotUtils;
@@ -14,13 +15,17 @@ import net.minecraft.block.enums.NoteBlockInstrument;
 import org.apache.commons.io.FilenameUtils;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.File;
+import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.HashMap;
 import java.util.Map;
 
 public class SongDecoders {
     private static final Map<String, SongDecoder> decoders = new HashMap<>(); // file extension -> song decoder
+    private static final int CACHE_VERSION = 1;
 
     static {
         registerDecoder("nbs", new NBSSongDecoder());
@@ -52,50 +57,127 @@ public class SongDecoders {
      */
     @NotNull
     public static Song parse(File file) throws Exception {
+        return finish(decode(file));
+    }
+
+    /**
+     * Decodes a file without adapting it to the Notebot settings, see {@link #finish(Song)}. Decoded songs are cached
+     * in the {@code .cache} folder next to the song and reused until the song file changes.
+     *
+     * @param file A song file
+     * @return A {@link Song} object
+     */
+    @NotNull
+    public static Song decode(File file) throws Exception {
         if (!hasDecoder(file)) throw new IllegalStateException("Decoder for this file does not exists!");
-        SongDecoder decoder = getDecoder(file);
-        Song song = decoder.parse(file);
 
-        fixSong(song);
+        File cacheFile = getCacheFile(file);
+        long modified = file.lastModified();
+        long size = file.length();
 
-        song.finishLoading();
+        Song song = readCache(cacheFile, modified, size);
+        if (song != null) return song;
+
+        song = getDecoder(file).parse(file);
+        writeCache(cacheFile, song, modified, size);
 
         return song;
     }
 
+    /**
+     * Adapts a decoded {@link Song} to the current Notebot settings
+     *
+     * @param song A song returned by {@link #decode(File)}
+     * @return A new song with the adapted notes
+     */
+    @NotNull
+    public static Song finish(Song song) {
+        Song fixed = fixSong(song);
+        if (fixed.getNoteCount() == 0) throw new IllegalStateException("Song doesn't have any playable notes!");
+
+        return fixed;
+    }
+
     /**
      * This method adapts {@link Song} to settings in Notebot module
      *
      * @param song A song
      */
-    private static void fixSong(Song song) {
+    private static Song fixSong(Song song) {
         Notebot notebot = Modules.get().get(Notebot.class);
+        boolean exactInstruments = notebot.mode.get() == NotebotUtils.NotebotMode.ExactInstruments;
+
+        Song.Builder fixed = new Song.Builder(song.getTitle(), song.getAuthor());
+
+        for (int i = 0; i < song.getTickCount(); i++) {
+            int tick = song.getTick(i);
+
+            for (int j = song.getTickNotesStart(i), end = song.getTickNotesEnd(i); j < end; j++) {
+                Note note = song.getNote(j);
 
-        var iterator = song.getNotesMap().entries().iterator();
-        while (iterator.hasNext()) {
-            var entry = iterator.next();
-            int tick = entry.getKey();
-            Note note = entry.getValue();
-
-            int n = note.getNoteLevel();
-            if (n < 0 || n > 24) {
-                if (notebot.roundOutOfRange.get()) {
-                    note.setNoteLevel(n < 0 ? 0 : 24);
-                } else {
-                    notebot.warning("Note at tick %d out of range.", tick);
-                    iterator.remove();
-                    continue;
+                int n = note.getNoteLevel();
+                if (n < 0 || n > 24) {
+                    if (notebot.roundOutOfRange.get()) {
+                        n = n < 0 ? 0 : 24;
+                    } else {
+                        notebot.warning("Note at tick %d out of range.", tick);
+                        continue;
+                    }
                 }
-            }
 
-            if (notebot.mode.get() == NotebotUtils.NotebotMode.ExactInstruments) {
-                NoteBlockInstrument newInstrument = notebot.getMappedInstrument(note.getInstrument());
-                if (newInstrument != null) {
-                    note.setInstrument(newInstrument);
+                NoteBlockInstrument instrument = null;
+                if (exactInstruments) {
+                    NoteBlockInstrument newInstrument = notebot.getMappedInstrument(note.getInstrument());
+                    instrument = newInstrument != null ? newInstrument : note.getInstrument();
                 }
-            } else {
-                note.setInstrument(null);
+
+                fixed.add(tick, instrument, n);
+            }
+        }
+
+        return fixed.build();
+    }
+
+    // Cache
+
+    private static File getCacheFile(File file) {
+        return new File(new File(file.getParentFile(), ".cache"), file.getName() + ".song");
+    }
+
+    private static Song readCache(File cacheFile, long modified, long size) {
+        if (!cacheFile.exists()) return null;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+            if (in.readInt() != CACHE_VERSION || in.readLong() != modified || in.readLong() != size) return null;
+            return Song.read(in);
+        } catch (IOException e) {
+            MeteorClient.LOG.warn("Error reading cached song '{}', decoding it again.", cacheFile.getName(), e);
+            return null;
+        }
+    }
+
+    private static void writeCache(File cacheFile, Song song, long modified, long size) {
+        cacheFile.getParentFile().mkdirs();
+
+        // Songs can be decoded from several threads, a partially written cache must never be visible
+        File tempFile = new File(cacheFile.getParentFile(), cacheFile.getName() + "." + Thread.currentThread().threadId() + ".tmp");
+
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                out.writeInt(CACHE_VERSION);
+                out.writeLong(modified);
+                out.writeLong(size);
+                song.write(out);
+            }
+
+            try {
+                Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
             }
+        } catch (IOException e) {
+            tempFile.delete();
+            MeteorClient.LOG.warn("Error caching song '{}'.", cacheFile.getName(), e);
         }
     }
 }
@@ -5,9 +5,6 @@
 
 package meteordevelopment.meteorclient.utils.notebot.decoder;
 
-import com.google.common.collect.Multimap;
-import com.google.common.collect.MultimapBuilder;
-import meteordevelopment.meteorclient.utils.notebot.song.Note;
 import meteordevelopment.meteorclient.utils.notebot.song.Song;
 import net.minecraft.block.enums.NoteBlockInstrument;
 import org.apache.commons.io.FilenameUtils;
@@ -22,18 +19,16 @@ public class TextSongDecoder extends SongDecoder {
     public Song parse(File file) throws Exception {
         List<String> data = Files.readAllLines(file.toPath());
 
-        Multimap<Integer, Note> notesMap = MultimapBuilder.linkedHashKeys().arrayListValues().build();
-        String title = FilenameUtils.getBaseName(file.getName());
-        String author = "Unknown";
+        Song.Builder song = new Song.Builder(FilenameUtils.getBaseName(file.getName()), "Unknown");
 
         for (int lineNumber = 0; lineNumber < data.size(); lineNumber++) {
             String line = data.get(lineNumber);
             if (line.startsWith("// Name: ")) {
-                title = line.substring(9);
+                song.title(line.substring(9));
                 continue;
             }
             if (line.startsWith("// Author: ")) {
-                author = line.substring(11);
+                song.author(line.substring(11));
                 continue;
             }
             if (line.isEmpty()) continue;
@@ -57,9 +52,9 @@ public class TextSongDecoder extends SongDecoder {
                 continue;
             }
 
-            Note note = new Note(NoteBlockInstrument.values()[type], val);
-            notesMap.put(key, note);
+            song.add(key, NoteBlockInstrument.values()[type], val);
         }
-        return new Song(notesMap, title, author);
+
+        return song.build();
     }
 }
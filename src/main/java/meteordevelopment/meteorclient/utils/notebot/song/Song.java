@@ -5,50 +5,107 @@
 
 package meteordevelopment.meteorclient.utils.notebot.song;
 
-import com.google.common.collect.Multimap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.block.enums.NoteBlockInstrument;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
+/**
+ * Notes of a song stored by column. {@code ticks} holds the distinct ticks that have notes in ascending order and
+ * {@code offsets} the range of {@code notes} played at each of them, every note is an instrument and a note level
+ * packed into an int. Equal notes share one {@link Note} instance, so looking notes up while playing doesn't allocate.
+ */
 public class Song {
-    private final Multimap<Integer, Note> notesMap;
-    private int lastTick;
+    private static final NoteBlockInstrument[] INSTRUMENTS = NoteBlockInstrument.values();
+
     private final String title;
     private final String author;
 
-    private final Set<Note> requirements = new HashSet<>();
+    private final int[] ticks;
+    private final int[] offsets;
+    private final int[] notes;
 
-    private boolean finishedLoading = false;
+    private final Int2ObjectMap<Note> palette = new Int2ObjectOpenHashMap<>();
+    private final Set<Note> requirements;
 
-    public Song(Multimap<Integer, Note> notesMap,
-                String title, String author) {
-        this.notesMap = notesMap;
+    private Song(String title, String author, int[] ticks, int[] offsets, int[] notes) {
         this.title = title;
         this.author = author;
+        this.ticks = ticks;
+        this.offsets = offsets;
+        this.notes = notes;
+
+        for (int note : notes) {
+            if (!palette.containsKey(note)) palette.put(note, new Note(instrument(note), level(note)));
+        }
+
+        this.requirements = Collections.unmodifiableSet(new HashSet<>(palette.values()));
     }
 
-    public void finishLoading() {
-        if (finishedLoading) throw new IllegalStateException("Song has already finished loading!");
+    // Lookups
+
+    /** Index of the tick in {@link #ticks}, or a negative value if no note is played at it. */
+    private int indexOf(int tick) {
+        return Arrays.binarySearch(ticks, tick);
+    }
+
+    public boolean hasNotes(int tick) {
+        return indexOf(tick) >= 0;
+    }
 
-        this.lastTick = Collections.max(notesMap.keySet());
-        this.notesMap.values().stream().distinct().forEach(requirements::add);
+    /** Index of the first note played at the tick, notes of a tick go up to {@link #getNotesEnd(int)}. */
+    public int getNotesStart(int tick) {
+        int i = indexOf(tick);
+        return i < 0 ? 0 : offsets[i];
+    }
+
+    public int getNotesEnd(int tick) {
+        int i = indexOf(tick);
+        return i < 0 ? 0 : offsets[i + 1];
+    }
+
+    public Note getNote(int index) {
+        return palette.get(notes[index]);
+    }
+
+    /** Index of the first note played at the tick at the index, same as {@link #getNotesStart(int)} without the lookup. */
+    public int getTickNotesStart(int index) {
+        return offsets[index];
+    }
 
-        finishedLoading = true;
+    public int getTickNotesEnd(int index) {
+        return offsets[index + 1];
     }
 
-    public Multimap<Integer, Note> getNotesMap() {
-        return notesMap;
+    /** Number of distinct ticks notes are played at. */
+    public int getTickCount() {
+        return ticks.length;
+    }
+
+    /** The tick at the index, ticks are in ascending order. */
+    public int getTick(int index) {
+        return ticks[index];
+    }
+
+    public int getNoteCount() {
+        return notes.length;
     }
 
     public Set<Note> getRequirements() {
-        if (!finishedLoading) throw new IllegalStateException("Song is still loading!");
         return requirements;
     }
 
     public int getLastTick() {
-        if (!finishedLoading) throw new IllegalStateException("Song is still loading!");
-        return lastTick;
+        return ticks.length == 0 ? 0 : ticks[ticks.length - 1];
     }
 
     public String getTitle() {
@@ -58,4 +115,138 @@ public class Song {
     public String getAuthor() {
         return author;
     }
+
+    // Packing
+
+    public static int pack(@Nullable NoteBlockInstrument instrument, int noteLevel) {
+        return ((instrument == null ? 0 : instrument.ordinal() + 1) << 16) | (noteLevel & 0xFFFF);
+    }
+
+    @Nullable
+    private static NoteBlockInstrument instrument(int packed) {
+        int ordinal = packed >>> 16;
+        return ordinal == 0 ? null : INSTRUMENTS[ordinal - 1];
+    }
+
+    private static int level(int packed) {
+        return (short) packed;
+    }
+
+    // Serialization
+
+    public void write(DataOutputStream out) throws IOException {
+        out.writeUTF(title);
+        out.writeUTF(author);
+
+        out.writeInt(ticks.length);
+        for (int i = 0; i < ticks.length; i++) {
+            out.writeInt(ticks[i]);
+            out.writeInt(offsets[i + 1] - offsets[i]);
+        }
+
+        out.writeInt(notes.length);
+        for (int note : notes) out.writeInt(note);
+    }
+
+    public static Song read(DataInputStream in) throws IOException {
+        String title = in.readUTF();
+        String author = in.readUTF();
+
+        int tickCount = in.readInt();
+        int[] ticks = new int[tickCount];
+        int[] offsets = new int[tickCount + 1];
+
+        for (int i = 0; i < tickCount; i++) {
+            ticks[i] = in.readInt();
+            offsets[i + 1] = offsets[i] + in.readInt();
+        }
+
+        int noteCount = in.readInt();
+        if (noteCount != offsets[tickCount]) throw new IOException("Note count doesn't match the ticks.");
+
+        int[] notes = new int[noteCount];
+        for (int i = 0; i < noteCount; i++) notes[i] = in.readInt();
+
+        return new Song(title, author, ticks, offsets, notes);
+    }
+
+    /**
+     * Collects notes in any order, notes of the same tick keep the order they were added in.
+     */
+    public static class Builder {
+        private String title;
+        private String author;
+
+        private final IntArrayList ticks = new IntArrayList();
+        private final IntArrayList notes = new IntArrayList();
+        private boolean sorted = true;
+
+        public Builder(String title, String author) {
+            this.title = title;
+            this.author = author;
+        }
+
+        public Builder title(String title) {
+            this.title = title;
+            return this;
+        }
+
+        public Builder author(String author) {
+            this.author = author;
+            return this;
+        }
+
+        public Builder add(int tick, @Nullable NoteBlockInstrument instrument, int noteLevel) {
+            if (!ticks.isEmpty() && tick < ticks.getInt(ticks.size() - 1)) sorted = false;
+
+            ticks.add(tick);
+            notes.add(pack(instrument, noteLevel));
+
+            return this;
+        }
+
+        public int size() {
+            return notes.size();
+        }
+
+        public Song build() {
+            int count = notes.size();
+            int[] noteTicks = ticks.toIntArray();
+            int[] packed = notes.toIntArray();
+
+            if (!sorted) {
+                // Sort by tick and then by insertion index, which keeps it stable
+                long[] order = new long[count];
+                for (int i = 0; i < count; i++) order[i] = ((long) noteTicks[i] << 32) | i;
+                Arrays.sort(order);
+
+                int[] sortedTicks = new int[count];
+                int[] sortedNotes = new int[count];
+
+                for (int i = 0; i < count; i++) {
+                    int index = (int) order[i];
+                    sortedTicks[i] = noteTicks[index];
+                    sortedNotes[i] = packed[index];
+                }
+
+                noteTicks = sortedTicks;
+                packed = sortedNotes;
+            }
+
+            // Collapse the ticks into distinct ticks and offsets
+            IntArrayList distinct = new IntArrayList();
+            IntArrayList offsets = new IntArrayList();
+
+            for (int i = 0; i < count; i++) {
+                if (i == 0 || noteTicks[i] != noteTicks[i - 1]) {
+                    distinct.add(noteTicks[i]);
+                    offsets.add(i);
+                }
+            }
+
+            offsets.add(count);
+
+            return new Song(title, author, distinct.toIntArray(), offsets.toIntArray(), packed);
+        }
+    }
 }
@@ -0,0 +1,119 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.render;
+
+import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.renderer.text.FontInfo;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Family and type of every system font file seen so far, keyed by path, size and modification time. Files that aren't
+ * valid fonts are stored too, so a file is only opened again after it changed.
+ */
+public class FontCache {
+    private static final File FILE = new File(MeteorClient.FOLDER, "font-cache.bin");
+    private static final int VERSION = 1;
+
+    private static final FontInfo.Type[] TYPES = FontInfo.Type.values();
+
+    private FontCache() {
+    }
+
+    public static Map<String, Entry> read() {
+        Map<String, Entry> entries = new HashMap<>();
+        if (!FILE.exists()) return entries;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(FILE)))) {
+            if (in.readInt() != VERSION) return entries;
+
+            int count = in.readInt();
+
+            for (int i = 0; i < count; i++) {
+                String path = in.readUTF();
+                long size = in.readLong();
+                long modified = in.readLong();
+                FontInfo info = in.readBoolean() ? new FontInfo(in.readUTF(), TYPES[in.readByte()]) : null;
+
+                entries.put(path, new Entry(path, size, modified, info));
+            }
+        } catch (IOException | ArrayIndexOutOfBoundsException e) {
+            MeteorClient.LOG.warn("Error reading font cache, rebuilding it.", e);
+            entries.clear();
+        }
+
+        return entries;
+    }
+
+    /** Each write gets its own temporary file, so refreshes running at the same time can't mix their output. */
+    public static void write(Collection<Entry> entries) {
+        try {
+            Path dir = FILE.getParentFile().toPath();
+            Files.createDirectories(dir);
+
+            Path tempFile = Files.createTempFile(dir, FILE.getName(), ".tmp");
+
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                    out.writeInt(VERSION);
+                    out.writeInt(entries.size());
+
+                    for (Entry entry : entries) {
+                        out.writeUTF(entry.path);
+                        out.writeLong(entry.size);
+                        out.writeLong(entry.modified);
+                        out.writeBoolean(entry.info != null);
+
+                        if (entry.info != null) {
+                            out.writeUTF(entry.info.family());
+                            out.writeByte(entry.info.type().ordinal());
+                        }
+                    }
+                }
+
+                try {
+                    Files.move(tempFile, FILE.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tempFile, FILE.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (IOException e) {
+            MeteorClient.LOG.error("Error writing font cache.", e);
+        }
+    }
+
+    /**
+     * @param info Family and type of the font, null if the file isn't a font that can be loaded
+     */
+    public record Entry(String path, long size, long modified, @Nullable FontInfo info) {
+        public boolean matches(File file) {
+            return size == file.length() && modified == file.lastModified();
+        }
+
+        /** Opens the file and reads its names, can be called from any thread. */
+        public static Entry scan(File file) {
+            FontInfo info;
+
+            try (InputStream in = new FileInputStream(file)) {
+                info = FontUtils.getFontInfo(in);
+            } catch (Exception e) {
+                info = null;
+            }
+
+            return new Entry(file.getAbsolutePath(), file.length(), file.lastModified(), info);
+        }
+    }
+}
@@ -28,10 +28,6 @@ public class FontUtils {
     private FontUtils() {
     }
 
-    public static FontInfo getSysFontInfo(File file) {
-        return getFontInfo(stream(file));
-    }
-
     public static FontInfo getBuiltinFontInfo(String builtin) {
         return getFontInfo(stream(builtin));
     }
@@ -105,34 +101,27 @@ public class FontUtils {
         }
     }
 
-    public static void loadSystem(List<FontFamily> fontList, File dir) {
+    /** Collects the font files in the directory and its subdirectories. */
+    public static void findSystem(File dir, List<File> fontFiles) {
         if (!dir.exists() || !dir.isDirectory()) return;
 
         File[] files = dir.listFiles((file) -> (file.isFile() && file.getName().endsWith(".ttf") || file.isDirectory()));
         if (files == null) return;
 
         for (File file : files) {
-            if (file.isDirectory()) {
-                loadSystem(fontList, file);
-                continue;
-            }
-
-            FontInfo fontInfo = FontUtils.getSysFontInfo(file);
-            if (fontInfo == null) continue;
-
-            boolean isBuiltin = false;
-            for (String builtinFont : Fonts.BUILTIN_FONTS) {
-                if (builtinFont.equals(fontInfo.family())) {
-                    isBuiltin = true;
-                    break;
-                }
-            }
-            if (isBuiltin) continue;
-
-            FontFace fontFace = new SystemFontFace(fontInfo, file.toPath());
-            if (!addFont(fontList, fontFace)) {
-                MeteorClient.LOG.warn("Failed to load system font {}", fontFace);
-            }
+            if (file.isDirectory()) findSystem(file, fontFiles);
+            else fontFiles.add(file);
+        }
+    }
+
+    public static void loadSystem(List<FontFamily> fontList, FontInfo fontInfo, File file) {
+        for (String builtinFont : Fonts.BUILTIN_FONTS) {
+            if (builtinFont.equals(fontInfo.family())) return;
+        }
+
+        FontFace fontFace = new SystemFontFace(fontInfo, file.toPath());
+        if (!addFont(fontList, fontFace)) {
+            MeteorClient.LOG.warn("Failed to load system font {}", fontFace);
         }
     }
 
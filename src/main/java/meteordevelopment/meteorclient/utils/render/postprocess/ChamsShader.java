@@ -106,7 +106,7 @@ public class ChamsShader extends EntityShader {
     @Override
     public boolean shouldDraw(Entity entity) {
         if (!shouldDraw()) return false;
-        return chams.entities.get().contains(entity.getType()) && (entity != mc.player || !chams.ignoreSelfDepth.get());
+        return chams.entities.contains(entity.getType()) && (entity != mc.player || !chams.ignoreSelfDepth.get());
     }
 
     // Uniforms
@@ -69,6 +69,7 @@ public abstract class Prompt<T> {
     protected void dontShowAgain(PromptScreen screen) {
         if (screen.dontShowAgainCheckbox != null && screen.dontShowAgainCheckbox.checked && id != null) {
             Config.get().dontShowAgainPrompts.add(id);
+            Config.get().markDirty();
         }
     }
 
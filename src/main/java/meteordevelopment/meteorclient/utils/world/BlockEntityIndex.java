@@ -0,0 +1,261 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.world;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.events.game.GameLeftEvent;
+import meteordevelopment.meteorclient.events.world.BlockUpdateEvent;
+import meteordevelopment.meteorclient.events.world.ChunkDataEvent;
+import meteordevelopment.meteorclient.events.world.ChunkUnloadEvent;
+import meteordevelopment.meteorclient.utils.PreInit;
+import meteordevelopment.meteorclient.utils.Utils;
+import meteordevelopment.orbit.EventHandler;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.block.entity.BlockEntityType;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.WorldChunk;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static meteordevelopment.meteorclient.MeteorClient.mc;
+
+/**
+ * Index of the loaded block entities by their {@link BlockEntityType}, each type keeps its block entities bucketed by
+ * chunk. Iterating a type only visits block entities of that type and range queries only visit the chunks overlapping
+ * the range. Kept up to date from chunk loads, chunk unloads and block updates. Must only be used from the client thread.
+ */
+public class BlockEntityIndex {
+    // Type -> chunk pos -> block entities
+    private static final Reference2ObjectMap<BlockEntityType<?>, Long2ObjectMap<List<BlockEntity>>> types = new Reference2ObjectOpenHashMap<>();
+
+    // Block pos -> block entity, to find out what was at a position when it changes
+    private static final Long2ObjectMap<BlockEntity> positions = new Long2ObjectOpenHashMap<>();
+
+    private static ClientWorld world;
+
+    private BlockEntityIndex() {
+    }
+
+    @PreInit
+    public static void init() {
+        MeteorClient.EVENT_BUS.subscribe(BlockEntityIndex.class);
+    }
+
+    @EventHandler
+    private static void onChunkData(ChunkDataEvent event) {
+        if (!checkWorld()) return;
+
+        unloadChunk(event.chunk().getPos().x, event.chunk().getPos().z);
+        loadChunk(event.chunk());
+    }
+
+    @EventHandler
+    private static void onChunkUnload(ChunkUnloadEvent event) {
+        if (!checkWorld()) return;
+
+        unloadChunk(event.pos().x, event.pos().z);
+    }
+
+    @EventHandler
+    private static void onBlockUpdate(BlockUpdateEvent event) {
+        if (!checkWorld()) return;
+        if (!event.oldState.hasBlockEntity() && !event.newState.hasBlockEntity()) return;
+
+        long key = event.pos.asLong();
+
+        BlockEntity old = positions.get(key);
+        BlockEntity blockEntity = mc.world.getWorldChunk(event.pos).getBlockEntities().get(event.pos);
+        if (old == blockEntity) return;
+
+        if (old != null) remove(old);
+        if (blockEntity != null) add(blockEntity);
+    }
+
+    @EventHandler
+    private static void onGameLeft(GameLeftEvent event) {
+        clear();
+        world = null;
+    }
+
+    /** Visits every loaded block entity of the given type. */
+    public static void forEach(BlockEntityType<?> type, Consumer<BlockEntity> action) {
+        if (!checkWorld()) return;
+
+        Long2ObjectMap<List<BlockEntity>> chunks = types.get(type);
+        if (chunks == null) return;
+
+        for (List<BlockEntity> chunk : chunks.values()) visit(chunk, action);
+    }
+
+    /**
+     * Visits the block entities of the given type in the chunks overlapping the square of the given range around the
+     * position. Block entities outside of the range can still be visited, the action has to check the exact distance itself.
+     */
+    public static void forEachInRange(BlockEntityType<?> type, double x, double z, double range, Consumer<BlockEntity> action) {
+        findInRange(type, x, z, range, blockEntity -> {
+            action.accept(blockEntity);
+            return false;
+        });
+    }
+
+    /** Visits the block entities of the given type around the local player, see {@link #forEachInRange(BlockEntityType, double, double, double, Consumer)}. */
+    public static void forEachInRange(BlockEntityType<?> type, double range, Consumer<BlockEntity> action) {
+        forEachInRange(type, mc.player.getX(), mc.player.getZ(), range, action);
+    }
+
+    /**
+     * Returns the first block entity of the given type that matches the predicate, looking only in the chunks
+     * overlapping the square of the given range around the position. The predicate has to check the exact distance itself.
+     */
+    public static @Nullable BlockEntity findInRange(BlockEntityType<?> type, double x, double z, double range, Predicate<BlockEntity> predicate) {
+        if (!checkWorld()) return null;
+
+        Long2ObjectMap<List<BlockEntity>> chunks = types.get(type);
+        if (chunks == null) return null;
+
+        int minX = ((int) Math.floor(x - range)) >> 4;
+        int minZ = ((int) Math.floor(z - range)) >> 4;
+        int maxX = ((int) Math.floor(x + range)) >> 4;
+        int maxZ = ((int) Math.floor(z + range)) >> 4;
+
+        // Types spread over fewer chunks than the range covers are cheaper to walk directly
+        if ((long) (maxX - minX + 1) * (maxZ - minZ + 1) > chunks.size()) {
+            for (Long2ObjectMap.Entry<List<BlockEntity>> entry : chunks.long2ObjectEntrySet()) {
+                int chunkX = ChunkPos.getPackedX(entry.getLongKey());
+                int chunkZ = ChunkPos.getPackedZ(entry.getLongKey());
+                if (chunkX < minX || chunkX > maxX || chunkZ < minZ || chunkZ > maxZ) continue;
+
+                BlockEntity found = find(entry.getValue(), predicate);
+                if (found != null) return found;
+            }
+        }
+        else {
+            for (int chunkX = minX; chunkX <= maxX; chunkX++) {
+                for (int chunkZ = minZ; chunkZ <= maxZ; chunkZ++) {
+                    List<BlockEntity> chunk = chunks.get(ChunkPos.toLong(chunkX, chunkZ));
+                    if (chunk == null) continue;
+
+                    BlockEntity found = find(chunk, predicate);
+                    if (found != null) return found;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /** Finds a block entity around the local player, see {@link #findInRange(BlockEntityType, double, double, double, Predicate)}. */
+    public static @Nullable BlockEntity findInRange(BlockEntityType<?> type, double range, Predicate<BlockEntity> predicate) {
+        return findInRange(type, mc.player.getX(), mc.player.getZ(), range, predicate);
+    }
+
+    public static @Nullable BlockEntity get(BlockPos pos) {
+        if (!checkWorld()) return null;
+        return positions.get(pos.asLong());
+    }
+
+    /** Number of indexed block entities. */
+    public static int size() {
+        return positions.size();
+    }
+
+    private static @Nullable BlockEntity find(List<BlockEntity> chunk, Predicate<BlockEntity> predicate) {
+        for (int i = 0; i < chunk.size(); i++) {
+            BlockEntity blockEntity = chunk.get(i);
+            if (!blockEntity.isRemoved() && predicate.test(blockEntity)) return blockEntity;
+        }
+
+        return null;
+    }
+
+    private static void visit(List<BlockEntity> chunk, Consumer<BlockEntity> action) {
+        for (int i = 0; i < chunk.size(); i++) {
+            BlockEntity blockEntity = chunk.get(i);
+            if (!blockEntity.isRemoved()) action.accept(blockEntity);
+        }
+    }
+
+    /** Makes sure the index belongs to the current world, rebuilding it after a dimension change. */
+    private static boolean checkWorld() {
+        if (mc.world == world) return world != null;
+
+        clear();
+        world = mc.world;
+        if (world == null) return false;
+
+        for (Chunk chunk : Utils.chunks()) {
+            if (chunk instanceof WorldChunk worldChunk) loadChunk(worldChunk);
+        }
+
+        return true;
+    }
+
+    private static void loadChunk(WorldChunk chunk) {
+        for (BlockEntity blockEntity : chunk.getBlockEntities().values()) add(blockEntity);
+    }
+
+    private static void unloadChunk(int chunkX, int chunkZ) {
+        long key = ChunkPos.toLong(chunkX, chunkZ);
+
+        for (Long2ObjectMap<List<BlockEntity>> chunks : types.values()) {
+            List<BlockEntity> chunk = chunks.remove(key);
+            if (chunk == null) continue;
+
+            for (BlockEntity blockEntity : chunk) positions.remove(blockEntity.getPos().asLong());
+        }
+    }
+
+    private static void add(BlockEntity blockEntity) {
+        BlockEntity old = positions.put(blockEntity.getPos().asLong(), blockEntity);
+        if (old == blockEntity) return;
+        if (old != null) removeFromType(old);
+
+        Long2ObjectMap<List<BlockEntity>> chunks = types.computeIfAbsent(blockEntity.getType(), type -> new Long2ObjectOpenHashMap<>());
+        long key = ChunkPos.toLong(blockEntity.getPos().getX() >> 4, blockEntity.getPos().getZ() >> 4);
+
+        List<BlockEntity> chunk = chunks.get(key);
+
+        if (chunk == null) {
+            chunk = new ArrayList<>(4);
+            chunks.put(key, chunk);
+        }
+
+        chunk.add(blockEntity);
+    }
+
+    private static void remove(BlockEntity blockEntity) {
+        positions.remove(blockEntity.getPos().asLong(), blockEntity);
+        removeFromType(blockEntity);
+    }
+
+    private static void removeFromType(BlockEntity blockEntity) {
+        Long2ObjectMap<List<BlockEntity>> chunks = types.get(blockEntity.getType());
+        if (chunks == null) return;
+
+        long key = ChunkPos.toLong(blockEntity.getPos().getX() >> 4, blockEntity.getPos().getZ() >> 4);
+        List<BlockEntity> chunk = chunks.get(key);
+        if (chunk == null) return;
+
+        chunk.remove(blockEntity);
+        if (chunk.isEmpty()) chunks.remove(key);
+    }
+
+    private static void clear() {
+        types.clear();
+        positions.clear();
+    }
+}
@@ -14,10 +14,16 @@ import meteordevelopment.meteorclient.utils.misc.Pool;
 import meteordevelopment.orbit.EventHandler;
 import meteordevelopment.orbit.EventPriority;
 import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.ChunkStatus;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 import java.util.function.BiConsumer;
+import java.util.function.Predicate;
 
 import static meteordevelopment.meteorclient.MeteorClient.mc;
 
@@ -30,6 +36,9 @@ public class BlockIterator {
     private static final BlockPos.Mutable blockPos = new BlockPos.Mutable();
     private static int hRadius, vRadius;
 
+    // active[d] holds the indices, in registration order, of the callbacks whose horizontal radius is at least d
+    private static int[][] active = new int[16][];
+
     private static boolean disableCurrent;
 
     private BlockIterator() {
@@ -44,53 +53,98 @@ public class BlockIterator {
     private static void onTick(TickEvent.Pre event) {
         if (!Utils.canUpdate()) return;
 
-        int px = mc.player.getBlockX();
-        int py = mc.player.getBlockY();
-        int pz = mc.player.getBlockZ();
+        tick(new WorldColumns(), mc.player.getBlockX(), mc.player.getBlockY(), mc.player.getBlockZ());
+    }
+
+    /** Calls the callbacks registered since the last tick for the blocks around the position, then the after callbacks. */
+    static void tick(Columns columns, int px, int py, int pz) {
+        if (!callbacks.isEmpty()) iterate(columns, px, py, pz);
+
+        hRadius = 0;
+        vRadius = 0;
+
+        callbackPool.freeAll(callbacks);
+        callbacks.clear();
+
+        for (Runnable callback : afterCallbacks) callback.run();
+        afterCallbacks.clear();
+    }
+
+    private static void iterate(Columns columns, int px, int py, int pz) {
+        int count = callbacks.size();
+        int remaining = count;
+
+        // Every column only visits the callbacks whose box can contain it, the set only changes at the distinct radii
+        if (active.length <= hRadius) active = new int[hRadius + 1][];
+
+        for (int d = 0, size = -1; d <= hRadius; d++) {
+            int contained = 0;
+            for (int i = 0; i < count; i++) if (callbacks.get(i).hRadius >= d) contained++;
+
+            if (contained != size) {
+                size = contained;
+                active[d] = new int[size];
+
+                for (int i = 0, j = 0; i < count; i++) if (callbacks.get(i).hRadius >= d) active[d][j++] = i;
+            }
+            else active[d] = active[d - 1];
+        }
+
+        int minY = Math.max(columns.getBottomY(), py - vRadius);
+        int maxY = Math.min(py + vRadius, columns.getTopY());
 
         for (int x = px - hRadius; x <= px + hRadius; x++) {
             for (int z = pz - hRadius; z <= pz + hRadius; z++) {
-                for (int y = Math.max(mc.world.getBottomY(), py - vRadius); y <= py + vRadius; y++) {
-                    if (y > mc.world.getHeight()) break;
+                int[] indices = active[Math.max(Math.abs(x - px), Math.abs(z - pz))];
+                if (indices.length == 0) continue;
 
-                    blockPos.set(x, y, z);
-                    BlockState blockState = mc.world.getBlockState(blockPos);
+                columns.setColumn(x, z);
 
-                    int dx = Math.abs(x - px);
+                for (int y = minY; y <= maxY; y++) {
+                    BlockState blockState = columns.getBlockState(y);
                     int dy = Math.abs(y - py);
-                    int dz = Math.abs(z - pz);
 
-                    callbacks.removeIf(callback -> {
-                        if (dx <= callback.hRadius && dy <= callback.vRadius && dz <= callback.hRadius) {
-                            disableCurrent = false;
-                            callback.function.accept(blockPos, blockState);
-                            return disableCurrent;
+                    blockPos.set(x, y, z);
+
+                    for (int i : indices) {
+                        Callback callback = callbacks.get(i);
+
+                        if (callback.disabled || dy > callback.vRadius) continue;
+                        if (callback.filter != null && !callback.filter.test(blockState)) continue;
+
+                        disableCurrent = false;
+                        callback.function.accept(blockPos, blockState);
+
+                        if (disableCurrent) {
+                            callback.disabled = true;
+                            if (--remaining == 0) return;
                         }
-                        return false;
-                    });
+                    }
                 }
             }
         }
-
-        hRadius = 0;
-        vRadius = 0;
-
-        callbackPool.freeAll(callbacks);
-        callbacks.clear();
-
-        for (Runnable callback : afterCallbacks) callback.run();
-        afterCallbacks.clear();
     }
 
     public static void register(int horizontalRadius, int verticalRadius, BiConsumer<BlockPos, BlockState> function) {
+        register(horizontalRadius, verticalRadius, null, function);
+    }
+
+    /**
+     * Registers a callback for the next tick. The callback is only called for blocks that match {@code filter}, a null
+     * filter matches every block. For every block the callbacks containing it are called in the order they were
+     * registered in.
+     */
+    public static void register(int horizontalRadius, int verticalRadius, @Nullable Predicate<BlockState> filter, BiConsumer<BlockPos, BlockState> function) {
         hRadius = Math.max(hRadius, horizontalRadius);
         vRadius = Math.max(vRadius, verticalRadius);
 
         Callback callback = callbackPool.get();
 
         callback.function = function;
+        callback.filter = filter;
         callback.hRadius = horizontalRadius;
         callback.vRadius = verticalRadius;
+        callback.disabled = false;
 
         callbacks.add(callback);
     }
@@ -103,8 +157,59 @@ public class BlockIterator {
         afterCallbacks.add(callback);
     }
 
+    /** Reads the blocks one column at a time, so the chunk is only looked up once per column instead of per block. */
+    interface Columns {
+        int getBottomY();
+
+        int getTopY();
+
+        void setColumn(int x, int z);
+
+        BlockState getBlockState(int y);
+    }
+
+    private static class WorldColumns implements Columns {
+        private Chunk chunk;
+        private int chunkX = Integer.MIN_VALUE, chunkZ = Integer.MIN_VALUE;
+        private int x, z;
+
+        @Override
+        public int getBottomY() {
+            return mc.world.getBottomY();
+        }
+
+        @Override
+        public int getTopY() {
+            return mc.world.getHeight();
+        }
+
+        @Override
+        public void setColumn(int x, int z) {
+            this.x = x;
+            this.z = z;
+
+            if (chunkX != x >> 4 || chunkZ != z >> 4) {
+                chunkX = x >> 4;
+                chunkZ = z >> 4;
+                chunk = mc.world.getChunkManager().getChunk(chunkX, chunkZ, ChunkStatus.FULL, false);
+            }
+        }
+
+        @Override
+        public BlockState getBlockState(int y) {
+            if (chunk == null || mc.world.isOutOfHeightLimit(y)) return Blocks.VOID_AIR.getDefaultState();
+
+            ChunkSection section = chunk.getSectionArray()[chunk.getSectionIndex(y)];
+            if (section == null) return Blocks.VOID_AIR.getDefaultState();
+
+            return section.getBlockState(x & 15, y & 15, z & 15);
+        }
+    }
+
     private static class Callback {
         public BiConsumer<BlockPos, BlockState> function;
+        public Predicate<BlockState> filter;
         public int hRadius, vRadius;
+        public boolean disabled;
     }
 }
@@ -0,0 +1,159 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.world;
+
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.Heightmap;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkSection;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Searches chunks for a fixed set of blocks. Each section's palette is checked first so sections that cannot contain
+ * any of the target blocks are skipped without reading a single block.
+ */
+public class ChunkScanner {
+    private final Set<Block> blocks;
+    private final Predicate<BlockState> predicate;
+    private final boolean includesAir;
+
+    public ChunkScanner(Collection<Block> blocks) {
+        this.blocks = new ReferenceOpenHashSet<>(blocks);
+        this.predicate = state -> this.blocks.contains(state.getBlock());
+        this.includesAir = this.blocks.contains(Blocks.AIR) || this.blocks.contains(Blocks.CAVE_AIR) || this.blocks.contains(Blocks.VOID_AIR);
+    }
+
+    public boolean isEmpty() {
+        return blocks.isEmpty();
+    }
+
+    public boolean contains(Block block) {
+        return blocks.contains(block);
+    }
+
+    public boolean contains(BlockState state) {
+        return blocks.contains(state.getBlock());
+    }
+
+    /** Returns true if the section could contain one of the target blocks, only looks at the section's palette. */
+    public boolean mightContain(ChunkSection section) {
+        if (section == null || blocks.isEmpty()) return false;
+        if (section.isEmpty() && !includesAir) return false;
+
+        return section.hasAny(predicate);
+    }
+
+    /** Calls the consumer with the world coordinates of every matching block in the chunk. */
+    public void scan(Chunk chunk, BlockConsumer consumer) {
+        scan(chunk, null, consumer);
+    }
+
+    /**
+     * Calls the consumer with the world coordinates of every matching block in the chunk below the given heightmap.
+     * Sections above the highest column are skipped entirely.
+     */
+    public void scan(Chunk chunk, @Nullable Heightmap.Type heightmap, BlockConsumer consumer) {
+        if (blocks.isEmpty()) return;
+
+        int[] heights = null;
+
+        if (heightmap != null) {
+            Heightmap map = chunk.getHeightmap(heightmap);
+            heights = new int[16 * 16];
+
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) heights[z * 16 + x] = map.get(x, z);
+            }
+        }
+
+        scan(new ChunkSections(chunk), chunk.getPos().getStartX(), chunk.getPos().getStartZ(), heights, consumer);
+    }
+
+    /** Heights are indexed by {@code z * 16 + x} and can be null, blocks at or above the height of their column are skipped. */
+    void scan(Sections sections, int startX, int startZ, int[] heights, BlockConsumer consumer) {
+        int maxHeight = Integer.MAX_VALUE;
+
+        if (heights != null) {
+            maxHeight = Integer.MIN_VALUE;
+            for (int height : heights) maxHeight = Math.max(maxHeight, height);
+        }
+
+        for (int i = 0; i < sections.size(); i++) {
+            int startY = sections.getStartY(i);
+            if (startY >= maxHeight) break;
+
+            if (sections.isEmpty(i) && !includesAir) continue;
+            if (!sections.hasAny(i, predicate)) continue;
+
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        if (heights != null && startY + y >= heights[z * 16 + x]) continue;
+
+                        BlockState state = sections.getBlockState(i, x, y, z);
+                        if (blocks.contains(state.getBlock())) consumer.accept(startX + x, startY + y, startZ + z, state);
+                    }
+                }
+            }
+        }
+    }
+
+    /** The sections of a chunk from the bottom up, a missing section has no blocks at all. */
+    interface Sections {
+        int size();
+
+        int getStartY(int index);
+
+        boolean isEmpty(int index);
+
+        /** Only looks at the palette of the section. */
+        boolean hasAny(int index, Predicate<BlockState> predicate);
+
+        BlockState getBlockState(int index, int x, int y, int z);
+    }
+
+    private record ChunkSections(Chunk chunk) implements Sections {
+        @Override
+        public int size() {
+            return chunk.getSectionArray().length;
+        }
+
+        @Override
+        public int getStartY(int index) {
+            return ChunkSectionPos.getBlockCoord(chunk.sectionIndexToCoord(index));
+        }
+
+        @Override
+        public boolean isEmpty(int index) {
+            ChunkSection section = chunk.getSectionArray()[index];
+            return section == null || section.isEmpty();
+        }
+
+        @Override
+        public boolean hasAny(int index, Predicate<BlockState> predicate) {
+            ChunkSection section = chunk.getSectionArray()[index];
+            return section != null && section.hasAny(predicate);
+        }
+
+        @Override
+        public BlockState getBlockState(int index, int x, int y, int z) {
+            return chunk.getSectionArray()[index].getBlockState(x, y, z);
+        }
+    }
+
+    @FunctionalInterface
+    public interface BlockConsumer {
+        void accept(int x, int y, int z, BlockState state);
+    }
+}
@@ -0,0 +1,397 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.world;
+
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.events.game.GameLeftEvent;
+import meteordevelopment.meteorclient.events.world.BlockUpdateEvent;
+import meteordevelopment.meteorclient.events.world.ChunkDataEvent;
+import meteordevelopment.meteorclient.events.world.ChunkUnloadEvent;
+import meteordevelopment.meteorclient.mixin.AbstractBlockAccessor;
+import meteordevelopment.meteorclient.utils.PreInit;
+import meteordevelopment.meteorclient.utils.Utils;
+import meteordevelopment.orbit.EventHandler;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.ChunkStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Consumer;
+
+import static meteordevelopment.meteorclient.MeteorClient.mc;
+
+/**
+ * Persistent index of single and double holes, positions surrounded by blast resistant blocks. Holes are classified
+ * once when their chunk is received and reclassified only around changed blocks, radius queries then only visit the
+ * chunk sections overlapping the radius.
+ * <p>
+ * The index only looks at the floor and walls of a hole. Whether there is enough room above it, or whether it can be
+ * placed in, differs between users and has to be checked by them. Only kept up to date while something uses it, see
+ * {@link #acquire()}. Must only be used from the client thread.
+ */
+public class HoleIndex {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final Direction[] HORIZONTALS = { Direction.NORTH, Direction.SOUTH, Direction.WEST, Direction.EAST };
+
+    static final int BEDROCK = 1, OBSIDIAN = 2;
+
+    // Section pos -> block pos -> packed hole
+    private static final Long2ObjectMap<Long2IntMap> sections = new Long2ObjectOpenHashMap<>();
+
+    private static final BlockPos.Mutable blockPos = new BlockPos.Mutable();
+    private static final Hole hole = new Hole();
+    private static int bedrock, obsidian;
+
+    private static int users;
+
+    private HoleIndex() {
+    }
+
+    @PreInit
+    public static void init() {
+        MeteorClient.EVENT_BUS.subscribe(HoleIndex.class);
+    }
+
+    /** Starts keeping the index up to date, every call has to be matched with {@link #release()}. */
+    public static void acquire() {
+        if (users++ > 0 || mc.world == null) return;
+
+        for (Chunk chunk : Utils.chunks()) updateChunk(chunk.getPos().x, chunk.getPos().z);
+    }
+
+    public static void release() {
+        if (users == 0) return;
+        if (--users == 0) clear();
+    }
+
+    @EventHandler
+    private static void onGameLeft(GameLeftEvent event) {
+        clear();
+    }
+
+    @EventHandler
+    private static void onChunkData(ChunkDataEvent event) {
+        if (users > 0) updateChunk(event.chunk().getPos().x, event.chunk().getPos().z);
+    }
+
+    @EventHandler
+    private static void onChunkUnload(ChunkUnloadEvent event) {
+        if (users > 0 && mc.world != null) removeChunk(event.pos().x, event.pos().z);
+    }
+
+    @EventHandler
+    private static void onBlockUpdate(BlockUpdateEvent event) {
+        if (users == 0) return;
+
+        // Only the resistance and collision of blocks matter
+        if (getResistance(event.oldState) == getResistance(event.newState) && isCollidable(event.oldState) == isCollidable(event.newState)) return;
+
+        updateBlock(event.pos.getX(), event.pos.getY(), event.pos.getZ());
+    }
+
+    // Queries
+
+    /**
+     * Visits every hole in the box of the given radii around the player, the same area {@link BlockIterator} covers.
+     * The passed hole is reused between calls.
+     */
+    public static void forEach(int horizontalRadius, int verticalRadius, Consumer<Hole> action) {
+        forEach(mc.player.getBlockX(), mc.player.getBlockY(), mc.player.getBlockZ(), horizontalRadius, verticalRadius, action);
+    }
+
+    static void forEach(int px, int py, int pz, int horizontalRadius, int verticalRadius, Consumer<Hole> action) {
+        int minX = px - horizontalRadius, maxX = px + horizontalRadius;
+        int minY = Math.max(blocks.getBottomY(), py - verticalRadius), maxY = Math.min(py + verticalRadius, blocks.getTopY());
+        int minZ = pz - horizontalRadius, maxZ = pz + horizontalRadius;
+
+        for (int sx = minX >> 4; sx <= maxX >> 4; sx++) {
+            for (int sz = minZ >> 4; sz <= maxZ >> 4; sz++) {
+                if (!blocks.isChunkLoaded(sx, sz)) continue;
+
+                for (int sy = minY >> 4; sy <= maxY >> 4; sy++) {
+                    Long2IntMap holes = sections.get(ChunkSectionPos.asLong(sx, sy, sz));
+                    if (holes == null) continue;
+
+                    for (Long2IntMap.Entry entry : holes.long2IntEntrySet()) {
+                        long pos = entry.getLongKey();
+
+                        int x = BlockPos.unpackLongX(pos);
+                        int y = BlockPos.unpackLongY(pos);
+                        int z = BlockPos.unpackLongZ(pos);
+
+                        if (x < minX || x > maxX || y < minY || y > maxY || z < minZ || z > maxZ) continue;
+
+                        action.accept(hole.set(x, y, z, entry.getIntValue()));
+                    }
+                }
+            }
+        }
+    }
+
+    public static int size() {
+        int size = 0;
+        for (Long2IntMap holes : sections.values()) size += holes.size();
+
+        return size;
+    }
+
+    // Updating
+
+    static void updateChunk(int chunkX, int chunkZ) {
+        int x = chunkX << 4, z = chunkZ << 4;
+
+        // Holes in the neighbouring chunks can use this chunk's blocks as their walls
+        update(x - 2, blocks.getBottomY(), z - 2, x + 15 + 2, blocks.getTopY(), z + 15 + 2);
+    }
+
+    static void removeChunk(int chunkX, int chunkZ) {
+        for (int sy = blocks.getBottomY() >> 4; sy <= blocks.getTopY() >> 4; sy++) {
+            sections.remove(ChunkSectionPos.asLong(chunkX, sy, chunkZ));
+        }
+    }
+
+    static void updateBlock(int x, int y, int z) {
+        // A block can be the floor of the hole above it, or a wall of holes up to two blocks away
+        update(x - 2, y, z - 2, x + 2, y + 1, z + 2);
+    }
+
+    static void clear() {
+        sections.clear();
+    }
+
+    /** Reclassifies every position in the box. */
+    private static void update(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        remove(minX, minY, minZ, maxX, maxY, maxZ);
+
+        // Holes need a resistant floor, so only sections containing a resistant block have to be looked at
+        for (int cx = minX >> 4; cx <= maxX >> 4; cx++) {
+            for (int cz = minZ >> 4; cz <= maxZ >> 4; cz++) {
+                if (!blocks.isChunkLoaded(cx, cz)) continue;
+
+                int startX = Math.max(minX, cx << 4), endX = Math.min(maxX, (cx << 4) + 15);
+                int startZ = Math.max(minZ, cz << 4), endZ = Math.min(maxZ, (cz << 4) + 15);
+
+                int floorMinY = Math.max(minY - 1, blocks.getBottomY());
+                int floorMaxY = Math.min(maxY - 1, blocks.getTopY());
+
+                for (int sy = floorMinY >> 4; sy <= floorMaxY >> 4; sy++) {
+                    if (!blocks.hasResistant(cx, sy, cz)) continue;
+
+                    int startY = Math.max(floorMinY, sy << 4), endY = Math.min(floorMaxY, (sy << 4) + 15);
+
+                    for (int x = startX; x <= endX; x++) {
+                        for (int z = startZ; z <= endZ; z++) {
+                            for (int y = startY; y <= endY; y++) {
+                                if (blocks.getResistance(x, y, z) == 0) continue;
+
+                                int packed = classify(x, y + 1, z, blocks);
+                                if (packed != 0) put(x, y + 1, z, packed);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void remove(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        for (int sx = minX >> 4; sx <= maxX >> 4; sx++) {
+            for (int sz = minZ >> 4; sz <= maxZ >> 4; sz++) {
+                for (int sy = minY >> 4; sy <= maxY >> 4; sy++) {
+                    long key = ChunkSectionPos.asLong(sx, sy, sz);
+
+                    Long2IntMap holes = sections.get(key);
+                    if (holes == null) continue;
+
+                    for (ObjectIterator<Long2IntMap.Entry> it = holes.long2IntEntrySet().iterator(); it.hasNext();) {
+                        long pos = it.next().getLongKey();
+
+                        int x = BlockPos.unpackLongX(pos);
+                        int y = BlockPos.unpackLongY(pos);
+                        int z = BlockPos.unpackLongZ(pos);
+
+                        if (x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ) it.remove();
+                    }
+
+                    if (holes.isEmpty()) sections.remove(key);
+                }
+            }
+        }
+    }
+
+    private static void put(int x, int y, int z, int packed) {
+        long key = ChunkSectionPos.asLong(x >> 4, y >> 4, z >> 4);
+        Long2IntMap holes = sections.get(key);
+
+        if (holes == null) {
+            holes = new Long2IntOpenHashMap();
+            sections.put(key, holes);
+        }
+
+        holes.put(BlockPos.asLong(x, y, z), packed);
+    }
+
+    // Classification
+
+    /** The world the index reads, separate from the client world so the index can be tested on its own. */
+    interface Blocks {
+        /** Returns {@link #BEDROCK}, {@link #OBSIDIAN} or 0, see {@link HoleIndex#getResistance(BlockState)}. */
+        int getResistance(int x, int y, int z);
+
+        boolean isCollidable(int x, int y, int z);
+
+        boolean isChunkLoaded(int chunkX, int chunkZ);
+
+        /** Returns false if the chunk section has no resistant block, so it can't contain the floor of a hole. */
+        boolean hasResistant(int chunkX, int sectionY, int chunkZ);
+
+        int getBottomY();
+
+        int getTopY();
+    }
+
+    // Where the blocks are read from, tests replace it with a fake world
+    static Blocks blocks = new Blocks() {
+        @Override
+        public int getResistance(int x, int y, int z) {
+            return HoleIndex.getResistance(getState(x, y, z));
+        }
+
+        @Override
+        public boolean isCollidable(int x, int y, int z) {
+            return HoleIndex.isCollidable(getState(x, y, z));
+        }
+
+        @Override
+        public boolean isChunkLoaded(int chunkX, int chunkZ) {
+            return mc.world.getChunkManager().isChunkLoaded(chunkX, chunkZ);
+        }
+
+        @Override
+        public boolean hasResistant(int chunkX, int sectionY, int chunkZ) {
+            Chunk chunk = mc.world.getChunkManager().getChunk(chunkX, chunkZ, ChunkStatus.FULL, false);
+            if (chunk == null) return false;
+
+            ChunkSection section = chunk.getSectionArray()[chunk.sectionCoordToIndex(sectionY)];
+            return section != null && !section.isEmpty() && section.hasAny(state -> HoleIndex.getResistance(state) != 0);
+        }
+
+        @Override
+        public int getBottomY() {
+            return mc.world.getBottomY();
+        }
+
+        @Override
+        public int getTopY() {
+            return mc.world.getTopYInclusive();
+        }
+    };
+
+    /**
+     * Returns the packed bedrock count, obsidian count and open direction of the hole at the position, or 0 if it isn't
+     * one. Matches what {@link meteordevelopment.meteorclient.systems.modules.render.HoleESP} used to probe for.
+     */
+    static int classify(int x, int y, int z, Blocks blocks) {
+        if (blocks.isCollidable(x, y, z)) return 0;
+
+        bedrock = 0;
+        obsidian = 0;
+        Direction air = null;
+
+        if (!count(blocks, x, y - 1, z)) return 0;
+
+        for (Direction direction : HORIZONTALS) {
+            int ox = x + direction.getOffsetX();
+            int oz = z + direction.getOffsetZ();
+
+            if (count(blocks, ox, y, oz)) continue;
+
+            // At most one side can open into a second hole, which has to be closed everywhere else
+            if (air != null || blocks.isCollidable(ox, y, oz)) return 0;
+            if (!count(blocks, ox, y - 1, oz)) return 0;
+
+            for (Direction dir : HORIZONTALS) {
+                if (dir == direction.getOpposite()) continue;
+                if (!count(blocks, ox + dir.getOffsetX(), y, oz + dir.getOffsetZ())) return 0;
+            }
+
+            air = direction;
+        }
+
+        return bedrock | (obsidian << 4) | ((air == null ? 0 : air.ordinal() + 1) << 8);
+    }
+
+    private static boolean count(Blocks blocks, int x, int y, int z) {
+        switch (blocks.getResistance(x, y, z)) {
+            case BEDROCK -> bedrock++;
+            case OBSIDIAN -> obsidian++;
+            default -> {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static BlockState getState(int x, int y, int z) {
+        return mc.world.getBlockState(blockPos.set(x, y, z));
+    }
+
+    /** Returns {@link #BEDROCK} for unbreakable solid blocks, {@link #OBSIDIAN} for breakable blast resistant ones, otherwise 0. */
+    private static int getResistance(BlockState state) {
+        Block block = state.getBlock();
+        boolean breakable = block.getHardness() >= 0;
+
+        if (((AbstractBlockAccessor) block).meteor$isCollidable() && !breakable) return BEDROCK;
+        if (block.getBlastResistance() >= 600 && breakable) return OBSIDIAN;
+        return 0;
+    }
+
+    private static boolean isCollidable(BlockState state) {
+        return ((AbstractBlockAccessor) state.getBlock()).meteor$isCollidable();
+    }
+
+    public enum Type {
+        Bedrock,
+        Obsidian,
+        Mixed
+    }
+
+    public static class Hole {
+        public final BlockPos.Mutable pos = new BlockPos.Mutable();
+        public int bedrock, obsidian;
+        public Type type;
+
+        /** The side that opens into the second half of a double hole, null for single holes. */
+        @Nullable
+        public Direction air;
+
+        Hole set(int x, int y, int z, int packed) {
+            pos.set(x, y, z);
+
+            bedrock = packed & 15;
+            obsidian = (packed >> 4) & 15;
+
+            int dir = (packed >> 8) & 7;
+            air = dir == 0 ? null : DIRECTIONS[dir - 1];
+
+            int total = bedrock + obsidian;
+            type = obsidian == total ? Type.Obsidian : (bedrock == total ? Type.Bedrock : Type.Mixed);
+
+            return this;
+        }
+    }
+}
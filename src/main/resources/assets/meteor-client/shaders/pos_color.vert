@@ -6,6 +6,7 @@ layout (location = 1) in vec4 color;
 layout (std140) uniform MeshData {
     mat4 u_Proj;
     mat4 u_ModelView;
+    vec4 u_ColorModulator;
 };
 
 out vec4 v_Color;
@@ -13,5 +14,5 @@ out vec4 v_Color;
 void main() {
     gl_Position = u_Proj * u_ModelView * pos;
 
-    v_Color = color;
+    v_Color = color * u_ColorModulator;
 }
@@ -7,6 +7,7 @@ layout (location = 2) in vec4 color;
 layout (std140) uniform MeshData {
     mat4 u_Proj;
     mat4 u_ModelView;
+    vec4 u_ColorModulator;
 };
 
 out vec2 v_TexCoord;
@@ -16,5 +17,5 @@ void main() {
     gl_Position = u_Proj * u_ModelView * pos;
 
     v_TexCoord = texCoords;
-    v_Color = color;
+    v_Color = color * u_ColorModulator;
 }
@@ -0,0 +1,124 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.gui.screens.settings.base;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Checks that searching through an index returns exactly what scoring every value does, in the same order. */
+class SortingHelperTest {
+    private static final String[] WORDS = {
+        "oak", "spruce", "birch", "dark", "stone", "cobbled", "deepslate", "brick", "bricks", "slab", "stairs", "wall",
+        "copper", "waxed", "oxidized", "cut", "diamond", "iron", "gold", "ore", "block", "glass", "pane", "stained",
+        "red", "light", "blue", "sword", "pickaxe", "a", "of", "tnt", "end", "rod", "chest", "minecart", "with"
+    };
+
+    private static final String[] FILTERS = {
+        "d", "o", "sl", "oak", "OAK", "stone brick", "brick stone", "dimond", "diamon sword", "cop", "waxd coper",
+        "Oxidized Cut Copper Stairs", "xyz", "a a", "end rod", "  spruce  ", "q", "deepslate diamond ore", "redd",
+        "stone_bricks", "with", "minecartwithchest", "zzzzzzzzzzzzzzzzzzzz"
+    };
+
+    private final List<Value> registry = generate(1500);
+    private final SortingHelper.Index<Value> index = SortingHelper.index(registry, Value::names);
+
+    @Test
+    void matchesFullScan() {
+        for (String filter : FILTERS) {
+            assertEquals(collect(SortingHelper.sort(registry, value -> true, Value::names, filter)), collect(SortingHelper.sort(index, value -> true, filter)), () -> "Filter '" + filter + "'");
+        }
+    }
+
+    @Test
+    void matchesFullScanWithPredicate() {
+        Predicate<Value> even = value -> value.id % 2 == 0;
+
+        for (String filter : FILTERS) {
+            assertEquals(collect(SortingHelper.sort(registry, even, Value::names, filter)), collect(SortingHelper.sort(index, even, filter)), () -> "Filter '" + filter + "'");
+        }
+    }
+
+    @Test
+    void matchesFullScanWithPriority() {
+        Comparator<Value> priority = Comparator.comparingInt(value -> value.id % 3);
+
+        for (String filter : FILTERS) {
+            assertEquals(
+                collect(SortingHelper.sortWithPriority(registry, value -> true, Value::names, filter, priority)),
+                collect(SortingHelper.sortWithPriority(index, value -> true, filter, priority)),
+                () -> "Filter '" + filter + "'"
+            );
+        }
+    }
+
+    @Test
+    void blankFilterKeepsEverything() {
+        assertEquals(registry, collect(SortingHelper.sort(index, value -> true, " ")));
+    }
+
+    @Test
+    void scoresOnlyCandidates() {
+        int[] tested = new int[1];
+
+        List<Value> found = collect(SortingHelper.sort(index, value -> {
+            tested[0]++;
+            return true;
+        }, "oak"));
+
+        // Names up to twice the filter length stay candidates even without a shared gram, so use a short filter
+        assertFalse(found.isEmpty());
+        assertTrue(tested[0] < registry.size() / 4, () -> tested[0] + " of " + registry.size() + " values were scored.");
+    }
+
+    @Test
+    void missingGramStillFindsCloseNames() {
+        List<Value> values = List.of(new Value(0, "Tnt", "tnt"), new Value(1, "Oak Stairs", "oak_stairs"));
+        SortingHelper.Index<Value> small = SortingHelper.index(values, Value::names);
+
+        // No name contains "tnx", but "tnt" is one substitution away
+        assertEquals(collect(SortingHelper.sort(values, value -> true, Value::names, "tnx")), collect(SortingHelper.sort(small, value -> true, "tnx")));
+    }
+
+    private static List<Value> generate(int count) {
+        Random random = new Random(0);
+        Set<String> seen = new HashSet<>();
+        List<Value> values = new ArrayList<>(count);
+
+        while (values.size() < count) {
+            int words = 1 + random.nextInt(4);
+            StringJoiner id = new StringJoiner("_");
+            StringJoiner title = new StringJoiner(" ");
+
+            for (int i = 0; i < words; i++) {
+                String word = WORDS[random.nextInt(WORDS.length)];
+
+                id.add(word);
+                title.add(Character.toUpperCase(word.charAt(0)) + word.substring(1));
+            }
+
+            if (seen.add(id.toString())) values.add(new Value(values.size(), title.toString(), id.toString()));
+        }
+
+        return values;
+    }
+
+    private static <T> List<T> collect(Iterable<T> iterable) {
+        List<T> list = new ArrayList<>();
+        iterable.forEach(list::add);
+        return list;
+    }
+
+    private record Value(int id, String... names) {
+        @Override
+        public String toString() {
+            return names[1];
+        }
+    }
+}
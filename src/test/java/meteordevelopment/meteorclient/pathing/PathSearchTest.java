@@ -0,0 +1,257 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.pathing;
+
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongList;
+import net.minecraft.util.math.BlockPos;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathSearchTest {
+    private static final int FLOOR = 63, SIZE = 20;
+
+    private FakeGrid grid;
+    private PathSearch search;
+
+    @BeforeEach
+    void setup() {
+        grid = new FakeGrid();
+        search = new PathSearch(grid);
+    }
+
+    @Test
+    void straightLine() {
+        LongList path = find(0, 64, 0, 5, 64, 0);
+
+        assertEquals(6, path.size());
+        assertEquals(BlockPos.asLong(0, 64, 0), path.getLong(0));
+        assertEquals(BlockPos.asLong(5, 64, 0), path.getLong(5));
+    }
+
+    @Test
+    void goesAroundWalls() {
+        for (int z = -3; z <= 3; z++) wall(2, z);
+
+        LongList path = find(0, 64, 0, 4, 64, 0);
+
+        for (long node : path) {
+            assertFalse(BlockPos.unpackLongX(node) == 2 && Math.abs(BlockPos.unpackLongZ(node)) <= 3, "Path goes through the wall.");
+        }
+
+        assertValid(path);
+    }
+
+    @Test
+    void doesNotCutCorners() {
+        wall(1, 0);
+
+        LongList path = find(0, 64, 0, 1, 64, 1);
+
+        assertEquals(3, path.size());
+        assertEquals(BlockPos.asLong(0, 64, 1), path.getLong(1));
+    }
+
+    @Test
+    void stepsUp() {
+        for (int x = 3; x <= SIZE; x++) {
+            for (int z = -SIZE; z <= SIZE; z++) grid.set(x, 64, z, PathSearch.SOLID);
+        }
+
+        LongList path = find(0, 64, 0, 5, 65, 0);
+
+        assertTrue(path.contains(BlockPos.asLong(2, 64, 0)));
+        assertTrue(path.contains(BlockPos.asLong(3, 65, 0)));
+        assertValid(path);
+    }
+
+    @Test
+    void avoidsDanger() {
+        for (int z = -SIZE; z <= SIZE; z++) {
+            if (z != 5) grid.set(2, FLOOR, z, PathSearch.DANGER);
+        }
+
+        LongList path = find(0, 64, 0, 4, 64, 0);
+
+        assertTrue(path.contains(BlockPos.asLong(2, 64, 5)));
+    }
+
+    @Test
+    void enclosedStartFails() {
+        wall(1, 0);
+        wall(-1, 0);
+        wall(0, 1);
+        wall(0, -1);
+
+        search.start(0, 64, 0, new GoalAt(5, 64, 0), 1000);
+
+        assertEquals(PathSearch.State.Failed, run());
+    }
+
+    @Test
+    void nodeLimitReturnsPartialPath() {
+        search.start(0, 64, 0, new GoalAt(SIZE, 64, 0), 8);
+
+        assertEquals(PathSearch.State.Partial, run());
+        assertTrue(search.getPath().size() > 1);
+    }
+
+    @Test
+    void canMoveChecksCorners() {
+        long from = BlockPos.asLong(0, 64, 0), to = BlockPos.asLong(1, 64, 1);
+        assertTrue(search.canMove(from, to));
+
+        grid.set(1, 65, 0, PathSearch.SOLID);
+        assertFalse(search.canMove(from, to));
+    }
+
+    @Test
+    void canMoveChecksJumpHeadroom() {
+        grid.set(1, 64, 0, PathSearch.SOLID);
+
+        long from = BlockPos.asLong(0, 64, 0), to = BlockPos.asLong(1, 65, 0);
+        assertTrue(search.canMove(from, to));
+
+        grid.set(0, 66, 0, PathSearch.SOLID);
+        assertFalse(search.canMove(from, to));
+    }
+
+    @Test
+    void canMoveChecksFalls() {
+        for (int y = FLOOR; y >= FLOOR - 2; y--) grid.set(1, y, 0, PathSearch.PASSABLE);
+        grid.set(1, FLOOR - 3, 0, PathSearch.SOLID);
+
+        long from = BlockPos.asLong(0, 64, 0), to = BlockPos.asLong(1, 61, 0);
+        assertTrue(search.canMove(from, to));
+
+        // The player would land on the new block instead
+        grid.set(1, 62, 0, PathSearch.SOLID);
+        assertFalse(search.canMove(from, to));
+    }
+
+    @Test
+    void cheapestPathOverUnevenGround() {
+        Random random = new Random(0);
+
+        for (int x = -SIZE; x <= SIZE; x++) {
+            for (int z = -SIZE; z <= SIZE; z++) {
+                int height = random.nextInt(4);
+                for (int y = FLOOR + 1; y <= FLOOR + height; y++) grid.set(x, y, z, PathSearch.SOLID);
+            }
+        }
+
+        for (boolean step : new boolean[] { false, true }) {
+            search.step = step;
+
+            for (int i = 0; i < 20; i++) {
+                int x = random.nextInt(2 * SIZE + 1) - SIZE, z = random.nextInt(2 * SIZE + 1) - SIZE;
+                int goalX = random.nextInt(2 * SIZE + 1) - SIZE, goalZ = random.nextInt(2 * SIZE + 1) - SIZE;
+                int y = surface(x, z), goalY = surface(goalX, goalZ);
+
+                // Without a heuristic A* is Dijkstra and always finds the cheapest path
+                search.start(x, y, z, new GoalAt(goalX, goalY, goalZ, 0, 0), 100_000);
+                PathSearch.State expected = run();
+                double cheapest = cost(search.getPath());
+
+                search.start(x, y, z, new GoalAt(goalX, goalY, goalZ, 1, search.getVerticalCost()), 100_000);
+                assertEquals(expected, run());
+                if (expected == PathSearch.State.Found) assertEquals(cheapest, cost(search.getPath()), 1e-9, "Path from " + x + " " + y + " " + z + " with step " + step);
+            }
+        }
+    }
+
+    private LongList find(int x, int y, int z, int goalX, int goalY, int goalZ) {
+        search.start(x, y, z, new GoalAt(goalX, goalY, goalZ), 10000);
+
+        assertEquals(PathSearch.State.Found, run());
+        return search.getPath();
+    }
+
+    private int surface(int x, int z) {
+        int y = FLOOR + 1;
+        while (grid.get(x, y, z) == PathSearch.SOLID) y++;
+
+        return y;
+    }
+
+    /** Cost of a path with the costs the search uses, the grid has no water. */
+    private double cost(LongList path) {
+        double cost = 0;
+
+        for (int i = 1; i < path.size(); i++) {
+            long from = path.getLong(i - 1), to = path.getLong(i);
+            int dy = BlockPos.unpackLongY(to) - BlockPos.unpackLongY(from);
+
+            if (BlockPos.unpackLongX(from) != BlockPos.unpackLongX(to) && BlockPos.unpackLongZ(from) != BlockPos.unpackLongZ(to)) cost += Math.sqrt(2);
+            else if (dy > 0) cost += search.step ? 1.2 : 2;
+            else cost += 1 - dy * 0.5;
+        }
+
+        return cost;
+    }
+
+    private PathSearch.State run() {
+        PathSearch.State state;
+        do state = search.step(1_000_000_000L);
+        while (state == PathSearch.State.Searching);
+
+        return state;
+    }
+
+    private void assertValid(LongList path) {
+        for (int i = 1; i < path.size(); i++) {
+            assertTrue(search.canMove(path.getLong(i - 1), path.getLong(i)), "Invalid move at node " + i + ".");
+        }
+    }
+
+    /** Two blocks high wall on the floor. */
+    private void wall(int x, int z) {
+        grid.set(x, 64, z, PathSearch.SOLID);
+        grid.set(x, 65, z, PathSearch.SOLID);
+    }
+
+    /** Solid floor at y 63 with air above it, everything outside of it can't be entered. */
+    private static class FakeGrid implements PathSearch.Grid {
+        private final Long2IntMap flags = new Long2IntOpenHashMap();
+
+        void set(int x, int y, int z, int flag) {
+            flags.put(BlockPos.asLong(x, y, z), flag);
+        }
+
+        @Override
+        public int get(int x, int y, int z) {
+            if (Math.abs(x) > SIZE || Math.abs(z) > SIZE) return PathSearch.BLOCKED;
+
+            long pos = BlockPos.asLong(x, y, z);
+            if (flags.containsKey(pos)) return flags.get(pos);
+
+            if (y > FLOOR) return PathSearch.PASSABLE;
+            return y == FLOOR ? PathSearch.SOLID : PathSearch.BLOCKED;
+        }
+    }
+
+    private record GoalAt(int x, int y, int z, double horizontalCost, double verticalCost) implements PathSearch.Goal {
+        GoalAt(int x, int y, int z) {
+            this(x, y, z, 1, 1);
+        }
+
+        @Override
+        public boolean isInGoal(int x, int y, int z) {
+            return x == this.x && y == this.y && z == this.z;
+        }
+
+        @Override
+        public double heuristic(int x, int y, int z) {
+            double dx = Math.abs(x - this.x), dz = Math.abs(z - this.z);
+            return (Math.max(dx, dz) + (Math.sqrt(2) - 1) * Math.min(dx, dz)) * horizontalCost + Math.abs(y - this.y) * verticalCost;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.renderer;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import net.minecraft.util.math.ChunkPos;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkMeshesTest {
+    private RecordingMeshes meshes;
+
+    @BeforeEach
+    void setup() {
+        meshes = new RecordingMeshes();
+    }
+
+    @Test
+    void rebuildsOnlyDirtyMeshes() {
+        meshes.markDirty(0, 0);
+        meshes.markDirty(1, 0);
+
+        assertEquals(2, meshes.rebuild((key, renderer) -> {}));
+        assertEquals(2, meshes.size());
+
+        meshes.built.clear();
+        meshes.markDirty(1, 0);
+
+        assertEquals(1, meshes.rebuild((key, renderer) -> {}));
+        assertEquals(LongList.of(ChunkPos.toLong(1, 0)), meshes.built);
+    }
+
+    @Test
+    void cleanMeshesAreNotRebuilt() {
+        meshes.markDirty(0, 0);
+        meshes.rebuild((key, renderer) -> {});
+        meshes.built.clear();
+
+        assertFalse(meshes.isDirty(ChunkPos.toLong(0, 0)));
+        assertEquals(0, meshes.rebuild((key, renderer) -> {}));
+        assertTrue(meshes.built.isEmpty(), "Clean mesh was rebuilt.");
+    }
+
+    @Test
+    void markingTwiceRebuildsOnce() {
+        meshes.markDirty(3, 4);
+        meshes.markDirty(ChunkPos.toLong(3, 4));
+
+        assertEquals(1, meshes.rebuild((key, renderer) -> {}));
+    }
+
+    @Test
+    void markAllDirtyOnlyMarksExistingMeshes() {
+        meshes.markDirty(0, 0);
+        meshes.markDirty(0, 1);
+        meshes.rebuild((key, renderer) -> {});
+        meshes.built.clear();
+
+        meshes.markAllDirty();
+
+        assertTrue(meshes.isDirty(ChunkPos.toLong(0, 0)));
+        assertTrue(meshes.isDirty(ChunkPos.toLong(0, 1)));
+        assertFalse(meshes.isDirty(ChunkPos.toLong(5, 5)));
+        assertEquals(2, meshes.rebuild((key, renderer) -> {}));
+    }
+
+    @Test
+    void removedMeshesLoseTheirDirtyMark() {
+        meshes.markDirty(0, 0);
+        meshes.rebuild((key, renderer) -> {});
+
+        meshes.markDirty(0, 0);
+        meshes.remove(ChunkPos.toLong(0, 0));
+
+        assertFalse(meshes.isDirty(ChunkPos.toLong(0, 0)));
+        assertEquals(0, meshes.size());
+        assertEquals(0, meshes.rebuild((key, renderer) -> {}));
+    }
+
+    @Test
+    void retainDropsMeshesOutsideThePredicate() {
+        meshes.markDirty(0, 0);
+        meshes.markDirty(10, 10);
+        meshes.rebuild((key, renderer) -> {});
+
+        meshes.markDirty(10, 10);
+        meshes.retain(key -> ChunkPos.getPackedX(key) < 5);
+
+        assertEquals(1, meshes.size());
+        assertFalse(meshes.isDirty(ChunkPos.toLong(10, 10)));
+    }
+
+    @Test
+    void clearRemovesEverything() {
+        meshes.markDirty(0, 0);
+        meshes.rebuild((key, renderer) -> {});
+        meshes.markDirty(1, 1);
+
+        meshes.clear();
+
+        assertEquals(0, meshes.size());
+        assertEquals(0, meshes.rebuild((key, renderer) -> {}));
+    }
+
+    /** Records which meshes would be rebuilt instead of uploading them, so no GPU is needed. */
+    private static class RecordingMeshes extends ChunkMeshes {
+        private final LongList built = new LongArrayList();
+
+        RecordingMeshes() {
+            super(null, null);
+        }
+
+        @Override
+        void build(long key, RetainedMesh mesh, Builder builder) {
+            built.add(key);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.systems.friends;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FriendIndexTest {
+    private static final UUID STEVE = UUID.randomUUID();
+    private static final UUID ALEX = UUID.randomUUID();
+    private static final UUID HEROBRINE = UUID.randomUUID();
+
+    @Test
+    void namesIgnoreCase() {
+        Friend steve = new Friend("Steve");
+        FriendIndex index = new FriendIndex(List.of(steve));
+
+        assertSame(steve, index.get("steve"));
+        assertSame(steve, index.get(STEVE, "STEVE"));
+        assertNull(index.get(HEROBRINE, "Herobrine"));
+    }
+
+    @Test
+    void firstFriendWithANameWins() {
+        Friend first = new Friend("Steve");
+        FriendIndex index = new FriendIndex(List.of(first, new Friend("steve")));
+
+        assertSame(first, index.get("Steve"));
+    }
+
+    @Test
+    void strangersAreCachedPerIndex() {
+        FriendIndex before = new FriendIndex(List.of());
+        assertNull(before.get(STEVE, "Steve"));
+
+        Friend steve = new Friend("Steve");
+        FriendIndex after = new FriendIndex(List.of(steve));
+
+        assertNull(before.get(STEVE, "Steve"));
+        assertSame(steve, after.get(STEVE, "Steve"));
+    }
+
+    @Test
+    void clearingPlayersKeepsNames() {
+        FriendIndex index = new FriendIndex(List.of(new Friend("Steve")));
+        assertNotNull(index.get(STEVE, "Steve"));
+
+        index.clearPlayers();
+
+        assertNotNull(index.get(STEVE, "Steve"));
+    }
+
+    /**
+     * Publishes indexes the way {@link Friends#reindex()} does while Alex is added and removed over and over. Steve is a
+     * friend the whole time, so no lookup may ever miss him, and once the writer stops the lookups have to agree with the
+     * last published list.
+     */
+    @Test
+    void addAndRemoveRacingLookups() throws InterruptedException {
+        Friend steve = new Friend("Steve");
+        Friend alex = new Friend("Alex");
+
+        AtomicReference<FriendIndex> published = new AtomicReference<>(new FriendIndex(List.of(steve)));
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            readers.add(Thread.ofPlatform().start(() -> {
+                while (running.get()) {
+                    if (published.get().get(STEVE, "Steve") != steve) failure.set("Steve was missed.");
+
+                    Friend found = published.get().get(ALEX, "Alex");
+                    if (found != null && found != alex) failure.set("Wrong friend for Alex.");
+                }
+            }));
+        }
+
+        Thread writer = Thread.ofPlatform().start(() -> {
+            for (int i = 0; i < 20_000; i++) {
+                published.set(new FriendIndex(i % 2 == 0 ? List.of(steve, alex) : List.of(steve)));
+            }
+        });
+
+        writer.join();
+        running.set(false);
+        for (Thread reader : readers) reader.join();
+
+        assertNull(failure.get(), failure.get());
+
+        // The loop ended on a removal, then add Alex back
+        assertNull(published.get().get(ALEX, "Alex"));
+
+        published.set(new FriendIndex(List.of(steve, alex)));
+        assertSame(alex, published.get().get(ALEX, "Alex"));
+    }
+}
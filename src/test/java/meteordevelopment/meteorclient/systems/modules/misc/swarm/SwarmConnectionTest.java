@@ -0,0 +1,155 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.systems.modules.misc.swarm;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Runs both ends of a connection over loopback sockets, each end is driven by its own selector like the host and worker threads. */
+class SwarmConnectionTest {
+    private static final long TIMEOUT = 5000;
+
+    private ServerSocketChannel server;
+    private Selector hostSelector, workerSelector;
+    private SwarmConnection host, worker;
+
+    private final List<String> received = new ArrayList<>();
+
+    @BeforeEach
+    void setup() throws IOException {
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+
+        SocketChannel workerChannel = SocketChannel.open(server.getLocalAddress());
+        SocketChannel hostChannel = server.accept();
+
+        hostSelector = Selector.open();
+        workerSelector = Selector.open();
+
+        host = new SwarmConnection(hostChannel, hostSelector);
+        worker = new SwarmConnection(workerChannel, workerSelector);
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        host.close();
+        worker.close();
+
+        hostSelector.close();
+        workerSelector.close();
+        server.close();
+    }
+
+    @Test
+    void commandsArriveInOrder() throws IOException {
+        for (int i = 0; i < 200; i++) host.send(SwarmConnection.command("swarm goto " + i));
+
+        transfer(host, worker, () -> received.size() == 200);
+
+        for (int i = 0; i < 200; i++) assertEquals("swarm goto " + i, received.get(i));
+    }
+
+    @Test
+    void sharedFrameIsSentEveryTime() throws IOException {
+        ByteBuffer frame = SwarmConnection.command("swarm stop");
+
+        host.send(frame);
+        host.send(frame);
+
+        transfer(host, worker, () -> received.size() == 2);
+
+        assertEquals(List.of("swarm stop", "swarm stop"), received);
+        assertEquals(frame.capacity(), frame.remaining());
+    }
+
+    @Test
+    void frameBiggerThanTheBuffer() throws IOException {
+        String command = "swarm " + "a".repeat(200_000);
+        host.send(SwarmConnection.command(command));
+        host.send(SwarmConnection.command("swarm stop"));
+
+        transfer(host, worker, () -> received.size() == 2);
+
+        assertEquals(command, received.get(0));
+        assertEquals("swarm stop", received.get(1));
+    }
+
+    @Test
+    void unicodeCommand() throws IOException {
+        host.send(SwarmConnection.command("swarm say héllo ✓"));
+
+        transfer(host, worker, () -> received.size() == 1);
+
+        assertEquals("swarm say héllo ✓", received.getFirst());
+    }
+
+    @Test
+    void pingIsAnswered() throws IOException {
+        assertEquals(-1, host.getLatency());
+
+        host.ping();
+        transfer(host, worker, worker::hasOutbound);
+        transfer(worker, host, () -> host.getLatency() != -1);
+
+        assertTrue(host.getLatency() >= 0);
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    void closedConnectionIsDetected() throws IOException {
+        worker.close();
+
+        long end = System.currentTimeMillis() + TIMEOUT;
+        boolean open = true;
+
+        while (open) {
+            assertTrue(System.currentTimeMillis() < end, "Close wasn't detected.");
+
+            hostSelector.select(100);
+            hostSelector.selectedKeys().clear();
+
+            open = host.read(received::add);
+        }
+    }
+
+    @Test
+    void invalidFrameLength() throws IOException {
+        worker.channel.write(ByteBuffer.allocate(Integer.BYTES + 1).putInt(0).put((byte) 0).flip());
+
+        assertThrows(IOException.class, () -> transfer(worker, host, () -> false));
+    }
+
+    /** Flushes the writer and reads on the reader until the condition is met. */
+    private void transfer(SwarmConnection writer, SwarmConnection reader, BooleanSupplier done) throws IOException {
+        Selector selector = reader == host ? hostSelector : workerSelector;
+        long end = System.currentTimeMillis() + TIMEOUT;
+
+        while (!done.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < end, "Timed out.");
+
+            if (writer.hasOutbound()) writer.flush();
+
+            selector.select(10);
+            selector.selectedKeys().clear();
+
+            assertTrue(reader.read(received::add), "Connection closed.");
+        }
+    }
+}
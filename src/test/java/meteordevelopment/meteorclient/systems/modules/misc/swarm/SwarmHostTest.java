@@ -0,0 +1,204 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.systems.modules.misc.swarm;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Runs a real host with several workers over loopback, commands and chat messages are recorded instead of dispatched. */
+class SwarmHostTest {
+    private static final long TIMEOUT = 10000;
+
+    // Keyed by host or worker, the threads start before the subclass fields would be assigned
+    private static final Map<Object, List<String>> COMMANDS = new ConcurrentHashMap<>();
+    private static final Map<Object, List<String>> LOGS = new ConcurrentHashMap<>();
+
+    private TestHost host;
+    private final List<TestWorker> workers = new ArrayList<>();
+
+    @AfterEach
+    void close() {
+        for (TestWorker worker : workers) worker.disconnect();
+        if (host != null) host.disconnect();
+
+        COMMANDS.clear();
+        LOGS.clear();
+    }
+
+    @Test
+    void broadcastReachesEveryWorkerInOrder() {
+        connect(50);
+
+        for (int i = 0; i < 1000; i++) host.sendMessage("swarm goto " + i);
+
+        await(() -> workers.stream().allMatch(worker -> commands(worker).size() == 1000), "Not every command arrived.");
+
+        for (TestWorker worker : workers) {
+            List<String> commands = commands(worker);
+            for (int i = 0; i < 1000; i++) assertEquals("swarm goto " + i, commands.get(i));
+        }
+    }
+
+    @Test
+    void otherMessagesAreNotDispatched() {
+        connect(1);
+
+        host.sendMessage("goto 0 0");
+        host.sendMessage("swarm stop");
+
+        await(() -> commands(workers.getFirst()).size() == 1, "Command didn't arrive.");
+        assertEquals(List.of("swarm stop"), commands(workers.getFirst()));
+    }
+
+    @Test
+    void workerDisconnectIsNoticed() {
+        connect(3);
+
+        workers.getFirst().disconnect();
+
+        await(() -> host.getConnectionCount() == 2, "Host didn't drop the worker.");
+    }
+
+    @Test
+    void hostDisconnectStopsWorkers() {
+        connect(3);
+
+        host.disconnect();
+
+        await(() -> workers.stream().noneMatch(Thread::isAlive), "Workers kept running.");
+        for (TestWorker worker : workers) assertEquals(1, count(worker, "Disconnected from host."));
+    }
+
+    @Test
+    void disconnectingFromTwoThreadsLogsOnce() throws InterruptedException {
+        connect(1);
+        TestWorker worker = workers.getFirst();
+
+        // Keeps the worker thread flushing while it gets closed
+        for (int i = 0; i < 1000; i++) host.sendMessage("swarm goto " + i);
+
+        Thread other = Thread.ofPlatform().start(worker::disconnect);
+        worker.disconnect();
+        other.join();
+
+        await(() -> !worker.isAlive(), "Worker kept running.");
+
+        assertEquals(1, count(worker, "Disconnected from host."));
+        assertEquals(0, count(worker, "Error in connection to host."));
+    }
+
+    @Test
+    void idleLoopsDoNotSpin() throws InterruptedException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadCpuTimeSupported()) return;
+        threads.setThreadCpuTimeEnabled(true);
+
+        connect(5);
+
+        List<Thread> loops = new ArrayList<>(workers);
+        loops.add(host);
+
+        long[] before = new long[loops.size()];
+        for (int i = 0; i < loops.size(); i++) before[i] = threads.getThreadCpuTime(loops.get(i).threadId());
+
+        Thread.sleep(2000);
+
+        for (int i = 0; i < loops.size(); i++) {
+            long used = (threads.getThreadCpuTime(loops.get(i).threadId()) - before[i]) / 1_000_000;
+            assertTrue(used < 200, loops.get(i).getName() + " used " + used + " ms of cpu time while idle.");
+        }
+    }
+
+    private void connect(int count) {
+        if (host == null) host = new TestHost();
+
+        for (int i = 0; i < count; i++) workers.add(new TestWorker(host.getLocalPort()));
+
+        await(() -> host.getConnectionCount() == workers.size(), "Workers didn't connect.");
+    }
+
+    private static List<String> commands(Object owner) {
+        return COMMANDS.computeIfAbsent(owner, o -> Collections.synchronizedList(new ArrayList<>()));
+    }
+
+    private static long count(Object owner, String message) {
+        List<String> logs = LOGS.getOrDefault(owner, List.of());
+
+        synchronized (logs) {
+            return logs.stream().filter(message::equals).count();
+        }
+    }
+
+    private static void log(Object owner, String message, Object... args) {
+        LOGS.computeIfAbsent(owner, o -> Collections.synchronizedList(new ArrayList<>())).add(String.format(message, args));
+    }
+
+    private static void await(BooleanSupplier done, String message) {
+        long end = System.currentTimeMillis() + TIMEOUT;
+
+        while (!done.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < end, message);
+            LockSupport.parkNanos(1_000_000);
+        }
+    }
+
+    private static class TestHost extends SwarmHost {
+        TestHost() {
+            super(0);
+        }
+
+        @Override
+        void info(String message, Object... args) {
+            log(this, message, args);
+        }
+
+        @Override
+        void error(String message, Object... args) {
+            log(this, message, args);
+        }
+    }
+
+    private static class TestWorker extends SwarmWorker {
+        TestWorker(int port) {
+            super("127.0.0.1", port);
+        }
+
+        @Override
+        void dispatch(String command) {
+            commands(this).add(command);
+        }
+
+        @Override
+        void stopPathing() {}
+
+        @Override
+        void info(String message, Object... args) {
+            log(this, message, args);
+        }
+
+        @Override
+        void warning(String message, Object... args) {
+            log(this, message, args);
+        }
+
+        @Override
+        void error(String message, Object... args) {
+            log(this, message, args);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.systems.modules.world;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import meteordevelopment.meteorclient.systems.modules.world.StashFinder.Chunk;
+import net.minecraft.util.math.ChunkPos;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StashJournalTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTrip() throws IOException {
+        File file = dir.resolve("stashes.journal").toFile();
+        Chunk first = chunk(1, -2, 4), second = chunk(-300000, 70000, 9);
+        second.shulkers = 3;
+        second.hoppers = 1;
+
+        try (DataOutputStream out = open(file)) {
+            StashJournal.writeHeader(out);
+            StashJournal.writeRecord(out, first, true);
+            StashJournal.writeRecord(out, second, true);
+        }
+
+        Long2ObjectMap<Chunk> chunks = new Long2ObjectLinkedOpenHashMap<>();
+        assertEquals(2, StashJournal.read(file, chunks));
+
+        assertEquals(2, chunks.size());
+        assertCounts(first, chunks.get(first.chunkPos.toLong()));
+        assertCounts(second, chunks.get(second.chunkPos.toLong()));
+        assertEquals(second.chunkPos.x * 16 + 8, chunks.get(second.chunkPos.toLong()).x);
+    }
+
+    @Test
+    void laterRecordsWin() throws IOException {
+        File file = dir.resolve("stashes.journal").toFile();
+        Chunk changed = chunk(5, 5, 10), removed = chunk(6, 6, 4);
+
+        try (DataOutputStream out = open(file)) {
+            StashJournal.writeHeader(out);
+            StashJournal.writeRecord(out, chunk(5, 5, 4), true);
+            StashJournal.writeRecord(out, removed, true);
+            StashJournal.writeRecord(out, changed, true);
+            StashJournal.writeRecord(out, removed, false);
+        }
+
+        Long2ObjectMap<Chunk> chunks = new Long2ObjectLinkedOpenHashMap<>();
+        assertEquals(4, StashJournal.read(file, chunks));
+
+        assertEquals(1, chunks.size());
+        assertCounts(changed, chunks.get(changed.chunkPos.toLong()));
+    }
+
+    @Test
+    void appendsAfterReopening() throws IOException {
+        File file = dir.resolve("stashes.journal").toFile();
+
+        try (DataOutputStream out = open(file)) {
+            StashJournal.writeHeader(out);
+            StashJournal.writeRecord(out, chunk(0, 0, 4), true);
+        }
+
+        try (DataOutputStream out = open(file)) {
+            StashJournal.writeRecord(out, chunk(0, 1, 5), true);
+        }
+
+        Long2ObjectMap<Chunk> chunks = new Long2ObjectLinkedOpenHashMap<>();
+        assertEquals(2, StashJournal.read(file, chunks));
+        assertEquals(2, chunks.size());
+    }
+
+    @Test
+    void dropsTruncatedRecord() throws IOException {
+        File file = dir.resolve("stashes.journal").toFile();
+        Chunk kept = chunk(1, 1, 4);
+
+        try (DataOutputStream out = open(file)) {
+            StashJournal.writeHeader(out);
+            StashJournal.writeRecord(out, kept, true);
+            StashJournal.writeRecord(out, chunk(2, 2, 8), true);
+        }
+
+        // Cut the last record short, like a crash in the middle of a write
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        Files.write(file.toPath(), java.util.Arrays.copyOf(bytes, bytes.length - 5));
+
+        Long2ObjectMap<Chunk> chunks = new Long2ObjectLinkedOpenHashMap<>();
+        assertEquals(1, StashJournal.read(file, chunks));
+
+        assertEquals(1, chunks.size());
+        assertCounts(kept, chunks.get(kept.chunkPos.toLong()));
+    }
+
+    @Test
+    void unknownVersion() throws IOException {
+        File file = dir.resolve("stashes.journal").toFile();
+
+        try (DataOutputStream out = open(file)) {
+            out.writeInt(StashJournal.VERSION + 1);
+            StashJournal.writeRecord(out, chunk(1, 1, 4), true);
+        }
+
+        assertThrows(IOException.class, () -> StashJournal.read(file, new Long2ObjectLinkedOpenHashMap<>()));
+    }
+
+    @Test
+    void compactedJournalKeepsChunks() throws IOException {
+        File file = dir.resolve("world/stashes.journal").toFile();
+        List<Chunk> snapshot = List.of(chunk(1, 2, 4), chunk(3, 4, 5), chunk(-5, -6, 6));
+
+        StashJournal.writeCompacted(file, snapshot);
+
+        assertEquals(4 + snapshot.size() * StashJournal.RECORD_SIZE, file.length());
+
+        Long2ObjectMap<Chunk> chunks = new Long2ObjectLinkedOpenHashMap<>();
+        assertEquals(3, StashJournal.read(file, chunks));
+
+        assertEquals(snapshot, List.copyOf(chunks.values()));
+        for (Chunk chunk : snapshot) assertCounts(chunk, chunks.get(chunk.chunkPos.toLong()));
+
+        try (var files = Files.list(file.getParentFile().toPath())) {
+            assertEquals(1, files.count(), "The temporary file was left behind.");
+        }
+    }
+
+    @Test
+    void compactingReplacesTheJournal() throws IOException {
+        File file = dir.resolve("stashes.journal").toFile();
+
+        try (DataOutputStream out = open(file)) {
+            StashJournal.writeHeader(out);
+            for (int i = 0; i < 100; i++) StashJournal.writeRecord(out, chunk(i, 0, 4), true);
+        }
+
+        StashJournal.writeCompacted(file, List.of(chunk(7, 7, 7)));
+
+        Long2ObjectMap<Chunk> chunks = new Long2ObjectLinkedOpenHashMap<>();
+        assertEquals(1, StashJournal.read(file, chunks));
+        assertTrue(chunks.containsKey(ChunkPos.toLong(7, 7)));
+    }
+
+    private static DataOutputStream open(File file) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+    }
+
+    private static Chunk chunk(int x, int z, int chests) {
+        Chunk chunk = new Chunk(new ChunkPos(x, z));
+        chunk.chests = chests;
+        return chunk;
+    }
+
+    private static void assertCounts(Chunk expected, Chunk actual) {
+        assertNotNull(actual, "Missing chunk " + expected.chunkPos.x + ", " + expected.chunkPos.z);
+        assertEquals(expected.chunkPos, actual.chunkPos);
+        assertTrue(expected.countsEqual(actual), "Counts differ for chunk " + expected.chunkPos.x + ", " + expected.chunkPos.z);
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.systems.proxies;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Runs the checks against a local SOCKS stub that can answer late, drop connections or never answer at all. */
+class ProxyCheckerTest {
+    private static final String ADDRESS = "127.0.0.1";
+    private static final int TIMEOUT = 300;
+
+    private StubServer server;
+
+    @AfterEach
+    void close() throws IOException {
+        if (server != null) server.close();
+    }
+
+    @Test
+    void socks4() throws IOException {
+        server = new StubServer(i -> Behaviour.Socks4, 0);
+
+        assertEquals(1, probe().result());
+    }
+
+    @Test
+    void socks5WithLatency() throws IOException {
+        server = new StubServer(i -> Behaviour.Socks5, 100);
+
+        Proxy.Probe probe = probe();
+
+        assertEquals(1, probe.result());
+        assertTrue(probe.latency() >= 100, "Latency was " + probe.latency());
+        assertTrue(probe.latency() < TIMEOUT, "Latency was " + probe.latency());
+    }
+
+    @Test
+    void droppedConnectionIsDead() throws IOException {
+        server = new StubServer(i -> Behaviour.Drop, 0);
+
+        assertEquals(2, probe().result());
+    }
+
+    @Test
+    void silentServerTimesOut() throws IOException {
+        server = new StubServer(i -> Behaviour.Silent, 0);
+
+        long start = System.currentTimeMillis();
+        assertEquals(ProxyChecker.TIMED_OUT, probe().result());
+
+        assertTrue(System.currentTimeMillis() - start >= TIMEOUT);
+    }
+
+    @Test
+    void permitsLimitHandshakesInFlight() throws IOException {
+        server = new StubServer(i -> Behaviour.Socks4, 100);
+
+        List<Integer> targets = new ArrayList<>();
+        for (int i = 0; i < 12; i++) targets.add(i);
+
+        List<Integer> results = Collections.synchronizedList(new ArrayList<>());
+
+        long start = System.currentTimeMillis();
+        ProxyChecker.checkAll(targets, i -> record(results, probe().result()), 3, 0, 0);
+
+        assertEquals(12, results.size());
+        assertTrue(results.stream().allMatch(result -> result == 1));
+
+        assertTrue(server.maxOpen.get() <= 3, "Up to " + server.maxOpen.get() + " handshakes were in flight.");
+        assertTrue(System.currentTimeMillis() - start >= 4 * 100, "Checks weren't throttled.");
+    }
+
+    @Test
+    void timeoutsAreRetriedWithBackoff() throws IOException {
+        // Two connections per attempt, a SOCKS4 and a SOCKS5 handshake, so the first two attempts time out
+        server = new StubServer(i -> i < 4 ? Behaviour.Silent : Behaviour.Socks5, 0);
+
+        List<Integer> results = new ArrayList<>();
+        List<long[]> attempts = new ArrayList<>();
+
+        ProxyChecker.checkAll(List.of(0), i -> {
+            long start = System.currentTimeMillis();
+            int result = probe().result();
+            attempts.add(new long[] { start, System.currentTimeMillis() });
+
+            return record(results, result);
+        }, 1, 3, 100);
+
+        assertEquals(List.of(3, 3, 1), results);
+
+        // The delay doubles every retry
+        assertTrue(attempts.get(1)[0] - attempts.get(0)[1] >= 100);
+        assertTrue(attempts.get(2)[0] - attempts.get(1)[1] >= 200);
+    }
+
+    @Test
+    void retriesRunOut() throws IOException {
+        server = new StubServer(i -> Behaviour.Silent, 0);
+
+        List<Integer> results = new ArrayList<>();
+        ProxyChecker.checkAll(List.of(0), i -> record(results, probe().result()), 1, 1, 10);
+
+        assertEquals(List.of(3, 3), results);
+    }
+
+    @Test
+    void deadProxiesAreNotRetried() throws IOException {
+        server = new StubServer(i -> Behaviour.Drop, 0);
+
+        List<Integer> results = new ArrayList<>();
+        ProxyChecker.checkAll(List.of(0), i -> record(results, probe().result()), 1, 3, 10);
+
+        assertEquals(List.of(2), results);
+    }
+
+    private Proxy.Probe probe() {
+        return Proxy.probe(ADDRESS, server.getPort(), "", TIMEOUT);
+    }
+
+    private static int record(List<Integer> results, int result) {
+        results.add(result);
+        return result;
+    }
+
+    private enum Behaviour {
+        Socks4,
+        Socks5,
+        Drop,
+        Silent
+    }
+
+    /** Accepts connections on a loopback port and handles the nth one as the function says, replies after the delay. */
+    private static class StubServer implements AutoCloseable {
+        private final ServerSocket socket;
+        private final IntFunction<Behaviour> behaviour;
+        private final long delay;
+
+        private final AtomicInteger connections = new AtomicInteger();
+        private final AtomicInteger open = new AtomicInteger();
+        final AtomicInteger maxOpen = new AtomicInteger();
+
+        StubServer(IntFunction<Behaviour> behaviour, long delay) throws IOException {
+            this.socket = new ServerSocket(0, 64, InetAddress.getLoopbackAddress());
+            this.behaviour = behaviour;
+            this.delay = delay;
+
+            Thread.ofPlatform().daemon().start(this::accept);
+        }
+
+        int getPort() {
+            return socket.getLocalPort();
+        }
+
+        private void accept() {
+            while (!socket.isClosed()) {
+                try {
+                    Socket client = socket.accept();
+                    Behaviour b = behaviour.apply(connections.getAndIncrement());
+
+                    Thread.ofVirtual().start(() -> handle(client, b));
+                } catch (IOException ignored) {}
+            }
+        }
+
+        private void handle(Socket client, Behaviour behaviour) {
+            maxOpen.accumulateAndGet(open.incrementAndGet(), Math::max);
+            boolean counted = true;
+
+            try (client) {
+                InputStream in = client.getInputStream();
+                OutputStream out = client.getOutputStream();
+
+                switch (behaviour) {
+                    case Drop -> {}
+                    case Silent -> in.transferTo(OutputStream.nullOutputStream());
+                    case Socks4 -> {
+                        // Version, command, port, address, empty user id
+                        byte[] request = in.readNBytes(9);
+                        if (request.length == 9 && request[0] == 4) {
+                            Thread.sleep(delay);
+
+                            // The client can only release its permit after the reply
+                            open.decrementAndGet();
+                            counted = false;
+
+                            out.write(new byte[] { 0, 90, 0, 0, 0, 0, 0, 0 });
+                        }
+                    }
+                    case Socks5 -> {
+                        // Version, method count, methods, anything else is a SOCKS4 handshake and gets dropped
+                        byte[] request = in.readNBytes(4);
+                        if (request.length == 4 && request[0] == 5) {
+                            Thread.sleep(delay);
+
+                            open.decrementAndGet();
+                            counted = false;
+
+                            out.write(new byte[] { 5, 0 });
+                        }
+                    }
+                }
+            } catch (IOException | InterruptedException ignored) {
+            } finally {
+                if (counted) open.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.entity;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.util.shape.VoxelShape;
+import net.minecraft.util.shape.VoxelShapes;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Compares the cached exposure against the raycasts of {@link DamageUtils} over the same fake world. */
+class ExplosionExposureTest {
+    private static final VoxelShape SLAB = VoxelShapes.cuboid(0, 0, 0, 1, 0.5, 1);
+    private static final VoxelShape WALL = VoxelShapes.cuboid(0, 0, 0.25, 1, 1, 0.75);
+
+    private final FakeWorld world = new FakeWorld();
+    private ExplosionExposure.BlockShapes previous;
+
+    @BeforeEach
+    void setup() {
+        previous = ExplosionExposure.shapes;
+        ExplosionExposure.shapes = world;
+
+        ExplosionExposure.nextTick(0, 64, 0);
+    }
+
+    @AfterEach
+    void restore() {
+        ExplosionExposure.shapes = previous;
+    }
+
+    @Test
+    void openAir() {
+        Box box = playerBox(3.3, 64, 0.5);
+
+        assertEquals(1f, exposure(new Vec3d(0.5, 64, 0.5), box, false));
+        assertEquals(1f, exposure(new Vec3d(0.5, 64, 0.5), box, true));
+    }
+
+    @Test
+    void fullyCovered() {
+        for (int y = 60; y < 70; y++) {
+            for (int z = -5; z <= 5; z++) world.set(2, y, z, VoxelShapes.fullCube());
+        }
+
+        Vec3d source = new Vec3d(0.5, 64, 0.5);
+        Box box = playerBox(4.5, 64, 0.5);
+
+        assertEquals(0f, exposure(source, box, true));
+        assertEquals(reference(source, box), exposure(source, box, true));
+    }
+
+    @Test
+    void matchesDamageUtils() {
+        Random random = new Random(0);
+
+        for (int x = -6; x <= 6; x++) {
+            for (int y = 58; y <= 70; y++) {
+                for (int z = -6; z <= 6; z++) {
+                    float roll = random.nextFloat();
+
+                    if (roll < 0.2f) world.set(x, y, z, VoxelShapes.fullCube());
+                    else if (roll < 0.25f) world.set(x, y, z, SLAB);
+                    else if (roll < 0.3f) world.set(x, y, z, WALL);
+                }
+            }
+        }
+
+        int partial = 0;
+
+        for (int i = 0; i < 500; i++) {
+            Vec3d source = new Vec3d(random.nextDouble() * 12 - 6, 58 + random.nextDouble() * 12, random.nextDouble() * 12 - 6);
+            Box box = playerBox(random.nextDouble() * 12 - 6, 58 + random.nextDouble() * 10, random.nextDouble() * 12 - 6);
+
+            float expected = reference(source, box);
+            if (expected > 0 && expected < 1) partial++;
+
+            assertEquals(expected, exposure(source, box, false), () -> "Uncached exposure from " + source + " to " + box);
+            assertEquals(expected, exposure(source, box, true), () -> "Cached exposure from " + source + " to " + box);
+            assertEquals(expected, exposure(source, box, true), () -> "Memoized exposure from " + source + " to " + box);
+        }
+
+        // Otherwise the world is too open or too closed to say much
+        assertTrue(partial > 50, "Only " + partial + " partially exposed boxes.");
+    }
+
+    @Test
+    void rayLeavingItsStartBlock() {
+        world.set(0, 64, 0, VoxelShapes.fullCube());
+
+        // Samples start inside the block, but closer to its face than the point VoxelShape#raycast checks
+        Vec3d source = new Vec3d(5.5, 64.5, 0.5);
+        Box box = new Box(0.9995, 64.5, 0.5, 0.9996, 64.5001, 0.5001);
+
+        assertEquals(1f, reference(source, box));
+        assertEquals(1f, exposure(source, box, true));
+    }
+
+    @Test
+    void memoizedWithinATick() {
+        world.set(2, 64, 0, SLAB);
+
+        Vec3d source = new Vec3d(0.5, 64.2, 0.5);
+        Box box = playerBox(4.5, 64, 0.5);
+
+        float exposure = exposure(source, box, true);
+        int lookups = world.lookups;
+
+        assertEquals(exposure, exposure(source, box, true));
+        assertEquals(lookups, world.lookups, "The second call read blocks again.");
+    }
+
+    @Test
+    void blockUpdateInvalidatesMemo() {
+        Vec3d source = new Vec3d(0.5, 64.2, 0.5);
+        Box box = playerBox(4.5, 64, 0.5);
+
+        assertEquals(1f, exposure(source, box, true));
+
+        world.set(2, 64, 0, VoxelShapes.fullCube());
+        world.set(2, 65, 0, VoxelShapes.fullCube());
+        ExplosionExposure.invalidate(2, 64, 0);
+        ExplosionExposure.invalidate(2, 65, 0);
+
+        float exposure = exposure(source, box, true);
+
+        assertTrue(exposure < 1);
+        assertEquals(reference(source, box), exposure);
+    }
+
+    @Test
+    void unrelatedBlockUpdateKeepsMemo() {
+        Vec3d source = new Vec3d(0.5, 64.2, 0.5);
+        Box box = playerBox(4.5, 64, 0.5);
+
+        exposure(source, box, true);
+        int lookups = world.lookups;
+
+        world.set(-10, 64, 0, VoxelShapes.fullCube());
+        ExplosionExposure.invalidate(-10, 64, 0);
+
+        exposure(source, box, true);
+        assertEquals(lookups, world.lookups, "An update outside the rays dropped the result.");
+    }
+
+    @Test
+    void nextTickRereadsBlocks() {
+        Vec3d source = new Vec3d(0.5, 64.2, 0.5);
+        Box box = playerBox(4.5, 64, 0.5);
+
+        assertEquals(1f, exposure(source, box, true));
+
+        // Changed without an update, like a block placed by the server between ticks
+        world.set(2, 64, 0, VoxelShapes.fullCube());
+        world.set(2, 65, 0, VoxelShapes.fullCube());
+        ExplosionExposure.nextTick(0, 64, 0);
+
+        assertEquals(reference(source, box), exposure(source, box, true));
+    }
+
+    @Test
+    void outsideTheGrid() {
+        world.set(100, 64, 0, VoxelShapes.fullCube());
+
+        Vec3d source = new Vec3d(98.5, 64.2, 0.5);
+        Box box = playerBox(102.5, 64, 0.5);
+
+        assertEquals(reference(source, box), exposure(source, box, true));
+    }
+
+    private static float exposure(Vec3d source, Box box, boolean cache) {
+        return ExplosionExposure.getExposure(source, box, null, null, cache);
+    }
+
+    private float reference(Vec3d source, Box box) {
+        return DamageUtils.getExposure(source, box, (context, pos) -> world.get(pos).raycast(context.start(), context.end(), pos));
+    }
+
+    private static Box playerBox(double x, double y, double z) {
+        return new Box(x - 0.3, y, z - 0.3, x + 0.3, y + 1.8, z + 0.3);
+    }
+
+    private static class FakeWorld implements ExplosionExposure.BlockShapes {
+        private final Long2ObjectMap<VoxelShape> shapes = new Long2ObjectOpenHashMap<>();
+        int lookups;
+
+        void set(int x, int y, int z, VoxelShape shape) {
+            shapes.put(BlockPos.asLong(x, y, z), shape);
+        }
+
+        @Override
+        public VoxelShape get(BlockPos pos) {
+            lookups++;
+            return shapes.getOrDefault(pos.asLong(), VoxelShapes.empty());
+        }
+    }
+}
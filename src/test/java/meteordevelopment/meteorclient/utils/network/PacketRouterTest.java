@@ -0,0 +1,126 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.network;
+
+import meteordevelopment.meteorclient.events.packets.PacketEvent;
+import meteordevelopment.orbit.EventBus;
+import meteordevelopment.orbit.EventPriority;
+import meteordevelopment.orbit.IEventBus;
+import meteordevelopment.orbit.listeners.ConsumerListener;
+import net.minecraft.network.packet.Packet;
+import net.minecraft.network.packet.s2c.common.KeepAliveS2CPacket;
+import net.minecraft.network.packet.s2c.play.EntityS2CPacket;
+import net.minecraft.network.packet.s2c.play.HealthUpdateS2CPacket;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PacketRouterTest {
+    private final IEventBus bus = new EventBus();
+    private final PacketRouter<PacketEvent.Receive> router = new PacketRouter<>(() -> bus, PacketEvent.Receive.class, event -> event.packet);
+
+    private final List<String> calls = new ArrayList<>();
+
+    @Test
+    void onlyDeclaredPackets() {
+        router.listener(EventPriority.MEDIUM, event -> calls.add("health")).packets(HealthUpdateS2CPacket.class).subscribe();
+        router.listener(EventPriority.MEDIUM, event -> calls.add("both")).packets(HealthUpdateS2CPacket.class, KeepAliveS2CPacket.class).subscribe();
+
+        post(new HealthUpdateS2CPacket(20, 20, 5));
+        post(new KeepAliveS2CPacket(1));
+        post(new EntityS2CPacket.Rotate(1, (byte) 0, (byte) 0, true));
+
+        assertEquals(List.of("health", "both", "both"), calls);
+    }
+
+    @Test
+    void exactClassOnly() {
+        router.listener(EventPriority.MEDIUM, event -> calls.add("entity")).packets(List.of(EntityS2CPacket.class)).subscribe();
+
+        post(new EntityS2CPacket.MoveRelative(1, (short) 1, (short) 0, (short) 1, true));
+
+        assertTrue(calls.isEmpty(), "A subclass of the declared packet was dispatched.");
+    }
+
+    @Test
+    void keepsPriorityAmongBusListeners() {
+        bus.subscribe(new ConsumerListener<PacketEvent.Receive>(PacketEvent.Receive.class, EventPriority.HIGH, event -> calls.add("bus high")));
+        bus.subscribe(new ConsumerListener<PacketEvent.Receive>(PacketEvent.Receive.class, EventPriority.LOW, event -> calls.add("bus low")));
+
+        router.listener(EventPriority.LOWEST, event -> calls.add("routed lowest")).packets(KeepAliveS2CPacket.class).subscribe();
+        router.listener(EventPriority.HIGHEST, event -> calls.add("routed highest")).packets(KeepAliveS2CPacket.class).subscribe();
+        router.listener(EventPriority.MEDIUM, event -> calls.add("routed medium")).packets(KeepAliveS2CPacket.class).subscribe();
+
+        post(new KeepAliveS2CPacket(1));
+
+        assertEquals(List.of("routed highest", "bus high", "routed medium", "bus low", "routed lowest"), calls);
+    }
+
+    @Test
+    void cancellingStopsLaterHandlers() {
+        router.listener(EventPriority.MEDIUM, event -> {
+            calls.add("first");
+            event.cancel();
+        }).packets(KeepAliveS2CPacket.class).subscribe();
+        router.listener(EventPriority.MEDIUM, event -> calls.add("second")).packets(KeepAliveS2CPacket.class).subscribe();
+
+        assertTrue(post(new KeepAliveS2CPacket(1)).isCancelled());
+        assertEquals(List.of("first"), calls);
+    }
+
+    @Test
+    void unsubscribeLeavesTheBus() {
+        PacketRouter<PacketEvent.Receive>.Listener first = router.listener(EventPriority.MEDIUM, event -> calls.add("first")).packets(KeepAliveS2CPacket.class);
+        PacketRouter<PacketEvent.Receive>.Listener second = router.listener(EventPriority.MEDIUM, event -> calls.add("second")).packets(KeepAliveS2CPacket.class);
+
+        first.subscribe();
+        second.subscribe();
+        assertTrue(bus.isListening(PacketEvent.Receive.class));
+
+        first.unsubscribe();
+        post(new KeepAliveS2CPacket(1));
+        assertEquals(List.of("second"), calls);
+
+        second.unsubscribe();
+        assertFalse(second.isSubscribed());
+        assertFalse(bus.isListening(PacketEvent.Receive.class), "The group stayed on the bus without listeners.");
+    }
+
+    @Test
+    void changingPacketsWhileSubscribed() {
+        PacketRouter<PacketEvent.Receive>.Listener listener = router.listener(EventPriority.MEDIUM, event -> calls.add("called")).packets(KeepAliveS2CPacket.class);
+        listener.subscribe();
+
+        // Resolves the handlers for both classes before the change
+        post(new KeepAliveS2CPacket(1));
+        post(new HealthUpdateS2CPacket(20, 20, 5));
+
+        listener.packets(HealthUpdateS2CPacket.class);
+
+        post(new KeepAliveS2CPacket(1));
+        post(new HealthUpdateS2CPacket(20, 20, 5));
+
+        assertEquals(List.of("called", "called"), calls);
+    }
+
+    @Test
+    void subscribingTwiceDispatchesOnce() {
+        PacketRouter<PacketEvent.Receive>.Listener listener = router.listener(EventPriority.MEDIUM, event -> calls.add("called")).packets(KeepAliveS2CPacket.class);
+
+        listener.subscribe();
+        listener.subscribe();
+        post(new KeepAliveS2CPacket(1));
+
+        assertEquals(1, calls.size());
+    }
+
+    private PacketEvent.Receive post(Packet<?> packet) {
+        return bus.post(new PacketEvent.Receive(packet, null));
+    }
+}
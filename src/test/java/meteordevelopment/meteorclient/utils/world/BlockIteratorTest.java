@@ -0,0 +1,216 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.world;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.BlockPos;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Runs ticks over an empty world where every block state is null, only the positions matter. */
+class BlockIteratorTest {
+    private final FakeColumns columns = new FakeColumns(-64, 320);
+
+    @AfterEach
+    void clear() {
+        // Drops anything a failed test left registered
+        BlockIterator.tick(columns, 0, 0, 0);
+    }
+
+    @Test
+    void visitsEveryBlockInRange() {
+        List<BlockPos> visited = new ArrayList<>();
+        BlockIterator.register(2, 1, (pos, state) -> visited.add(pos.toImmutable()));
+
+        BlockIterator.tick(columns, 10, 64, -10);
+
+        assertEquals(5 * 5 * 3, visited.size());
+        assertTrue(visited.stream().allMatch(pos -> Math.abs(pos.getX() - 10) <= 2 && Math.abs(pos.getY() - 64) <= 1 && Math.abs(pos.getZ() + 10) <= 2));
+        assertEquals(visited.size(), visited.stream().distinct().count());
+    }
+
+    @Test
+    void clampsToWorldHeight() {
+        List<BlockPos> visited = new ArrayList<>();
+        BlockIterator.register(0, 4, (pos, state) -> visited.add(pos.toImmutable()));
+
+        BlockIterator.tick(columns, 0, -63, 0);
+
+        assertEquals(-64, visited.getFirst().getY());
+        assertEquals(-59, visited.getLast().getY());
+    }
+
+    @Test
+    void keepsRegistrationOrderWithinABlock() {
+        List<String> calls = new ArrayList<>();
+
+        // Registered from the largest to the smallest radius, sorting by radius would flip them
+        BlockIterator.register(3, 0, (pos, state) -> { if (isOrigin(pos)) calls.add("wide"); });
+        BlockIterator.register(1, 0, (pos, state) -> { if (isOrigin(pos)) calls.add("medium"); });
+        BlockIterator.register(0, 0, (pos, state) -> { if (isOrigin(pos)) calls.add("narrow"); });
+        BlockIterator.register(2, 0, (pos, state) -> { if (isOrigin(pos)) calls.add("wider"); });
+
+        BlockIterator.tick(columns, 0, 0, 0);
+
+        assertEquals(List.of("wide", "medium", "narrow", "wider"), calls);
+    }
+
+    @Test
+    void smallerRadiiOnlySeeTheirBox() {
+        int[] wide = new int[1], narrow = new int[1];
+
+        BlockIterator.register(3, 0, (pos, state) -> wide[0]++);
+        BlockIterator.register(1, 0, (pos, state) -> {
+            assertTrue(Math.abs(pos.getX()) <= 1 && Math.abs(pos.getZ()) <= 1, "Called outside its radius at " + pos);
+            narrow[0]++;
+        });
+
+        BlockIterator.tick(columns, 0, 0, 0);
+
+        assertEquals(7 * 7, wide[0]);
+        assertEquals(3 * 3, narrow[0]);
+    }
+
+    @Test
+    void disableCurrentOnlyStopsThatCallback() {
+        int[] disabled = new int[1], other = new int[1];
+
+        BlockIterator.register(2, 2, (pos, state) -> {
+            disabled[0]++;
+            BlockIterator.disableCurrent();
+        });
+        BlockIterator.register(2, 2, (pos, state) -> other[0]++);
+
+        BlockIterator.tick(columns, 0, 64, 0);
+
+        assertEquals(1, disabled[0]);
+        assertEquals(5 * 5 * 5, other[0]);
+    }
+
+    @Test
+    void iterationStopsOnceEveryCallbackIsDisabled() {
+        int[] calls = new int[1];
+
+        BlockIterator.register(4, 4, (pos, state) -> {
+            if (++calls[0] == 3) BlockIterator.disableCurrent();
+        });
+
+        BlockIterator.tick(columns, 0, 64, 0);
+
+        assertEquals(3, calls[0]);
+        assertEquals(1, columns.columns, "Kept reading columns after the last callback was disabled.");
+    }
+
+    @Test
+    void disableCurrentIsResetPerCall() {
+        int[] calls = new int[1];
+
+        BlockIterator.register(0, 0, (pos, state) -> BlockIterator.disableCurrent());
+        BlockIterator.register(1, 0, (pos, state) -> calls[0]++);
+
+        BlockIterator.tick(columns, 0, 0, 0);
+
+        assertEquals(9, calls[0]);
+    }
+
+    @Test
+    void filterSkipsBlocks() {
+        int[] calls = new int[1];
+
+        BlockIterator.register(2, 2, state -> false, (pos, state) -> calls[0]++);
+        BlockIterator.tick(columns, 0, 64, 0);
+
+        assertEquals(0, calls[0]);
+    }
+
+    @Test
+    void afterRunsOnceAfterIterating() {
+        List<String> calls = new ArrayList<>();
+
+        BlockIterator.register(0, 0, (pos, state) -> calls.add("block"));
+        BlockIterator.after(() -> calls.add("after"));
+
+        BlockIterator.tick(columns, 0, 0, 0);
+        BlockIterator.tick(columns, 0, 0, 0);
+
+        assertEquals(List.of("block", "after"), calls);
+    }
+
+    @Test
+    void afterRunsWithoutCallbacks() {
+        int[] calls = new int[1];
+
+        BlockIterator.after(() -> calls[0]++);
+        BlockIterator.tick(columns, 0, 0, 0);
+
+        assertEquals(1, calls[0]);
+        assertEquals(0, columns.columns);
+    }
+
+    @Test
+    void callbacksOnlyLastOneTick() {
+        int[] calls = new int[1];
+
+        BlockIterator.register(0, 0, (pos, state) -> calls[0]++);
+
+        BlockIterator.tick(columns, 0, 0, 0);
+        BlockIterator.tick(columns, 0, 0, 0);
+
+        assertEquals(1, calls[0]);
+    }
+
+    @Test
+    void callbacksCanRegisterForTheNextTick() {
+        int[] calls = new int[1];
+
+        BlockIterator.after(() -> BlockIterator.register(0, 0, (pos, state) -> calls[0]++));
+
+        BlockIterator.tick(columns, 0, 0, 0);
+        assertEquals(0, calls[0]);
+
+        BlockIterator.tick(columns, 0, 0, 0);
+        assertEquals(1, calls[0]);
+    }
+
+    private static boolean isOrigin(BlockPos pos) {
+        return pos.getX() == 0 && pos.getY() == 0 && pos.getZ() == 0;
+    }
+
+    private static class FakeColumns implements BlockIterator.Columns {
+        private final int bottomY, topY;
+        int columns;
+
+        FakeColumns(int bottomY, int topY) {
+            this.bottomY = bottomY;
+            this.topY = topY;
+        }
+
+        @Override
+        public int getBottomY() {
+            return bottomY;
+        }
+
+        @Override
+        public int getTopY() {
+            return topY;
+        }
+
+        @Override
+        public void setColumn(int x, int z) {
+            columns++;
+        }
+
+        @Override
+        public BlockState getBlockState(int y) {
+            return null;
+        }
+    }
+}
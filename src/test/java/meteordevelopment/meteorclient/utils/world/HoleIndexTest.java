@@ -0,0 +1,373 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.world;
+
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.Direction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static meteordevelopment.meteorclient.utils.world.HoleIndex.BEDROCK;
+import static meteordevelopment.meteorclient.utils.world.HoleIndex.OBSIDIAN;
+import static org.junit.jupiter.api.Assertions.*;
+
+class HoleIndexTest {
+    private FakeBlocks blocks;
+    private HoleIndex.Blocks previous;
+
+    @BeforeEach
+    void setup() {
+        blocks = new FakeBlocks();
+
+        previous = HoleIndex.blocks;
+        HoleIndex.blocks = blocks;
+    }
+
+    @AfterEach
+    void restore() {
+        HoleIndex.blocks = previous;
+        HoleIndex.clear();
+    }
+
+    @Test
+    void obsidianHole() {
+        surround(0, 64, 0, OBSIDIAN);
+
+        HoleIndex.Hole hole = classify(0, 64, 0);
+
+        assertEquals(0, hole.bedrock);
+        assertEquals(5, hole.obsidian);
+        assertEquals(HoleIndex.Type.Obsidian, hole.type);
+        assertNull(hole.air);
+    }
+
+    @Test
+    void bedrockHole() {
+        surround(0, 64, 0, BEDROCK);
+
+        HoleIndex.Hole hole = classify(0, 64, 0);
+
+        assertEquals(5, hole.bedrock);
+        assertEquals(HoleIndex.Type.Bedrock, hole.type);
+    }
+
+    @Test
+    void mixedHole() {
+        surround(0, 64, 0, OBSIDIAN);
+        blocks.set(0, 63, 0, BEDROCK);
+
+        HoleIndex.Hole hole = classify(0, 64, 0);
+
+        assertEquals(1, hole.bedrock);
+        assertEquals(4, hole.obsidian);
+        assertEquals(HoleIndex.Type.Mixed, hole.type);
+    }
+
+    @Test
+    void doubleHole() {
+        surround(0, 64, 0, OBSIDIAN);
+        surround(1, 64, 0, OBSIDIAN);
+        blocks.clear(0, 64, 0);
+        blocks.clear(1, 64, 0);
+
+        HoleIndex.Hole west = classify(0, 64, 0);
+        HoleIndex.Hole east = classify(1, 64, 0);
+
+        assertEquals(Direction.EAST, west.air);
+        assertEquals(Direction.WEST, east.air);
+
+        // Floor and three walls of the hole itself, floor and three walls of the second half
+        assertEquals(8, west.obsidian);
+    }
+
+    @Test
+    void missingWall() {
+        surround(0, 64, 0, OBSIDIAN);
+        blocks.clear(0, 64, -1);
+        blocks.set(0, 63, -1, OBSIDIAN);
+
+        // The open side leads into a position that isn't closed itself
+        assertEquals(0, HoleIndex.classify(0, 64, 0, blocks));
+    }
+
+    @Test
+    void weakWall() {
+        surround(0, 64, 0, OBSIDIAN);
+        blocks.setCollidable(-1, 64, 0);
+
+        assertEquals(0, HoleIndex.classify(0, 64, 0, blocks));
+    }
+
+    @Test
+    void missingFloor() {
+        surround(0, 64, 0, OBSIDIAN);
+        blocks.clear(0, 63, 0);
+
+        assertEquals(0, HoleIndex.classify(0, 64, 0, blocks));
+    }
+
+    @Test
+    void filledHole() {
+        surround(0, 64, 0, OBSIDIAN);
+        blocks.setCollidable(0, 64, 0);
+
+        assertEquals(0, HoleIndex.classify(0, 64, 0, blocks));
+    }
+
+    @Test
+    void tripleHole() {
+        for (int x = 0; x < 3; x++) surround(x, 64, 0, OBSIDIAN);
+        for (int x = 0; x < 3; x++) blocks.clear(x, 64, 0);
+
+        // The middle opens to both sides, the ends open into a position that isn't closed
+        for (int x = 0; x < 3; x++) assertEquals(0, HoleIndex.classify(x, 64, 0, blocks));
+    }
+
+    // Index
+
+    @Test
+    void chunkLoadIndexesHoles() {
+        surround(3, 64, 3, OBSIDIAN);
+        surround(20, 64, 3, BEDROCK);
+
+        load(0, 0);
+        assertEquals(LongSet.of(BlockPos.asLong(3, 64, 3)), indexed(0, 64, 0, 32, 4));
+
+        load(1, 0);
+        assertEquals(LongSet.of(BlockPos.asLong(3, 64, 3), BlockPos.asLong(20, 64, 3)), indexed(0, 64, 0, 32, 4));
+    }
+
+    @Test
+    void chunkLoadCompletesHolesInNeighbours() {
+        // The hole is in chunk 0 but its east wall is in chunk 1, which hasn't been received yet
+        surround(15, 64, 3, OBSIDIAN);
+        blocks.clear(16, 64, 3);
+
+        load(0, 0);
+        assertEquals(0, HoleIndex.size());
+
+        blocks.set(16, 64, 3, OBSIDIAN);
+        load(1, 0);
+        assertEquals(LongSet.of(BlockPos.asLong(15, 64, 3)), indexed(8, 64, 8, 16, 4));
+    }
+
+    @Test
+    void chunkUnloadDropsHoles() {
+        surround(3, 64, 3, OBSIDIAN);
+        surround(20, 64, 3, BEDROCK);
+        load(0, 0);
+        load(1, 0);
+
+        unload(1, 0);
+
+        assertEquals(1, HoleIndex.size());
+        assertEquals(LongSet.of(BlockPos.asLong(3, 64, 3)), indexed(0, 64, 0, 32, 4));
+    }
+
+    @Test
+    void blockUpdateReclassifiesHole() {
+        surround(3, 64, 3, OBSIDIAN);
+        load(0, 0);
+
+        blocks.clear(4, 64, 3);
+        HoleIndex.updateBlock(4, 64, 3);
+        assertEquals(0, HoleIndex.size());
+
+        blocks.set(4, 64, 3, BEDROCK);
+        HoleIndex.updateBlock(4, 64, 3);
+        assertEquals(LongSet.of(BlockPos.asLong(3, 64, 3)), indexed(3, 64, 3, 0, 0));
+        assertEquals(1, query(3, 64, 3).bedrock);
+
+        // The floor is the block below the hole
+        blocks.clear(3, 63, 3);
+        HoleIndex.updateBlock(3, 63, 3);
+        assertEquals(0, HoleIndex.size());
+    }
+
+    @Test
+    void blockUpdateReachesHolesTwoBlocksAway() {
+        surround(4, 64, 4, OBSIDIAN);
+        surround(5, 64, 4, OBSIDIAN);
+        blocks.clear(4, 64, 4);
+        blocks.clear(5, 64, 4);
+        load(0, 0);
+
+        assertEquals(Direction.EAST, query(4, 64, 4).air);
+
+        // The far wall of the east half is two blocks away from the west half
+        blocks.clear(6, 64, 4);
+        HoleIndex.updateBlock(6, 64, 4);
+        assertEquals(0, HoleIndex.size());
+    }
+
+    @Test
+    void radiusQuery() {
+        int[][] holes = { { 0, 64, 0 }, { 5, 64, -5 }, { -4, 66, 3 }, { 6, 64, 0 }, { 0, 67, 0 }, { -20, 64, 0 } };
+        for (int[] hole : holes) surround(hole[0], hole[1], hole[2], OBSIDIAN);
+
+        for (int cx = -2; cx <= 1; cx++) {
+            for (int cz = -1; cz <= 0; cz++) load(cx, cz);
+        }
+
+        // Inside a radius of 5 horizontally and 2 vertically, the last three are just outside of it
+        assertEquals(LongSet.of(BlockPos.asLong(0, 64, 0), BlockPos.asLong(5, 64, -5), BlockPos.asLong(-4, 66, 3)), indexed(0, 64, 0, 5, 2));
+        assertEquals(holes.length, HoleIndex.size());
+    }
+
+    @Test
+    void matchesClassifyingEverything() {
+        Random random = new Random(0);
+
+        for (int x = -8; x < 24; x++) {
+            for (int y = 60; y < 70; y++) {
+                for (int z = -8; z < 24; z++) place(random, x, y, z);
+            }
+        }
+
+        for (int cx = -1; cx <= 1; cx++) {
+            for (int cz = -1; cz <= 1; cz++) load(cx, cz);
+        }
+
+        assertTrue(HoleIndex.size() > 10, "Only " + HoleIndex.size() + " holes.");
+        assertEquals(classifyAll(), indexed(8, 64, 8, 16, 8));
+
+        for (int i = 0; i < 2000; i++) {
+            int x = random.nextInt(32) - 8, y = 60 + random.nextInt(10), z = random.nextInt(32) - 8;
+
+            place(random, x, y, z);
+            HoleIndex.updateBlock(x, y, z);
+        }
+
+        assertEquals(classifyAll(), indexed(8, 64, 8, 16, 8));
+    }
+
+    private void load(int chunkX, int chunkZ) {
+        blocks.loaded.add(ChunkPos.toLong(chunkX, chunkZ));
+        HoleIndex.updateChunk(chunkX, chunkZ);
+    }
+
+    private void unload(int chunkX, int chunkZ) {
+        blocks.loaded.remove(ChunkPos.toLong(chunkX, chunkZ));
+        HoleIndex.removeChunk(chunkX, chunkZ);
+    }
+
+    private static LongSet indexed(int x, int y, int z, int horizontalRadius, int verticalRadius) {
+        LongSet holes = new LongOpenHashSet();
+        HoleIndex.forEach(x, y, z, horizontalRadius, verticalRadius, hole -> assertTrue(holes.add(hole.pos.asLong()), "Visited twice."));
+
+        return holes;
+    }
+
+    private static HoleIndex.Hole query(int x, int y, int z) {
+        // The hole is reused between queries, but only read before the next one
+        HoleIndex.Hole[] found = new HoleIndex.Hole[1];
+        HoleIndex.forEach(x, y, z, 0, 0, hole -> found[0] = hole);
+
+        assertNotNull(found[0], "Not indexed.");
+        return found[0];
+    }
+
+    private LongSet classifyAll() {
+        LongSet holes = new LongOpenHashSet();
+
+        for (int x = -10; x < 26; x++) {
+            for (int y = 60; y < 72; y++) {
+                for (int z = -10; z < 26; z++) {
+                    if (HoleIndex.classify(x, y, z, blocks) != 0) holes.add(BlockPos.asLong(x, y, z));
+                }
+            }
+        }
+
+        return holes;
+    }
+
+    /** Mostly air with enough obsidian and bedrock for holes to form by chance. */
+    private void place(Random random, int x, int y, int z) {
+        float roll = random.nextFloat();
+
+        if (roll < 0.35f) blocks.set(x, y, z, OBSIDIAN);
+        else if (roll < 0.45f) blocks.set(x, y, z, BEDROCK);
+        else if (roll < 0.5f) blocks.setCollidable(x, y, z);
+        else blocks.clear(x, y, z);
+    }
+
+    private HoleIndex.Hole classify(int x, int y, int z) {
+        int packed = HoleIndex.classify(x, y, z, blocks);
+        assertNotEquals(0, packed, "Not a hole.");
+
+        return new HoleIndex.Hole().set(x, y, z, packed);
+    }
+
+    /** Places the floor and the four walls of a hole at the position. */
+    private void surround(int x, int y, int z, int resistance) {
+        blocks.set(x, y - 1, z, resistance);
+
+        for (Direction direction : Direction.Type.HORIZONTAL) {
+            blocks.set(x + direction.getOffsetX(), y, z + direction.getOffsetZ(), resistance);
+        }
+    }
+
+    private static class FakeBlocks implements HoleIndex.Blocks {
+        private final Long2IntMap resistances = new Long2IntOpenHashMap();
+        private final LongSet collidable = new LongOpenHashSet();
+        final LongSet loaded = new LongOpenHashSet();
+
+        void set(int x, int y, int z, int resistance) {
+            resistances.put(BlockPos.asLong(x, y, z), resistance);
+            collidable.add(BlockPos.asLong(x, y, z));
+        }
+
+        /** A solid block without any blast resistance, like dirt. */
+        void setCollidable(int x, int y, int z) {
+            resistances.remove(BlockPos.asLong(x, y, z));
+            collidable.add(BlockPos.asLong(x, y, z));
+        }
+
+        void clear(int x, int y, int z) {
+            resistances.remove(BlockPos.asLong(x, y, z));
+            collidable.remove(BlockPos.asLong(x, y, z));
+        }
+
+        @Override
+        public int getResistance(int x, int y, int z) {
+            return resistances.get(BlockPos.asLong(x, y, z));
+        }
+
+        @Override
+        public boolean isCollidable(int x, int y, int z) {
+            return collidable.contains(BlockPos.asLong(x, y, z));
+        }
+
+        @Override
+        public boolean isChunkLoaded(int chunkX, int chunkZ) {
+            return loaded.contains(ChunkPos.toLong(chunkX, chunkZ));
+        }
+
+        @Override
+        public boolean hasResistant(int chunkX, int sectionY, int chunkZ) {
+            // Only the sections around the test blocks, the rest of the world is empty
+            return isChunkLoaded(chunkX, chunkZ) && sectionY >= 3 && sectionY <= 4;
+        }
+
+        @Override
+        public int getBottomY() {
+            return -64;
+        }
+
+        @Override
+        public int getTopY() {
+            return 319;
+        }
+    }
+}